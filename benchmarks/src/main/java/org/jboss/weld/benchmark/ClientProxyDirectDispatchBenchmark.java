@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invokes methods on a client proxy, with and without {@link ConfigurationKey#PROXY_CLIENT_DIRECT_DISPATCH}. The signature of
+ * {@link Service#nonPublicSignature(Counter)} references a package-private type, so it is dispatched through the method handler unless the direct dispatch
+ * is enabled. {@link Service#publicSignature(int)} is always invoked directly. Each parameter value runs in a separate fork as the proxy class is generated
+ * only once per JVM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientProxyDirectDispatchBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean directDispatch;
+
+    private WeldContainer container;
+
+    private Service service;
+
+    private Counter counter;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        container = new Weld().disableDiscovery().addBeanClasses(Service.class)
+                .property(ConfigurationKey.PROXY_CLIENT_DIRECT_DISPATCH.get(), directDispatch).initialize();
+        service = container.select(Service.class).get();
+        counter = new Counter();
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Benchmark
+    public int publicSignature() {
+        return service.publicSignature(value++);
+    }
+
+    @Benchmark
+    public Counter nonPublicSignature() {
+        return service.nonPublicSignature(counter);
+    }
+
+    static class Counter {
+
+        private int count;
+
+    }
+
+    @ApplicationScoped
+    public static class Service {
+
+        public int publicSignature(int value) {
+            return value + 1;
+        }
+
+        public Counter nonPublicSignature(Counter counter) {
+            counter.count++;
+            return counter;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.context.spi.CreationalContext;
+
+import org.jboss.weld.context.api.ContextualInstance;
+import org.jboss.weld.contexts.CreationalContextImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates a creational context, registers the dependent instances the same way {@code DependentContextImpl} does and releases the context. Run with
+ * {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreationalContextBenchmark {
+
+    private static final Contextual<Object> BEAN = new Contextual<Object>() {
+
+        @Override
+        public Object create(CreationalContext<Object> creationalContext) {
+            return new Object();
+        }
+
+        @Override
+        public void destroy(Object instance, CreationalContext<Object> creationalContext) {
+        }
+    };
+
+    @Param({ "0", "1", "4", "16" })
+    public int dependents;
+
+    @Benchmark
+    public CreationalContextImpl<Object> createAndRelease() {
+        CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+        for (int i = 0; i < dependents; i++) {
+            CreationalContextImpl<Object> child = creationalContext.getCreationalContext(BEAN);
+            child.addDependentInstance(new SimpleContextualInstance(BEAN.create(child), child));
+        }
+        creationalContext.release();
+        return creationalContext;
+    }
+
+    @Benchmark
+    public boolean createWithoutDependents() {
+        CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+        boolean empty = true;
+        for (int i = 0; i < dependents; i++) {
+            // Dependents which need no destruction are not registered
+            CreationalContextImpl<Object> child = creationalContext.getCreationalContext(BEAN);
+            BEAN.create(child);
+            empty &= child.getDependentInstances().isEmpty();
+        }
+        creationalContext.release();
+        return empty && creationalContext.getDependentInstances().isEmpty();
+    }
+
+    private static final class SimpleContextualInstance implements ContextualInstance<Object> {
+
+        private final Object instance;
+
+        private final CreationalContext<Object> creationalContext;
+
+        private SimpleContextualInstance(Object instance, CreationalContext<Object> creationalContext) {
+            this.instance = instance;
+            this.creationalContext = creationalContext;
+        }
+
+        @Override
+        public Object getInstance() {
+            return instance;
+        }
+
+        @Override
+        public CreationalContext<Object> getCreationalContext() {
+            return creationalContext;
+        }
+
+        @Override
+        public Contextual<Object> getContextual() {
+            return BEAN;
+        }
+
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invokes methods of decorated beans, i.e. the calls go through the delegate proxies of the decorator chain. {@link Calculator#add(int)} is decorated by
+ * three decorators. {@link Calculator#negate(int)} is not implemented by any of the decorators, so each delegate proxy forwards it to the next delegate.
+ * {@link Greeter#greet(String)} of a dependent bean has a single decorator. The delegate proxies are compared with and without
+ * {@link ConfigurationKey#PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoratorChainBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean directDispatch;
+
+    private WeldContainer container;
+
+    private Calculator calculator;
+
+    private Greeter greeter;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        container = new Weld().disableDiscovery()
+                .addBeanClasses(CalculatorImpl.class, GreeterImpl.class, First.class, Second.class, Third.class, GreeterDecorator.class)
+                .decorators(First.class, Second.class, Third.class, GreeterDecorator.class)
+                .property(ConfigurationKey.PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH.get(), directDispatch).initialize();
+        calculator = container.select(Calculator.class).get();
+        greeter = container.select(Greeter.class).get();
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Benchmark
+    public int threeDecorators() {
+        return calculator.add(value++);
+    }
+
+    @Benchmark
+    public int forwardedThroughChain() {
+        return calculator.negate(value++);
+    }
+
+    @Benchmark
+    public String singleDecorator() {
+        return greeter.greet("foo");
+    }
+
+    public interface Calculator {
+
+        int add(int value);
+
+        int negate(int value);
+
+    }
+
+    public interface Greeter {
+
+        String greet(String name);
+
+    }
+
+    @ApplicationScoped
+    public static class CalculatorImpl implements Calculator {
+
+        @Override
+        public int add(int value) {
+            return value + 1;
+        }
+
+        @Override
+        public int negate(int value) {
+            return -value;
+        }
+
+    }
+
+    @Dependent
+    public static class GreeterImpl implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return "Hello " + name;
+        }
+
+    }
+
+    @Decorator
+    public abstract static class First implements Calculator {
+
+        @Inject
+        @Delegate
+        Calculator delegate;
+
+        @Override
+        public int add(int value) {
+            return delegate.add(value) + 1;
+        }
+
+    }
+
+    @Decorator
+    public abstract static class Second implements Calculator {
+
+        @Inject
+        @Delegate
+        Calculator delegate;
+
+        @Override
+        public int add(int value) {
+            return delegate.add(value) * 2;
+        }
+
+    }
+
+    @Decorator
+    public abstract static class Third implements Calculator {
+
+        @Inject
+        @Delegate
+        Calculator delegate;
+
+        @Override
+        public int add(int value) {
+            return delegate.add(value) - 1;
+        }
+
+    }
+
+    @Decorator
+    public abstract static class GreeterDecorator implements Greeter {
+
+        @Inject
+        @Delegate
+        Greeter delegate;
+
+        @Override
+        public String greet(String name) {
+            return delegate.greet(name) + "!";
+        }
+
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.jboss.arquillian.container.weld.embedded.mock.BeanDeploymentArchiveImpl;
+import org.jboss.arquillian.container.weld.embedded.mock.FlatDeployment;
+import org.jboss.arquillian.container.weld.embedded.mock.TestContainer;
+import org.jboss.weld.bootstrap.api.Environment;
+import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.ejb.api.SessionObjectReference;
+import org.jboss.weld.ejb.spi.BusinessInterfaceDescriptor;
+import org.jboss.weld.ejb.spi.EjbDescriptor;
+import org.jboss.weld.ejb.spi.EjbServices;
+import org.jboss.weld.ejb.spi.InterceptorBindings;
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invokes business methods on the client proxy of a stateless session bean, with and without {@link ConfigurationKey#PROXY_EJB_DIRECT_DISPATCH}. The EJB
+ * container is simulated by an {@link EjbServices} implementation which always returns the same business object so that only the proxy dispatch is
+ * measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EJBClientProxyBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean directDispatch;
+
+    private TestContainer container;
+
+    private CalculatorLocal calculator;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        System.setProperty(ConfigurationKey.PROXY_EJB_DIRECT_DISPATCH.get(), String.valueOf(directDispatch));
+        final BeanDeploymentArchive bda = new BeanDeploymentArchiveImpl("ejb", Calculator.class, CalculatorLocal.class) {
+            @Override
+            public Collection<EjbDescriptor<?>> getEjbs() {
+                return Collections.<EjbDescriptor<?>> singleton(new StatelessDescriptor<Calculator>(Calculator.class, CalculatorLocal.class));
+            }
+        };
+        FlatDeployment deployment = new FlatDeployment(bda) {
+            @Override
+            public BeanDeploymentArchive loadBeanDeploymentArchive(Class<?> beanClass) {
+                return bda;
+            }
+
+            @Override
+            protected void configureServices(Environment environment) {
+                super.configureServices(environment);
+                getServices().add(EjbServices.class, new SingleInstanceEjbServices());
+            }
+        };
+        container = new TestContainer(deployment).startContainer();
+        BeanManagerImpl manager = (BeanManagerImpl) container.getBeanManager(bda);
+        Bean<?> bean = manager.resolve(manager.getBeans(CalculatorLocal.class));
+        calculator = (CalculatorLocal) manager.getReference(bean, CalculatorLocal.class, manager.createCreationalContext(bean));
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.stopContainer();
+        System.clearProperty(ConfigurationKey.PROXY_EJB_DIRECT_DISPATCH.get());
+    }
+
+    @Benchmark
+    public int primitiveArguments() {
+        return calculator.add(value++, 1);
+    }
+
+    @Benchmark
+    public String referenceArgument() {
+        return calculator.echo("foo");
+    }
+
+    public interface CalculatorLocal {
+
+        int add(int a, int b);
+
+        String echo(String value);
+
+    }
+
+    public static class Calculator implements CalculatorLocal {
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public String echo(String value) {
+            return value;
+        }
+
+    }
+
+    private static class SingleInstanceEjbServices implements EjbServices {
+
+        @Override
+        public SessionObjectReference resolveEjb(EjbDescriptor<?> ejbDescriptor) {
+            final Object businessObject;
+            try {
+                businessObject = ejbDescriptor.getBeanClass().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            return new SessionObjectReference() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public <S> S getBusinessObject(Class<S> businessInterfaceType) {
+                    return businessInterfaceType.cast(businessObject);
+                }
+
+                @Override
+                public void remove() {
+                }
+
+                @Override
+                public boolean isRemoved() {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public void registerInterceptors(EjbDescriptor<?> ejbDescriptor, InterceptorBindings interceptorBindings) {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+
+    }
+
+    private static class StatelessDescriptor<T> implements EjbDescriptor<T> {
+
+        private final Class<T> beanClass;
+
+        private final Class<?> localInterface;
+
+        StatelessDescriptor(Class<T> beanClass, Class<?> localInterface) {
+            this.beanClass = beanClass;
+            this.localInterface = localInterface;
+        }
+
+        @Override
+        public Class<T> getBeanClass() {
+            return beanClass;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Collection<BusinessInterfaceDescriptor<?>> getLocalBusinessInterfaces() {
+            return Collections.<BusinessInterfaceDescriptor<?>> singleton(new BusinessInterfaceDescriptor() {
+                @Override
+                public Class getInterface() {
+                    return localInterface;
+                }
+            });
+        }
+
+        @Override
+        public Collection<BusinessInterfaceDescriptor<?>> getRemoteBusinessInterfaces() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getEjbName() {
+            return beanClass.getSimpleName();
+        }
+
+        @Override
+        public Collection<Method> getRemoveMethods() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return false;
+        }
+
+        @Override
+        public boolean isStateful() {
+            return false;
+        }
+
+        @Override
+        public boolean isMessageDriven() {
+            return false;
+        }
+
+        @Override
+        public boolean isPassivationCapable() {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.interceptor.InvocationContext;
+
+import org.jboss.weld.bean.builtin.BeanManagerProxy;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.jboss.weld.module.ejb.AbstractEJBRequestScopeActivationInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invokes a chain of nested session bean invocations through the request scope activation interceptor, i.e. every invocation but the outermost one is
+ * nested within the same container. The request context is activated once per trial so that the outermost invocation takes the "already active" path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EJBRequestScopeActivationBenchmark {
+
+    @Param({ "1", "2", "8" })
+    public int depth;
+
+    private WeldContainer container;
+
+    private RequestContextController requestContextController;
+
+    private InvocationContext invocation;
+
+    @Setup
+    public void setup() {
+        container = new Weld().disableDiscovery().initialize();
+        requestContextController = container.select(RequestContextController.class).get();
+        requestContextController.activate();
+        final Interceptor interceptor = new Interceptor(BeanManagerProxy.unwrap(container.getBeanManager()));
+        InvocationContext nested = new SimpleInvocationContext(null, null);
+        for (int i = 1; i < depth; i++) {
+            nested = new SimpleInvocationContext(interceptor, nested);
+        }
+        invocation = new SimpleInvocationContext(interceptor, nested);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestContextController.deactivate();
+        container.shutdown();
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        return invocation.proceed();
+    }
+
+    private static class Interceptor extends AbstractEJBRequestScopeActivationInterceptor {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BeanManagerImpl beanManager;
+
+        private Interceptor(BeanManagerImpl beanManager) {
+            this.beanManager = beanManager;
+        }
+
+        @Override
+        protected BeanManagerImpl getBeanManager() {
+            return beanManager;
+        }
+
+    }
+
+    private static class SimpleInvocationContext implements InvocationContext {
+
+        private final Interceptor interceptor;
+
+        private final InvocationContext next;
+
+        private final Map<String, Object> contextData;
+
+        private SimpleInvocationContext(Interceptor interceptor, InvocationContext next) {
+            this.interceptor = interceptor;
+            this.next = next;
+            this.contextData = new HashMap<String, Object>();
+        }
+
+        @Override
+        public Object getTarget() {
+            return null;
+        }
+
+        @Override
+        public Object getTimer() {
+            return null;
+        }
+
+        @Override
+        public Method getMethod() {
+            return null;
+        }
+
+        @Override
+        public Constructor<?> getConstructor() {
+            return null;
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return new Object[0];
+        }
+
+        @Override
+        public void setParameters(Object[] params) {
+        }
+
+        @Override
+        public Map<String, Object> getContextData() {
+            return contextData;
+        }
+
+        @Override
+        public Object proceed() throws Exception {
+            // Invokes the interceptor for the next session bean invocation
+            return interceptor != null ? interceptor.aroundInvoke(next) : contextData;
+        }
+
+    }
+
+}
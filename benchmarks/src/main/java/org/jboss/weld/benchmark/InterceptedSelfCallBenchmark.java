@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.benchmark;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invokes intercepted business methods, with and without a self-invocation, on a bean with a client proxy and on a dependent bean. Every outermost call
+ * starts an interception context and the self-invocation checks it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptedSelfCallBenchmark {
+
+    private WeldContainer container;
+
+    private Service service;
+
+    private DependentService dependentService;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        container = new Weld().disableDiscovery().addBeanClasses(Service.class, DependentService.class, CountingInterceptor.class)
+                .addInterceptor(CountingInterceptor.class).initialize();
+        service = container.select(Service.class).get();
+        dependentService = container.select(DependentService.class).get();
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Benchmark
+    public int interceptedCall() {
+        return service.inner(value++);
+    }
+
+    @Benchmark
+    public int interceptedSelfCall() {
+        return service.outer(value++);
+    }
+
+    @Benchmark
+    public int dependentInterceptedCall() {
+        return dependentService.inner(value++);
+    }
+
+    @Benchmark
+    public int dependentInterceptedSelfCall() {
+        return dependentService.outer(value++);
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({ TYPE, METHOD })
+    public @interface Counted {
+    }
+
+    @Counted
+    @Interceptor
+    public static class CountingInterceptor {
+
+        private int invocations;
+
+        @AroundInvoke
+        public Object count(InvocationContext ctx) throws Exception {
+            invocations++;
+            return ctx.proceed();
+        }
+
+    }
+
+    @Counted
+    @ApplicationScoped
+    public static class Service {
+
+        public int outer(int value) {
+            // Self-invocation is not intercepted
+            return inner(value) + 1;
+        }
+
+        public int inner(int value) {
+            return value + 1;
+        }
+
+    }
+
+    @Counted
+    @Dependent
+    public static class DependentService {
+
+        public int outer(int value) {
+            return inner(value) + 1;
+        }
+
+        public int inner(int value) {
+            return value + 1;
+        }
+
+    }
+
+}
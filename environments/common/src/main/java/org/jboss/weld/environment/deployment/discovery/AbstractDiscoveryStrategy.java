@@ -41,6 +41,7 @@ import org.jboss.weld.exceptions.UnsupportedOperationException;
 import org.jboss.weld.resources.spi.ClassFileServices;
 import org.jboss.weld.resources.spi.ResourceLoader;
 import org.jboss.weld.util.ServiceLoader;
+import org.jboss.weld.util.collections.ImmutableSet;
 
 /**
  *
@@ -60,6 +61,8 @@ public abstract class AbstractDiscoveryStrategy implements DiscoveryStrategy {
 
     private final List<BeanArchiveHandler> handlers;
 
+    private Set<String> indexedBeanDefiningAnnotations;
+
     /**
      *
      * @param resourceLoader
@@ -73,6 +76,20 @@ public abstract class AbstractDiscoveryStrategy implements DiscoveryStrategy {
         this.initialBeanDefiningAnnotations = initialBeanDefiningAnnotations;
     }
 
+    /**
+     * Enables the use of the bean index ({@value BeanIndex#RESOURCE_NAME}). The classes of an archive with a valid index are read from the index and the bean
+     * defining annotations are detected by means of the index. Other archives are processed by this strategy as usual.
+     *
+     * @see BeanIndexBeanArchiveHandler
+     */
+    void enableBeanIndex() {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (Class<? extends Annotation> annotation : initialBeanDefiningAnnotations) {
+            builder.add(annotation.getName());
+        }
+        this.indexedBeanDefiningAnnotations = builder.build();
+    }
+
     @Override
     public void setScanner(BeanArchiveScanner scanner) {
         this.scanner = scanner;
@@ -125,7 +142,7 @@ public abstract class AbstractDiscoveryStrategy implements DiscoveryStrategy {
                         addToArchives(archives, processAllDiscovery(builder));
                         break;
                     case ANNOTATED:
-                        addToArchives(archives, processAnnotatedDiscovery(builder));
+                        addToArchives(archives, processAnnotated(builder));
                         break;
                     case NONE:
                         addToArchives(archives, processNoneDiscovery(builder));
@@ -135,7 +152,7 @@ public abstract class AbstractDiscoveryStrategy implements DiscoveryStrategy {
                 }
             } else {
                 // A candidate for an implicit bean archive with no beans.xml
-                addToArchives(archives, processAnnotatedDiscovery(builder));
+                addToArchives(archives, processAnnotated(builder));
             }
         }
         for (WeldBeanDeploymentArchive archive : archives) {
@@ -182,6 +199,20 @@ public abstract class AbstractDiscoveryStrategy implements DiscoveryStrategy {
         return null;
     }
 
+    private WeldBeanDeploymentArchive processAnnotated(BeanArchiveBuilder builder) {
+        BeanIndex index = indexedBeanDefiningAnnotations != null ? (BeanIndex) builder.getAttribute(BeanIndex.ATTRIBUTE_NAME) : null;
+        if (index == null) {
+            return processAnnotatedDiscovery(builder);
+        }
+        // The classes are not loaded
+        for (Iterator<String> classIterator = builder.getClassIterator(); classIterator.hasNext();) {
+            if (!index.hasBeanDefiningAnnotation(classIterator.next(), indexedBeanDefiningAnnotations)) {
+                classIterator.remove();
+            }
+        }
+        return builder.build();
+    }
+
     /**
      * Process the bean archive with bean-discovery-mode of annotated.
      */
@@ -204,6 +235,11 @@ public abstract class AbstractDiscoveryStrategy implements DiscoveryStrategy {
     List<BeanArchiveHandler> initBeanArchiveHandlers() {
         List<SimpleEntry<Integer, BeanArchiveHandler>> entries = new ArrayList<>();
 
+        if (indexedBeanDefiningAnnotations != null) {
+            // The bean index takes precedence over the handlers of this strategy
+            entries.add(new SimpleEntry<>(handlers.size() + 1, new BeanIndexBeanArchiveHandler()));
+        }
+
         // Add programatically added handlers
         for (ListIterator<BeanArchiveHandler> iterator = handlers.listIterator(); iterator.hasNext();) {
             entries.add(new SimpleEntry<>(handlers.size() - iterator.nextIndex(), iterator.next()));
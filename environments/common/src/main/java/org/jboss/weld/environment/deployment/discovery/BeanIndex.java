@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.deployment.discovery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.weld.environment.index.BeanIndexFormat;
+
+/**
+ * The bean index of a bean archive, i.e. the {@value #RESOURCE_NAME} resource generated at compile time by the Weld bean index annotation processor
+ * (<code>org.jboss.weld.environment:weld-environment-index-processor</code>) in the {@link BeanIndexFormat format} shared with the processor.
+ * <p>
+ * The index lists all the classes of the archive together with their annotations so that neither the archive needs to be scanned nor the classes need to be
+ * loaded in order to find the classes with a bean defining annotation.
+ * </p>
+ *
+ * @see BeanIndexBeanArchiveHandler
+ */
+public final class BeanIndex {
+
+    public static final String RESOURCE_NAME = BeanIndexFormat.INDEX_NAME;
+
+    public static final String ATTRIBUTE_NAME = BeanIndex.class.getName();
+
+    private final String beansXmlDigest;
+
+    private final Map<String, Entry> entries;
+
+    private BeanIndex(String beansXmlDigest, Map<String, Entry> entries) {
+        this.beansXmlDigest = beansXmlDigest;
+        this.entries = entries;
+    }
+
+    /**
+     *
+     * @param in
+     * @return the index or <code>null</code> if the format of the index is not supported
+     * @throws IOException
+     */
+    static BeanIndex read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (!BeanIndexFormat.HEADER.equals(reader.readLine())) {
+            return null;
+        }
+        String beansXml = reader.readLine();
+        if (beansXml == null || !beansXml.startsWith(BeanIndexFormat.BEANS_XML_PREFIX)) {
+            return null;
+        }
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split(" ");
+            if (parts.length < 2) {
+                return null;
+            }
+            entries.put(parts[1], new Entry(parts[0], Arrays.copyOfRange(parts, 2, parts.length)));
+        }
+        return new BeanIndex(beansXml.substring(BeanIndexFormat.BEANS_XML_PREFIX.length()), entries);
+    }
+
+    /**
+     *
+     * @param in The contents of <code>beans.xml</code> or <code>null</code> if there is no <code>beans.xml</code>
+     * @return <code>true</code> if the index was generated for the given <code>beans.xml</code>, <code>false</code> otherwise
+     * @throws IOException
+     */
+    boolean matchesBeansXml(InputStream in) throws IOException {
+        if (BeanIndexFormat.UNKNOWN_BEANS_XML.equals(beansXmlDigest)) {
+            // The digest could not be computed at compile time
+            return true;
+        }
+        return beansXmlDigest.equals(in != null ? BeanIndexFormat.digest(in) : BeanIndexFormat.NO_BEANS_XML);
+    }
+
+    /**
+     *
+     * @return the names of all the indexed classes
+     */
+    public Set<String> getClasses() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     *
+     * @param className
+     * @param beanDefiningAnnotations The names of the bean defining annotations
+     * @return <code>true</code> if the given class has a bean defining annotation, <code>false</code> if not or the class is not indexed
+     */
+    public boolean hasBeanDefiningAnnotation(String className, Set<String> beanDefiningAnnotations) {
+        Entry entry = entries.get(className);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.hasFlag(BeanIndexFormat.FLAG_META_ANNOTATED)) {
+            return true;
+        }
+        for (String annotation : entry.annotations) {
+            if (beanDefiningAnnotations.contains(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanIndex [classes=" + entries.size() + ", beansXmlDigest=" + beansXmlDigest + "]";
+    }
+
+    private static final class Entry {
+
+        private final String flags;
+
+        private final String[] annotations;
+
+        private Entry(String flags, String[] annotations) {
+            this.flags = flags;
+            this.annotations = annotations;
+        }
+
+        private boolean hasFlag(char flag) {
+            return flags.indexOf(flag) != -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.deployment.discovery;
+
+import static org.jboss.weld.environment.util.URLUtils.JAR_URL_SEPARATOR;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jboss.logging.Logger;
+import org.jboss.weld.environment.index.BeanIndexFormat;
+import org.jboss.weld.environment.logging.CommonLogger;
+
+/**
+ * Uses the bean index ({@value BeanIndex#RESOURCE_NAME}) to find the classes of a JAR file or a directory. If there is no index, the index is not valid or it
+ * was not generated for the <code>beans.xml</code> of the archive, {@link #handle(String)} returns <code>null</code> and the archive is scanned by another
+ * handler.
+ * <p>
+ * The index is trusted otherwise, i.e. the archive is not enumerated. The digest of <code>beans.xml</code> stored in the index is the staleness check - an
+ * archive compiled without the bean index processor after the index was generated must be rebuilt.
+ * </p>
+ *
+ * @see BeanIndex
+ */
+public class BeanIndexBeanArchiveHandler implements BeanArchiveHandler {
+
+    private static final Logger log = Logger.getLogger(BeanIndexBeanArchiveHandler.class);
+
+    @Override
+    public BeanArchiveBuilder handle(String path) {
+        if (path.contains(JAR_URL_SEPARATOR)) {
+            // Nested archives are not supported
+            return null;
+        }
+        File file = new File(path);
+        if (!file.canRead()) {
+            return null;
+        }
+        BeanIndex index;
+        try {
+            index = file.isDirectory() ? readDirectoryIndex(file) : readFileIndex(file);
+        } catch (IOException e) {
+            CommonLogger.LOG.warnv("Cannot read bean index from: {0}", file);
+            CommonLogger.LOG.catchingDebug(e);
+            return null;
+        }
+        if (index == null) {
+            return null;
+        }
+        log.debugv("Bean index found: {0}, {1}", file, index);
+        BeanArchiveBuilder builder = new BeanArchiveBuilder().setAttribute(BeanIndex.ATTRIBUTE_NAME, index);
+        for (String className : index.getClasses()) {
+            builder.addClass(className);
+        }
+        return builder;
+    }
+
+    private BeanIndex readDirectoryIndex(File directory) throws IOException {
+        File indexFile = new File(directory, BeanIndex.RESOURCE_NAME);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        BeanIndex index;
+        try (InputStream in = new FileInputStream(indexFile)) {
+            index = BeanIndex.read(in);
+        }
+        if (index == null) {
+            CommonLogger.LOG.warnv("Bean index is not valid: {0}", indexFile);
+            return null;
+        }
+        File beansXml = new File(directory, BeanIndexFormat.BEANS_XML);
+        try (InputStream in = beansXml.isFile() ? new FileInputStream(beansXml) : null) {
+            return verify(index, in, directory);
+        }
+    }
+
+    private BeanIndex readFileIndex(File file) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry entry = zip.getEntry(BeanIndex.RESOURCE_NAME);
+            if (entry == null) {
+                return null;
+            }
+            BeanIndex index;
+            try (InputStream in = zip.getInputStream(entry)) {
+                index = BeanIndex.read(in);
+            }
+            if (index == null) {
+                CommonLogger.LOG.warnv("Bean index is not valid: {0}", file);
+                return null;
+            }
+            ZipEntry beansXml = zip.getEntry(BeanIndexFormat.BEANS_XML);
+            try (InputStream in = beansXml != null ? zip.getInputStream(beansXml) : null) {
+                return verify(index, in, file);
+            }
+        }
+    }
+
+    private BeanIndex verify(BeanIndex index, InputStream beansXml, File file) throws IOException {
+        if (index.matchesBeansXml(beansXml)) {
+            return index;
+        }
+        CommonLogger.LOG.beanIndexOutdated(file);
+        return null;
+    }
+
+}
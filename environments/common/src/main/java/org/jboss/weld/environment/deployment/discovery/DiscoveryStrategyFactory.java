@@ -41,6 +41,17 @@ public final class DiscoveryStrategyFactory {
      * @return the discovery strategy
      */
     public static DiscoveryStrategy create(ResourceLoader resourceLoader, Bootstrap bootstrap,
+        Set<Class<? extends Annotation>> initialBeanDefiningAnnotations, boolean jandexStrategyDisabled) {
+        AbstractDiscoveryStrategy strategy = createStrategy(resourceLoader, bootstrap, initialBeanDefiningAnnotations, jandexStrategyDisabled);
+        if (!resourceLoader.getResources(BeanIndex.RESOURCE_NAME).isEmpty()) {
+            // At least one bean archive was indexed at compile time - the other archives are processed by the strategy
+            CommonLogger.LOG.usingBeanIndex();
+            strategy.enableBeanIndex();
+        }
+        return strategy;
+    }
+
+    private static AbstractDiscoveryStrategy createStrategy(ResourceLoader resourceLoader, Bootstrap bootstrap,
         Set<Class<? extends Annotation>> initialBeanDefiningAnnotations, boolean jandexStrategyDisabled) {
         if (Jandex.isJandexAvailable(resourceLoader)) {
             if (jandexStrategyDisabled) {
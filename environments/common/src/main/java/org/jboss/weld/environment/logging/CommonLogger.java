@@ -159,4 +159,12 @@ public interface CommonLogger extends WeldEnvironmentLogger {
     @Message(id = 40, value = "Jandex discovery strategy was disabled.", format = Format.MESSAGE_FORMAT)
     void jandexDiscoveryStrategyDisabled();
 
+    @LogMessage(level = Level.INFO)
+    @Message(id = 41, value = "Using bean index for bean discovery of the indexed archives", format = Format.MESSAGE_FORMAT)
+    void usingBeanIndex();
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 42, value = "Bean index was not generated for the beans.xml of {0} and will be ignored - the archive is scanned instead", format = Format.MESSAGE_FORMAT)
+    void beanIndexOutdated(Object archive);
+
 }
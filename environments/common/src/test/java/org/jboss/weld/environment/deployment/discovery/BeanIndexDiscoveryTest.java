@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.deployment.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.jboss.weld.environment.deployment.WeldBeanDeploymentArchive;
+import org.jboss.weld.environment.deployment.discovery.BeanArchiveScanner.ScanResult;
+import org.jboss.weld.environment.index.BeanIndexFormat;
+import org.jboss.weld.resources.ClassLoaderResourceLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BeanIndexDiscoveryTest {
+
+    private static final String INDEX = "# Weld bean index 1\nbeans.xml -\n- com.acme.Foo javax.enterprise.context.ApplicationScoped\n- com.acme.Foo$Bar\n- com.acme.Baz\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDirectoryIndex() throws IOException {
+        // The archive is not enumerated - the classes are read from the index
+        File directory = createDirectory(INDEX);
+        BeanArchiveBuilder builder = new BeanIndexBeanArchiveHandler().handle(directory.getPath());
+        assertNotNull(builder);
+        assertNotNull(builder.getAttribute(BeanIndex.ATTRIBUTE_NAME));
+        assertEquals(set("com.acme.Foo", "com.acme.Foo$Bar", "com.acme.Baz"), getClasses(builder));
+    }
+
+    @Test
+    public void testJarIndex() throws IOException {
+        File jar = createJar(INDEX, "com/acme/Foo.class", "com/acme/Qux.class");
+        BeanArchiveBuilder builder = new BeanIndexBeanArchiveHandler().handle(jar.getPath());
+        assertNotNull(builder);
+        assertEquals(set("com.acme.Foo", "com.acme.Foo$Bar", "com.acme.Baz"), getClasses(builder));
+    }
+
+    @Test
+    public void testBeansXmlChanged() throws IOException {
+        File directory = createDirectory(INDEX, "com/acme/Foo.class", "com/acme/Foo$Bar.class", "com/acme/Baz.class");
+        write(new File(directory, BeanIndexFormat.BEANS_XML), "<beans/>");
+        assertNull(new BeanIndexBeanArchiveHandler().handle(directory.getPath()));
+    }
+
+    @Test
+    public void testBeansXmlMatches() throws IOException {
+        byte[] beansXml = "<beans/>".getBytes(StandardCharsets.UTF_8);
+        String index = INDEX.replace("beans.xml -", "beans.xml " + BeanIndexFormat.digest(new ByteArrayInputStream(beansXml)));
+        File directory = createDirectory(index);
+        write(new File(directory, BeanIndexFormat.BEANS_XML), "<beans/>");
+        assertNotNull(new BeanIndexBeanArchiveHandler().handle(directory.getPath()));
+        assertNull(new BeanIndexBeanArchiveHandler().handle(createDirectory(index).getPath()));
+    }
+
+    @Test
+    public void testStrategyIsSelectedPerArchive() throws IOException {
+        // The classes do not exist - they can only be found by means of the index
+        File indexed = createDirectory(INDEX, "com/acme/Foo.class", "com/acme/Foo$Bar.class", "com/acme/Baz.class");
+        File outdated = createDirectory(INDEX.replace("com.acme.", "org.acme."), "org/acme/Foo.class", "org/acme/Foo$Bar.class", "org/acme/Baz.class");
+        write(new File(outdated, BeanIndexFormat.BEANS_XML), "<beans/>");
+        Set<Class<? extends Annotation>> beanDefiningAnnotations = Collections.singleton(ApplicationScoped.class);
+        AbstractDiscoveryStrategy strategy = (AbstractDiscoveryStrategy) DiscoveryStrategyFactory
+                .create(new ClassLoaderResourceLoader(getClass().getClassLoader()), null, beanDefiningAnnotations, true);
+        assertTrue(strategy instanceof ReflectionDiscoveryStrategy);
+        strategy.enableBeanIndex();
+        List<BeanArchiveHandler> handlers = strategy.initBeanArchiveHandlers();
+        assertTrue(handlers.get(1) instanceof BeanIndexBeanArchiveHandler);
+        strategy.setScanner(() -> {
+            List<ScanResult> results = new ArrayList<>();
+            results.add(new ScanResult(null, indexed.getPath(), "indexed"));
+            results.add(new ScanResult(null, outdated.getPath(), "outdated"));
+            return results;
+        });
+        Set<WeldBeanDeploymentArchive> archives = strategy.performDiscovery();
+        // The outdated archive is scanned and processed by reflection - the classes cannot be loaded and the archive is empty
+        assertEquals(1, archives.size());
+        WeldBeanDeploymentArchive archive = archives.iterator().next();
+        assertEquals("indexed", archive.getId());
+        assertEquals(Collections.singleton("com.acme.Foo"), new HashSet<>(archive.getBeanClasses()));
+    }
+
+    private File createDirectory(String index, String... classFiles) throws IOException {
+        File directory = folder.newFolder();
+        write(new File(directory, BeanIndex.RESOURCE_NAME), index);
+        for (String classFile : classFiles) {
+            write(new File(directory, classFile), "");
+        }
+        return directory;
+    }
+
+    private File createJar(String index, String... classFiles) throws IOException {
+        File jar = folder.newFile("archive" + System.nanoTime() + ".jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry(BeanIndex.RESOURCE_NAME));
+            out.write(index.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            for (String classFile : classFiles) {
+                out.putNextEntry(new ZipEntry(classFile));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Set<String> getClasses(BeanArchiveBuilder builder) {
+        Set<String> classes = new HashSet<>();
+        builder.getClassIterator().forEachRemaining(classes::add);
+        return classes;
+    }
+
+    private static Set<String> set(String... values) {
+        Set<String> set = new HashSet<>();
+        Collections.addAll(set, values);
+        return set;
+    }
+
+}
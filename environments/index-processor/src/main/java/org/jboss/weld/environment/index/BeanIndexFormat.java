@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The format of the bean index ({@value #INDEX_NAME}), shared by the {@link BeanIndexProcessor} and the bean index discovery of Weld SE and Weld Servlet.
+ * <p>
+ * The index is a UTF-8 encoded text file. The first line is the {@value #HEADER header}, the second line holds the SHA-256 {@link #digest(InputStream)
+ * digest} of {@value #BEANS_XML} found in the class output ({@value #NO_BEANS_XML} if there is no such file and {@value #UNKNOWN_BEANS_XML} if the file
+ * cannot be read). Each of the following lines describes a single class:
+ * </p>
+ *
+ * <pre>
+ * &lt;flags&gt; &lt;binary name&gt; [&lt;annotation type&gt; ...]
+ * </pre>
+ * <p>
+ * The flags are {@value #FLAG_META_ANNOTATED} if a class annotation is annotated with <code>&#64;NormalScope</code> or <code>&#64;Stereotype</code> and
+ * {@value #FLAG_NONE} otherwise. The annotation types include the inherited annotations.
+ * </p>
+ */
+public final class BeanIndexFormat {
+
+    public static final String INDEX_NAME = "META-INF/weld-beans.idx";
+
+    public static final String HEADER = "# Weld bean index 1";
+
+    public static final String BEANS_XML = "META-INF/beans.xml";
+
+    public static final String BEANS_XML_PREFIX = "beans.xml ";
+
+    public static final String NO_BEANS_XML = "-";
+
+    public static final String UNKNOWN_BEANS_XML = "?";
+
+    public static final char FLAG_NONE = '-';
+
+    public static final char FLAG_META_ANNOTATED = 'B';
+
+    private BeanIndexFormat() {
+    }
+
+    /**
+     *
+     * @param in
+     * @return the hex encoded SHA-256 digest of the given stream
+     * @throws IOException
+     */
+    public static String digest(InputStream in) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates the bean index of the compiled bean archive, i.e. the {@value BeanIndexFormat#INDEX_NAME} resource. The index is used by the bean index discovery
+ * of Weld SE and Weld Servlet so that neither the archive needs to be scanned nor the class files need to be parsed during bootstrap.
+ * <p>
+ * The processor is not registered as a service and therefore must be enabled explicitly, e.g. by
+ * <code>-processor org.jboss.weld.environment.index.BeanIndexProcessor</code>. If the archive is compiled incrementally, the entries of the classes which
+ * were not compiled are taken from the index generated previously. Weld trusts the index as long as it was generated for the current <code>beans.xml</code>,
+ * i.e. an archive compiled without the processor after the index was generated must be rebuilt.
+ * </p>
+ *
+ * @see BeanIndexFormat
+ */
+@SupportedAnnotationTypes("*")
+public class BeanIndexProcessor extends AbstractProcessor {
+
+    private static final String NORMAL_SCOPE = "javax.enterprise.context.NormalScope";
+
+    private static final String STEREOTYPE = "javax.enterprise.inject.Stereotype";
+
+    // Sorted so that the index is reproducible
+    private final Map<String, String> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!entries.isEmpty()) {
+                writeIndex();
+            }
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                if (element instanceof TypeElement) {
+                    processType((TypeElement) element);
+                }
+            }
+        }
+        // Never claim the annotations
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        StringBuilder entry = new StringBuilder();
+        boolean metaAnnotated = false;
+        for (AnnotationMirror annotation : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            entry.append(' ').append(processingEnv.getElementUtils().getBinaryName(annotationType));
+            if (!metaAnnotated) {
+                metaAnnotated = isAnnotationPresent(annotationType, NORMAL_SCOPE) || isAnnotationPresent(annotationType, STEREOTYPE);
+            }
+        }
+        char flag = metaAnnotated ? BeanIndexFormat.FLAG_META_ANNOTATED : BeanIndexFormat.FLAG_NONE;
+        entries.put(processingEnv.getElementUtils().getBinaryName(type).toString(), flag + entry.toString());
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) {
+                processType((TypeElement) enclosed);
+            }
+        }
+    }
+
+    private static boolean isAnnotationPresent(Element element, String annotationTypeName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationTypeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        readPreviousEntries();
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", BeanIndexFormat.INDEX_NAME);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(BeanIndexFormat.HEADER);
+                writer.write('\n');
+                writer.write(BeanIndexFormat.BEANS_XML_PREFIX);
+                writer.write(getBeansXmlDigest());
+                writer.write('\n');
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    String value = entry.getValue();
+                    int flagsEnd = value.indexOf(' ');
+                    if (flagsEnd == -1) {
+                        flagsEnd = value.length();
+                    }
+                    writer.write(value, 0, flagsEnd);
+                    writer.write(' ');
+                    writer.write(entry.getKey());
+                    writer.write(value, flagsEnd, value.length() - flagsEnd);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING, "Unable to write the Weld bean index " + BeanIndexFormat.INDEX_NAME + ": " + e);
+        }
+    }
+
+    /**
+     * If only some of the classes are compiled, e.g. by an incremental build, the entries of the other classes are taken from the previous index.
+     */
+    private void readPreviousEntries() {
+        InputStream in;
+        try {
+            in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", BeanIndexFormat.INDEX_NAME).openInputStream();
+        } catch (IOException | IllegalArgumentException e) {
+            // There is no previous index
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (!BeanIndexFormat.HEADER.equals(reader.readLine())) {
+                return;
+            }
+            // Skip the beans.xml digest
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int flagsEnd = line.indexOf(' ');
+                if (flagsEnd == -1) {
+                    continue;
+                }
+                int nameEnd = line.indexOf(' ', flagsEnd + 1);
+                if (nameEnd == -1) {
+                    nameEnd = line.length();
+                }
+                String name = line.substring(flagsEnd + 1, nameEnd);
+                if (!entries.containsKey(name)) {
+                    entries.put(name, line.substring(0, flagsEnd) + line.substring(nameEnd));
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING, "Unable to read the previous Weld bean index " + BeanIndexFormat.INDEX_NAME + ": " + e);
+        }
+    }
+
+    private String getBeansXmlDigest() {
+        InputStream in;
+        try {
+            in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", BeanIndexFormat.BEANS_XML).openInputStream();
+        } catch (IOException | IllegalArgumentException e) {
+            // The file does not exist or the location does not support reading
+            return BeanIndexFormat.NO_BEANS_XML;
+        }
+        try (InputStream stream = in) {
+            return BeanIndexFormat.digest(stream);
+        } catch (IOException e) {
+            return BeanIndexFormat.UNKNOWN_BEANS_XML;
+        }
+    }
+
+}
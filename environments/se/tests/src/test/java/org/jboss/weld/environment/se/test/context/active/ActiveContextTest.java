@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.context.active;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ContextNotActiveException;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.context.RequestContext;
+import org.jboss.weld.context.bound.BoundLiteral;
+import org.jboss.weld.context.bound.BoundRequestContext;
+import org.jboss.weld.context.unbound.UnboundLiteral;
+import org.jboss.weld.contexts.PassivatingContextWrapper;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The active context of a scope is resolved through the per-thread registry of active contexts. The results must be the same as if all the contexts
+ * registered for the scope were checked.
+ */
+@RunWith(Arquillian.class)
+public class ActiveContextTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder().add(ShrinkWrap.create(BeanArchive.class).addClasses(ActiveContextTest.class)).build();
+    }
+
+    @Test
+    public void testNestedActivation() {
+        try (WeldContainer container = new Weld().disableDiscovery().initialize()) {
+            BeanManager beanManager = container.getBeanManager();
+            RequestContext requestContext = container.select(RequestContext.class, UnboundLiteral.INSTANCE).get();
+            BoundRequestContext boundRequestContext = container.select(BoundRequestContext.class, BoundLiteral.INSTANCE).get();
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            assertTrue(controller.activate());
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+            // Nested activation is a no-op
+            RequestContextController nested = container.select(RequestContextController.class).get();
+            assertFalse(nested.activate());
+            nested.deactivate();
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+            assertSame(requestContext, unwrap(beanManager.getContext(RequestScoped.class)));
+            controller.deactivate();
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+        }
+    }
+
+    @Test
+    public void testReentrantActivation() {
+        try (WeldContainer container = new Weld().disableDiscovery().initialize()) {
+            BeanManager beanManager = container.getBeanManager();
+            RequestContext requestContext = container.select(RequestContext.class, UnboundLiteral.INSTANCE).get();
+            BoundRequestContext boundRequestContext = container.select(BoundRequestContext.class, BoundLiteral.INSTANCE).get();
+            Map<String, Object> storage = new HashMap<>();
+
+            boundRequestContext.associate(storage);
+            boundRequestContext.activate();
+            assertSame(boundRequestContext, unwrap(beanManager.getContext(RequestScoped.class)));
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+
+            // Another request context activated while the bound one is active
+            requestContext.activate();
+            try {
+                beanManager.getContext(RequestScoped.class);
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+            requestContext.deactivate();
+            assertSame(boundRequestContext, unwrap(beanManager.getContext(RequestScoped.class)));
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+
+            // Re-activated on the same thread
+            boundRequestContext.deactivate();
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+            boundRequestContext.activate();
+            assertSame(boundRequestContext, unwrap(beanManager.getContext(RequestScoped.class)));
+            boundRequestContext.deactivate();
+            boundRequestContext.dissociate(storage);
+            assertActiveContext(beanManager, requestContext, boundRequestContext);
+        }
+    }
+
+    @Test
+    public void testRegistryClearedOnDeactivation() throws InterruptedException {
+        try (WeldContainer container = new Weld().disableDiscovery().initialize()) {
+            final BeanManager beanManager = container.getBeanManager();
+            final RequestContext requestContext = container.select(RequestContext.class, UnboundLiteral.INSTANCE).get();
+            for (int i = 0; i < 3; i++) {
+                requestContext.activate();
+                assertTrue(beanManager.isContextActive(RequestScoped.class));
+                requestContext.invalidate();
+                requestContext.deactivate();
+                assertFalse(beanManager.isContextActive(RequestScoped.class));
+                try {
+                    beanManager.getContext(RequestScoped.class);
+                    fail();
+                } catch (ContextNotActiveException expected) {
+                }
+            }
+
+            // Activation on another thread is not visible
+            requestContext.activate();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                final boolean[] active = new boolean[2];
+                executor.submit(() -> {
+                    active[0] = beanManager.isContextActive(RequestScoped.class);
+                    requestContext.activate();
+                    requestContext.deactivate();
+                    active[1] = beanManager.isContextActive(RequestScoped.class);
+                });
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+                assertFalse(active[0]);
+                assertFalse(active[1]);
+                assertTrue(beanManager.isContextActive(RequestScoped.class));
+            } finally {
+                requestContext.deactivate();
+            }
+            assertFalse(beanManager.isContextActive(RequestScoped.class));
+        }
+    }
+
+    private static void assertActiveContext(BeanManager beanManager, Context... contexts) {
+        // Find the active context the same way the bean manager does without the registry
+        Context expected = null;
+        for (Context context : contexts) {
+            if (context.isActive()) {
+                assertTrue(expected == null);
+                expected = context;
+            }
+        }
+        assertEquals(expected != null, beanManager.isContextActive(RequestScoped.class));
+        if (expected != null) {
+            assertSame(expected, unwrap(beanManager.getContext(RequestScoped.class)));
+        }
+    }
+
+    private static Context unwrap(Context context) {
+        return PassivatingContextWrapper.unwrap(context);
+    }
+
+}
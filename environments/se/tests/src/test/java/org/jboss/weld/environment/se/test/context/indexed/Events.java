@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.context.indexed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Events {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+    private Events() {
+    }
+
+    public static int nextId() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    public static void add(String event) {
+        EVENTS.add(event);
+    }
+
+    public static void reset() {
+        SEQUENCE.set(0);
+        EVENTS.clear();
+    }
+
+    /**
+     *
+     * @return the sorted events recorded since the last call, the order in which the contextual instances are destroyed is not defined
+     */
+    public static List<String> drain() {
+        List<String> result;
+        synchronized (EVENTS) {
+            result = new ArrayList<>(EVENTS);
+            EVENTS.clear();
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+}
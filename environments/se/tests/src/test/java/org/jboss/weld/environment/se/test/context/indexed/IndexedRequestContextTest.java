@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.context.indexed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.context.RequestContext;
+import org.jboss.weld.context.api.ContextualInstance;
+import org.jboss.weld.context.unbound.UnboundLiteral;
+import org.jboss.weld.contexts.AbstractUnboundContext;
+import org.jboss.weld.contexts.beanstore.BeanStore;
+import org.jboss.weld.contexts.beanstore.BeanStoreSlotIndex;
+import org.jboss.weld.contexts.beanstore.IndexedBeanStore;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The unbound request context holds the instances of the request scoped beans in the slots of an {@link IndexedBeanStore}, the instances of the custom
+ * beans without a slot are held in a map.
+ */
+@RunWith(Arquillian.class)
+public class IndexedRequestContextTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(IndexedRequestContextTest.class)).addClasses(
+                        IndexedRequestContextTest.class, Events.class, Visit.class, Token.class, TokenProducer.class, Ticket.class, TicketExtension.class))
+                .build();
+    }
+
+    @Test
+    public void testSlotsAssigned() {
+        try (WeldContainer container = weld().initialize()) {
+            BeanManager beanManager = container.getBeanManager();
+            int visitSlot = BeanStoreSlotIndex.getSlot(resolve(beanManager, Visit.class));
+            int tokenSlot = BeanStoreSlotIndex.getSlot(resolve(beanManager, Token.class));
+            assertTrue(visitSlot >= 0);
+            assertTrue(tokenSlot >= 0);
+            assertNotEquals(visitSlot, tokenSlot);
+            // A custom bean is not assigned a slot
+            assertEquals(-1, BeanStoreSlotIndex.getSlot(resolve(beanManager, Ticket.class)));
+        }
+    }
+
+    @Test
+    public void testInstancesHeldInSlots() throws Exception {
+        try (WeldContainer container = weld().initialize()) {
+            Events.reset();
+            BeanManager beanManager = container.getBeanManager();
+            RequestContext requestContext = container.select(RequestContext.class, UnboundLiteral.INSTANCE).get();
+            Visit visit = container.select(Visit.class).get();
+            Token token = container.select(Token.class).get();
+            Ticket ticket = container.select(Ticket.class).get();
+            requestContext.activate();
+            try {
+                visit.increment();
+                IndexedBeanStore beanStore = getIndexedBeanStore(requestContext);
+                assertEquals(visit.getId(), ((Visit) getSlotInstance(beanStore, beanManager, Visit.class)).getId());
+                assertEquals(token.getId(), ((Token) getSlotInstance(beanStore, beanManager, Token.class)).getId());
+                ticket.getId();
+                // The slots and the map are both visible through the context
+                assertEquals(3, requestContext.getAllContextualInstances().size());
+            } finally {
+                requestContext.invalidate();
+                requestContext.deactivate();
+            }
+            assertEquals(Arrays.asList("ticket 3 destroyed", "token 2 disposed", "visit 1 destroyed"), Events.drain());
+        }
+    }
+
+    @Test
+    public void testPropagatedInstancesHeldInSlots() throws Exception {
+        try (WeldContainer container = weld().initialize()) {
+            Events.reset();
+            BeanManager beanManager = container.getBeanManager();
+            RequestContext requestContext = container.select(RequestContext.class, UnboundLiteral.INSTANCE).get();
+            Visit visit = container.select(Visit.class).get();
+            Ticket ticket = container.select(Ticket.class).get();
+            Collection<ContextualInstance<?>> instances;
+            int visitId;
+            int ticketId;
+            requestContext.activate();
+            try {
+                visitId = visit.getId();
+                ticketId = ticket.getId();
+                instances = requestContext.getAllContextualInstances();
+            } finally {
+                requestContext.deactivate();
+            }
+            requestContext.activate();
+            try {
+                requestContext.clearAndSet(instances);
+                assertEquals(visitId, ((Visit) getSlotInstance(getIndexedBeanStore(requestContext), beanManager, Visit.class)).getId());
+                assertEquals(visitId, visit.getId());
+                assertEquals(ticketId, ticket.getId());
+            } finally {
+                requestContext.invalidate();
+                requestContext.deactivate();
+            }
+            assertEquals(Arrays.asList("ticket " + ticketId + " destroyed", "visit " + visitId + " destroyed"), Events.drain());
+        }
+    }
+
+    private static Weld weld() {
+        return new Weld().disableDiscovery().addBeanClasses(Visit.class, TokenProducer.class).addExtension(new TicketExtension());
+    }
+
+    private static Bean<?> resolve(BeanManager beanManager, Class<?> type) {
+        return beanManager.resolve(beanManager.getBeans(type));
+    }
+
+    private static Object getSlotInstance(IndexedBeanStore beanStore, BeanManager beanManager, Class<?> type) {
+        // The identifier is only used if the slot is empty
+        ContextualInstance<?> instance = beanStore.get(BeanStoreSlotIndex.getSlot(resolve(beanManager, type)), null);
+        return instance.getInstance();
+    }
+
+    private static IndexedBeanStore getIndexedBeanStore(Context context) throws Exception {
+        Method getBeanStore = AbstractUnboundContext.class.getDeclaredMethod("getBeanStore");
+        getBeanStore.setAccessible(true);
+        BeanStore beanStore = (BeanStore) getBeanStore.invoke(context);
+        assertTrue(String.valueOf(beanStore), beanStore instanceof IndexedBeanStore);
+        return (IndexedBeanStore) beanStore;
+    }
+
+}
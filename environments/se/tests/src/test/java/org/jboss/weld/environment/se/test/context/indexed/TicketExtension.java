@@ -0,0 +1,36 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.context.indexed;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterBeanDiscovery;
+import javax.enterprise.inject.spi.Extension;
+
+/**
+ * Adds a custom request scoped bean. Custom beans are not assigned a bean store slot.
+ */
+public class TicketExtension implements Extension {
+
+    void addTicket(@Observes AfterBeanDiscovery event) {
+        event.addBean().beanClass(Ticket.class).types(Ticket.class, Object.class).scope(RequestScoped.class)
+                .createWith((CreationalContext<Ticket> ctx) -> new Ticket(Events.nextId()))
+                .destroyWith((ticket, ctx) -> Events.add("ticket " + ticket.getId() + " destroyed"));
+    }
+
+}
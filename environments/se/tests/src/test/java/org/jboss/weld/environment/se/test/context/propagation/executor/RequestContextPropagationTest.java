@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.context.propagation.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ContextNotActiveException;
+import javax.enterprise.context.control.RequestContextController;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.bean.builtin.BeanManagerProxy;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.manager.api.ExecutorServices;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class RequestContextPropagationTest {
+
+    private static final int TASKS = 16;
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder().add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(RequestContextPropagationTest.class))
+                .addClasses(RequestContextPropagationTest.class, RequestCounter.class, TaskCounter.class)).build();
+    }
+
+    @Test
+    public void testConcurrentTasks() throws Exception {
+        try (WeldContainer container = startContainer("READ_ONLY")) {
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            try {
+                int requestId = container.select(RequestCounter.class).get().getId();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<int[]>> results = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    results.add(getTaskExecutor(container).submit(() -> {
+                        start.await();
+                        // TaskCounter is not propagated - all the tasks create an instance concurrently
+                        return new int[] { container.select(RequestCounter.class).get().getId(), container.select(TaskCounter.class).get().getId() };
+                    }));
+                }
+                start.countDown();
+                List<Integer> taskIds = new ArrayList<>();
+                for (Future<int[]> result : results) {
+                    int[] ids = result.get(10, TimeUnit.SECONDS);
+                    assertEquals(requestId, ids[0]);
+                    assertFalse(taskIds.contains(ids[1]));
+                    taskIds.add(ids[1]);
+                }
+                // Instances created by the tasks are destroyed when the task completes, the propagated instance is not
+                assertTrue(TaskCounter.DESTROYED.containsAll(taskIds));
+                assertFalse(RequestCounter.DESTROYED.contains(requestId));
+                // Instances created by the tasks are not visible to the caller
+                assertFalse(taskIds.contains(container.select(TaskCounter.class).get().getId()));
+            } finally {
+                controller.deactivate();
+            }
+        }
+    }
+
+    @Test
+    public void testTaskOutlivesRequest() throws Exception {
+        try (WeldContainer container = startContainer("READ_ONLY")) {
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            int requestId = container.select(RequestCounter.class).get().getId();
+            CountDownLatch requestEnded = new CountDownLatch(1);
+            Future<Integer> result = getTaskExecutor(container).submit(() -> {
+                requestEnded.await();
+                return container.select(RequestCounter.class).get().getId();
+            });
+            controller.deactivate();
+            assertTrue(RequestCounter.DESTROYED.contains(requestId));
+            requestEnded.countDown();
+            // The destroyed instance is not used anymore
+            int taskId = result.get(10, TimeUnit.SECONDS);
+            assertNotEquals(requestId, taskId);
+            assertTrue(RequestCounter.DESTROYED.contains(taskId));
+        }
+    }
+
+    @Test
+    public void testNotPropagatedByDefault() throws Exception {
+        try (WeldContainer container = startContainer("NONE")) {
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            try {
+                container.select(RequestCounter.class).get().getId();
+                getTaskExecutor(container).submit(() -> container.select(RequestCounter.class).get().getId()).get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException expected) {
+                assertTrue(expected.getCause() instanceof ContextNotActiveException);
+            } finally {
+                controller.deactivate();
+            }
+        }
+    }
+
+    private static WeldContainer startContainer(String mode) {
+        return new Weld().disableDiscovery().addBeanClasses(RequestCounter.class, TaskCounter.class)
+                .property(ConfigurationKey.EXECUTOR_REQUEST_CONTEXT_PROPAGATION.get(), mode).initialize();
+    }
+
+    private static ExecutorService getTaskExecutor(WeldContainer container) {
+        return BeanManagerProxy.unwrap(container.getBeanManager()).getServices().get(ExecutorServices.class).getTaskExecutor();
+    }
+
+}
@@ -1,6 +1,6 @@
 /*
  * JBoss, Home of Professional Open Source
- * Copyright 2008, Red Hat, Inc., and individual contributors
+ * Copyright 2018, Red Hat, Inc., and individual contributors
  * by the @authors tag. See the copyright.txt in the distribution for a
  * full listing of individual contributors.
  *
@@ -14,31 +14,31 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.jboss.weld.annotated.enhanced;
+package org.jboss.weld.environment.se.test.context.propagation.executor;
 
-import java.lang.reflect.Type;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.jboss.weld.util.LazyValueHolder;
-import org.jboss.weld.util.reflection.HierarchyDiscovery;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.RequestScoped;
 
-/**
- * {@link LazyValueHolder} that calculates a type closure. In many cases this
- * will not be needed, so computing it on demand saves memory and startup time.
- *
- * @author Stuart Douglas
- */
-public class TypeClosureLazyValueHolder extends LazyValueHolder<Set<Type>> {
+@RequestScoped
+public class RequestCounter {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    static final Set<Integer> DESTROYED = ConcurrentHashMap.newKeySet();
 
-    private final Type type;
+    private final int id = SEQUENCE.incrementAndGet();
 
-    public TypeClosureLazyValueHolder(Type type) {
-        this.type = type;
+    public int getId() {
+        return id;
     }
 
-    @Override
-    protected Set<Type> computeValue() {
-        return new HierarchyDiscovery(type).getTypeClosure();
+    @PreDestroy
+    void destroy() {
+        DESTROYED.add(id);
     }
 
 }
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.discovery.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.enterprise.inject.literal.NamedLiteral;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests that the container lifecycle events are still fired sequentially if the bean deployment archives are processed concurrently.
+ */
+@RunWith(Arquillian.class)
+public class ConcurrentBeanDeploymentArchivesTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        JavaArchive common = ShrinkWrap.create(JavaArchive.class).addClasses(ConcurrentBeanDeploymentArchivesTest.class, EventRecorder.class, Ping.class);
+        return ClassPath.builder().add(common, ShrinkWrap.create(BeanArchive.class).addClass(Alpha.class), ShrinkWrap.create(BeanArchive.class).addClass(Bravo.class),
+                ShrinkWrap.create(BeanArchive.class).addClass(Charlie.class), ShrinkWrap.create(BeanArchive.class).addClass(Delta.class)).build();
+    }
+
+    @Test
+    public void testContainerLifecycleEventsNotFiredConcurrently() {
+        EventRecorder sequential = new EventRecorder();
+        try (WeldContainer container = new Weld().addExtension(sequential).initialize()) {
+            assertVisited(container);
+        }
+        EventRecorder concurrent = new EventRecorder();
+        try (WeldContainer container = new Weld().addExtension(concurrent).property(ConfigurationKey.CONCURRENT_BEAN_DEPLOYMENT_ARCHIVES.get(), true)
+                .initialize()) {
+            assertVisited(container);
+        }
+        assertFalse(concurrent.isOverlapping());
+        assertEquals(1, concurrent.getThreads().size());
+        assertEquals(Thread.currentThread(), concurrent.getThreads().iterator().next());
+        // The same events are fired in both modes
+        List<String> expected = sequential.getEvents();
+        List<String> actual = concurrent.getEvents();
+        assertFalse(expected.isEmpty());
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    private static void assertVisited(WeldContainer container) {
+        Ping ping = new Ping();
+        container.event().select(Ping.class).fire(ping);
+        assertEquals(new HashSet<>(Arrays.asList("alpha", "bravo", "charlie", "delta")), new HashSet<>(ping.getVisited()));
+        assertEquals("alpha", container.select(String.class, NamedLiteral.of("alpha")).get());
+        assertEquals("delta", container.select(String.class, NamedLiteral.of("delta")).get());
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.discovery.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessBean;
+import javax.enterprise.inject.spi.ProcessBeanAttributes;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
+import javax.enterprise.inject.spi.ProcessInjectionTarget;
+import javax.enterprise.inject.spi.ProcessObserverMethod;
+import javax.enterprise.inject.spi.ProcessProducer;
+
+/**
+ * Records the container lifecycle events fired for the test beans and detects the events which are observed concurrently.
+ */
+public class EventRecorder implements Extension {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicBoolean overlapping = new AtomicBoolean();
+
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    void processBeanAttributes(@Observes ProcessBeanAttributes<?> event) {
+        record("PBA", event.getAnnotated().toString());
+    }
+
+    void processInjectionPoint(@Observes ProcessInjectionPoint<?, ?> event) {
+        record("PIP", event.getInjectionPoint().toString());
+    }
+
+    void processInjectionTarget(@Observes ProcessInjectionTarget<?> event) {
+        record("PIT", event.getAnnotatedType().toString());
+    }
+
+    void processProducer(@Observes ProcessProducer<?, ?> event) {
+        record("PP", event.getAnnotatedMember().toString());
+    }
+
+    void processObserverMethod(@Observes ProcessObserverMethod<?, ?> event) {
+        record("POM", event.getAnnotatedMethod().toString());
+    }
+
+    void processBean(@Observes ProcessBean<?> event) {
+        record("PB", event.getAnnotated().toString());
+    }
+
+    private void record(String event, String subject) {
+        if (!subject.contains(EventRecorder.class.getPackage().getName())) {
+            return;
+        }
+        if (inFlight.incrementAndGet() > 1) {
+            overlapping.set(true);
+        }
+        try {
+            threads.add(Thread.currentThread());
+            events.add(event + " " + subject);
+            // Widen the window for the concurrent notifications
+            Thread.yield();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    boolean isOverlapping() {
+        return overlapping.get();
+    }
+
+    Set<Thread> getThreads() {
+        return threads;
+    }
+
+    List<String> getEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.eager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class EagerInitializationTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder().add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(EagerInitializationTest.class))
+                .addClasses(EagerInitializationTest.class, Initialized.class, Alpha.class, Bravo.class, Charlie.class, Delta.class, Echo.class, Foxtrot.class,
+                        Golf.class))
+                .build();
+    }
+
+    @Test
+    public void testIndirectDependency() {
+        Initialized.reset();
+        try (WeldContainer container = startContainer(".*\\.(Alpha|Charlie)")) {
+            // Alpha -> Bravo (not selected) -> Charlie
+            assertEquals(Arrays.asList("charlie", "alpha"), Initialized.getNames());
+            assertEquals("charlie", container.select(Alpha.class).get().ping());
+            assertEquals(Arrays.asList("charlie", "alpha"), Initialized.getNames());
+        }
+    }
+
+    @Test
+    public void testCycleThroughBeansNotSelected() {
+        Initialized.reset();
+        try (WeldContainer container = startContainer(".*\\.(Delta|Foxtrot)")) {
+            // Delta -> Echo (not selected) -> Foxtrot -> Golf (not selected) -> Delta
+            assertTrue(Initialized.getNames().containsAll(Arrays.asList("delta", "foxtrot")));
+            assertEquals(2, Initialized.getNames().size());
+            assertNotNull(Initialized.getThread("delta"));
+            // The beans of a cycle are initialized by the same thread
+            assertEquals(Initialized.getThread("delta"), Initialized.getThread("foxtrot"));
+            assertEquals("delta", container.select(Foxtrot.class).get().ping());
+        }
+    }
+
+    @Test
+    public void testSameResultsAsLazyInitialization() {
+        Initialized.reset();
+        try (WeldContainer container = new Weld().disableDiscovery()
+                .addBeanClasses(Alpha.class, Bravo.class, Charlie.class, Delta.class, Echo.class, Foxtrot.class, Golf.class).initialize()) {
+            assertTrue(Initialized.getNames().isEmpty());
+            assertEquals("charlie", container.select(Alpha.class).get().ping());
+            assertEquals("delta", container.select(Foxtrot.class).get().ping());
+        }
+    }
+
+    private static WeldContainer startContainer(String eagerInitialization) {
+        return new Weld().disableDiscovery().addBeanClasses(Alpha.class, Bravo.class, Charlie.class, Delta.class, Echo.class, Foxtrot.class, Golf.class)
+                .property(ConfigurationKey.EAGER_INITIALIZATION.get(), eagerInitialization).initialize();
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.eager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the initialized beans.
+ */
+final class Initialized {
+
+    private static final List<String> NAMES = new ArrayList<>();
+
+    private static final Map<String, Thread> THREADS = new ConcurrentHashMap<>();
+
+    private Initialized() {
+    }
+
+    static void record(String name) {
+        synchronized (NAMES) {
+            NAMES.add(name);
+        }
+        THREADS.put(name, Thread.currentThread());
+    }
+
+    static List<String> getNames() {
+        synchronized (NAMES) {
+            return new ArrayList<>(NAMES);
+        }
+    }
+
+    static Thread getThread(String name) {
+        return THREADS.get(name);
+    }
+
+    static void reset() {
+        synchronized (NAMES) {
+            NAMES.clear();
+        }
+        THREADS.clear();
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.instance.select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.inject.WeldInstance;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * {@link javax.enterprise.inject.Instance#select(java.lang.annotation.Annotation...)} memoizes the child instances per required type and qualifiers
+ * and {@link javax.enterprise.inject.Instance#get()} memoizes the client proxy of a normal-scoped bean.
+ */
+@RunWith(Arquillian.class)
+public class InstanceSelectTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(InstanceSelectTest.class)).addClasses(InstanceSelectTest.class,
+                        Color.class, Color.Literal.class, Layer.class, Layer.Literal.class, Shape.class, Square.class, Circle.class, Triangle.class,
+                        Stroke.class, Drawing.class))
+                .build();
+    }
+
+    @Test
+    public void testChildInstanceIsMemoized() {
+        try (WeldContainer container = startContainer()) {
+            WeldInstance<Object> instance = container.select(Drawing.class).get().instance;
+            WeldInstance<Shape> red = instance.select(Shape.class, new Color.Literal("red"));
+            // Equal literals and the annotation obtained via reflection hit the same child instance
+            assertSame(red, instance.select(Shape.class, new Color.Literal("red")));
+            assertSame(red, instance.select(Shape.class, Square.class.getAnnotation(Color.class)));
+            assertEquals("square", red.get().getName());
+            // Another value, another type or no qualifier
+            assertNotSame(red, instance.select(Shape.class, new Color.Literal("blue")));
+            assertNotSame(red, instance.select(Square.class, new Color.Literal("red")));
+            assertNotSame(red, instance.select(Shape.class));
+            assertSame(instance.select(Shape.class), instance.select(Shape.class));
+        }
+    }
+
+    @Test
+    public void testChildInstanceIsEvictedAfterCacheOverflow() {
+        try (WeldContainer container = startContainer()) {
+            WeldInstance<Object> instance = container.select(Drawing.class).get().instance;
+            WeldInstance<Shape> red = instance.select(Shape.class, new Color.Literal("red"));
+            // More distinct selections than the memoized child instances
+            for (int i = 0; i < 100; i++) {
+                assertTrue(instance.select(Shape.class, new Color.Literal("color" + i)).isUnsatisfied());
+            }
+            WeldInstance<Shape> evicted = instance.select(Shape.class, new Color.Literal("red"));
+            assertNotSame(red, evicted);
+            assertEquals("square", evicted.get().getName());
+        }
+    }
+
+    @Test
+    public void testNonbindingMembersAreNotMemoized() {
+        try (WeldContainer container = startContainer()) {
+            WeldInstance<Object> instance = container.select(Drawing.class).get().instance;
+            WeldInstance<Stroke> first = instance.select(Stroke.class, new Layer.Literal("top", "first"));
+            WeldInstance<Stroke> second = instance.select(Stroke.class, new Layer.Literal("top", "second"));
+            assertNotSame(first, second);
+            // The child injection point keeps the non-binding values it was selected with
+            assertEquals("first", first.get().getDescription());
+            assertEquals("second", second.get().getDescription());
+        }
+    }
+
+    @Test
+    public void testClientProxyIsMemoized() {
+        try (WeldContainer container = startContainer()) {
+            Drawing drawing = container.select(Drawing.class).get();
+            WeldInstance<Shape> blue = drawing.instance.select(Shape.class, new Color.Literal("blue"));
+            Shape proxy = blue.get();
+            assertSame(proxy, blue.get());
+            // The same proxy is injected
+            assertSame(drawing.blue, proxy);
+            // Dependent instances are created on each get()
+            WeldInstance<Shape> red = drawing.instance.select(Shape.class, new Color.Literal("red"));
+            assertNotSame(red.get(), red.get());
+        }
+    }
+
+    private static WeldContainer startContainer() {
+        return new Weld().disableDiscovery().addBeanClasses(Square.class, Circle.class, Triangle.class, Stroke.class, Drawing.class).initialize();
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.lazy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The usage profile records the beans and client proxies used during the training run. A later run initializes the used application scoped beans during
+ * bootstrap and does not generate the enhanced subclass of a bean which was not used until the first instance is created. The classes are defined once per
+ * JVM, so the whole scenario is a single test.
+ */
+@RunWith(Arquillian.class)
+public class UsageProfileLazyGenerationTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(UsageProfileLazyGenerationTest.class)).addClasses(
+                        UsageProfileLazyGenerationTest.class, Traced.class, TracedInterceptor.class, Greeter.class, DecoratedGreeter.class,
+                        GreeterDecorator.class, TracedCounter.class, Unrelated.class))
+                .build();
+    }
+
+    @Test
+    public void testUnusedBeanGeneratedOnFirstInstantiation() throws IOException {
+        Path profile = Files.createTempFile("weld-usage-profile", ".txt");
+        try {
+            // Training run - only the unrelated bean is deployed and used
+            try (WeldContainer container = new Weld().disableDiscovery().addBeanClasses(Unrelated.class)
+                    .property(ConfigurationKey.USAGE_PROFILE.get(), profile.toString()).property(ConfigurationKey.USAGE_PROFILE_RECORD.get(), true)
+                    .initialize()) {
+                assertEquals("pong", container.select(Unrelated.class).get().ping());
+            }
+            List<String> lines = Files.readAllLines(profile, StandardCharsets.UTF_8);
+            assertEquals("# Weld usage profile 1", lines.get(0));
+            assertTrue(lines.toString(), isRecorded(lines, "bean", Unrelated.class));
+            assertTrue(lines.toString(), isRecorded(lines, "proxy", Unrelated.class));
+
+            Unrelated.CREATED.set(0);
+            try (WeldContainer container = new Weld().disableDiscovery()
+                    .addBeanClasses(TracedInterceptor.class, DecoratedGreeter.class, GreeterDecorator.class, TracedCounter.class, Unrelated.class)
+                    .property(ConfigurationKey.USAGE_PROFILE.get(), profile.toString()).initialize()) {
+                // The used bean is initialized during bootstrap, the unused beans are not even generated
+                assertEquals(1, Unrelated.CREATED.get());
+                assertFalse(isSubclassDefined(DecoratedGreeter.class));
+                assertFalse(isSubclassDefined(TracedCounter.class));
+
+                assertEquals("traced(Hello Joe!)", container.select(Greeter.class).get().greet("Joe"));
+                assertTrue(isSubclassDefined(DecoratedGreeter.class));
+                assertFalse(isSubclassDefined(TracedCounter.class));
+
+                assertEquals("traced(1)", container.select(TracedCounter.class).get().increment());
+                assertTrue(isSubclassDefined(TracedCounter.class));
+                assertEquals("pong", container.select(Unrelated.class).get().ping());
+                assertEquals(1, Unrelated.CREATED.get());
+            }
+        } finally {
+            Files.deleteIfExists(profile);
+        }
+    }
+
+    private static boolean isRecorded(List<String> lines, String kind, Class<?> beanClass) {
+        for (String line : lines) {
+            if (line.startsWith(kind + "\t") && line.contains(beanClass.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSubclassDefined(Class<?> beanClass) {
+        try {
+            Class.forName(beanClass.getName() + "$Proxy$_$$_WeldSubclass", false, beanClass.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.lazy.subclass;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.bean.AbstractClassBean;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * With the lazy subclass generation, the enhanced subclass of an intercepted or decorated bean is not defined before the first instance is created. The
+ * classes are defined once per JVM, so each bean class is only used by a single test method.
+ */
+@RunWith(Arquillian.class)
+public class LazySubclassGenerationTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(LazySubclassGenerationTest.class)).addClasses(
+                        LazySubclassGenerationTest.class, Audited.class, AuditInterceptor.class, Printer.class, PlainPrinter.class, PrinterDecorator.class,
+                        Ledger.class, FinalAuditedBean.class))
+                .build();
+    }
+
+    @Test
+    public void testSubclassGeneratedOnFirstInstantiation() {
+        try (WeldContainer container = new Weld().disableDiscovery()
+                .addBeanClasses(AuditInterceptor.class, PlainPrinter.class, PrinterDecorator.class, Ledger.class)
+                .property(ConfigurationKey.PROXY_LAZY_SUBCLASS_GENERATION.get(), true).initialize()) {
+            assertFalse(isSubclassDefined(PlainPrinter.class));
+            assertFalse(isSubclassDefined(Ledger.class));
+
+            // The metadata is available before the first instance is created, the method-bound interceptors are not retained
+            AbstractClassBean<?> printerBean = getBean(container.getBeanManager(), PlainPrinter.class);
+            assertEquals(PlainPrinter.class, printerBean.getBeanClass());
+            assertEquals("LazyInterceptionModel", printerBean.getInterceptors().getClass().getSimpleName());
+            assertFalse(isSubclassDefined(PlainPrinter.class));
+
+            assertEquals("audited(Hello!)", container.select(Printer.class).get().print("Hello"));
+            assertTrue(isSubclassDefined(PlainPrinter.class));
+            assertFalse(isSubclassDefined(Ledger.class));
+
+            // The client proxy does not create an instance
+            Ledger ledger = container.select(Ledger.class).get();
+            assertFalse(isSubclassDefined(Ledger.class));
+            assertEquals("audited(1)", ledger.add());
+            assertTrue(isSubclassDefined(Ledger.class));
+            assertEquals("audited(2)", ledger.add());
+        }
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testInvalidBeanFailsDeployment() {
+        // The intercepted methods are validated during bootstrap even if the enhanced subclass is generated lazily
+        try (WeldContainer container = new Weld().disableDiscovery().addBeanClasses(AuditInterceptor.class, FinalAuditedBean.class)
+                .property(ConfigurationKey.PROXY_LAZY_SUBCLASS_GENERATION.get(), true).initialize()) {
+            container.select(FinalAuditedBean.class).get().ping();
+        }
+    }
+
+    private static AbstractClassBean<?> getBean(BeanManager beanManager, Class<?> beanClass) {
+        return (AbstractClassBean<?>) beanManager.resolve(beanManager.getBeans(beanClass));
+    }
+
+    private static boolean isSubclassDefined(Class<?> beanClass) {
+        try {
+            Class.forName(beanClass.getName() + "$Proxy$_$$_WeldSubclass", false, beanClass.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.proxy.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Methods whose signatures reference non-public types are only invoked directly, i.e. not through the method handler, if the direct dispatch is enabled.
+ * A proxy class is generated once per JVM, so each mode uses its own bean class.
+ */
+@RunWith(Arquillian.class)
+public class ClientProxyDirectDispatchTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(ClientProxyDirectDispatchTest.class)).addClasses(
+                        ClientProxyDirectDispatchTest.class, Counter.class, Identity.class, AbstractService.class, DirectDispatchService.class,
+                        DefaultDispatchService.class))
+                .build();
+    }
+
+    @Test
+    public void testDirectDispatch() {
+        try (WeldContainer container = new Weld().disableDiscovery().addBeanClasses(DirectDispatchService.class)
+                .property(ConfigurationKey.PROXY_CLIENT_DIRECT_DISPATCH.get(), true).initialize()) {
+            DirectDispatchService service = container.select(DirectDispatchService.class).get();
+            Counter counter = service.create(10);
+            assertFalse(service.wasThroughMethodHandler());
+            // The argument is passed and returned as is
+            assertSame(counter, service.increment(counter));
+            assertFalse(service.wasThroughMethodHandler());
+            assertEquals(11, counter.get());
+            // The bean instance is replaced with the client proxy
+            assertSame(service, service.self());
+            assertFalse(service.wasThroughMethodHandler());
+            assertEquals(3, service.add(1, 2));
+            assertFalse(service.wasThroughMethodHandler());
+            assertEquals(4, service.calls());
+        }
+    }
+
+    @Test
+    public void testDefaultDispatch() {
+        try (WeldContainer container = new Weld().disableDiscovery().addBeanClasses(DefaultDispatchService.class).initialize()) {
+            DefaultDispatchService service = container.select(DefaultDispatchService.class).get();
+            Counter counter = service.create(10);
+            assertTrue(service.wasThroughMethodHandler());
+            assertSame(counter, service.increment(counter));
+            assertTrue(service.wasThroughMethodHandler());
+            assertSame(service, service.self());
+            assertTrue(service.wasThroughMethodHandler());
+            // Public signature
+            assertEquals(3, service.add(1, 2));
+            assertFalse(service.wasThroughMethodHandler());
+            assertEquals(4, service.calls());
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.proxy.eager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.UnproxyableResolutionException;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The client proxy classes of normal scoped beans must be defined at the end of bootstrap, before any bean is used. A proxy class is defined once per JVM,
+ * so each test method works with its own bean classes.
+ */
+@RunWith(Arquillian.class)
+public class EagerClientProxyGenerationTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(EagerClientProxyGenerationTest.class)).addClasses(
+                        EagerClientProxyGenerationTest.class, Catalog.class, Cart.class, Unproxyable.class, Wishlist.class))
+                .build();
+    }
+
+    @Test
+    public void testParallelGeneration() {
+        assertFalse(isClientProxyDefined(Cart.class));
+        assertFalse(isClientProxyDefined(Catalog.class));
+        try (WeldContainer container = new Weld().disableDiscovery().addBeanClasses(Catalog.class, Cart.class, Unproxyable.class)
+                .property(ConfigurationKey.PROXY_EAGER_GENERATION.get(), true).initialize()) {
+            assertTrue(isClientProxyDefined(Cart.class));
+            assertTrue(isClientProxyDefined(Catalog.class));
+            assertFalse(isClientProxyDefined(Unproxyable.class));
+
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            try {
+                Cart cart = container.select(Cart.class).get();
+                assertEquals(getClientProxyName(Cart.class), cart.getClass().getName());
+                assertEquals("apple 1 1", cart.add("apple"));
+            } finally {
+                controller.deactivate();
+            }
+            // The problem is reported when the proxy is needed
+            try {
+                container.select(Unproxyable.class).get().name();
+                fail();
+            } catch (UnproxyableResolutionException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testSequentialGeneration() {
+        assertFalse(isClientProxyDefined(Wishlist.class));
+        try (WeldContainer container = new Weld().disableDiscovery().addBeanClasses(Wishlist.class)
+                .property(ConfigurationKey.PROXY_EAGER_GENERATION.get(), true)
+                .property(ConfigurationKey.EXECUTOR_THREAD_POOL_TYPE.get(), "NONE").initialize()) {
+            assertTrue(isClientProxyDefined(Wishlist.class));
+            Wishlist wishlist = container.select(Wishlist.class).get();
+            assertEquals(getClientProxyName(Wishlist.class), wishlist.getClass().getName());
+            assertEquals(1, wishlist.add("pear"));
+        }
+    }
+
+    private static String getClientProxyName(Class<?> beanClass) {
+        return beanClass.getName() + "$Proxy$_$$_WeldClientProxy";
+    }
+
+    private static boolean isClientProxyDefined(Class<?> beanClass) {
+        try {
+            Class.forName(getClientProxyName(beanClass), false, beanClass.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
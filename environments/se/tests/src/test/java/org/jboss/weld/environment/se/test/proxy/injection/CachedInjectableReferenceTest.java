@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.environment.se.test.proxy.injection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.AnnotatedParameter;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.jboss.arquillian.container.se.api.ClassPath;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Field and parameter injection points build an injection plan upon the first injection. The client proxy of a normal scoped bean is obtained once and
+ * reused, a dependent bean instance is created directly and no plan shortcut is used if the injectable reference lookup optimization is enabled.
+ */
+@RunWith(Arquillian.class)
+public class CachedInjectableReferenceTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ClassPath.builder()
+                .add(ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(CachedInjectableReferenceTest.class)).addClasses(
+                        CachedInjectableReferenceTest.class, Counter.class, Hits.class, Client.class, Tool.class, Ping.class, PingObserver.class))
+                .build();
+    }
+
+    @Test
+    public void testClientProxyPlan() throws Exception {
+        try (WeldContainer container = weld().initialize()) {
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            try {
+                Counter counter = container.select(Counter.class).get();
+                Hits hits = container.select(Hits.class).get();
+                for (int i = 0; i < 3; i++) {
+                    Client client = container.select(Client.class).get();
+                    assertSame(counter, client.fieldCounter);
+                    assertSame(counter, client.initializerCounter);
+                    assertSame(hits, client.constructorHits);
+                    Ping ping = new Ping();
+                    container.getBeanManager().getEvent().select(Ping.class).fire(ping);
+                    assertEquals(2, ping.references.size());
+                    assertSame(counter, ping.references.get(0));
+                    assertSame(hits, ping.references.get(1));
+                }
+                BeanManager beanManager = container.getBeanManager();
+                assertEquals("ClientProxyPlan", getPlan(beanManager, Client.class, Counter.class, Field.class));
+                assertEquals("ClientProxyPlan", getPlan(beanManager, Client.class, Counter.class, Method.class));
+                assertEquals("ClientProxyPlan", getPlan(beanManager, Client.class, Hits.class, null));
+            } finally {
+                controller.deactivate();
+            }
+        }
+    }
+
+    @Test
+    public void testDependentInstancePlan() throws Exception {
+        try (WeldContainer container = weld().initialize()) {
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            try {
+                Instance<Client> instance = container.select(Client.class);
+                Client first = instance.get();
+                Client second = instance.get();
+                assertNotSame(first.fieldTool, second.fieldTool);
+                assertNotSame(first.initializerTool, second.initializerTool);
+                assertNotSame(first.fieldTool, first.initializerTool);
+                // The injection point metadata is still registered
+                assertEquals("fieldTool", first.fieldTool.injectionPoint.getMember().getName());
+                assertTrue(first.initializerTool.injectionPoint.getAnnotated() instanceof AnnotatedParameter);
+                assertEquals("init", first.initializerTool.injectionPoint.getMember().getName());
+                BeanManager beanManager = container.getBeanManager();
+                assertEquals("DependentInstancePlan", getPlan(beanManager, Client.class, Tool.class, Field.class));
+                assertEquals("DependentInstancePlan", getPlan(beanManager, Client.class, Tool.class, Method.class));
+                // The dependent instances are still bound to the declaring instance
+                int destroyed = Tool.DESTROYED.get();
+                instance.destroy(first);
+                assertEquals(destroyed + 2, Tool.DESTROYED.get());
+            } finally {
+                controller.deactivate();
+            }
+        }
+    }
+
+    @Test
+    public void testNoShortcutsWithLookupOptimization() throws Exception {
+        try (WeldContainer container = weld().property(ConfigurationKey.INJECTABLE_REFERENCE_OPTIMIZATION.get(), true).initialize()) {
+            RequestContextController controller = container.select(RequestContextController.class).get();
+            controller.activate();
+            try {
+                container.select(Client.class).get();
+                BeanManager beanManager = container.getBeanManager();
+                assertEquals("ResolvedBeanPlan", getPlan(beanManager, Client.class, Counter.class, Field.class));
+                assertEquals("ResolvedBeanPlan", getPlan(beanManager, Client.class, Tool.class, Field.class));
+                assertEquals("ResolvedBeanPlan", getPlan(beanManager, Client.class, Hits.class, null));
+            } finally {
+                controller.deactivate();
+            }
+        }
+    }
+
+    private static Weld weld() {
+        return new Weld().disableDiscovery().addBeanClasses(Counter.class, Hits.class, Client.class, Tool.class, PingObserver.class);
+    }
+
+    /**
+     * @param memberType the type of the injection point member, <code>null</code> for a constructor parameter
+     * @return the simple name of the injection plan class of the matching injection point of the given bean
+     */
+    private static String getPlan(BeanManager beanManager, Class<?> beanClass, Class<?> type, Class<? extends Member> memberType) throws Exception {
+        Bean<?> bean = beanManager.resolve(beanManager.getBeans(beanClass));
+        for (InjectionPoint injectionPoint : bean.getInjectionPoints()) {
+            Member member = injectionPoint.getMember();
+            boolean matches = memberType == null ? !(member instanceof Field) && !(member instanceof Method) : memberType.isInstance(member);
+            if (matches && type.equals(injectionPoint.getType())) {
+                for (Class<?> clazz = injectionPoint.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+                    try {
+                        Field plan = clazz.getDeclaredField("plan");
+                        plan.setAccessible(true);
+                        Object value = plan.get(injectionPoint);
+                        return value == null ? null : value.getClass().getSimpleName();
+                    } catch (NoSuchFieldException ignored) {
+                    }
+                }
+            }
+        }
+        fail("No injection plan for " + type + " injected into " + beanClass);
+        return null;
+    }
+
+}
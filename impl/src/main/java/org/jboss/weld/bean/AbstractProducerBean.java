@@ -177,6 +177,7 @@ public abstract class AbstractProducerBean<X, T, S extends Member> extends Abstr
      * @returns The instance
      */
     public T create(final CreationalContext<T> creationalContext) {
+        recordCreation();
         T instance = getProducer().produce(creationalContext);
         instance = checkReturnValue(instance);
         return instance;
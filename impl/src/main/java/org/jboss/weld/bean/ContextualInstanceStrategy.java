@@ -31,6 +31,7 @@ import javax.enterprise.inject.spi.BeanAttributes;
 import javax.inject.Singleton;
 
 import org.jboss.weld.contexts.cache.RequestScopedCache;
+import org.jboss.weld.contexts.state.StateLocal;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.util.collections.ImmutableSet;
 import org.jboss.weld.util.reflection.Reflections;
@@ -153,7 +154,7 @@ public abstract class ContextualInstanceStrategy<T> {
 
         private static final Set<Class<? extends Annotation>> CACHEABLE_SCOPES = ImmutableSet.of(RequestScoped.class, ConversationScoped.class,
                 SessionScoped.class);
-        private final ThreadLocal<T> cache = new ThreadLocal<T>();
+        private final StateLocal<T> cache = new StateLocal<T>();
 
         @Override
         T getIfExists(Bean<T> bean, BeanManagerImpl manager) {
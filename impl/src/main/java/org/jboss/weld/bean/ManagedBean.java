@@ -155,6 +155,7 @@ public class ManagedBean<T> extends AbstractClassBean<T> {
      */
     @Override
     public T create(CreationalContext<T> creationalContext) {
+        recordCreation();
         T instance = getProducer().produce(creationalContext);
         getProducer().inject(instance, creationalContext);
 
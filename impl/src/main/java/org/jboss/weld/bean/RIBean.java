@@ -24,9 +24,11 @@ import javax.enterprise.inject.spi.BeanAttributes;
 import javax.enterprise.inject.spi.PassivationCapable;
 
 import org.jboss.weld.bootstrap.BeanDeployerEnvironment;
+import org.jboss.weld.bootstrap.UsageProfile;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.metadata.cache.MetaAnnotationStore;
 import org.jboss.weld.resolution.QualifierInstance;
+import org.jboss.weld.resolution.QualifierInstanceIndex;
 import org.jboss.weld.serialization.spi.BeanIdentifier;
 
 /**
@@ -39,18 +41,45 @@ public abstract class RIBean<T> extends CommonBean<T> implements PassivationCapa
     protected final BeanManagerImpl beanManager;
     private boolean initialized;
     private volatile Set<QualifierInstance> qualifiers;
+    private volatile long[] qualifierBits;
     private ContextualInstanceStrategy<T> contextualInstanceStrategy;
+    // Assigned before the container is initialized, see BeanStoreSlotIndex
+    private int beanStoreSlot = -1;
+    // Only set in the recording mode
+    private final UsageProfile usageRecorder;
 
     protected RIBean(BeanAttributes<T> attributes, BeanIdentifier identifier, BeanManagerImpl beanManager) {
         super(attributes, identifier);
         this.beanManager = beanManager;
         this.contextualInstanceStrategy = ContextualInstanceStrategy.create(attributes, beanManager);
+        this.usageRecorder = UsageProfile.getRecorder(beanManager.getServices());
     }
 
     public BeanManagerImpl getBeanManager() {
         return beanManager;
     }
 
+    /**
+     *
+     * @return the slot used by {@link org.jboss.weld.contexts.beanstore.IndexedBeanStore} or <code>-1</code> if no slot is assigned
+     */
+    public int getBeanStoreSlot() {
+        return beanStoreSlot;
+    }
+
+    public void setBeanStoreSlot(int beanStoreSlot) {
+        this.beanStoreSlot = beanStoreSlot;
+    }
+
+    /**
+     * Records the creation of a contextual instance if the usage profile is being recorded.
+     */
+    protected void recordCreation() {
+        if (usageRecorder != null) {
+            usageRecorder.beanCreated(this);
+        }
+    }
+
     public abstract Class<T> getType();
 
     public Class<?> getBeanClass() {
@@ -112,6 +141,18 @@ public abstract class RIBean<T> extends CommonBean<T> implements PassivationCapa
         return qualifiers;
     }
 
+    /**
+     *
+     * @return the bitset of qualifiers
+     * @see QualifierInstanceIndex
+     */
+    public long[] getQualifierBits() {
+        if (qualifierBits == null) {
+            qualifierBits = beanManager.getServices().get(MetaAnnotationStore.class).getQualifierInstanceIndex().getBits(getQualifierInstances());
+        }
+        return qualifierBits;
+    }
+
     public ContextualInstanceStrategy<T> getContextualInstanceStrategy() {
         return contextualInstanceStrategy;
     }
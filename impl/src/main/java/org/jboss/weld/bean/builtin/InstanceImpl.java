@@ -25,6 +25,7 @@ import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Set;
@@ -50,13 +51,19 @@ import org.jboss.weld.injection.ThreadLocalStack.ThreadLocalStackReference;
 import org.jboss.weld.logging.BeanLogger;
 import org.jboss.weld.logging.BeanManagerLogger;
 import org.jboss.weld.manager.BeanManagerImpl;
+import org.jboss.weld.metadata.cache.MetaAnnotationStore;
+import org.jboss.weld.metadata.cache.QualifierModel;
 import org.jboss.weld.module.EjbSupport;
+import org.jboss.weld.proxy.WeldClientProxy;
+import org.jboss.weld.resolution.QualifierInstance;
 import org.jboss.weld.resolution.Resolvable;
 import org.jboss.weld.resolution.ResolvableBuilder;
 import org.jboss.weld.resolution.TypeSafeBeanResolver;
 import org.jboss.weld.util.AnnotationApiAbstraction;
 import org.jboss.weld.util.InjectionPoints;
 import org.jboss.weld.util.LazyValueHolder;
+import org.jboss.weld.util.cache.ComputingCache;
+import org.jboss.weld.util.cache.ComputingCacheBuilder;
 import org.jboss.weld.util.collections.WeldCollections;
 import org.jboss.weld.util.reflection.Formats;
 import org.jboss.weld.util.reflection.Reflections;
@@ -74,12 +81,22 @@ public class InstanceImpl<T> extends AbstractFacade<T, Instance<T>> implements W
 
     private static final long serialVersionUID = -376721889693284887L;
 
+    private static final long SELECT_CACHE_MAX_SIZE = 32;
+
     private final transient Set<Bean<?>> allBeans;
     private final transient Bean<?> bean;
 
+    // The client proxy of a resolved normal-scoped bean is always the same
+    private final transient boolean isClientProxyCacheable;
+    private transient volatile T clientProxy;
+
+    // Child instances are created lazily and memoized per required type and qualifiers
+    private transient volatile ComputingCache<SelectKey, InstanceImpl<?>> selectCache;
+
     private final transient CurrentInjectionPoint currentInjectionPoint;
     private final transient InjectionPoint ip;
     private final transient EjbSupport ejbSupport;
+    private final transient MetaAnnotationStore metaAnnotationStore;
 
     public static <I> Instance<I> of(InjectionPoint injectionPoint, CreationalContext<I> creationalContext, BeanManagerImpl beanManager) {
         return new InstanceImpl<I>(injectionPoint, creationalContext, beanManager);
@@ -107,11 +124,21 @@ public class InstanceImpl<T> extends AbstractFacade<T, Instance<T>> implements W
         // qualifiers and type
         this.ip = new DynamicLookupInjectionPoint(getInjectionPoint(), getType(), getQualifiers());
         this.ejbSupport = beanManager.getServices().get(EjbSupport.class);
+        this.metaAnnotationStore = beanManager.getServices().get(MetaAnnotationStore.class);
+        this.isClientProxyCacheable = bean != null && beanManager.isNormalScope(bean.getScope());
     }
 
     public T get() {
+        T proxy = clientProxy;
+        if (proxy != null) {
+            return proxy;
+        }
         checkBeanResolved();
-        return getBeanInstance(bean);
+        T instance = getBeanInstance(bean);
+        if (isClientProxyCacheable && instance instanceof WeldClientProxy) {
+            clientProxy = instance;
+        }
+        return instance;
     }
 
     /**
@@ -161,9 +188,33 @@ public class InstanceImpl<T> extends AbstractFacade<T, Instance<T>> implements W
     }
 
     private <U extends T> WeldInstance<U> selectInstance(Type subtype, Annotation[] newQualifiers) {
+        Annotation[] qualifiers = newQualifiers.clone();
+        QualifierInstance[] qualifierInstances = new QualifierInstance[qualifiers.length];
+        for (int i = 0; i < qualifiers.length; i++) {
+            QualifierModel<?> model = metaAnnotationStore.getBindingTypeModel(qualifiers[i].annotationType());
+            if (!model.isValid() || model.hasNonBindingMembers()) {
+                // Invalid qualifiers are reported when the child instance is created
+                // Qualifiers which only differ in non-binding members are equal but the child injection point must keep the original values
+                return cast(createChildInstance(subtype, qualifiers));
+            }
+            qualifierInstances[i] = metaAnnotationStore.getQualifierInstance(qualifiers[i]);
+        }
+        ComputingCache<SelectKey, InstanceImpl<?>> cache = selectCache;
+        if (cache == null) {
+            cache = ComputingCacheBuilder.newBuilder().setMaxSize(SELECT_CACHE_MAX_SIZE).build(this::createChildInstance);
+            selectCache = cache;
+        }
+        return cache.getCastValue(new SelectKey(subtype, qualifiers, qualifierInstances));
+    }
+
+    private InstanceImpl<?> createChildInstance(SelectKey key) {
+        return createChildInstance(key.type, key.qualifiers);
+    }
+
+    private InstanceImpl<?> createChildInstance(Type subtype, Annotation[] qualifiers) {
         InjectionPoint modifiedInjectionPoint = new FacadeInjectionPoint(getBeanManager(), getInjectionPoint(), Instance.class, subtype, getQualifiers(),
-                newQualifiers);
-        return new InstanceImpl<U>(modifiedInjectionPoint, getCreationalContext(), getBeanManager());
+                qualifiers);
+        return new InstanceImpl<>(modifiedInjectionPoint, getCreationalContext(), getBeanManager());
     }
 
     @Override
@@ -294,6 +345,47 @@ public class InstanceImpl<T> extends AbstractFacade<T, Instance<T>> implements W
 
     }
 
+    /**
+     * The required type and qualifiers of a selected child instance. The qualifiers are compared as {@link QualifierInstance}s so that the reflective
+     * {@link Annotation#equals(Object)} and {@link Annotation#hashCode()} of annotation literals and proxies are never invoked.
+     */
+    private static final class SelectKey {
+
+        private final Type type;
+
+        // Only used to create the child instance
+        private final Annotation[] qualifiers;
+
+        private final QualifierInstance[] qualifierInstances;
+
+        private final int hashCode;
+
+        private SelectKey(Type type, Annotation[] qualifiers, QualifierInstance[] qualifierInstances) {
+            this.type = type;
+            this.qualifiers = qualifiers;
+            this.qualifierInstances = qualifierInstances;
+            this.hashCode = 31 * type.hashCode() + Arrays.hashCode(qualifierInstances);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof SelectKey) {
+                SelectKey that = (SelectKey) obj;
+                return type.equals(that.type) && Arrays.equals(qualifierInstances, that.qualifierInstances);
+            }
+            return false;
+        }
+
+    }
+
     abstract class BeanIterator<TYPE> implements Iterator<TYPE> {
 
         protected final Iterator<Bean<?>> delegate;
@@ -34,6 +34,8 @@ import org.jboss.classfilewriter.code.BranchEnd;
 import org.jboss.classfilewriter.code.CodeAttribute;
 import org.jboss.weld.Container;
 import org.jboss.weld.bean.proxy.util.SerializableClientProxy;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
 import org.jboss.weld.exceptions.WeldException;
 import org.jboss.weld.proxy.WeldClientProxy;
 import org.jboss.weld.serialization.spi.BeanIdentifier;
@@ -45,6 +47,10 @@ import org.jboss.weld.util.bytecode.MethodInformation;
 /**
  * Proxy factory that generates client proxies, it uses optimizations that
  * are not valid for other proxy types.
+ * <p/>
+ * Public methods are invoked on the contextual instance directly, using generated bytecode. If {@link ConfigurationKey#PROXY_CLIENT_DIRECT_DISPATCH} is
+ * enabled, this also applies to public methods whose signatures reference non-public types. All other methods are dispatched through
+ * {@link ProxyMethodHandler}.
  *
  * @author Stuart Douglas
  * @author Marius Bogoevici
@@ -69,12 +75,16 @@ public class ClientProxyFactory<T> extends ProxyFactory<T> {
 
     private final BeanIdentifier beanId;
 
+    private final boolean directDispatch;
+
     private volatile Field beanIdField;
     private volatile Field contextIdField;
 
     public ClientProxyFactory(String contextId, Class<?> proxiedBeanType, Set<? extends Type> typeClosure, Bean<?> bean) {
         super(contextId, proxiedBeanType, typeClosure, bean);
         beanId = Container.instance(contextId).services().get(ContextualStore.class).putIfAbsent(bean);
+        directDispatch = Container.instance(contextId).services().get(WeldConfiguration.class)
+                .getBooleanProperty(ConfigurationKey.PROXY_CLIENT_DIRECT_DISPATCH);
     }
 
     @Override
@@ -171,17 +181,7 @@ public class ClientProxyFactory<T> extends ProxyFactory<T> {
     @Override
     protected void createForwardingMethodBody(ClassMethod classMethod, final MethodInformation methodInfo, ClassMethod staticConstructor) {
         final Method method = methodInfo.getMethod();
-        // we can only use bytecode based invocation for some methods
-        // at the moment we restrict it solely to public methods with public
-        // return and parameter types
-        boolean bytecodeInvocationAllowed = Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getReturnType().getModifiers());
-        for (Class<?> paramType : method.getParameterTypes()) {
-            if (!Modifier.isPublic(paramType.getModifiers())) {
-                bytecodeInvocationAllowed = false;
-                break;
-            }
-        }
-        if (!bytecodeInvocationAllowed) {
+        if (!isBytecodeInvocationAllowed(method)) {
             createInterceptorBody(classMethod, methodInfo, staticConstructor);
             return;
         }
@@ -215,6 +215,20 @@ public class ClientProxyFactory<T> extends ProxyFactory<T> {
                 // if this method returns a primitive we just return
                 if (method.getReturnType().isPrimitive()) {
                     b.returnInstruction();
+                } else if (!Modifier.isPublic(method.getReturnType().getModifiers())) {
+                    // the return type is not accessible and so we cannot use checkcast
+                    if (isAssignableFromProxy(method.getReturnType())) {
+                        // the same as below - return the proxy instead of the bean instance
+                        b.dupX1();
+                        final BranchEnd returnInstruction = b.ifAcmpeq();
+                        b.returnInstruction();
+                        b.branchEnd(returnInstruction);
+                        b.aload(0);
+                        b.returnInstruction();
+                    } else {
+                        // the proxy cannot be returned instead of the bean instance, see also ProxyMethodHandler
+                        b.returnInstruction();
+                    }
                 } else {
                     // otherwise we have to check that the proxy is not returning 'this;
                     // now we need to check if the proxy has return 'this' and if so return
@@ -241,6 +255,41 @@ public class ClientProxyFactory<T> extends ProxyFactory<T> {
         }.runStartIfNotEmpty();
     }
 
+    /**
+     * We can only use bytecode based invocation for some methods. By default, we restrict it solely to public methods with public return and parameter
+     * types. In the direct dispatch mode, the types referenced in the signature of a public method do not need to be public as the JVM does not check the
+     * accessibility of types used in a method descriptor.
+     */
+    private boolean isBytecodeInvocationAllowed(Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        if (directDispatch) {
+            return true;
+        }
+        if (!Modifier.isPublic(method.getReturnType().getModifiers())) {
+            return false;
+        }
+        for (Class<?> paramType : method.getParameterTypes()) {
+            if (!Modifier.isPublic(paramType.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAssignableFromProxy(Class<?> type) {
+        if (type.isAssignableFrom(getBeanType())) {
+            return true;
+        }
+        for (Class<?> additionalInterface : getAdditionalInterfaces()) {
+            if (type.isAssignableFrom(additionalInterface)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void loadBeanInstance(ClassFile file, MethodInformation methodInfo, CodeAttribute b) {
         b.aload(0);
         getMethodHandlerField(file, b);
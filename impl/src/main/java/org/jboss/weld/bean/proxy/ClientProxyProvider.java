@@ -24,6 +24,7 @@ import javax.enterprise.inject.spi.Bean;
 
 import org.jboss.weld.Container;
 import org.jboss.weld.bean.RIBean;
+import org.jboss.weld.bootstrap.UsageProfile;
 import org.jboss.weld.bootstrap.api.ServiceRegistry;
 import org.jboss.weld.logging.BeanLogger;
 import org.jboss.weld.serialization.spi.BeanIdentifier;
@@ -204,6 +205,10 @@ public class ClientProxyProvider {
         TypeInfo typeInfo = TypeInfo.of(types);
         T proxy = new ClientProxyFactory<T>(contextId, typeInfo.getSuperClass(), types, bean).create(beanInstance);
         BeanLogger.LOG.createdNewClientProxyType(proxy.getClass(), bean, id);
+        UsageProfile usageRecorder = UsageProfile.getRecorder(services());
+        if (usageRecorder != null) {
+            usageRecorder.clientProxyCreated(bean);
+        }
         return proxy;
     }
 
@@ -243,6 +248,17 @@ public class ClientProxyProvider {
     }
 
 
+    /**
+     * Generates the client proxy for the given bean unless it already exists. Unlike {@link #getClientProxy(Bean)}, this method does not fail if the bean is
+     * not proxyable.
+     *
+     * @param bean
+     * @return <code>true</code> if the client proxy exists, <code>false</code> if the bean is not proxyable
+     */
+    public boolean generateClientProxy(Bean<?> bean) {
+        return beanTypeClosureProxyPool.getValue(Reflections.<Bean<Object>> cast(bean)) != BEAN_NOT_PROXYABLE_MARKER;
+    }
+
     /**
      * Gets a string representation
      *
@@ -29,6 +29,7 @@ import org.jboss.weld.Container;
 import org.jboss.weld.bean.ContextualInstance;
 import org.jboss.weld.contexts.CreationalContextImpl;
 import org.jboss.weld.contexts.WeldCreationalContext;
+import org.jboss.weld.contexts.state.StateLocal;
 import org.jboss.weld.injection.CurrentInjectionPoint;
 import org.jboss.weld.injection.EmptyInjectionPoint;
 import org.jboss.weld.injection.ThreadLocalStack.ThreadLocalStackReference;
@@ -61,7 +62,7 @@ public class ContextBeanInstance<T> extends AbstractBeanInstance implements Seri
     private final transient BeanManagerImpl manager;
     private final transient CurrentInjectionPoint currentInjectionPoint;
 
-    private static final ThreadLocal<WeldCreationalContext<?>> currentCreationalContext = new ThreadLocal<WeldCreationalContext<?>>();
+    private static final StateLocal<WeldCreationalContext<?>> currentCreationalContext = new StateLocal<WeldCreationalContext<?>>();
 
 
     /**
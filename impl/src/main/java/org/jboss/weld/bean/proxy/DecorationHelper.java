@@ -19,6 +19,7 @@ package org.jboss.weld.bean.proxy;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Stack;
@@ -29,6 +30,7 @@ import javax.enterprise.inject.spi.Decorator;
 import javax.enterprise.inject.spi.InjectionPoint;
 
 import org.jboss.weld.contexts.SerializableContextualInstanceImpl;
+import org.jboss.weld.contexts.state.StateLocal;
 import org.jboss.weld.exceptions.DefinitionException;
 import org.jboss.weld.logging.BeanLogger;
 import org.jboss.weld.manager.BeanManagerImpl;
@@ -40,14 +42,14 @@ import org.jboss.weld.util.reflection.Reflections;
  * @author Ales Justin
  */
 public class DecorationHelper<T> implements PrivilegedAction<T> {
-    private static ThreadLocal<Stack<DecorationHelper<?>>> helperStackHolder = new ThreadLocal<Stack<DecorationHelper<?>>>() {
+    private static StateLocal<Stack<DecorationHelper<?>>> helperStackHolder = new StateLocal<Stack<DecorationHelper<?>>>() {
         @Override
         protected Stack<DecorationHelper<?>> initialValue() {
             return new Stack<DecorationHelper<?>>();
         }
     };
 
-    private final Class<T> proxyClassForDecorator;
+    private final List<Class<T>> proxyClassesForDecorators;
 
     private final TargetBeanInstance targetBeanInstance;
 
@@ -65,12 +67,26 @@ public class DecorationHelper<T> implements PrivilegedAction<T> {
     List<Decorator<?>> decorators;
 
     public DecorationHelper(TargetBeanInstance originalInstance, Bean<?> bean, Class<T> proxyClassForDecorator, BeanManagerImpl beanManager, ContextualStore contextualStore, List<Decorator<?>> decorators) {
+        this(originalInstance, bean, Collections.nCopies(decorators.size(), proxyClassForDecorator), beanManager, contextualStore, decorators);
+    }
+
+    /**
+     *
+     * @param originalInstance
+     * @param bean
+     * @param proxyClassesForDecorators The proxy classes used for the delegates, one for each decorator in the same order
+     * @param beanManager
+     * @param contextualStore
+     * @param decorators
+     * @see DecoratorChainProxyFactory
+     */
+    public DecorationHelper(TargetBeanInstance originalInstance, Bean<?> bean, List<Class<T>> proxyClassesForDecorators, BeanManagerImpl beanManager, ContextualStore contextualStore, List<Decorator<?>> decorators) {
         this.originalInstance = Reflections.<T>cast(originalInstance.getInstance());
         this.targetBeanInstance = originalInstance;
         this.beanManager = beanManager;
         this.contextualStore = contextualStore;
         this.decorators = new LinkedList<Decorator<?>>(decorators);
-        this.proxyClassForDecorator = proxyClassForDecorator;
+        this.proxyClassesForDecorators = proxyClassesForDecorators;
         this.bean = bean;
         this.instantiator = beanManager.getServices().get(ProxyInstantiator.class);
         counter = 0;
@@ -123,7 +139,7 @@ public class DecorationHelper<T> implements PrivilegedAction<T> {
     @Override
     public T run() {
         try {
-            return instantiator.newInstance(proxyClassForDecorator);
+            return instantiator.newInstance(proxyClassesForDecorators.get(counter));
         } catch (InstantiationException e) {
             throw new DefinitionException(BeanLogger.LOG.proxyInstantiationFailed(this), e.getCause());
         } catch (IllegalAccessException e) {
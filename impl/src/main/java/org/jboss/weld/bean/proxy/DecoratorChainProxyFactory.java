@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.bean.proxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.Decorator;
+import javax.inject.Inject;
+
+import org.jboss.classfilewriter.ClassMethod;
+import org.jboss.classfilewriter.code.BranchEnd;
+import org.jboss.classfilewriter.code.CodeAttribute;
+import org.jboss.classfilewriter.util.DescriptorUtils;
+import org.jboss.weld.annotated.runtime.InvokableAnnotatedMethod;
+import org.jboss.weld.Container;
+import org.jboss.weld.bean.WeldDecorator;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
+import org.jboss.weld.util.bytecode.MethodInformation;
+import org.jboss.weld.util.bytecode.RuntimeMethodInformation;
+import org.jboss.weld.util.collections.ImmutableList;
+
+/**
+ * Generates the delegate proxies which form the decorator chain of a decorated bean. Each proxy class is generated for a particular decorator - a proxy instance
+ * is injected into the delegate injection point of the previous decorator in the chain.
+ * <p>
+ * Unlike the generic proxy used for all the decorators of a bean, the methods of a decorated type invoke the decorator instance or the next delegate directly,
+ * i.e. without the {@link DecoratorProxyMethodHandler} lookup and reflective invocation. Methods which cannot be invoked directly (e.g. a decorated type is
+ * not public) are still forwarded to the method handler. The proxies are only generated if {@link ConfigurationKey#PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH} is
+ * enabled.
+ * </p>
+ *
+ * @param <T>
+ * @see DecorationHelper
+ * @see DecoratorProxyMethodHandler
+ */
+public class DecoratorChainProxyFactory<T> extends ProxyFactory<T> {
+
+    public static final String PROXY_SUFFIX = "DecoratorChain";
+
+    private final WeldDecorator<?> decorator;
+
+    private final String proxyNameSuffix;
+
+    private DecoratorChainProxyFactory(String contextId, Class<?> proxiedBeanType, Bean<?> bean, WeldDecorator<?> decorator, int position) {
+        super(contextId, proxiedBeanType, bean.getTypes(), bean, true);
+        this.decorator = decorator;
+        // Each decorator of the bean has its own proxy class
+        this.proxyNameSuffix = PROXY_SUFFIX + position + "$" + sanitize(decorator.getBeanClass().getName()) + "$";
+    }
+
+    /**
+     * The dots are replaced with underscores and an underscore is escaped with <code>_1</code>. A part of a class name never starts with a digit so that
+     * the result is unique for each class name.
+     *
+     * @param className
+     * @return the class name which may be used as a part of a simple class name
+     */
+    static String sanitize(String className) {
+        StringBuilder builder = new StringBuilder(className.length() + 8);
+        for (int i = 0; i < className.length(); i++) {
+            char c = className.charAt(i);
+            if (c == '.') {
+                builder.append('_');
+            } else if (c == '_') {
+                builder.append("_1");
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     *
+     * @param contextId
+     * @param proxiedBeanType
+     * @param bean
+     * @param decorators
+     * @param defaultProxyClass The proxy class used for decorators which are not {@link WeldDecorator}s
+     * @return the list of proxy classes, one for each decorator in the same order
+     */
+    public static <T> List<Class<T>> createProxyClasses(String contextId, Class<?> proxiedBeanType, Bean<?> bean, List<Decorator<?>> decorators,
+            Class<T> defaultProxyClass) {
+        return getProxyClasses(createProxyFactories(contextId, proxiedBeanType, bean, decorators), defaultProxyClass);
+    }
+
+    /**
+     * Creates the factories without generating the proxy classes so that the proxy classes may be generated later, see
+     * {@link #getProxyClasses(List, Class)}.
+     *
+     * @param contextId
+     * @param proxiedBeanType
+     * @param bean
+     * @param decorators
+     * @return the list of factories, one for each decorator in the same order, the element is <code>null</code> for a decorator which is not a
+     *         {@link WeldDecorator} or for all the decorators unless {@link ConfigurationKey#PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH} is enabled
+     */
+    public static <T> List<DecoratorChainProxyFactory<T>> createProxyFactories(String contextId, Class<?> proxiedBeanType, Bean<?> bean,
+            List<Decorator<?>> decorators) {
+        if (!Container.instance(contextId).services().get(WeldConfiguration.class)
+                .getBooleanProperty(ConfigurationKey.PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH)) {
+            // All the delegates share the default proxy class
+            return Collections.nCopies(decorators.size(), null);
+        }
+        List<DecoratorChainProxyFactory<T>> factories = new ArrayList<DecoratorChainProxyFactory<T>>(decorators.size());
+        for (int i = 0; i < decorators.size(); i++) {
+            Decorator<?> decorator = decorators.get(i);
+            factories.add(decorator instanceof WeldDecorator<?> ? new DecoratorChainProxyFactory<T>(contextId, proxiedBeanType, bean, (WeldDecorator<?>) decorator, i)
+                    : null);
+        }
+        return Collections.unmodifiableList(factories);
+    }
+
+    /**
+     *
+     * @param factories The factories created by {@link #createProxyFactories(String, Class, Bean, List)}
+     * @param defaultProxyClass The proxy class used for decorators which are not {@link WeldDecorator}s
+     * @return the list of proxy classes, one for each decorator in the same order
+     */
+    public static <T> List<Class<T>> getProxyClasses(List<DecoratorChainProxyFactory<T>> factories, Class<T> defaultProxyClass) {
+        ImmutableList.Builder<Class<T>> builder = ImmutableList.builder();
+        for (DecoratorChainProxyFactory<T> factory : factories) {
+            builder.add(factory != null ? factory.getProxyClass() : defaultProxyClass);
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected String getProxyNameSuffix() {
+        return proxyNameSuffix;
+    }
+
+    @Override
+    protected void createForwardingMethodBody(ClassMethod classMethod, MethodInformation method, ClassMethod staticConstructor) {
+        if (!createDirectInvocationBody(classMethod, method.getMethod())) {
+            super.createForwardingMethodBody(classMethod, method, staticConstructor);
+        }
+    }
+
+    @Override
+    protected void createSpecialMethodBody(ClassMethod classMethod, MethodInformation method, ClassMethod staticConstructor) {
+        if (!createDirectInvocationBody(classMethod, method.getMethod())) {
+            super.createSpecialMethodBody(classMethod, method, staticConstructor);
+        }
+    }
+
+    /**
+     * If the decorator declares a matching decorated method, the method of the decorated type is invoked on the decorator instance. Otherwise, the method is
+     * invoked on the next delegate in the chain. This is what {@link DecoratorProxyMethodHandler} does at runtime.
+     *
+     * @param classMethod
+     * @param method
+     * @return <code>true</code> if the body was created, <code>false</code> if the method must be forwarded to the method handler
+     */
+    private boolean createDirectInvocationBody(ClassMethod classMethod, Method method) {
+        if (method == null || Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass().equals(Object.class)
+                || method.isAnnotationPresent(Inject.class)) {
+            return false;
+        }
+        InvokableAnnotatedMethod<?> decoratorMethod = decorator.getDecoratorMethod(method);
+        Method invokedMethod;
+        String helperMethodName;
+        if (decoratorMethod != null) {
+            invokedMethod = decoratorMethod.getJavaMember();
+            if (!invokedMethod.getDeclaringClass().isInterface() || !invokedMethod.getDeclaringClass().isAssignableFrom(getProxiedBeanType())) {
+                return false;
+            }
+            helperMethodName = "getDecoratorInstance";
+        } else {
+            invokedMethod = method;
+            helperMethodName = "getNextDelegate";
+        }
+        if (!isInvocationAllowed(method, invokedMethod)) {
+            return false;
+        }
+        final CodeAttribute b = classMethod.getCodeAttribute();
+        final MethodInformation invokedMethodInfo = new RuntimeMethodInformation(invokedMethod);
+        // load the decorator instance or the next delegate
+        b.aload(0);
+        getMethodHandlerField(classMethod.getClassFile(), b);
+        b.invokestatic(DecoratorProxyMethodHandler.class.getName(), helperMethodName, "(" + DescriptorUtils.makeDescriptor(MethodHandler.class) + ")" + LJAVA_LANG_OBJECT);
+        b.checkcast(invokedMethodInfo.getDeclaringClass());
+        b.loadMethodParameters();
+        if (invokedMethod.getDeclaringClass().isInterface()) {
+            b.invokeinterface(invokedMethodInfo.getDeclaringClass(), invokedMethodInfo.getName(), invokedMethodInfo.getDescriptor());
+        } else {
+            b.invokevirtual(invokedMethodInfo.getDeclaringClass(), invokedMethodInfo.getName(), invokedMethodInfo.getDescriptor());
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType.isPrimitive()) {
+            b.returnInstruction();
+            return true;
+        }
+        if (!returnType.equals(invokedMethod.getReturnType())) {
+            b.checkcast(returnType);
+        }
+        if (isAssignableFromProxy(returnType)) {
+            // if the method returns the bean instance, return the proxy instead - see also ProxyMethodHandler
+            b.dup();
+            b.aload(0);
+            getMethodHandlerField(classMethod.getClassFile(), b);
+            b.checkcast(ProxyMethodHandler.class);
+            b.invokevirtual(ProxyMethodHandler.class.getName(), "getInstance", "()" + LJAVA_LANG_OBJECT);
+            final BranchEnd returnResult = b.ifAcmpne();
+            b.pop();
+            b.aload(0);
+            b.returnInstruction();
+            b.branchEnd(returnResult);
+        }
+        b.returnInstruction();
+        return true;
+    }
+
+    private boolean isInvocationAllowed(Method method, Method invokedMethod) {
+        Class<?> declaringClass = invokedMethod.getDeclaringClass();
+        if (!Modifier.isPublic(declaringClass.getModifiers()) || !Modifier.isPublic(invokedMethod.getModifiers())
+                || Modifier.isStatic(invokedMethod.getModifiers())) {
+            return false;
+        }
+        if (!declaringClass.isInterface() && !declaringClass.isAssignableFrom(getBeanType())) {
+            return false;
+        }
+        // The parameters of the proxy method must be assignable to the parameters of the invoked method
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?>[] invokedParameterTypes = invokedMethod.getParameterTypes();
+        if (parameterTypes.length != invokedParameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive() || invokedParameterTypes[i].isPrimitive() ? !parameterTypes[i].equals(invokedParameterTypes[i])
+                    : !invokedParameterTypes[i].isAssignableFrom(parameterTypes[i])) {
+                return false;
+            }
+        }
+        // The result of the invoked method must be returned by the proxy method
+        Class<?> returnType = method.getReturnType();
+        Class<?> invokedReturnType = invokedMethod.getReturnType();
+        if (returnType.isPrimitive() || invokedReturnType.isPrimitive()) {
+            return returnType.equals(invokedReturnType);
+        }
+        return returnType.equals(invokedReturnType) || (Modifier.isPublic(returnType.getModifiers()) && !returnType.isArray());
+    }
+
+    private boolean isAssignableFromProxy(Class<?> type) {
+        if (type.isAssignableFrom(getBeanType())) {
+            return true;
+        }
+        for (Class<?> additionalInterface : getAdditionalInterfaces()) {
+            if (type.isAssignableFrom(additionalInterface)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -70,6 +70,33 @@ public class DecoratorProxyMethodHandler extends TargetInstanceProxyMethodHandle
         }
     }
 
+    /**
+     * Used by the methods of a decorator chain proxy which invoke the decorator instance directly.
+     *
+     * @param handler The method handler of a decorator chain proxy
+     * @return the decorator instance
+     * @see DecoratorChainProxyFactory
+     */
+    public static Object getDecoratorInstance(MethodHandler handler) {
+        return of(handler).decoratorInstance.getInstance();
+    }
+
+    /**
+     * Used by the methods of a decorator chain proxy which invoke the next delegate directly.
+     *
+     * @param handler The method handler of a decorator chain proxy
+     * @return the next delegate, i.e. the next decorator chain proxy or the bean instance
+     * @see DecoratorChainProxyFactory
+     */
+    public static Object getNextDelegate(MethodHandler handler) {
+        return of(handler).getTargetInstance();
+    }
+
+    private static DecoratorProxyMethodHandler of(MethodHandler handler) {
+        TargetBeanInstance beanInstance = (TargetBeanInstance) ((ProxyMethodHandler) handler).getBeanInstance();
+        return (DecoratorProxyMethodHandler) beanInstance.getInterceptorsHandler();
+    }
+
     private Object doInvoke(WeldDecorator<?> weldDecorator, Object decoratorInstance, Method method, Object[] args) throws Throwable {
         if (!method.isAnnotationPresent(Inject.class)) {
             InvokableAnnotatedMethod<?> decoratorMethod = weldDecorator.getDecoratorMethod(method);
@@ -51,6 +51,10 @@ public class EnterpriseTargetBeanInstance extends AbstractBeanInstance implement
         return beanType;
     }
 
+    public MethodHandler getMethodHandler() {
+        return methodHandler;
+    }
+
     public Object invoke(Object instance, Method method, Object... arguments) throws Throwable {
          // Pass the invocation directly to the method handler
          return methodHandler.invoke(null, method, method, arguments);
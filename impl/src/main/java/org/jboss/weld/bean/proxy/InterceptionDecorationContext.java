@@ -23,6 +23,7 @@ import java.util.EmptyStackException;
 
 import org.jboss.weld.contexts.cache.RequestScopedCache;
 import org.jboss.weld.contexts.cache.RequestScopedItem;
+import org.jboss.weld.contexts.state.StateLocal;
 
 /**
  * A class that holds the interception (and decoration) contexts which are currently in progress.
@@ -38,15 +39,20 @@ import org.jboss.weld.contexts.cache.RequestScopedItem;
  * @author Marius Bogoevici
  */
 public class InterceptionDecorationContext {
-    private static ThreadLocal<Stack> interceptionContexts = new ThreadLocal<Stack>();
+    /*
+     * Intercepted subclasses look the stack up once per call and pass it down through StackAwareMethodHandler, so the stack is effectively per-invocation
+     * state. A flag kept on the intercepted instance cannot replace it: the same instance may be invoked concurrently from several threads and a call which
+     * comes back to the instance through a client proxy must be intercepted again, which is only known from the NULL_INSTANCE boundary on the stack.
+     */
+    private static final StateLocal<Stack> interceptionContexts = new StateLocal<Stack>();
 
     public static class Stack implements RequestScopedItem {
         private boolean removeWhenEmpty;
         private final Deque<CombinedInterceptorAndDecoratorStackMethodHandler> elements;
-        private final ThreadLocal<Stack> interceptionContexts;
+        private final StateLocal<Stack> interceptionContexts;
         private boolean valid;
 
-        private Stack(ThreadLocal<Stack> interceptionContexts) {
+        private Stack(StateLocal<Stack> interceptionContexts) {
             this.interceptionContexts = interceptionContexts;
             this.elements = new ArrayDeque<CombinedInterceptorAndDecoratorStackMethodHandler>();
             /*
@@ -177,15 +183,13 @@ public class InterceptionDecorationContext {
      * If this method returns a non-null value, the caller of this method is required to call {@link Stack#end()} on the returned value.
      */
     public static Stack startIfNotEmpty() {
-        Stack stack = getStack();
-        if (!stack.elements.isEmpty()) {
+        // Do not create a stack just to find out that it is empty
+        Stack stack = interceptionContexts.get();
+        if (stack != null && !stack.elements.isEmpty()) {
             stack.push(CombinedInterceptorAndDecoratorStackMethodHandler.NULL_INSTANCE);
             return stack;
-        } else {
-            // if RequestScopedCache is not active, remove now to prevent ThreadLocal leak
-            stack.removeIfEmpty();
-            return null;
         }
+        return null;
     }
 
     /**
@@ -130,4 +130,12 @@ public class ProxyMethodHandler implements MethodHandler, Serializable, Metadata
     public Object getInstance() {
         return beanInstance.getInstance();
     }
+
+    /**
+     * Returns the bean instance the calls are routed to.
+     * @return the bean instance
+     */
+    public BeanInstance getBeanInstance() {
+        return beanInstance;
+    }
 }
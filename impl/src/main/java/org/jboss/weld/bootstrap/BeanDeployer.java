@@ -202,8 +202,29 @@ public class BeanDeployer extends AbstractBeanDeployer<BeanDeployerEnvironment>
         ejbSupport.createSessionBeans(getEnvironment(), otherWeldClasses, getManager());
     }
 
+    /**
+     * Creates the enhanced annotated types of the managed beans, decorators and interceptors so that {@link #createClassBeans()} finds them in the
+     * {@link org.jboss.weld.resources.ClassTransformer} cache. No container lifecycle event is fired, i.e. the types of multiple archives may be
+     * enhanced concurrently.
+     */
+    public void createEnhancedAnnotatedTypes() {
+        for (SlimAnnotatedTypeContext<?> ctx : getEnvironment().getAnnotatedTypes()) {
+            createEnhancedAnnotatedType(ctx.getAnnotatedType());
+        }
+    }
+
+    protected void createEnhancedAnnotatedType(SlimAnnotatedType<?> annotatedType) {
+        if (isManagedBeanOrDecoratorOrInterceptor(annotatedType)) {
+            classTransformer.getEnhancedAnnotatedType(annotatedType);
+        }
+    }
+
+    private boolean isManagedBeanOrDecoratorOrInterceptor(SlimAnnotatedType<?> annotatedType) {
+        return !ejbSupport.isEjb(annotatedType.getJavaClass()) && Beans.isTypeManagedBeanOrDecoratorOrInterceptor(annotatedType);
+    }
+
     protected void createClassBean(SlimAnnotatedType<?> annotatedType, SetMultimap<Class<?>, SlimAnnotatedType<?>> otherWeldClasses) {
-        boolean managedBeanOrDecorator = !ejbSupport.isEjb(annotatedType.getJavaClass()) && Beans.isTypeManagedBeanOrDecoratorOrInterceptor(annotatedType);
+        boolean managedBeanOrDecorator = isManagedBeanOrDecoratorOrInterceptor(annotatedType);
         if (managedBeanOrDecorator) {
             containerLifecycleEvents.preloadProcessInjectionTarget(annotatedType.getJavaClass());
             containerLifecycleEvents.preloadProcessBeanAttributes(annotatedType.getJavaClass());
@@ -220,6 +220,13 @@ public class BeanDeployment {
         beanDeployer.registerAnnotatedTypes();
     }
 
+    public void createEnhancedAnnotatedTypes() {
+        // The types of a trimmed archive are only enhanced once trimmed
+        if (beanDeploymentArchive.getBeansXml() == null || !beanDeploymentArchive.getBeansXml().isTrimmed()) {
+            beanDeployer.createEnhancedAnnotatedTypes();
+        }
+    }
+
     public void createBeans(Environment environment) {
         getBeanManager().getServices().get(WeldModules.class).preBeanRegistration(this, environment);
 
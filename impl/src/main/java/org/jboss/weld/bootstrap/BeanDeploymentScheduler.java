@@ -0,0 +1,340 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
+import org.jboss.weld.exceptions.WeldException;
+import org.jboss.weld.executor.DaemonThreadFactory;
+import org.jboss.weld.logging.BootstrapLogger;
+
+/**
+ * Executes the per-archive work of a bootstrap phase concurrently for all the bean deployment archives.
+ * <p>
+ * A phase consists of a sequence of {@link Step}s. The work of a step for a particular archive is a task. The task of a {@link #localStep(String, Consumer)
+ * local step} only depends on the task of the previous step for the same archive.
+ * </p>
+ * <p>
+ * The tasks of an {@link #exclusiveStep(String, Consumer) exclusive step} are executed sequentially for the archives which are transitively accessible from
+ * each other (i.e. the archives in the same connected component of the accessibility graph), in the order of the archives. Such a task also depends on the
+ * tasks of the previous step for all the archives of the component. Therefore, the work which reads the state of accessible archives sees a consistent
+ * state whereas unrelated archives do not wait for each other.
+ * </p>
+ * <p>
+ * A {@link #serialStep(String, Consumer) serial step} acts as a global barrier. It is only started once all the tasks of the previous steps are finished and
+ * it is executed for all the archives sequentially, in the order of the archives, on the calling thread. The steps which fire container lifecycle events
+ * observed by portable extensions or which modify state shared by all the archives (e.g. specialization) must be serial.
+ * </p>
+ * <p>
+ * The tasks are executed by a dedicated thread pool so that a task may safely block on the subtasks submitted to {@link org.jboss.weld.manager.api.ExecutorServices}, e.g. by
+ * {@link ConcurrentBeanDeployer}. The critical path of each phase is logged once the phase is finished.
+ * </p>
+ *
+ * @see WeldStartup
+ */
+class BeanDeploymentScheduler {
+
+    private static final String THREAD_NAME_PREFIX = "weld-bootstrap-";
+
+    private static final long KEEP_ALIVE_TIME = 10L;
+
+    private final ExecutorService executor;
+
+    BeanDeploymentScheduler(int threadPoolSize) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory(new ThreadGroup(DaemonThreadFactory.WELD_WORKERS), THREAD_NAME_PREFIX));
+        // Idle threads terminate even if the bootstrap fails before the scheduler is shut down
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    /**
+     *
+     * @param name The name of the step, used in the critical path report
+     * @param action
+     * @return a step whose tasks only depend on the previous step for the same archive
+     */
+    static Step localStep(String name, Consumer<BeanDeployment> action) {
+        return new Step(name, Kind.LOCAL, action);
+    }
+
+    /**
+     *
+     * @param name The name of the step, used in the critical path report
+     * @param action
+     * @return a step whose tasks are executed sequentially for the accessible archives once the previous step is finished for all of them
+     */
+    static Step exclusiveStep(String name, Consumer<BeanDeployment> action) {
+        return new Step(name, Kind.EXCLUSIVE, action);
+    }
+
+    /**
+     *
+     * @param name The name of the step, used in the critical path report
+     * @param action
+     * @return a step which is executed for all the archives sequentially on the calling thread once all the tasks of the previous steps are finished
+     */
+    static Step serialStep(String name, Consumer<BeanDeployment> action) {
+        return new Step(name, Kind.SERIAL, action);
+    }
+
+    /**
+     * Executes the given steps and blocks until all the tasks are finished. If a task fails, the dependent tasks are not executed and the failure is rethrown
+     * after all the remaining tasks are finished. A serial step is only started once all the tasks of the previous steps are finished.
+     *
+     * @param phase
+     * @param deployments
+     * @param mapping
+     * @param steps
+     */
+    void execute(String phase, Collection<BeanDeployment> deployments, BeanDeploymentArchiveMapping mapping, List<Step> steps) {
+        List<BeanDeployment> archives = new ArrayList<BeanDeployment>(deployments);
+        int[] components = null;
+        int from = 0;
+        for (int i = 0; i <= steps.size(); i++) {
+            if (i == steps.size() || steps.get(i).kind == Kind.SERIAL) {
+                if (i > from) {
+                    if (components == null) {
+                        components = getComponents(archives, mapping);
+                    }
+                    executeConcurrently(phase, archives, components, steps.subList(from, i));
+                }
+                if (i < steps.size()) {
+                    Step step = steps.get(i);
+                    for (BeanDeployment archive : archives) {
+                        step.execute(archive);
+                    }
+                }
+                from = i + 1;
+            }
+        }
+    }
+
+    private void executeConcurrently(String phase, List<BeanDeployment> archives, int[] components, List<Step> steps) {
+        long start = System.nanoTime();
+        Task[][] tasks = new Task[steps.size()][archives.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            // The last task of this step for each component, used to chain the tasks of an exclusive step
+            Map<Integer, Task> lastTasks = new HashMap<Integer, Task>();
+            for (int j = 0; j < archives.size(); j++) {
+                List<Task> dependencies = new ArrayList<Task>();
+                if (step.kind == Kind.LOCAL) {
+                    if (i > 0) {
+                        dependencies.add(tasks[i - 1][j]);
+                    }
+                } else {
+                    if (i > 0) {
+                        for (int k = 0; k < archives.size(); k++) {
+                            if (components[k] == components[j]) {
+                                dependencies.add(tasks[i - 1][k]);
+                            }
+                        }
+                    }
+                    Task previous = lastTasks.get(components[j]);
+                    if (previous != null) {
+                        dependencies.add(previous);
+                    }
+                }
+                Task task = new Task(step, archives.get(j), dependencies);
+                tasks[i][j] = task;
+                lastTasks.put(components[j], task);
+                futures.add(task.future);
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new WeldException(cause);
+        }
+        logCriticalPath(phase, tasks, System.nanoTime() - start);
+    }
+
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     *
+     * @param archives
+     * @param mapping
+     * @return the index of the connected component of the accessibility graph for each archive
+     */
+    private static int[] getComponents(List<BeanDeployment> archives, BeanDeploymentArchiveMapping mapping) {
+        Map<BeanDeployment, Integer> indexes = new HashMap<BeanDeployment, Integer>();
+        for (int i = 0; i < archives.size(); i++) {
+            indexes.put(archives.get(i), i);
+        }
+        int[] parents = new int[archives.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (int i = 0; i < archives.size(); i++) {
+            for (BeanDeploymentArchive accessible : archives.get(i).getBeanDeploymentArchive().getBeanDeploymentArchives()) {
+                BeanDeployment accessibleDeployment = mapping.getBeanDeployment(accessible);
+                Integer index = accessibleDeployment != null ? indexes.get(accessibleDeployment) : null;
+                if (index != null) {
+                    parents[find(parents, i)] = find(parents, index);
+                }
+            }
+        }
+        int[] components = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            components[i] = find(parents, i);
+        }
+        return components;
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void logCriticalPath(String phase, Task[][] tasks, long elapsed) {
+        Task last = null;
+        for (Task[] stepTasks : tasks) {
+            for (Task task : stepTasks) {
+                // Tasks are visited in the order of steps and archives so that the path of all the dependencies is already known
+                task.computePath();
+                if (last == null || task.pathDuration > last.pathDuration) {
+                    last = task;
+                }
+            }
+        }
+        if (last == null) {
+            return;
+        }
+        List<String> path = new ArrayList<String>();
+        for (Task task = last; task != null; task = task.criticalDependency) {
+            path.add(task.toString());
+        }
+        Collections.reverse(path);
+        BootstrapLogger.LOG.bootstrapPhaseCriticalPath(phase, TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(last.pathDuration), path);
+    }
+
+    private enum Kind {
+        LOCAL, EXCLUSIVE, SERIAL
+    }
+
+    static final class Step {
+
+        private final String name;
+
+        private final Kind kind;
+
+        private final Consumer<BeanDeployment> action;
+
+        private Step(String name, Kind kind, Consumer<BeanDeployment> action) {
+            this.name = name;
+            this.kind = kind;
+            this.action = action;
+        }
+
+        void execute(BeanDeployment deployment) {
+            action.accept(deployment);
+        }
+
+    }
+
+    private final class Task implements Runnable {
+
+        private final Step step;
+
+        private final BeanDeployment deployment;
+
+        private final List<Task> dependencies;
+
+        private final CompletableFuture<Void> future;
+
+        private volatile long duration;
+
+        private long pathDuration;
+
+        private Task criticalDependency;
+
+        private Task(Step step, BeanDeployment deployment, List<Task> dependencies) {
+            this.step = step;
+            this.deployment = deployment;
+            this.dependencies = dependencies;
+            if (dependencies.isEmpty()) {
+                this.future = CompletableFuture.runAsync(this, executor);
+            } else {
+                CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.size()];
+                for (int i = 0; i < dependencyFutures.length; i++) {
+                    dependencyFutures[i] = dependencies.get(i).future;
+                }
+                this.future = CompletableFuture.allOf(dependencyFutures).thenRunAsync(this, executor);
+            }
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                step.execute(deployment);
+            } finally {
+                duration = System.nanoTime() - start;
+            }
+        }
+
+        private void computePath() {
+            for (Task dependency : dependencies) {
+                if (criticalDependency == null || dependency.pathDuration > criticalDependency.pathDuration) {
+                    criticalDependency = dependency;
+                }
+            }
+            pathDuration = duration + (criticalDependency != null ? criticalDependency.pathDuration : 0);
+        }
+
+        @Override
+        public String toString() {
+            return step.name + "@" + deployment.getBeanDeploymentArchive().getId() + " (" + TimeUnit.NANOSECONDS.toMillis(duration) + " ms)";
+        }
+
+    }
+
+}
@@ -58,6 +58,16 @@ public class ConcurrentBeanDeployer extends BeanDeployer {
         return this;
     }
 
+    @Override
+    public void createEnhancedAnnotatedTypes() {
+        executor.invokeAllAndCheckForExceptions(new IterativeWorkerTaskFactory<SlimAnnotatedTypeContext<?>>(getEnvironment().getAnnotatedTypes()) {
+            @Override
+            protected void doWork(SlimAnnotatedTypeContext<?> ctx) {
+                createEnhancedAnnotatedType(ctx.getAnnotatedType());
+            }
+        });
+    }
+
     @Override
     public void createClassBeans() {
         final SetMultimap<Class<?>, SlimAnnotatedType<?>> otherWeldClasses = SetMultimap.newConcurrentSetMultimap();
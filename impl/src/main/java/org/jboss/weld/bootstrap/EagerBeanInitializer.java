@@ -0,0 +1,329 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.bootstrap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.jboss.weld.bean.AbstractProducerBean;
+import org.jboss.weld.bean.ContextualInstance;
+import org.jboss.weld.bean.RIBean;
+import org.jboss.weld.bean.builtin.AbstractBuiltInBean;
+import org.jboss.weld.context.RequestContext;
+import org.jboss.weld.context.unbound.UnboundLiteral;
+import org.jboss.weld.exceptions.DeploymentException;
+import org.jboss.weld.exceptions.WeldException;
+import org.jboss.weld.logging.BootstrapLogger;
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.jboss.weld.manager.api.ExecutorServices;
+
+/**
+ * Creates the contextual instances of the selected {@link ApplicationScoped} beans at the end of bootstrap so that the initialization is not performed when
+ * a bean is first used.
+ * <p>
+ * The beans are initialized in parallel using the {@link ExecutorServices} if available. However, a bean is not initialized until all the selected beans it
+ * injects, directly or through beans which are not selected, are initialized. The beans which depend on each other (a dependency cycle) are initialized
+ * sequentially by the same thread, i.e. in the same way as if they were initialized lazily. The unbound request context is active during initialization.
+ * </p>
+ *
+ * @see org.jboss.weld.config.ConfigurationKey#EAGER_INITIALIZATION
+ * @see UsageProfile
+ */
+final class EagerBeanInitializer {
+
+    private final BeanManagerImpl deploymentManager;
+
+    private final Map<Bean<?>, RIBean<?>> beans;
+
+    private final Map<RIBean<?>, Set<RIBean<?>>> dependencies;
+
+    private final List<RuntimeException> problems;
+
+    /**
+     *
+     * @param deploymentManager
+     * @param deployments
+     * @param selector Selects the application scoped beans to initialize
+     */
+    EagerBeanInitializer(BeanManagerImpl deploymentManager, Collection<BeanDeployment> deployments, Predicate<Bean<?>> selector) {
+        this.deploymentManager = deploymentManager;
+        this.beans = new LinkedHashMap<>();
+        this.dependencies = new HashMap<>();
+        this.problems = new CopyOnWriteArrayList<>();
+        for (BeanDeployment deployment : deployments) {
+            for (Bean<?> bean : deployment.getBeanManager().getBeans()) {
+                if (bean instanceof RIBean && !(bean instanceof AbstractBuiltInBean) && ApplicationScoped.class.equals(bean.getScope())
+                        && selector.test(bean)) {
+                    beans.put(bean, (RIBean<?>) bean);
+                }
+            }
+        }
+    }
+
+    /**
+     * Initializes the selected beans and waits until all of them are initialized.
+     *
+     * @throws DeploymentException if any of the beans cannot be initialized
+     */
+    void initialize() {
+        if (beans.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ExecutorServices executorServices = deploymentManager.getServices().get(ExecutorServices.class);
+        // Without executor the components are initialized sequentially in the dependency order
+        Executor executor = executorServices != null ? executorServices.getTaskExecutor() : Runnable::run;
+        for (RIBean<?> bean : beans.values()) {
+            dependencies.put(bean, getDependencies(bean));
+        }
+
+        Map<RIBean<?>, CompletableFuture<Void>> futures = new HashMap<>();
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        for (List<RIBean<?>> component : getComponents()) {
+            List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+            for (RIBean<?> bean : component) {
+                for (RIBean<?> dependency : dependencies.get(bean)) {
+                    CompletableFuture<Void> future = futures.get(dependency);
+                    // Null if the dependency belongs to the same component
+                    if (future != null) {
+                        prerequisites.add(future);
+                    }
+                }
+            }
+            CompletableFuture<Void> future = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[prerequisites.size()]))
+                    .thenRunAsync(() -> initialize(component), executor);
+            for (RIBean<?> bean : component) {
+                futures.put(bean, future);
+            }
+            all.add(future);
+        }
+        try {
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[all.size()])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new WeldException(cause);
+        }
+        if (!problems.isEmpty()) {
+            if (problems.size() == 1) {
+                throw problems.get(0);
+            } else {
+                throw new DeploymentException(problems);
+            }
+        }
+        BootstrapLogger.LOG.beansEagerlyInitialized(beans.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void initialize(List<RIBean<?>> component) {
+        RequestContext requestContext = deploymentManager.instance().select(RequestContext.class, UnboundLiteral.INSTANCE).get();
+        boolean activate = !requestContext.isActive();
+        try {
+            if (activate) {
+                requestContext.activate();
+            }
+            for (RIBean<?> bean : component) {
+                try {
+                    BeanManagerImpl beanManager = bean.getBeanManager();
+                    ContextualInstance.get(bean, beanManager, beanManager.createCreationalContext(bean));
+                } catch (RuntimeException e) {
+                    problems.add(e);
+                }
+            }
+        } finally {
+            if (activate) {
+                requestContext.invalidate();
+                requestContext.deactivate();
+            }
+        }
+    }
+
+    /**
+     * The beans which are not selected are traversed as well, i.e. if a selected bean injects a bean which is not selected and injects another selected bean,
+     * the other selected bean is a dependency of the bean.
+     *
+     * @param bean
+     * @return the selected beans the given bean depends on, directly or through beans which are not selected
+     */
+    private Set<RIBean<?>> getDependencies(RIBean<?> bean) {
+        Set<RIBean<?>> selectedDependencies = new LinkedHashSet<>();
+        Set<Bean<?>> visited = new HashSet<>();
+        Deque<Bean<?>> queue = new ArrayDeque<>();
+        visited.add(bean);
+        queue.add(bean);
+        while (!queue.isEmpty()) {
+            for (Bean<?> dependency : getInjectedBeans(queue.poll(), bean.getBeanManager())) {
+                RIBean<?> selected = beans.get(dependency);
+                if (selected != null) {
+                    if (selected != bean) {
+                        selectedDependencies.add(selected);
+                    }
+                } else if (visited.add(dependency)) {
+                    queue.add(dependency);
+                }
+            }
+        }
+        return selectedDependencies;
+    }
+
+    /**
+     *
+     * @param bean
+     * @param beanManager The bean manager used to resolve the injection points of a custom bean
+     * @return the beans the given bean injects, including the declaring bean of a producer
+     */
+    private List<Bean<?>> getInjectedBeans(Bean<?> bean, BeanManagerImpl beanManager) {
+        List<Bean<?>> injected = new ArrayList<>();
+        if (bean instanceof AbstractProducerBean) {
+            injected.add(((AbstractProducerBean<?, ?, ?>) bean).getDeclaringBean());
+        }
+        if (bean instanceof RIBean) {
+            beanManager = ((RIBean<?>) bean).getBeanManager();
+        }
+        for (InjectionPoint injectionPoint : bean.getInjectionPoints()) {
+            if (injectionPoint.isDelegate()) {
+                continue;
+            }
+            Bean<?> resolved;
+            try {
+                resolved = beanManager.resolve(beanManager.getBeans(injectionPoint));
+            } catch (RuntimeException e) {
+                // The deployment is valid - this may only happen for a built-in injection point
+                continue;
+            }
+            if (resolved != null) {
+                injected.add(resolved);
+            }
+        }
+        return injected;
+    }
+
+    /**
+     * Finds the strongly connected components of the dependency graph (Tarjan's algorithm). A component is always returned after all the components it
+     * depends on.
+     *
+     * @return the list of components
+     */
+    private List<List<RIBean<?>>> getComponents() {
+        ComponentFinder finder = new ComponentFinder();
+        for (RIBean<?> bean : beans.values()) {
+            if (!finder.indexes.containsKey(bean)) {
+                finder.visit(bean);
+            }
+        }
+        return finder.components;
+    }
+
+    private class ComponentFinder {
+
+        private final Map<RIBean<?>, Integer> indexes = new HashMap<>();
+
+        private final Deque<RIBean<?>> stack = new ArrayDeque<>();
+
+        private final Set<RIBean<?>> onStack = new HashSet<>();
+
+        private final List<List<RIBean<?>>> components = new ArrayList<>();
+
+        /**
+         * The depth-first search keeps its own stack of frames so that a long chain of dependencies cannot overflow the thread stack.
+         */
+        private void visit(RIBean<?> root) {
+            Deque<Frame> frames = new ArrayDeque<>();
+            frames.push(open(root));
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.dependencies.hasNext()) {
+                    RIBean<?> dependency = frame.dependencies.next();
+                    if (!indexes.containsKey(dependency)) {
+                        frames.push(open(dependency));
+                    } else if (onStack.contains(dependency)) {
+                        frame.lowLink = Math.min(frame.lowLink, indexes.get(dependency));
+                    }
+                    continue;
+                }
+                frames.pop();
+                if (frame.lowLink == frame.index) {
+                    List<RIBean<?>> component = new ArrayList<>();
+                    RIBean<?> member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (member != frame.bean);
+                    components.add(component);
+                }
+                Frame parent = frames.peek();
+                if (parent != null) {
+                    parent.lowLink = Math.min(parent.lowLink, frame.lowLink);
+                }
+            }
+        }
+
+        private Frame open(RIBean<?> bean) {
+            int index = indexes.size();
+            indexes.put(bean, index);
+            stack.push(bean);
+            onStack.add(bean);
+            return new Frame(bean, index);
+        }
+
+    }
+
+    private class Frame {
+
+        private final RIBean<?> bean;
+
+        private final int index;
+
+        private final Iterator<RIBean<?>> dependencies;
+
+        private int lowLink;
+
+        private Frame(RIBean<?> bean, int index) {
+            this.bean = bean;
+            this.index = index;
+            this.lowLink = index;
+            this.dependencies = EagerBeanInitializer.this.dependencies.get(bean).iterator();
+        }
+
+    }
+
+}
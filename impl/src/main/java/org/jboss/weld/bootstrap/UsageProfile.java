@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.PassivationCapable;
+
+import org.jboss.weld.bootstrap.api.Service;
+import org.jboss.weld.bootstrap.api.ServiceRegistry;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
+import org.jboss.weld.logging.BootstrapLogger;
+
+/**
+ * An optional per deployment service which holds the usage profile of the application, i.e. the beans and client proxies actually used during a
+ * training run.
+ * <p>
+ * In the recording mode the usage is recorded and the profile is written to the configured file when the container is shut down. Otherwise, the profile is
+ * read from the file during bootstrap and used to:
+ * </p>
+ * <ul>
+ * <li>generate the client proxies of the used beans at the end of bootstrap,</li>
+ * <li>initialize the used {@link javax.enterprise.context.ApplicationScoped} beans at the end of bootstrap,</li>
+ * <li>defer the generation of the decorator chain of the unused beans until the first instantiation.</li>
+ * </ul>
+ * <p>
+ * The beans are identified by their stable ids, i.e. only {@link PassivationCapable} beans are profiled. A bean which is not profiled is never considered
+ * unused. Neither the injection points nor the observer methods are recorded - nothing would read them. An injection point is covered by the bean it
+ * resolves to and the notification of a non-static observer method creates the declaring bean.
+ * </p>
+ *
+ * @see ConfigurationKey#USAGE_PROFILE
+ * @see ConfigurationKey#USAGE_PROFILE_RECORD
+ */
+public class UsageProfile implements Service {
+
+    private static final String HEADER = "# Weld usage profile 1";
+
+    private static final char SEPARATOR = '\t';
+
+    private static final String BEAN = "bean";
+
+    private static final String PROXY = "proxy";
+
+    private final Path path;
+
+    private final boolean recording;
+
+    private final Set<String> beans;
+
+    private final Set<String> proxies;
+
+    // False if the profile could not be read
+    private final boolean loaded;
+
+    private UsageProfile(Path path, boolean recording) {
+        this.path = path;
+        this.recording = recording;
+        this.beans = ConcurrentHashMap.newKeySet();
+        this.proxies = ConcurrentHashMap.newKeySet();
+        this.loaded = !recording && read();
+    }
+
+    /**
+     *
+     * @param configuration
+     * @return the usage profile or <code>null</code> if no profile is configured
+     */
+    static UsageProfile create(WeldConfiguration configuration) {
+        String path = configuration.getStringProperty(ConfigurationKey.USAGE_PROFILE);
+        if (path.isEmpty()) {
+            return null;
+        }
+        return new UsageProfile(Paths.get(path), configuration.getBooleanProperty(ConfigurationKey.USAGE_PROFILE_RECORD));
+    }
+
+    /**
+     *
+     * @param services
+     * @return the usage profile if it's in the recording mode, <code>null</code> otherwise
+     */
+    public static UsageProfile getRecorder(ServiceRegistry services) {
+        UsageProfile profile = services.get(UsageProfile.class);
+        return profile != null && profile.recording ? profile : null;
+    }
+
+    /**
+     *
+     * @param services
+     * @return the usage profile if it was read successfully, <code>null</code> otherwise
+     */
+    public static UsageProfile getLoaded(ServiceRegistry services) {
+        UsageProfile profile = services.get(UsageProfile.class);
+        return profile != null && profile.loaded ? profile : null;
+    }
+
+    /**
+     * Records that a contextual instance of the given bean was created.
+     *
+     * @param bean
+     */
+    public void beanCreated(Bean<?> bean) {
+        String id = getId(bean);
+        if (id != null) {
+            beans.add(id);
+        }
+    }
+
+    /**
+     * Records that a client proxy of the given bean was created.
+     *
+     * @param bean
+     */
+    public void clientProxyCreated(Bean<?> bean) {
+        String id = getId(bean);
+        if (id != null) {
+            proxies.add(id);
+        }
+    }
+
+    /**
+     *
+     * @param bean
+     * @return <code>true</code> if a contextual instance of the given bean was created during the training run
+     */
+    public boolean isBeanUsed(Bean<?> bean) {
+        String id = getId(bean);
+        return id != null && beans.contains(id);
+    }
+
+    /**
+     *
+     * @param bean
+     * @return <code>true</code> if the given bean is profiled and no contextual instance was created during the training run
+     */
+    public boolean isBeanUnused(Bean<?> bean) {
+        String id = getId(bean);
+        return id != null && !beans.contains(id);
+    }
+
+    /**
+     *
+     * @param bean
+     * @return <code>true</code> if a client proxy of the given bean was created during the training run
+     */
+    public boolean isClientProxyUsed(Bean<?> bean) {
+        String id = getId(bean);
+        return id != null && proxies.contains(id);
+    }
+
+    @Override
+    public void cleanup() {
+        if (recording) {
+            write();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UsageProfile [path=" + path + ", recording=" + recording + ", beans=" + beans.size() + ", proxies=" + proxies.size() + "]";
+    }
+
+    private boolean read() {
+        if (!Files.isReadable(path)) {
+            BootstrapLogger.LOG.usageProfileNotRead(path, "file not found");
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                BootstrapLogger.LOG.usageProfileNotRead(path, "unsupported format");
+                return false;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int idx = line.indexOf(SEPARATOR);
+                if (idx == -1) {
+                    continue;
+                }
+                String kind = line.substring(0, idx);
+                String id = line.substring(idx + 1);
+                if (BEAN.equals(kind)) {
+                    beans.add(id);
+                } else if (PROXY.equals(kind)) {
+                    proxies.add(id);
+                }
+            }
+        } catch (IOException e) {
+            BootstrapLogger.LOG.usageProfileNotRead(path, e);
+            return false;
+        }
+        BootstrapLogger.LOG.debugv("Usage profile read: {0}", this);
+        return true;
+    }
+
+    private void write() {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                write(writer, BEAN, beans);
+                write(writer, PROXY, proxies);
+            }
+            BootstrapLogger.LOG.debugv("Usage profile written: {0}", this);
+        } catch (IOException e) {
+            BootstrapLogger.LOG.usageProfileNotWritten(path, e);
+        }
+    }
+
+    private static void write(BufferedWriter writer, String kind, Set<String> ids) throws IOException {
+        // Sorted so that the profiles of different runs can be compared
+        for (String id : new TreeSet<>(ids)) {
+            writer.write(kind);
+            writer.write(SEPARATOR);
+            writer.write(id);
+            writer.newLine();
+        }
+    }
+
+    private static String getId(Bean<?> bean) {
+        return bean instanceof PassivationCapable ? ((PassivationCapable) bean).getId() : null;
+    }
+
+}
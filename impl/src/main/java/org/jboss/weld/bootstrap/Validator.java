@@ -36,6 +36,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.enterprise.context.Dependent;
 import javax.enterprise.context.NormalScope;
@@ -65,6 +68,8 @@ import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Scope;
 
+import org.jboss.weld.Container;
+import org.jboss.weld.ContainerState;
 import org.jboss.weld.annotated.enhanced.EnhancedAnnotated;
 import org.jboss.weld.annotated.enhanced.EnhancedAnnotatedType;
 import org.jboss.weld.bean.AbstractBean;
@@ -83,7 +88,7 @@ import org.jboss.weld.bean.builtin.AbstractBuiltInBean;
 import org.jboss.weld.bean.builtin.AbstractDecorableBuiltInBean;
 import org.jboss.weld.bean.builtin.ee.EEResourceProducerField;
 import org.jboss.weld.bean.interceptor.CdiInterceptorFactory;
-import org.jboss.weld.bootstrap.api.Service;
+import org.jboss.weld.bootstrap.api.BootstrapService;
 import org.jboss.weld.bootstrap.spi.BeansXml;
 import org.jboss.weld.bootstrap.spi.Metadata;
 import org.jboss.weld.exceptions.AmbiguousResolutionException;
@@ -104,6 +109,8 @@ import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.metadata.cache.MetaAnnotationStore;
 import org.jboss.weld.metadata.cache.StereotypeModel;
 import org.jboss.weld.module.PlugableValidator;
+import org.jboss.weld.resolution.QualifierInstance;
+import org.jboss.weld.resolution.ResolvableBuilder;
 import org.jboss.weld.security.GetDeclaredFieldsAction;
 import org.jboss.weld.security.GetDeclaredMethodsAction;
 import org.jboss.weld.util.AnnotatedTypes;
@@ -127,15 +134,25 @@ import org.jboss.weld.util.reflection.Reflections;
  * @author Stuart Douglas
  * @author Ales Justin
  */
-public class Validator implements Service {
+public class Validator implements BootstrapService {
 
     private final Set<PlugableValidator> plugableValidators;
 
     private final Map<Bean<?>, Boolean> resolvedInjectionPoints;
 
+    /**
+     * The result of the typesafe resolution, ambiguity and proxyability checks only depends on the bean manager, the required type and the required qualifiers.
+     * During validation, these checks are only performed once for all the equivalent injection points. The map is discarded after bootstrap.
+     */
+    private volatile ConcurrentMap<ResolutionKey, Bean<?>> validatedResolutions;
+
+    private final LongAdder skippedResolutions;
+
     public Validator(Set<PlugableValidator> plugableValidators, Map<Bean<?>, Boolean> resolvedInjectionPoints) {
         this.plugableValidators = plugableValidators;
         this.resolvedInjectionPoints = resolvedInjectionPoints;
+        this.validatedResolutions = new ConcurrentHashMap<ResolutionKey, Bean<?>>();
+        this.skippedResolutions = new LongAdder();
     }
 
     protected void validateGeneralBean(Bean<?> bean, BeanManagerImpl beanManager) {
@@ -373,6 +390,43 @@ public class Validator implements Service {
         if (ij.isDelegate()) {
             return; // do not validate delegate injection points as these are special
         }
+        ConcurrentMap<ResolutionKey, Bean<?>> validated = validatedResolutions;
+        ResolutionKey key = null;
+        Bean<?> resolvedBean = null;
+        if (validated != null && ContainerState.DEPLOYED.equals(Container.instance(beanManager).getState())) {
+            // The set of beans is final once the container is deployed
+            key = new ResolutionKey(ij, beanManager);
+            resolvedBean = validated.get(key);
+        }
+        if (resolvedBean != null) {
+            skippedResolutions.increment();
+        } else {
+            resolvedBean = validateResolution(ij, beanManager);
+            if (key != null && resolvedBean != null) {
+                validated.putIfAbsent(key, resolvedBean);
+            }
+        }
+        // Account for the case this is disabled decorator
+        if (resolvedBean != null && bean != null && Beans.isPassivatingScope(bean, beanManager)) {
+            validateInjectionPointPassivationCapable(ij, resolvedBean, beanManager);
+        }
+
+        for (PlugableValidator validator : plugableValidators) {
+            validator.validateInjectionPointForDeploymentProblems(ij, bean, beanManager);
+        }
+
+        if (resolvedInjectionPoints != null && resolvedBean != null) {
+            // Store result to identify unused beans
+            resolvedInjectionPoints.put(resolvedBean, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Performs the checks whose result only depends on the {@link ResolutionKey} of the given injection point.
+     *
+     * @return the resolved bean or <code>null</code> if the injection point of a disabled decorator is not satisfied
+     */
+    private Bean<?> validateResolution(InjectionPoint ij, BeanManagerImpl beanManager) {
         Set<Bean<?>> resolvedBeans = beanManager.getBeanResolver().resolve(beanManager.getBeans(ij));
         if (!isInjectionPointSatisfied(ij, resolvedBeans, beanManager)) {
             throw ValidatorLogger.LOG.injectionPointHasUnsatisfiedDependencies(
@@ -390,28 +444,17 @@ public class Validator implements Service {
                 Formats.formatAsStackTraceElement(ij),
                 WeldCollections.toMultiRowString(resolvedBeans));
         }
-        // Account for the case this is disabled decorator
-        if (!resolvedBeans.isEmpty()) {
-            Bean<?> resolvedBean = (Bean<?>) resolvedBeans.iterator().next();
-            if (beanManager.isNormalScope(resolvedBean.getScope())) {
-                UnproxyableResolutionException ue = Proxies.getUnproxyableTypeException(ij.getType(), resolvedBean, beanManager.getServices(), false);
-                if (ue != null) {
-                    throw ValidatorLogger.LOG.injectionPointHasNonProxyableDependencies(ij, Formats.formatAsStackTraceElement(ij), ue);
-                }
-            }
-            if (bean != null && Beans.isPassivatingScope(bean, beanManager)) {
-                validateInjectionPointPassivationCapable(ij, resolvedBean, beanManager);
-            }
-        }
-
-        for (PlugableValidator validator : plugableValidators) {
-            validator.validateInjectionPointForDeploymentProblems(ij, bean, beanManager);
+        if (resolvedBeans.isEmpty()) {
+            return null;
         }
-
-        if (resolvedInjectionPoints != null) {
-            // Store result to identify unused beans
-            resolvedInjectionPoints.put(resolvedBeans.iterator().next(), Boolean.TRUE);
+        Bean<?> resolvedBean = resolvedBeans.iterator().next();
+        if (beanManager.isNormalScope(resolvedBean.getScope())) {
+            UnproxyableResolutionException ue = Proxies.getUnproxyableTypeException(ij.getType(), resolvedBean, beanManager.getServices(), false);
+            if (ue != null) {
+                throw ValidatorLogger.LOG.injectionPointHasNonProxyableDependencies(ij, Formats.formatAsStackTraceElement(ij), ue);
+            }
         }
+        return resolvedBean;
     }
 
     public void validateProducers(Collection<Producer<?>> producers, BeanManagerImpl beanManager) {
@@ -993,8 +1036,18 @@ public class Validator implements Service {
         }
     }
 
+    @Override
+    public void cleanupAfterBoot() {
+        ConcurrentMap<ResolutionKey, Bean<?>> validated = validatedResolutions;
+        if (validated != null) {
+            ValidatorLogger.LOG.injectionPointResolutionsValidated(validated.size(), skippedResolutions.sumThenReset());
+            validatedResolutions = null;
+        }
+    }
+
     @Override
     public void cleanup() {
+        validatedResolutions = null;
     }
 
     // This covers beans, producers, disposers and observers injection points
@@ -1008,4 +1061,45 @@ public class Validator implements Service {
         }
     }
 
+    /**
+     * Equivalent injection points share the same bean manager, required type and required qualifiers. The qualifiers are taken from the
+     * {@link org.jboss.weld.resolution.Resolvable} so that e.g. an {@link javax.inject.Named} qualifier with no value is replaced with the name of the field
+     * or parameter first (WELD-1739).
+     */
+    private static final class ResolutionKey {
+
+        private final BeanManagerImpl beanManager;
+
+        private final Type type;
+
+        private final Set<QualifierInstance> qualifiers;
+
+        private final int hashCode;
+
+        private ResolutionKey(InjectionPoint ij, BeanManagerImpl beanManager) {
+            this.beanManager = beanManager;
+            this.type = ij.getType();
+            this.qualifiers = new ResolvableBuilder(ij, beanManager).create().getQualifiers();
+            this.hashCode = 31 * (31 * System.identityHashCode(beanManager) + type.hashCode()) + qualifiers.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolutionKey)) {
+                return false;
+            }
+            ResolutionKey that = (ResolutionKey) obj;
+            return beanManager == that.beanManager && type.equals(that.type) && qualifiers.equals(that.qualifiers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
 }
@@ -33,6 +33,7 @@ import org.jboss.weld.config.SystemPropertiesConfiguration;
 import org.jboss.weld.logging.BootstrapLogger;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.util.ServiceLoader;
+import org.jboss.weld.xml.BeansXmlCache;
 import org.jboss.weld.xml.BeansXmlParser;
 import org.jboss.weld.xml.BeansXmlStreamParser;
 import org.jboss.weld.xml.BeansXmlValidator;
@@ -52,9 +53,12 @@ public class WeldBootstrap implements CDI11Bootstrap {
 
     private final BeansXmlValidator beansXmlValidator;
 
+    private final BeansXmlCache beansXmlCache;
+
     public WeldBootstrap() {
         weldStartup = new WeldStartup();
         beansXmlValidator = SystemPropertiesConfiguration.INSTANCE.isXmlValidationDisabled() ? null : new BeansXmlValidator();
+        beansXmlCache = SystemPropertiesConfiguration.INSTANCE.isXmlCacheDisabled() ? null : BeansXmlCache.INSTANCE;
     }
 
     @Override
@@ -100,6 +104,7 @@ public class WeldBootstrap implements CDI11Bootstrap {
             weldStartup.endInitialization();
             weldStartup = null;
         }
+        flushBeansXmlCache();
         return this;
     }
 
@@ -116,6 +121,8 @@ public class WeldBootstrap implements CDI11Bootstrap {
             weldRuntime.shutdown();
             weldRuntime = null;
         }
+        // The bootstrap may be shut down without being initialized completely
+        flushBeansXmlCache();
     }
 
     @Override
@@ -130,6 +137,9 @@ public class WeldBootstrap implements CDI11Bootstrap {
 
     @Override
     public BeansXml parse(URL url) {
+        if (beansXmlCache != null) {
+            return beansXmlCache.parse(url, beansXmlValidator);
+        }
         if (beansXmlValidator != null) {
             beansXmlValidator.validate(url);
         }
@@ -146,4 +156,11 @@ public class WeldBootstrap implements CDI11Bootstrap {
             throw BootstrapLogger.LOG.callingBootstrapMethodAfterContainerHasBeenInitialized();
         }
     }
-}
\ No newline at end of file
+
+    private void flushBeansXmlCache() {
+        if (beansXmlCache != null) {
+            beansXmlCache.flush();
+        }
+    }
+
+}
@@ -16,16 +16,24 @@
  */
 package org.jboss.weld.bootstrap;
 
+import static org.jboss.weld.bootstrap.BeanDeploymentScheduler.exclusiveStep;
+import static org.jboss.weld.bootstrap.BeanDeploymentScheduler.localStep;
+import static org.jboss.weld.bootstrap.BeanDeploymentScheduler.serialStep;
 import static org.jboss.weld.config.ConfigurationKey.ROLLING_UPGRADES_ID_DELIMITER;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.ConversationScoped;
@@ -53,9 +61,11 @@ import org.jboss.weld.bean.builtin.AbstractBuiltInBean;
 import org.jboss.weld.bean.builtin.BeanManagerBean;
 import org.jboss.weld.bean.builtin.BeanManagerImplBean;
 import org.jboss.weld.bean.builtin.ContextBean;
+import org.jboss.weld.bean.proxy.ClientProxyProvider;
 import org.jboss.weld.bean.proxy.ProtectionDomainCache;
 import org.jboss.weld.bean.proxy.ProxyInstantiator;
 import org.jboss.weld.bean.proxy.util.SimpleProxyServices;
+import org.jboss.weld.bootstrap.BeanDeploymentScheduler.Step;
 import org.jboss.weld.bootstrap.api.Environment;
 import org.jboss.weld.bootstrap.api.Service;
 import org.jboss.weld.bootstrap.api.ServiceRegistry;
@@ -86,6 +96,9 @@ import org.jboss.weld.context.bound.BoundLiteral;
 import org.jboss.weld.context.bound.BoundRequestContext;
 import org.jboss.weld.context.bound.BoundSessionContext;
 import org.jboss.weld.context.unbound.UnboundLiteral;
+import org.jboss.weld.contexts.ActiveContextRegistry;
+import org.jboss.weld.contexts.RequestContextPropagation;
+import org.jboss.weld.contexts.beanstore.BeanStoreSlotIndex;
 import org.jboss.weld.contexts.bound.BoundConversationContextImpl;
 import org.jboss.weld.contexts.bound.BoundRequestContextImpl;
 import org.jboss.weld.contexts.bound.BoundSessionContextImpl;
@@ -98,6 +111,8 @@ import org.jboss.weld.event.CurrentEventMetadata;
 import org.jboss.weld.event.DefaultObserverNotifierFactory;
 import org.jboss.weld.event.GlobalObserverNotifierService;
 import org.jboss.weld.executor.ExecutorServicesFactory;
+import org.jboss.weld.executor.IterativeWorkerTaskFactory;
+import org.jboss.weld.executor.RequestContextPropagatingExecutorServices;
 import org.jboss.weld.injection.CurrentInjectionPoint;
 import org.jboss.weld.injection.ResourceInjectionFactory;
 import org.jboss.weld.injection.producer.InjectionTargetService;
@@ -159,6 +174,7 @@ public class WeldStartup {
     private final ServiceRegistry initialServices = new SimpleServiceRegistry();
     private String contextId;
     private final Tracker tracker = Trackers.create();
+    private BeanDeploymentScheduler scheduler;
 
 
     public WeldStartup() {
@@ -226,6 +242,10 @@ public class WeldStartup {
         addImplementationServices(registry);
         tracker.end();
 
+        if (configuration.getBooleanProperty(ConfigurationKey.CONCURRENT_BEAN_DEPLOYMENT_ARCHIVES) && registry.contains(ExecutorServices.class)) {
+            this.scheduler = new BeanDeploymentScheduler(configuration.getIntegerProperty(ConfigurationKey.EXECUTOR_THREAD_POOL_SIZE));
+        }
+
         verifyServices(registry, environment.getRequiredDeploymentServices(), contextId);
         if (!registry.contains(TransactionServices.class)) {
             BootstrapLogger.LOG.jtaUnavailable();
@@ -303,6 +323,12 @@ public class WeldStartup {
         }
 
         services.add(ContextualStore.class, new ContextualStoreImpl(contextId, beanIdentifierIndex));
+        services.add(BeanStoreSlotIndex.class, new BeanStoreSlotIndex());
+        services.add(ActiveContextRegistry.class, new ActiveContextRegistry());
+        UsageProfile usageProfile = UsageProfile.create(configuration);
+        if (usageProfile != null) {
+            services.add(UsageProfile.class, usageProfile);
+        }
         services.add(CurrentInjectionPoint.class, new CurrentInjectionPoint());
         services.add(CurrentEventMetadata.class, new CurrentEventMetadata());
         services.add(SpecializationAndEnablementRegistry.class, new SpecializationAndEnablementRegistry());
@@ -311,10 +337,15 @@ public class WeldStartup {
         /*
          * Setup ExecutorServices
          */
+        final RequestContextPropagation requestContextPropagation = new RequestContextPropagation(RequestContextPropagation.initMode(configuration));
+        services.add(RequestContextPropagation.class, requestContextPropagation);
         ExecutorServices executor = services.get(ExecutorServices.class);
         if (executor == null) {
             executor = ExecutorServicesFactory.create(DefaultResourceLoader.INSTANCE, configuration);
             if (executor != null) {
+                if (requestContextPropagation.isEnabled()) {
+                    executor = new RequestContextPropagatingExecutorServices(executor, requestContextPropagation);
+                }
                 services.add(ExecutorServices.class, executor);
             }
         }
@@ -408,9 +439,7 @@ public class WeldStartup {
         tracker.end();
 
         // for each physical BDA transform its classes into AnnotatedType instances
-        for (BeanDeployment beanDeployment : physicalBeanDeploymentArchives) {
-            beanDeployment.createClasses();
-        }
+        execute("createClasses", physicalBeanDeploymentArchives, localStep("createClasses", BeanDeployment::createClasses));
 
         // Re-Read the deployment structure, bdaMapping will be the physical
         // structure, extensions and any classes added using addAnnotatedType
@@ -434,24 +463,18 @@ public class WeldStartup {
 
     public void deployBeans() {
         tracker.start(Tracker.OP_DEPLOY_BEANS);
-        for (BeanDeployment deployment : getBeanDeployments()) {
-            deployment.createBeans(environment);
-        }
-        // we must use separate loops, otherwise cyclic specialization would not work
-        for (BeanDeployment deployment : getBeanDeployments()) {
-            deployment.getBeanDeployer().processClassBeanAttributes();
-            deployment.getBeanDeployer().createProducersAndObservers();
-        }
-        for (BeanDeployment deployment : getBeanDeployments()) {
-            deployment.getBeanDeployer().processProducerAttributes();
-            deployment.getBeanDeployer().createNewBeans();
-        }
-        for (BeanDeployment beanDeployment : getBeanDeployments()) {
-            beanDeployment.deploySpecialized(environment);
-        }
-        for (BeanDeployment beanDeployment : getBeanDeployments()) {
-            beanDeployment.deployBeans(environment);
-        }
+        // we must use separate steps, otherwise cyclic specialization would not work
+        // all the steps but the first one fire container lifecycle events (e.g. ProcessBeanAttributes, ProcessInjectionPoint or ProcessBean) and must be serial
+        execute("deployBeans", getBeanDeployments(), localStep("createEnhancedAnnotatedTypes", BeanDeployment::createEnhancedAnnotatedTypes),
+                serialStep("createBeans", (deployment) -> deployment.createBeans(environment)),
+                serialStep("createProducersAndObservers", (deployment) -> {
+                    deployment.getBeanDeployer().processClassBeanAttributes();
+                    deployment.getBeanDeployer().createProducersAndObservers();
+                }), serialStep("createNewBeans", (deployment) -> {
+                    deployment.getBeanDeployer().processProducerAttributes();
+                    deployment.getBeanDeployer().createNewBeans();
+                }), serialStep("deploySpecialized", (deployment) -> deployment.deploySpecialized(environment)),
+                serialStep("deployBeans", (deployment) -> deployment.deployBeans(environment)));
 
         getContainer().setState(ContainerState.DISCOVERED);
 
@@ -477,10 +500,11 @@ public class WeldStartup {
         // outside the physical structure
         deploymentVisitor.visit();
 
-        for (BeanDeployment beanDeployment : getBeanDeployments()) {
+        // interceptors and decorators may be resolved from the accessible archives
+        execute("afterBeanDiscovery", getBeanDeployments(), exclusiveStep("afterBeanDiscovery", (beanDeployment) -> {
             beanDeployment.getBeanManager().getServices().get(InjectionTargetService.class).initialize();
             beanDeployment.afterBeanDiscovery(environment);
-        }
+        }));
         getContainer().putBeanDeployments(bdaMapping);
         getContainer().setState(ContainerState.DEPLOYED);
         tracker.end();
@@ -490,12 +514,12 @@ public class WeldStartup {
         BootstrapLogger.LOG.validatingBeans();
         tracker.start(Tracker.OP_VALIDATE_BEANS);
         try {
-            for (BeanDeployment beanDeployment : getBeanDeployments()) {
+            execute("validateBeans", getBeanDeployments(), localStep("validateBeans", (beanDeployment) -> {
                 BeanManagerImpl beanManager = beanDeployment.getBeanManager();
                 beanManager.getBeanResolver().clear();
                 deployment.getServices().get(Validator.class).validateDeployment(beanManager, beanDeployment);
                 beanManager.getServices().get(InjectionTargetService.class).validate();
-            }
+            }));
         } catch (Exception e) {
             validationFailed(e);
             throw e;
@@ -504,16 +528,94 @@ public class WeldStartup {
         tracker.start(Tracker.OP_ADV);
         AfterDeploymentValidationImpl.fire(deploymentManager);
         tracker.end();
+        WeldConfiguration configuration = deploymentManager.getServices().get(WeldConfiguration.class);
+        UsageProfile usageProfile = UsageProfile.getLoaded(deploymentManager.getServices());
+        boolean eagerProxyGeneration = configuration.getBooleanProperty(ConfigurationKey.PROXY_EAGER_GENERATION);
+        if (eagerProxyGeneration || usageProfile != null) {
+            generateClientProxies(eagerProxyGeneration, usageProfile);
+        }
+        Predicate<Bean<?>> eagerInitialization = null;
+        String eagerInitializationPattern = configuration.getStringProperty(ConfigurationKey.EAGER_INITIALIZATION);
+        if (!eagerInitializationPattern.isEmpty()) {
+            Pattern pattern = Pattern.compile(eagerInitializationPattern);
+            eagerInitialization = (bean) -> pattern.matcher(bean.getBeanClass().getName()).matches();
+        }
+        if (usageProfile != null) {
+            eagerInitialization = eagerInitialization != null ? eagerInitialization.or(usageProfile::isBeanUsed) : usageProfile::isBeanUsed;
+        }
+        if (eagerInitialization != null) {
+            new EagerBeanInitializer(deploymentManager, getBeanDeployments(), eagerInitialization).initialize();
+        }
         tracker.end();
     }
 
+    /**
+     * Generates the client proxies of normal scoped beans so that the proxy classes are not defined when a bean is first needed. A proxy which cannot be
+     * generated is reported as a warning - the proxy is generated again when first needed.
+     *
+     * @param all If set to <code>true</code> the proxies of all normal scoped beans are generated
+     * @param usageProfile If not <code>null</code> the proxies used during the training run are generated first
+     */
+    private void generateClientProxies(boolean all, UsageProfile usageProfile) {
+        long start = System.nanoTime();
+        final Set<Bean<?>> beans = new LinkedHashSet<Bean<?>>();
+        final Set<Bean<?>> unused = new LinkedHashSet<Bean<?>>();
+        for (BeanDeployment beanDeployment : getBeanDeployments()) {
+            BeanManagerImpl beanManager = beanDeployment.getBeanManager();
+            for (Bean<?> bean : beanManager.getBeans()) {
+                if (beanManager.isNormalScope(bean.getScope())) {
+                    if (usageProfile == null || usageProfile.isClientProxyUsed(bean)) {
+                        beans.add(bean);
+                    } else if (all) {
+                        unused.add(bean);
+                    }
+                }
+            }
+        }
+        beans.addAll(unused);
+        // All the bean managers share the client proxy provider
+        final ClientProxyProvider clientProxyProvider = deploymentManager.getClientProxyProvider();
+        ExecutorServices executor = deploymentManager.getServices().get(ExecutorServices.class);
+        if (executor != null) {
+            executor.invokeAllAndCheckForExceptions(new IterativeWorkerTaskFactory<Bean<?>>(beans) {
+                protected void doWork(Bean<?> bean) {
+                    generateClientProxy(clientProxyProvider, bean);
+                }
+            });
+        } else {
+            for (Bean<?> bean : beans) {
+                generateClientProxy(clientProxyProvider, bean);
+            }
+        }
+        BootstrapLogger.LOG.clientProxiesGenerated(beans.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void generateClientProxy(ClientProxyProvider clientProxyProvider, Bean<?> bean) {
+        try {
+            clientProxyProvider.generateClientProxy(bean);
+        } catch (RuntimeException e) {
+            BootstrapLogger.LOG.clientProxyNotGenerated(bean, e);
+            BootstrapLogger.LOG.catchingDebug(e);
+        }
+    }
+
     public void endInitialization() {
         tracker.start(Tracker.OP_END_INIT);
+        shutdownScheduler();
         final BeanIdentifierIndex index = deploymentManager.getServices().get(BeanIdentifierIndex.class);
         if (index != null) {
             // Build a special index of bean identifiers
             index.build(getBeansForBeanIdentifierIndex());
         }
+        final BeanStoreSlotIndex slotIndex = deploymentManager.getServices().get(BeanStoreSlotIndex.class);
+        if (slotIndex != null) {
+            // Assign the slots used by indexed bean stores
+            Set<Bean<?>> beans = new HashSet<Bean<?>>();
+            for (BeanDeployment beanDeployment : getBeanDeployments()) {
+                beans.addAll(beanDeployment.getBeanManager().getBeans());
+            }
+            slotIndex.build(beans);
+        }
 
         // Register the managers so external requests can handle them
         // clear the TypeSafeResolvers, so data that is only used at startup
@@ -623,9 +725,15 @@ public class WeldStartup {
         contexts.add(new ContextHolder<BoundSessionContext>(new BoundSessionContextImpl(contextId, beanIdentifierIndex), BoundSessionContext.class, boundQualifires));
         contexts.add(new ContextHolder<BoundConversationContext>(new BoundConversationContextImpl(contextId, services), BoundConversationContext.class, boundQualifires));
         contexts.add(new ContextHolder<BoundRequestContext>(new BoundRequestContextImpl(contextId), BoundRequestContext.class, boundQualifires));
-        contexts.add(new ContextHolder<RequestContext>(new RequestContextImpl(contextId), RequestContext.class, unboundQualifiers));
+        RequestContextPropagation requestContextPropagation = services.get(RequestContextPropagation.class);
+        RequestContextImpl requestContext = new RequestContextImpl(contextId);
+        contexts.add(new ContextHolder<RequestContext>(requestContext, RequestContext.class, unboundQualifiers));
         contexts.add(new ContextHolder<DependentContext>(new DependentContextImpl(services.get(ContextualStore.class)), DependentContext.class, unboundQualifiers));
 
+        if (requestContextPropagation != null) {
+            requestContextPropagation.init(deploymentManager, requestContext);
+        }
+
         services.get(WeldModules.class).postContextRegistration(contextId, services, contexts);
 
         /*
@@ -702,6 +810,43 @@ public class WeldStartup {
         return deployment;
     }
 
+    /**
+     * Executes the given steps for all the given bean deployments. If the concurrent processing of bean deployment archives is not enabled, each step is
+     * executed for all the bean deployments before the next step is started.
+     *
+     * @param phase
+     * @param deployments
+     * @param steps
+     * @see BeanDeploymentScheduler
+     */
+    private void execute(String phase, Collection<BeanDeployment> deployments, Step... steps) {
+        if (scheduler != null && deployments.size() > 1) {
+            boolean finished = false;
+            try {
+                scheduler.execute(phase, deployments, bdaMapping, Arrays.asList(steps));
+                finished = true;
+            } finally {
+                if (!finished) {
+                    // The bootstrap fails - the scheduler is not needed anymore
+                    shutdownScheduler();
+                }
+            }
+        } else {
+            for (Step step : steps) {
+                for (BeanDeployment beanDeployment : deployments) {
+                    step.execute(beanDeployment);
+                }
+            }
+        }
+    }
+
+    private void shutdownScheduler() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
     private void validationFailed(Exception failure) {
         for (BeanDeployment beanDeployment : getBeanDeployments()) {
             beanDeployment.getBeanManager().validationFailed(failure, environment);
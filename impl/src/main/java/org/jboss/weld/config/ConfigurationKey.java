@@ -45,6 +45,45 @@ public enum ConfigurationKey {
     @Description("Indicates whether the concurrent deployment is enabled.")
     CONCURRENT_DEPLOYMENT("org.jboss.weld.bootstrap.concurrentDeployment", true),
 
+    /**
+     * Indicates whether the bean deployment archives should be processed concurrently during bootstrap. If enabled, the per-archive work of a bootstrap
+     * phase is scheduled as a task graph - the archives which are not accessible from each other do not wait for each other. Only the work which does not
+     * fire any container lifecycle event is processed concurrently, i.e. loading the classes, initializing the beans after bean discovery and validation. The
+     * container lifecycle events are still fired sequentially, in the same order as if the archives were processed sequentially.
+     *
+     * The number of threads is configured by {@link #EXECUTOR_THREAD_POOL_SIZE}. By default, the archives are processed sequentially.
+     */
+    @Description("Indicates whether the bean deployment archives are processed concurrently during bootstrap.")
+    CONCURRENT_BEAN_DEPLOYMENT_ARCHIVES("org.jboss.weld.bootstrap.concurrentBeanDeploymentArchives", false),
+
+    /**
+     * A regular expression. The {@link javax.enterprise.context.ApplicationScoped} beans whose bean class name matches the expression are initialized right
+     * after the {@link javax.enterprise.inject.spi.AfterDeploymentValidation} event is fired, in parallel using the
+     * {@link org.jboss.weld.manager.api.ExecutorServices} if available. A bean is only initialized after the matching beans it injects. If a bean cannot be
+     * initialized, the deployment fails.
+     *
+     * By default, no bean is initialized eagerly.
+     */
+    @Description("A regular expression. The application scoped beans whose bean class name matches the expression are initialized in parallel at the end of bootstrap.")
+    EAGER_INITIALIZATION("org.jboss.weld.bootstrap.eagerInitialization", ""),
+
+    /**
+     * The path of the usage profile file. If {@link #USAGE_PROFILE_RECORD} is set to <code>true</code>, the beans and client proxies used at runtime are
+     * recorded and the profile is written to the file when the container is shut down. Otherwise, the profile is read during bootstrap - the client proxies
+     * of the used beans are generated and the used application scoped beans are initialized at the end of bootstrap, and the decorator chain of the unused
+     * beans is not generated until the first instantiation.
+     *
+     * By default, no usage profile is used.
+     */
+    @Description("The path of the usage profile file, recorded during a training run and used to optimize later bootstraps.")
+    USAGE_PROFILE("org.jboss.weld.bootstrap.usageProfile", ""),
+
+    /**
+     * If set to <code>true</code>, the usage profile is recorded and written to the file specified by {@link #USAGE_PROFILE}.
+     */
+    @Description("If set to <code>true</code>, the usage profile is recorded and written to the file specified by <code>org.jboss.weld.bootstrap.usageProfile</code>.")
+    USAGE_PROFILE_RECORD("org.jboss.weld.bootstrap.usageProfile.record", false),
+
     /**
      * The number of threads used by ContainerLifecycleEventPreloader. The ContainerLifecycleEventPreloader allows observer methods for container lifecycle
      * events to be resolved upfront while the deployment is waiting for classloader or reflection API.
@@ -93,6 +132,13 @@ public enum ConfigurationKey {
     @Description("The maximum time the idle threads will wait for new tasks before terminating. Only used by <code>FIXED_TIMEOUT</code> thread pool type.")
     EXECUTOR_THREAD_POOL_KEEP_ALIVE_TIME("org.jboss.weld.executor.threadPoolKeepAliveTime", 60L),
 
+    /**
+     * The request context propagation mode for the tasks submitted to the Weld thread pool and for asynchronous observers. Possible values are: NONE,
+     * READ_ONLY.
+     */
+    @Description("The request context propagation mode for the tasks submitted to the Weld thread pool and for asynchronous observers. Possible values are: <ul><li><code>NONE</code> - The request context of the caller is not propagated.</li><li><code>READ_ONLY</code> - A task may use the request scoped instances which existed when the task was submitted. Instances created by the task are destroyed when the task completes. A propagated instance which was already destroyed by the caller's request is not used anymore.</li></ul>")
+    EXECUTOR_REQUEST_CONTEXT_PROPAGATION("org.jboss.weld.executor.requestContextPropagation", "NONE"),
+
     /**
      * Weld caches resolved injection points in order to resolve them faster in the future. There exists a separate type safe resolver for beans,
      * decorators, disposers, interceptors and observers. Each of them stores resolved injection points in its cache, which maximum size is bounded by a default
@@ -130,12 +176,66 @@ public enum ConfigurationKey {
     @Description("This option is deprecated - <code>org.jboss.weld.construction.relaxed</code> should be used instead.")
     PROXY_UNSAFE("org.jboss.weld.proxy.unsafe", false),
 
+    /**
+     * If set to <code>true</code>, client proxies of session beans invoke business methods declared by a business interface view directly, using generated
+     * bytecode, instead of dispatching the invocation reflectively through the method handler.
+     */
+    @Description("If set to <code>true</code>, client proxies of session beans invoke business methods declared by a business interface view directly, using generated bytecode, instead of dispatching the invocation reflectively.")
+    PROXY_EJB_DIRECT_DISPATCH("org.jboss.weld.proxy.ejbDirectDispatch", false),
+
+    /**
+     * If set to <code>true</code>, client proxies also invoke public methods whose signatures reference non-public types directly, using generated bytecode,
+     * instead of dispatching the invocation reflectively through the method handler.
+     */
+    @Description("If set to <code>true</code>, client proxies also invoke public methods whose signatures reference non-public types directly, using generated bytecode, instead of dispatching the invocation reflectively.")
+    PROXY_CLIENT_DIRECT_DISPATCH("org.jboss.weld.proxy.clientDirectDispatch", false),
+
+    /**
+     * If set to <code>true</code>, a delegate proxy class is generated for each decorator of a decorated bean. Its methods invoke the decorator instance or
+     * the next delegate directly, using generated bytecode, instead of dispatching the invocation reflectively through the method handler. By default, all
+     * the delegates of a decorated bean share a single proxy class.
+     */
+    @Description("If set to <code>true</code>, a delegate proxy class which invokes the decorator chain directly, using generated bytecode, is generated for each decorator of a decorated bean. By default, all the delegates of a decorated bean share a single proxy class.")
+    PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH("org.jboss.weld.proxy.decoratorChainDirectDispatch", false),
+
+    /**
+     * If set to <code>true</code>, the client proxies of all normal scoped beans are generated right after the
+     * {@link javax.enterprise.inject.spi.AfterDeploymentValidation} event is fired, in parallel using the {@link org.jboss.weld.manager.api.ExecutorServices}
+     * if available. By default, a client proxy is generated when first needed.
+     */
+    @Description("If set to <code>true</code>, the client proxies of all normal scoped beans are generated in parallel at the end of bootstrap instead of when first needed.")
+    PROXY_EAGER_GENERATION("org.jboss.weld.proxy.eagerGeneration", false),
+
+    /**
+     * If set to <code>true</code>, the enhanced subclass of an intercepted or decorated bean and the proxy classes of its decorator chain are generated when the
+     * first instance of the bean is created. The interceptor and decorator bindings are still resolved and validated during bootstrap, the method-bound
+     * interceptors are not retained and are resolved again when first needed. By default, the classes are generated during bootstrap. Note that the classes
+     * of the beans which were not used during the training run are always generated lazily if a usage profile is used.
+     */
+    @Description("If set to <code>true</code>, the enhanced subclasses of intercepted and decorated beans are generated when the first instance is created instead of during bootstrap.")
+    PROXY_LAZY_SUBCLASS_GENERATION("org.jboss.weld.proxy.lazySubclassGeneration", false),
+
     /**
      * XML descriptor validation is enabled by default.
      */
     @Description("XML descriptor validation is enabled by default.")
     DISABLE_XML_VALIDATION("org.jboss.weld.xml.disableValidating", false),
 
+    /**
+     * The results of beans.xml parsing are cached by the digest of the descriptor content and shared between containers running in the same JVM. Also a
+     * descriptor with the same content is only validated once unless the validation reports a warning or an error. The cache is enabled by default.
+     */
+    @Description("If set to <code>true</code>, the beans.xml descriptors with the same content are parsed and validated again for each bean archive.")
+    DISABLE_XML_CACHE("org.jboss.weld.xml.disableCache", false),
+
+    /**
+     * The path of a file which stores the digests of the beans.xml descriptors which were already validated without any warning or error so that a descriptor
+     * is not validated again on the next boot. A digest also covers the Weld version, the file holds at most 1024 digests and it is replaced atomically at
+     * the end of the bootstrap. By default, the digests are only kept in memory.
+     */
+    @Description("The path of a file which stores the digests of the beans.xml descriptors which were already validated.")
+    XML_CACHE_FILE("org.jboss.weld.xml.cacheFile", ""),
+
     /**
      * For certain combinations of scopes, the container is permitted to optimize an injectable reference lookup. The optimization is disabled by default as it
      * does not match the {@link javax.enterprise.context.spi.AlterableContext} contract.
@@ -162,6 +262,45 @@ public enum ConfigurationKey {
     @Description("<strong>DEVELOPMENT MODE</strong> - an event class matching this regular expression is excluded from monitoring.")
     PROBE_EVENT_MONITOR_EXCLUDE_TYPE("org.jboss.weld.probe.eventMonitor.excludeType", ""),
 
+    /**
+     * If set to <code>true</code>, Probe stores the captured invocations and events in bounded lock-free ring buffers. This storage has lower overhead under
+     * concurrent load and is suitable for production environments.
+     */
+    @Description("<strong>DEVELOPMENT MODE</strong> - if set to <code>true</code>, Probe stores the captured invocations and events in bounded lock-free ring buffers which have lower overhead under concurrent load.")
+    PROBE_LOCK_FREE_STORAGE("org.jboss.weld.probe.lockFreeStorage", false),
+
+    /**
+     * Only one in N invocation trees is captured, where N is the sampling rate. If set to <code>1</code> (default value), all invocation trees are captured.
+     * If set to <code>0</code>, no invocation trees are captured - this only makes sense if aggregated statistics are enabled.
+     *
+     * @see #PROBE_INVOCATION_MONITOR_AGGREGATED_STATISTICS
+     */
+    @Description("<strong>DEVELOPMENT MODE</strong> - only one in N invocation trees is captured, where N is the sampling rate. If set to <code>1</code>, all invocation trees are captured. If set to <code>0</code>, no invocation trees are captured.")
+    PROBE_INVOCATION_MONITOR_SAMPLING_RATE("org.jboss.weld.probe.invocationMonitor.samplingRate", 1),
+
+    /**
+     * If set to <code>true</code>, the invocation monitor records aggregated statistics (count, total time, max time and percentiles) per bean method for
+     * every monitored invocation, regardless of the sampling rate.
+     */
+    @Description("<strong>DEVELOPMENT MODE</strong> - if set to <code>true</code>, the invocation monitor records aggregated statistics (count, total time, max time and percentiles) per bean method for every monitored invocation.")
+    PROBE_INVOCATION_MONITOR_AGGREGATED_STATISTICS("org.jboss.weld.probe.invocationMonitor.aggregatedStatistics", false),
+
+    /**
+     * The number of significant bits kept for each duration recorded in the aggregated statistics, between <code>3</code> and <code>10</code>. The relative
+     * error of a percentile value does not exceed 2<sup>-precision</sup>, i.e. 3.125% for the default value of <code>5</code>. A higher precision
+     * needs more memory per bean method.
+     *
+     * @see #PROBE_INVOCATION_MONITOR_AGGREGATED_STATISTICS
+     */
+    @Description("<strong>DEVELOPMENT MODE</strong> - the number of significant bits kept for each duration recorded in the aggregated statistics, between <code>3</code> and <code>10</code>. The relative error of a percentile value does not exceed 2<sup>-precision</sup>.")
+    PROBE_INVOCATION_MONITOR_HISTOGRAM_PRECISION("org.jboss.weld.probe.invocationMonitor.histogramPrecision", 5),
+
+    /**
+     * Only one in N fired events is captured, where N is the sampling rate. If set to <code>1</code> (default value), all events are captured.
+     */
+    @Description("<strong>DEVELOPMENT MODE</strong> - only one in N fired events is captured, where N is the sampling rate. If set to <code>1</code>, all events are captured.")
+    PROBE_EVENT_MONITOR_SAMPLING_RATE("org.jboss.weld.probe.eventMonitor.samplingRate", 1),
+
     /**
      * This optimization is used to reduce the HTTP session replication overhead. However, the inconsistency detection mechanism may cause problems in some
      * development environments.
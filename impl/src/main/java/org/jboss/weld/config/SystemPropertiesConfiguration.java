@@ -31,8 +31,14 @@ public final class SystemPropertiesConfiguration {
 
     private boolean xmlValidationDisabled;
 
+    private boolean xmlCacheDisabled;
+
+    private String xmlCacheFile;
+
     private SystemPropertiesConfiguration() {
         xmlValidationDisabled = initSystemProperty(ConfigurationKey.DISABLE_XML_VALIDATION, Boolean.class);
+        xmlCacheDisabled = initSystemProperty(ConfigurationKey.DISABLE_XML_CACHE, Boolean.class);
+        xmlCacheFile = initSystemProperty(ConfigurationKey.XML_CACHE_FILE, String.class);
     }
 
     /**
@@ -44,6 +50,23 @@ public final class SystemPropertiesConfiguration {
         return xmlValidationDisabled;
     }
 
+    /**
+     * The beans.xml cache is enabled by default.
+     *
+     * @return <code>true</code> if the cache is disabled, <code>false</code> otherwise
+     */
+    public boolean isXmlCacheDisabled() {
+        return xmlCacheDisabled;
+    }
+
+    /**
+     *
+     * @return the path of the file which stores the digests of validated beans.xml descriptors, or an empty string
+     */
+    public String getXmlCacheFile() {
+        return xmlCacheFile;
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T initSystemProperty(ConfigurationKey key, Class<T> requiredType) {
         checkRequiredType(key, requiredType);
@@ -26,6 +26,7 @@ import org.jboss.weld.contexts.beanstore.BeanStore;
 import org.jboss.weld.contexts.beanstore.BoundBeanStore;
 import org.jboss.weld.contexts.beanstore.LockedBean;
 import org.jboss.weld.contexts.cache.RequestScopedCache;
+import org.jboss.weld.contexts.state.StateLocal;
 import org.jboss.weld.serialization.spi.BeanIdentifier;
 
 /**
@@ -35,11 +36,11 @@ import org.jboss.weld.serialization.spi.BeanIdentifier;
  */
 public abstract class AbstractBoundContext<S> extends AbstractManagedContext implements BoundContext<S> {
 
-    private final ThreadLocal<BoundBeanStore> beanStore;
+    private final StateLocal<BoundBeanStore> beanStore;
 
     public AbstractBoundContext(String contextId, boolean multithreaded) {
         super(contextId, multithreaded);
-        this.beanStore = new ThreadLocal<BoundBeanStore>();
+        this.beanStore = new StateLocal<BoundBeanStore>();
     }
 
     /**
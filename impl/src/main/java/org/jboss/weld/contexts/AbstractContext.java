@@ -26,6 +26,8 @@ import org.jboss.weld.bean.WrappedContextual;
 import org.jboss.weld.bootstrap.api.ServiceRegistry;
 import org.jboss.weld.context.api.ContextualInstance;
 import org.jboss.weld.contexts.beanstore.BeanStore;
+import org.jboss.weld.contexts.beanstore.BeanStoreSlotIndex;
+import org.jboss.weld.contexts.beanstore.IndexedBeanStore;
 import org.jboss.weld.contexts.beanstore.LockedBean;
 import org.jboss.weld.contexts.cache.RequestScopedCache;
 import org.jboss.weld.logging.ContextLogger;
@@ -80,7 +82,9 @@ public abstract class AbstractContext implements AlterableContext {
             throw ContextLogger.LOG.contextualIsNull();
         }
         BeanIdentifier id = getId(contextual);
-        ContextualInstance<T> beanInstance = beanStore.get(id);
+        // Indexed bean store does not need to hash the identifier
+        final int slot = beanStore instanceof IndexedBeanStore ? BeanStoreSlotIndex.getSlot(contextual) : -1;
+        ContextualInstance<T> beanInstance = slot >= 0 ? ((IndexedBeanStore) beanStore).<T> get(slot, id) : beanStore.<T> get(id);
         if (beanInstance != null) {
             return beanInstance.getInstance();
         } else if (creationalContext != null) {
@@ -96,7 +100,11 @@ public abstract class AbstractContext implements AlterableContext {
                 T instance = contextual.create(creationalContext);
                 if (instance != null) {
                     beanInstance = new SerializableContextualInstanceImpl<Contextual<T>, T>(contextual, instance, creationalContext, serviceRegistry.get(ContextualStore.class));
-                    beanStore.put(id, beanInstance);
+                    if (slot >= 0) {
+                        ((IndexedBeanStore) beanStore).put(slot, id, beanInstance);
+                    } else {
+                        beanStore.put(id, beanInstance);
+                    }
                 }
                 return instance;
             } finally {
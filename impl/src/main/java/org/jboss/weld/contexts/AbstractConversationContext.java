@@ -54,6 +54,7 @@ import org.jboss.weld.contexts.beanstore.ConversationNamingScheme;
 import org.jboss.weld.contexts.beanstore.NamingScheme;
 import org.jboss.weld.contexts.conversation.ConversationIdGenerator;
 import org.jboss.weld.contexts.conversation.ConversationImpl;
+import org.jboss.weld.contexts.state.StateLocal;
 import org.jboss.weld.event.FastEvent;
 import org.jboss.weld.logging.ConversationLogger;
 import org.jboss.weld.manager.BeanManagerImpl;
@@ -81,7 +82,7 @@ public abstract class AbstractConversationContext<R, S> extends AbstractBoundCon
     private final AtomicLong defaultTimeout;
     private final AtomicLong concurrentAccessTimeout;
 
-    private final ThreadLocal<R> associated;
+    private final StateLocal<R> associated;
 
     private final BeanManagerImpl manager;
 
@@ -105,7 +106,7 @@ public abstract class AbstractConversationContext<R, S> extends AbstractBoundCon
         WeldConfiguration configuration = services.get(WeldConfiguration.class);
         this.defaultTimeout = new AtomicLong(configuration.getLongProperty(ConfigurationKey.CONVERSATION_TIMEOUT));
         this.concurrentAccessTimeout = new AtomicLong(configuration.getLongProperty(ConfigurationKey.CONVERSATION_CONCURRENT_ACCESS_TIMEOUT));
-        this.associated = new ThreadLocal<R>();
+        this.associated = new StateLocal<R>();
         this.manager = Container.instance(contextId).deploymentManager();
         this.beanIdentifierIndex = services.get(BeanIdentifierIndex.class);
     }
@@ -17,6 +17,7 @@
 package org.jboss.weld.contexts;
 
 import org.jboss.weld.context.ManagedContext;
+import org.jboss.weld.contexts.state.StateLocal;
 import org.jboss.weld.logging.ContextLogger;
 
 /**
@@ -25,11 +26,16 @@ import org.jboss.weld.logging.ContextLogger;
  */
 public abstract class AbstractManagedContext extends AbstractContext implements ManagedContext {
 
-    private final ThreadLocal<ManagedState> state;
+    private final StateLocal<ManagedState> state;
+
+    // Set if the context is tracked by the active context registry
+    private volatile ActiveContextRegistry registry;
+
+    private volatile int slot;
 
     public AbstractManagedContext(String contextId, boolean multithreaded) {
         super(contextId, multithreaded);
-        this.state = new ThreadLocal<ManagedState>();
+        this.state = new StateLocal<ManagedState>();
     }
 
     public boolean isActive() {
@@ -39,6 +45,14 @@ public abstract class AbstractManagedContext extends AbstractContext implements
 
     protected void setActive(boolean active) {
         getManagedState().setActive(active);
+        ActiveContextRegistry activeContextRegistry = registry;
+        if (activeContextRegistry != null) {
+            if (active) {
+                activeContextRegistry.activated(this, slot);
+            } else {
+                activeContextRegistry.deactivated(this, slot);
+            }
+        }
     }
 
     public void invalidate() {
@@ -68,6 +82,15 @@ public abstract class AbstractManagedContext extends AbstractContext implements
     protected void removeState() {
         ContextLogger.LOG.tracev("State thread-local removed: {0}", this);
         state.remove();
+        ActiveContextRegistry activeContextRegistry = registry;
+        if (activeContextRegistry != null) {
+            activeContextRegistry.deactivated(this, slot);
+        }
+    }
+
+    void bind(ActiveContextRegistry registry, int slot) {
+        this.slot = slot;
+        this.registry = registry;
     }
 
     private ManagedState getManagedState() {
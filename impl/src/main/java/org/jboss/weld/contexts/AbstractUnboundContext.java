@@ -17,6 +17,7 @@
 package org.jboss.weld.contexts;
 
 import org.jboss.weld.contexts.beanstore.BeanStore;
+import org.jboss.weld.contexts.state.StateLocal;
 
 /**
  * Base class for contexts using a thread local to store a bound bean context
@@ -25,11 +26,11 @@ import org.jboss.weld.contexts.beanstore.BeanStore;
  */
 public abstract class AbstractUnboundContext extends AbstractManagedContext {
 
-    private final ThreadLocal<BeanStore> beanStore;
+    private final StateLocal<BeanStore> beanStore;
 
     public AbstractUnboundContext(String contextId, boolean multithreaded) {
         super(contextId, multithreaded);
-        this.beanStore = new ThreadLocal<BeanStore>();
+        this.beanStore = new StateLocal<BeanStore>();
     }
 
     /**
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.spi.Context;
+
+import org.jboss.weld.bootstrap.api.Service;
+import org.jboss.weld.contexts.state.StateLocal;
+import org.jboss.weld.logging.BeanManagerLogger;
+
+/**
+ * Keeps track of the active contexts on the current thread so that the active context for a scope can be found without calling
+ * {@link Context#isActive()} on every context registered for the scope.
+ * <p>
+ * A scope is only tracked if all the contexts registered for the scope are {@link AbstractManagedContext}s which do not override
+ * {@link AbstractManagedContext#isActive()}. Such contexts notify the registry whenever they are activated or deactivated on the current thread. Each
+ * tracked scope is assigned a slot - an index in the per-thread array of active contexts.
+ * </p>
+ * <p>
+ * The per-thread array is kept once created so that activating and deactivating a context does not set and remove a thread-local value. The array only
+ * references the contexts which are currently active on the thread.
+ * </p>
+ *
+ * @see AbstractManagedContext
+ */
+public class ActiveContextRegistry implements Service {
+
+    /**
+     * Indicates that the active context must be found by checking all the contexts registered for the scope, e.g. if there are multiple active contexts.
+     */
+    private static final Object UNKNOWN = new Object();
+
+    private final Map<Class<? extends Annotation>, Integer> slots;
+
+    private final StateLocal<Object[]> activeContexts;
+
+    private volatile ScopeEntry[] entries;
+
+    public ActiveContextRegistry() {
+        this.slots = new ConcurrentHashMap<>();
+        this.activeContexts = new StateLocal<>();
+        this.entries = new ScopeEntry[0];
+    }
+
+    /**
+     * Registers a context. Should be called when the context is added to the bean manager.
+     *
+     * @param context The registered context, possibly a {@link PassivatingContextWrapper}
+     */
+    public synchronized void register(Context context) {
+        Class<? extends Annotation> scope = context.getScope();
+        int slot = -1;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].scope.equals(scope)) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot == -1) {
+            slot = entries.length;
+            ScopeEntry[] newEntries = Arrays.copyOf(entries, slot + 1);
+            newEntries[slot] = new ScopeEntry(scope);
+            entries = newEntries;
+        }
+        ScopeEntry entry = entries[slot];
+        entry.add(context);
+
+        Context unwrapped = PassivatingContextWrapper.unwrap(context);
+        if (entry.tracked && isTrackable(unwrapped)) {
+            AbstractManagedContext managedContext = (AbstractManagedContext) unwrapped;
+            managedContext.bind(this, slot);
+            if (managedContext.isActive()) {
+                setUnknown(slot);
+            }
+            slots.put(scope, slot);
+        } else {
+            entry.tracked = false;
+            slots.remove(scope);
+        }
+    }
+
+    /**
+     *
+     * @param scope
+     * @return the slot of the given scope or <code>-1</code> if the scope is not tracked
+     */
+    public int getSlot(Class<? extends Annotation> scope) {
+        Integer slot = slots.get(scope);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     *
+     * @param slot
+     * @return the active context for the given slot or <code>null</code> if there is no active context
+     * @throws IllegalStateException if there are multiple active contexts
+     * @see #getSlot(Class)
+     */
+    public Context getActiveContext(int slot) {
+        Object[] active = activeContexts.get();
+        if (active == null || slot >= active.length) {
+            return null;
+        }
+        Object context = active[slot];
+        if (context == UNKNOWN) {
+            ScopeEntry[] currentEntries = entries;
+            if (slot >= currentEntries.length) {
+                return null;
+            }
+            Context found = currentEntries[slot].findActiveContext();
+            active[slot] = found;
+            return found;
+        }
+        return (Context) context;
+    }
+
+    @Override
+    public synchronized void cleanup() {
+        slots.clear();
+        entries = new ScopeEntry[0];
+        activeContexts.remove();
+    }
+
+    void activated(AbstractManagedContext context, int slot) {
+        ScopeEntry[] currentEntries = entries;
+        if (slot >= currentEntries.length) {
+            // The registry was already cleaned up
+            return;
+        }
+        Context registered = currentEntries[slot].getRegistered(context);
+        Object[] active = getActiveContexts(slot);
+        Object current = active[slot];
+        if (current == null || current == registered) {
+            active[slot] = registered;
+        } else {
+            // Another context is active or the state is not known
+            active[slot] = UNKNOWN;
+        }
+    }
+
+    void deactivated(AbstractManagedContext context, int slot) {
+        Object[] active = activeContexts.get();
+        ScopeEntry[] currentEntries = entries;
+        if (active == null || slot >= active.length || slot >= currentEntries.length) {
+            return;
+        }
+        if (active[slot] == currentEntries[slot].getRegistered(context)) {
+            active[slot] = null;
+            if (isEmpty(active)) {
+                // Do not keep the state on an idle thread
+                activeContexts.remove();
+            }
+        }
+    }
+
+    private static boolean isEmpty(Object[] active) {
+        for (Object context : active) {
+            if (context != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setUnknown(int slot) {
+        getActiveContexts(slot)[slot] = UNKNOWN;
+    }
+
+    private Object[] getActiveContexts(int slot) {
+        Object[] active = activeContexts.get();
+        if (active == null || slot >= active.length) {
+            int length = Math.max(slot + 1, entries.length);
+            active = active == null ? new Object[length] : Arrays.copyOf(active, length);
+            activeContexts.set(active);
+        }
+        return active;
+    }
+
+    private static boolean isTrackable(Context context) {
+        if (!(context instanceof AbstractManagedContext)) {
+            return false;
+        }
+        try {
+            return context.getClass().getMethod("isActive").getDeclaringClass().equals(AbstractManagedContext.class);
+        } catch (NoSuchMethodException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static final class ScopeEntry {
+
+        private final Class<? extends Annotation> scope;
+
+        private volatile Context[] contexts;
+
+        private volatile boolean tracked;
+
+        private ScopeEntry(Class<? extends Annotation> scope) {
+            this.scope = scope;
+            this.contexts = new Context[0];
+            this.tracked = true;
+        }
+
+        private void add(Context context) {
+            Context[] newContexts = Arrays.copyOf(contexts, contexts.length + 1);
+            newContexts[contexts.length] = context;
+            contexts = newContexts;
+        }
+
+        /**
+         * @return the registered context, possibly a {@link PassivatingContextWrapper}, for the given context
+         */
+        private Context getRegistered(AbstractManagedContext context) {
+            for (Context registered : contexts) {
+                if (registered == context || PassivatingContextWrapper.unwrap(registered) == context) {
+                    return registered;
+                }
+            }
+            return context;
+        }
+
+        private Context findActiveContext() {
+            Context activeContext = null;
+            for (Context context : contexts) {
+                if (context.isActive()) {
+                    if (activeContext == null) {
+                        activeContext = context;
+                    } else {
+                        throw BeanManagerLogger.LOG.duplicateActiveContexts(scope.getName());
+                    }
+                }
+            }
+            return activeContext;
+        }
+
+    }
+
+}
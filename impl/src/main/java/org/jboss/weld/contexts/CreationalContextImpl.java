@@ -16,15 +16,21 @@
  */
 package org.jboss.weld.contexts;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import javax.enterprise.context.spi.Contextual;
 import javax.enterprise.context.spi.CreationalContext;
@@ -33,12 +39,16 @@ import org.jboss.weld.construction.api.AroundConstructCallback;
 import org.jboss.weld.context.api.ContextualInstance;
 import org.jboss.weld.injection.spi.ResourceReference;
 import org.jboss.weld.interceptor.proxy.InterceptionContext;
-import org.jboss.weld.util.collections.WeldCollections;
 import org.jboss.weld.util.reflection.Reflections;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
+ * Dependent instances are kept in linked nodes which are only allocated once a dependent instance is registered. The thread which created the creational
+ * context is the only writer of its own list, i.e. it appends the dependent instances without any monitor or compare-and-set. The dependent instances
+ * registered by other threads are appended with a compare-and-set. A destroyed dependent instance is marked so that it's never destroyed twice and
+ * unlinked afterwards.
+ *
  * @author Pete Muir
  * @author Ales Justin
  * @author Jozef Hartinger
@@ -49,16 +59,41 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
 
     private static final SerializationProxy SERIALIZATION_PROXY = new SerializationProxy();
 
+    // Keep the serialized form compatible with the previous versions
+    private static final ObjectStreamField[] serialPersistentFields = { new ObjectStreamField("dependentInstances", List.class),
+            new ObjectStreamField("parentDependentInstances", List.class), new ObjectStreamField("parentCreationalContext", CreationalContextImpl.class) };
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CreationalContextImpl, DependentInstance> DEPENDENT_INSTANCES_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(CreationalContextImpl.class, DependentInstance.class, "dependentInstances");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CreationalContextImpl, DependentInstance> OWNER_DEPENDENT_INSTANCES_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(CreationalContextImpl.class, DependentInstance.class, "ownerDependentInstances");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CreationalContextImpl, DependentInstance> PARENT_DEPENDENT_INSTANCES_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(CreationalContextImpl.class, DependentInstance.class, "parentDependentInstances");
+
     @SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "Not needed after initial creation")
     private transient Map<Contextual<?>, Object> incompleteInstances;
     @SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "Not needed after initial creation")
     private final transient Contextual<T> contextual;
 
-    private final List<ContextualInstance<?>> dependentInstances;
+    // The last dependent instance registered by the child creational contexts in the owner thread, or null if there is none
+    private transient volatile DependentInstance ownerDependentInstances;
+
+    // The last dependent instance registered by the child creational contexts in other threads, or null if there is none
+    private transient volatile DependentInstance dependentInstances;
+
+    // The id of the thread which created this creational context
+    @SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "A deserialized creational context has no owner")
+    private final transient long owner;
 
-    private final List<ContextualInstance<?>> parentDependentInstances;
+    // The last dependent instance registered by this creational context if there is no parent creational context
+    private transient volatile DependentInstance parentDependentInstances;
 
-    private final CreationalContextImpl<?> parentCreationalContext;
+    private CreationalContextImpl<?> parentCreationalContext;
 
     private transient List<ResourceReference<?>> resourceReferences;
 
@@ -68,27 +103,25 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
 
     private transient InterceptionContext aroundConstructInterceptionContext;
 
+    private transient volatile boolean released;
+
     public CreationalContextImpl(Contextual<T> contextual) {
-        this(contextual, null, Collections.synchronizedList(new ArrayList<ContextualInstance<?>>()), null);
+        this(contextual, null, null);
     }
 
-    private CreationalContextImpl(Contextual<T> contextual, Map<Contextual<?>, Object> incompleteInstances,
-            List<ContextualInstance<?>> parentDependentInstancesStore, CreationalContextImpl<?> parentCreationalContext) {
+    private CreationalContextImpl(Contextual<T> contextual, Map<Contextual<?>, Object> incompleteInstances, CreationalContextImpl<?> parentCreationalContext) {
         this.incompleteInstances = incompleteInstances;
         this.contextual = contextual;
         // this is direct ref by intention - to track dependencies hierarchy
-        this.dependentInstances = Collections.synchronizedList(new ArrayList<ContextualInstance<?>>());
-        this.parentDependentInstances = parentDependentInstancesStore;
         this.parentCreationalContext = parentCreationalContext;
         this.constructorInterceptionSuppressed = false;
+        this.owner = Thread.currentThread().getId();
     }
 
     private CreationalContextImpl() {
         this.contextual = null;
         this.parentCreationalContext = null;
-        // We can't use immutable empty lists because of some rare scenarios with Instance.get()
-        this.dependentInstances = Collections.synchronizedList(new ArrayList<ContextualInstance<?>>());
-        this.parentDependentInstances = Collections.synchronizedList(new ArrayList<ContextualInstance<?>>());
+        this.owner = -1;
     }
 
     public void push(T incompleteInstance) {
@@ -99,11 +132,11 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
     }
 
     public <S> CreationalContextImpl<S> getCreationalContext(Contextual<S> contextual) {
-        return new CreationalContextImpl<S>(contextual, incompleteInstances, dependentInstances, this);
+        return new CreationalContextImpl<S>(contextual, incompleteInstances, this);
     }
 
     public <S> CreationalContextImpl<S> getProducerReceiverCreationalContext(Contextual<S> contextual) {
-        return new CreationalContextImpl<S>(contextual, incompleteInstances != null ? new HashMap<Contextual<?>, Object>(incompleteInstances) : null, Collections.synchronizedList(new ArrayList<ContextualInstance<?>>()), null);
+        return new CreationalContextImpl<S>(contextual, incompleteInstances != null ? new HashMap<Contextual<?>, Object>(incompleteInstances) : null, null);
     }
 
     public <S> S getIncompleteInstance(Contextual<S> bean) {
@@ -115,7 +148,20 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
     }
 
     public void addDependentInstance(ContextualInstance<?> contextualInstance) {
-        parentDependentInstances.add(contextualInstance);
+        if (parentCreationalContext != null) {
+            parentCreationalContext.addChildDependentInstance(contextualInstance);
+        } else {
+            add(PARENT_DEPENDENT_INSTANCES_UPDATER, this, contextualInstance);
+        }
+    }
+
+    private void addChildDependentInstance(ContextualInstance<?> contextualInstance) {
+        if (owner == Thread.currentThread().getId()) {
+            // Single writer
+            OWNER_DEPENDENT_INSTANCES_UPDATER.lazySet(this, new DependentInstance(contextualInstance, ownerDependentInstances));
+        } else {
+            add(DEPENDENT_INSTANCES_UPDATER, this, contextualInstance);
+        }
     }
 
     public void release() {
@@ -124,12 +170,11 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
 
     // should not be public
     public void release(Contextual<T> contextual, T instance) {
-        synchronized (dependentInstances) {
-            for (ContextualInstance<?> dependentInstance : dependentInstances) {
-                // do not destroy contextual again, since it's just being destroyed
-                if (contextual == null || !(dependentInstance.getContextual().equals(contextual))) {
-                    destroy(dependentInstance);
-                }
+        released = true;
+        for (DependentInstance dependentInstance : toNodes()) {
+            // do not destroy contextual again, since it's just being destroyed
+            if ((contextual == null || !(dependentInstance.instance.getContextual().equals(contextual))) && dependentInstance.markDestroyed()) {
+                destroy(dependentInstance.instance);
             }
         }
         if (resourceReferences != null) {
@@ -143,6 +188,14 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
         beanInstance.getContextual().destroy(beanInstance.getInstance(), beanInstance.getCreationalContext());
     }
 
+    /**
+     *
+     * @return <code>true</code> if this creational context was already released, i.e. the contextual instance was destroyed, <code>false</code> otherwise
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
     /**
      * @return the parent {@link CreationalContext} or null if there isn't any parent.
      */
@@ -154,44 +207,68 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
      * Returns an unmodifiable list of dependent instances.
      */
     public List<ContextualInstance<?>> getDependentInstances() {
-        return WeldCollections.immutableListView(dependentInstances);
+        DependentInstance ownerLast = ownerDependentInstances;
+        DependentInstance last = dependentInstances;
+        if (ownerLast == null && last == null) {
+            return Collections.emptyList();
+        }
+        return new DependentInstances(ownerLast, last);
     }
 
     // Serialization
     protected Object writeReplace() throws ObjectStreamException {
-        synchronized (dependentInstances) {
-            for (Iterator<ContextualInstance<?>> iterator = dependentInstances.iterator(); iterator.hasNext();) {
-                ContextualInstance<?> instance = iterator.next();
-                if (!(instance.getInstance() instanceof Serializable)) {
-                    /*
-                     * This non-serializable instance is a dependency of a passivation capable enclosing bean. This means that:
-                     *
-                     * 1) The dependency was injected into a transient field, constructor or initializer injection point of the enclosing bean instance
-                     * (otherwise it would not pass deployment validation) and is no longer retained by the enclosing bean instance. In that case we can safely
-                     * destroy the dependent instance now.
-                     *
-                     * 2) Same as above but the enclosing bean instance retained a reference in a field that Weld has no control of. If that is the case and the
-                     * bean class does not implement serialization properly, serialization of the bean instance is going to fail anyway so it is safe to destroy
-                     * the dependent instance now.
-                     *
-                     * 3) Same as above but the bean class implements serialization properly (writeObject) so that it is able to reconstruct the state of the
-                     * injected dependency on activation. If that's the case we would probably won't be able to destroy the dependency later on anyway since the
-                     * identity of the dependent instance would change. Destroying it now may be risky in certain circumstances.
-                     *
-                     * @see https://issues.jboss.org/browse/WELD-1076
-                     */
+        for (DependentInstance dependentInstance : toNodes()) {
+            ContextualInstance<?> instance = dependentInstance.instance;
+            if (!(instance.getInstance() instanceof Serializable)) {
+                /*
+                 * This non-serializable instance is a dependency of a passivation capable enclosing bean. This means that:
+                 *
+                 * 1) The dependency was injected into a transient field, constructor or initializer injection point of the enclosing bean instance
+                 * (otherwise it would not pass deployment validation) and is no longer retained by the enclosing bean instance. In that case we can safely
+                 * destroy the dependent instance now.
+                 *
+                 * 2) Same as above but the enclosing bean instance retained a reference in a field that Weld has no control of. If that is the case and the
+                 * bean class does not implement serialization properly, serialization of the bean instance is going to fail anyway so it is safe to destroy
+                 * the dependent instance now.
+                 *
+                 * 3) Same as above but the bean class implements serialization properly (writeObject) so that it is able to reconstruct the state of the
+                 * injected dependency on activation. If that's the case we would probably won't be able to destroy the dependency later on anyway since the
+                 * identity of the dependent instance would change. Destroying it now may be risky in certain circumstances.
+                 *
+                 * @see https://issues.jboss.org/browse/WELD-1076
+                 */
+                if (dependentInstance.markDestroyed()) {
+                    unlink(dependentInstance);
                     destroy(instance);
-                    iterator.remove();
                 }
             }
         }
         // Return a serialization proxy for an "empty" instance
-        if (parentCreationalContext == null && dependentInstances.isEmpty() && (parentDependentInstances == null || parentDependentInstances.isEmpty())) {
+        if (parentCreationalContext == null && toNodes().isEmpty() && parentDependentInstances == null) {
             return SERIALIZATION_PROXY;
         }
         return this;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        List<ContextualInstance<?>> instances = new ArrayList<ContextualInstance<?>>();
+        for (DependentInstance dependentInstance : toNodes()) {
+            instances.add(dependentInstance.instance);
+        }
+        fields.put("dependentInstances", instances);
+        fields.put("parentDependentInstances", toList(parentDependentInstances));
+        fields.put("parentCreationalContext", parentCreationalContext);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.dependentInstances = fromList(fields.get("dependentInstances", null));
+        this.parentDependentInstances = fromList(fields.get("parentDependentInstances", null));
+        this.parentCreationalContext = (CreationalContextImpl<?>) fields.get("parentCreationalContext", null);
+    }
+
     /**
      * Register a {@link ResourceReference} as a dependency. {@link ResourceReference#release()} will be called on every {@link ResourceReference} once this
      * {@link CreationalContext} instance is released.
@@ -210,14 +287,12 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
      * @return true if the instance was destroyed, false otherwise
      */
     public boolean destroyDependentInstance(T instance) {
-        synchronized (dependentInstances) {
-            for (Iterator<ContextualInstance<?>> iterator = dependentInstances.iterator(); iterator.hasNext();) {
-                ContextualInstance<?> contextualInstance = iterator.next();
-                if (contextualInstance.getInstance() == instance) {
-                    iterator.remove();
-                    destroy(contextualInstance);
-                    return true;
-                }
+        for (DependentInstance dependentInstance : toNodes()) {
+            // The dependent instance may be destroyed concurrently
+            if (dependentInstance.instance.getInstance() == instance && dependentInstance.markDestroyed()) {
+                unlink(dependentInstance);
+                destroy(dependentInstance.instance);
+                return true;
             }
         }
         return false;
@@ -267,6 +342,188 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, WeldCreat
         this.aroundConstructInterceptionContext = aroundConstructInterceptionContext;
     }
 
+    @SuppressWarnings("rawtypes")
+    private static void add(AtomicReferenceFieldUpdater<CreationalContextImpl, DependentInstance> updater, CreationalContextImpl<?> creationalContext,
+            ContextualInstance<?> contextualInstance) {
+        DependentInstance last = updater.get(creationalContext);
+        DependentInstance added = new DependentInstance(contextualInstance, last);
+        while (!updater.compareAndSet(creationalContext, last, added)) {
+            last = updater.get(creationalContext);
+            added = new DependentInstance(contextualInstance, last);
+        }
+    }
+
+    /**
+     * Unlinks a destroyed node. Only the owner thread replaces the last node of its own list. If the nodes are unlinked concurrently a destroyed node may
+     * remain linked - it's skipped anyway.
+     *
+     * @param destroyed
+     */
+    private void unlink(DependentInstance destroyed) {
+        if (!unlink(destroyed, OWNER_DEPENDENT_INSTANCES_UPDATER, owner == Thread.currentThread().getId())) {
+            unlink(destroyed, DEPENDENT_INSTANCES_UPDATER, true);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private boolean unlink(DependentInstance destroyed, AtomicReferenceFieldUpdater<CreationalContextImpl, DependentInstance> updater, boolean lastReplaceable) {
+        for (;;) {
+            DependentInstance last = updater.get(this);
+            if (last == destroyed) {
+                if (!lastReplaceable) {
+                    return true;
+                }
+                if (updater.compareAndSet(this, last, destroyed.previous)) {
+                    return true;
+                }
+                // A dependent instance was registered concurrently
+                continue;
+            }
+            for (DependentInstance next = last; next != null; next = next.previous) {
+                if (next.previous == destroyed) {
+                    next.previous = destroyed.previous;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     *
+     * @return the nodes of the dependent instances which are not destroyed, the ones registered by the owner thread first, in the order of registration
+     */
+    private List<DependentInstance> toNodes() {
+        DependentInstance ownerLast = ownerDependentInstances;
+        DependentInstance last = dependentInstances;
+        if (ownerLast == null && last == null) {
+            return Collections.emptyList();
+        }
+        List<DependentInstance> nodes = new ArrayList<DependentInstance>();
+        addNodes(nodes, ownerLast);
+        addNodes(nodes, last);
+        return nodes;
+    }
+
+    private static void addNodes(List<DependentInstance> nodes, DependentInstance last) {
+        int from = nodes.size();
+        for (DependentInstance dependentInstance = last; dependentInstance != null; dependentInstance = dependentInstance.previous) {
+            if (!dependentInstance.isDestroyed()) {
+                nodes.add(dependentInstance);
+            }
+        }
+        Collections.reverse(nodes.subList(from, nodes.size()));
+    }
+
+    /**
+     *
+     * @param last
+     * @return a new list of dependent instances in the order of registration
+     */
+    private static List<ContextualInstance<?>> toList(DependentInstance last) {
+        List<DependentInstance> nodes = new ArrayList<DependentInstance>();
+        addNodes(nodes, last);
+        List<ContextualInstance<?>> list = new ArrayList<ContextualInstance<?>>(nodes.size());
+        for (DependentInstance dependentInstance : nodes) {
+            list.add(dependentInstance.instance);
+        }
+        return list;
+    }
+
+    private static DependentInstance fromList(Object list) {
+        DependentInstance last = null;
+        if (list != null) {
+            for (Object instance : (List<?>) list) {
+                last = new DependentInstance((ContextualInstance<?>) instance, last);
+            }
+        }
+        return last;
+    }
+
+    /**
+     * A node of the dependent instances.
+     */
+    private static final class DependentInstance {
+
+        private static final AtomicIntegerFieldUpdater<DependentInstance> DESTROYED_UPDATER = AtomicIntegerFieldUpdater.newUpdater(DependentInstance.class,
+                "destroyed");
+
+        private final ContextualInstance<?> instance;
+
+        private volatile DependentInstance previous;
+
+        private volatile int destroyed;
+
+        private DependentInstance(ContextualInstance<?> instance, DependentInstance previous) {
+            this.instance = instance;
+            this.previous = previous;
+        }
+
+        /**
+         *
+         * @return <code>true</code> if the caller should destroy the dependent instance, <code>false</code> if already destroyed
+         */
+        private boolean markDestroyed() {
+            return DESTROYED_UPDATER.compareAndSet(this, 0, 1);
+        }
+
+        private boolean isDestroyed() {
+            return destroyed != 0;
+        }
+
+    }
+
+    /**
+     * An unmodifiable view of the dependent instances. The list of dependent instances is only created if needed.
+     */
+    private static final class DependentInstances extends AbstractList<ContextualInstance<?>> {
+
+        private final DependentInstance ownerLast;
+
+        private final DependentInstance last;
+
+        private List<ContextualInstance<?>> instances;
+
+        private DependentInstances(DependentInstance ownerLast, DependentInstance last) {
+            this.ownerLast = ownerLast;
+            this.last = last;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return isEmpty(ownerLast) && isEmpty(last);
+        }
+
+        @Override
+        public ContextualInstance<?> get(int index) {
+            return getInstances().get(index);
+        }
+
+        @Override
+        public int size() {
+            return getInstances().size();
+        }
+
+        private List<ContextualInstance<?>> getInstances() {
+            if (instances == null) {
+                List<ContextualInstance<?>> list = toList(ownerLast);
+                list.addAll(toList(last));
+                instances = list;
+            }
+            return instances;
+        }
+
+        private static boolean isEmpty(DependentInstance last) {
+            for (DependentInstance dependentInstance = last; dependentInstance != null; dependentInstance = dependentInstance.previous) {
+                if (!dependentInstance.isDestroyed()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
     /**
      *
      * @author Martin Kouba
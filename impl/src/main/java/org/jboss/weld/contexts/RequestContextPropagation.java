@@ -0,0 +1,352 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.context.spi.CreationalContext;
+
+import org.jboss.weld.bootstrap.api.Service;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
+import org.jboss.weld.context.api.ContextualInstance;
+import org.jboss.weld.contexts.beanstore.BeanStore;
+import org.jboss.weld.contexts.beanstore.HashMapBeanStore;
+import org.jboss.weld.contexts.beanstore.LockedBean;
+import org.jboss.weld.logging.ConfigurationLogger;
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.jboss.weld.serialization.spi.BeanIdentifier;
+import org.jboss.weld.util.reflection.Reflections;
+
+/**
+ * Propagates the request context of the caller to the tasks submitted to the Weld thread pool and to asynchronous observers, so that the request scoped
+ * instances do not have to be created again for each task.
+ * <p>
+ * The state of the request context active on the current thread is captured when a task is wrapped. The task then activates the unbound request context
+ * with the captured state. If the request context is already active on the thread the task is run on, the task is run as is.
+ * </p>
+ * <p>
+ * The bean store of the caller is never shared with the tasks - each task gets its own bean store so that the tasks running concurrently do not need any
+ * synchronization. The captured instances are only used as long as they are not destroyed by the caller's request.
+ * </p>
+ *
+ * @see Mode
+ * @see ConfigurationKey#EXECUTOR_REQUEST_CONTEXT_PROPAGATION
+ */
+public class RequestContextPropagation implements Service {
+
+    public enum Mode {
+
+        /**
+         * The request context of the caller is not propagated.
+         */
+        NONE,
+
+        /**
+         * A task activates the request context with the instances which existed when the task was submitted. The propagated instances are never destroyed by
+         * the task. The instances created by the task are not visible to the caller and are destroyed when the task completes. If a propagated instance is
+         * destroyed before the task completes, e.g. because the caller's request ended, the task does not use the instance anymore and gets a new one
+         * instead.
+         */
+        READ_ONLY
+
+    }
+
+    private final Mode mode;
+
+    private volatile BeanManagerImpl beanManager;
+
+    private volatile AbstractUnboundContext requestContext;
+
+    public RequestContextPropagation(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     *
+     * @param configuration
+     * @return the configured propagation mode
+     */
+    public static Mode initMode(WeldConfiguration configuration) {
+        String value = configuration.getStringProperty(ConfigurationKey.EXECUTOR_REQUEST_CONTEXT_PROPAGATION);
+        try {
+            return Mode.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw ConfigurationLogger.LOG.invalidConfigurationPropertyValue(value, ConfigurationKey.EXECUTOR_REQUEST_CONTEXT_PROPAGATION.get());
+        }
+    }
+
+    /**
+     * Should be called once the built-in contexts are registered.
+     *
+     * @param beanManager
+     * @param requestContext The unbound request context activated by the tasks
+     */
+    public void init(BeanManagerImpl beanManager, AbstractUnboundContext requestContext) {
+        this.beanManager = beanManager;
+        this.requestContext = requestContext;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.NONE;
+    }
+
+    /**
+     *
+     * @param task
+     * @return a task which propagates the request context active on the current thread, or the given task if there is nothing to propagate
+     */
+    public Runnable wrap(Runnable task) {
+        if (task instanceof PropagatingTask) {
+            return task;
+        }
+        Snapshot snapshot = capture();
+        return snapshot != null ? new PropagatingTask<Void>(snapshot, task, null) : task;
+    }
+
+    /**
+     *
+     * @param task
+     * @return a task which propagates the request context active on the current thread, or the given task if there is nothing to propagate
+     */
+    public <V> Callable<V> wrap(Callable<V> task) {
+        if (task instanceof PropagatingTask) {
+            return task;
+        }
+        Snapshot snapshot = capture();
+        return snapshot != null ? new PropagatingTask<V>(snapshot, null, task) : task;
+    }
+
+    /**
+     * The request context is only captured once for all the tasks.
+     *
+     * @param tasks
+     * @return the tasks which propagate the request context active on the current thread
+     */
+    public <V> List<Callable<V>> wrap(Collection<? extends Callable<V>> tasks) {
+        Snapshot snapshot = capture();
+        List<Callable<V>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<V> task : tasks) {
+            wrapped.add(snapshot == null || task instanceof PropagatingTask ? task : new PropagatingTask<V>(snapshot, null, task));
+        }
+        return wrapped;
+    }
+
+    /**
+     * Unlike {@link #wrap(Runnable)} for each command, the request context is captured when this method is called. This is useful if a command is submitted
+     * by another thread, e.g. a continuation of a {@link java.util.concurrent.CompletionStage}.
+     *
+     * @param executor
+     * @return an executor which propagates the request context active on the current thread, or the given executor if there is nothing to propagate
+     */
+    public Executor propagating(Executor executor) {
+        Snapshot snapshot = capture();
+        if (snapshot == null) {
+            return executor;
+        }
+        return command -> executor.execute(command instanceof PropagatingTask ? command : new PropagatingTask<Void>(snapshot, command, null));
+    }
+
+    @Override
+    public void cleanup() {
+        beanManager = null;
+        requestContext = null;
+    }
+
+    private Snapshot capture() {
+        if (mode == Mode.NONE) {
+            return null;
+        }
+        BeanManagerImpl manager = beanManager;
+        if (manager == null || requestContext == null || !manager.isContextActive(RequestScoped.class)) {
+            return null;
+        }
+        Context context = manager.getUnwrappedContext(RequestScoped.class);
+        if (!(context instanceof AbstractContext)) {
+            return null;
+        }
+        BeanStore beanStore = ((AbstractContext) context).getBeanStore();
+        if (beanStore == null) {
+            return null;
+        }
+        Map<BeanIdentifier, ContextualInstance<?>> instances = new HashMap<>();
+        for (BeanIdentifier id : beanStore) {
+            ContextualInstance<?> instance = beanStore.get(id);
+            if (instance != null) {
+                instances.put(id, instance);
+            }
+        }
+        return new Snapshot(instances);
+    }
+
+    /**
+     *
+     * @param snapshot
+     * @return <code>true</code> if the request context was activated, <code>false</code> if it was already active
+     */
+    private boolean activate(Snapshot snapshot) {
+        AbstractUnboundContext context = requestContext;
+        if (context == null || context.isActive()) {
+            return false;
+        }
+        context.setBeanStore(new SnapshotBeanStore(snapshot.instances));
+        context.setActive(true);
+        return true;
+    }
+
+    private void deactivate() {
+        AbstractUnboundContext context = requestContext;
+        if (context != null) {
+            // Only the instances created by the task are destroyed
+            context.invalidate();
+            context.deactivate();
+        }
+    }
+
+    /**
+     *
+     * @param instance
+     * @return <code>true</code> if the given propagated instance was not destroyed yet
+     */
+    static boolean isAlive(ContextualInstance<?> instance) {
+        CreationalContext<?> creationalContext = instance.getCreationalContext();
+        return !(creationalContext instanceof CreationalContextImpl) || !((CreationalContextImpl<?>) creationalContext).isReleased();
+    }
+
+    private static final class Snapshot {
+
+        private final Map<BeanIdentifier, ContextualInstance<?>> instances;
+
+        private Snapshot(Map<BeanIdentifier, ContextualInstance<?>> instances) {
+            this.instances = instances;
+        }
+
+    }
+
+    /**
+     * A bean store confined to a single task. The propagated instances are looked up in the immutable snapshot and are never stored, iterated, removed or
+     * destroyed. A propagated instance which was already destroyed is ignored so that a new instance is created and stored in the task's own bean store.
+     */
+    static final class SnapshotBeanStore implements BeanStore {
+
+        private final Map<BeanIdentifier, ContextualInstance<?>> propagated;
+
+        private final BeanStore beanStore;
+
+        SnapshotBeanStore(Map<BeanIdentifier, ContextualInstance<?>> propagated) {
+            this.propagated = propagated;
+            this.beanStore = new HashMapBeanStore();
+        }
+
+        @Override
+        public <T> ContextualInstance<T> get(BeanIdentifier id) {
+            ContextualInstance<T> instance = beanStore.get(id);
+            if (instance == null) {
+                ContextualInstance<?> propagatedInstance = propagated.get(id);
+                if (propagatedInstance != null && isAlive(propagatedInstance)) {
+                    instance = Reflections.cast(propagatedInstance);
+                }
+            }
+            return instance;
+        }
+
+        @Override
+        public boolean contains(BeanIdentifier id) {
+            return get(id) != null;
+        }
+
+        @Override
+        public void clear() {
+            beanStore.clear();
+        }
+
+        @Override
+        public Iterator<BeanIdentifier> iterator() {
+            return beanStore.iterator();
+        }
+
+        @Override
+        public <T> void put(BeanIdentifier id, ContextualInstance<T> contextualInstance) {
+            beanStore.put(id, contextualInstance);
+        }
+
+        @Override
+        public LockedBean lock(BeanIdentifier id) {
+            return null;
+        }
+
+        @Override
+        public <T> ContextualInstance<T> remove(BeanIdentifier id) {
+            return beanStore.remove(id);
+        }
+
+    }
+
+    private final class PropagatingTask<V> implements Runnable, Callable<V> {
+
+        private final Snapshot snapshot;
+
+        private final Runnable runnable;
+
+        private final Callable<V> callable;
+
+        private PropagatingTask(Snapshot snapshot, Runnable runnable, Callable<V> callable) {
+            this.snapshot = snapshot;
+            this.runnable = runnable;
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            boolean activated = activate(snapshot);
+            try {
+                runnable.run();
+            } finally {
+                if (activated) {
+                    deactivate();
+                }
+            }
+        }
+
+        @Override
+        public V call() throws Exception {
+            boolean activated = activate(snapshot);
+            try {
+                return callable.call();
+            } finally {
+                if (activated) {
+                    deactivate();
+                }
+            }
+        }
+
+    }
+
+}
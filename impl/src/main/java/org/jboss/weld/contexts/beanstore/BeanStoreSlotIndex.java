@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.beanstore;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.inject.spi.Bean;
+
+import org.jboss.weld.bean.RIBean;
+import org.jboss.weld.bean.WrappedContextual;
+import org.jboss.weld.bootstrap.api.Service;
+import org.jboss.weld.serialization.spi.BeanIdentifier;
+import org.jboss.weld.util.collections.ImmutableMap;
+import org.jboss.weld.util.collections.ImmutableSet;
+
+/**
+ * Assigns dense slots to the beans of the indexed scopes so that an {@link IndexedBeanStore} can hold the contextual instances in an array. Slots are
+ * assigned per scope, i.e. the slots of the beans with the same scope start at zero.
+ * <p>
+ * Only {@link RIBean}s are assigned a slot. The slot is kept by the bean itself so that the fast path does not involve any hashing. The instances of other
+ * beans are stored in a map.
+ * </p>
+ *
+ * @see IndexedBeanStore
+ */
+public class BeanStoreSlotIndex implements Service {
+
+    static final int NO_SLOT = -1;
+
+    private static final Set<Class<? extends Annotation>> INDEXED_SCOPES = ImmutableSet.of(RequestScoped.class);
+
+    private volatile Map<BeanIdentifier, Integer> slots;
+
+    private volatile Map<Class<? extends Annotation>, Integer> sizes;
+
+    private boolean built;
+
+    public BeanStoreSlotIndex() {
+        this.slots = Collections.emptyMap();
+        this.sizes = Collections.emptyMap();
+    }
+
+    /**
+     * Note that the index can only be built once. The bean stores created before the index is built store all the instances in a map.
+     *
+     * @param beans
+     * @throws IllegalStateException If the index is built already
+     */
+    public synchronized void build(Iterable<Bean<?>> beans) {
+        if (built) {
+            throw new IllegalStateException("Bean store slot index is already built!");
+        }
+        built = true;
+        Map<Class<? extends Annotation>, Integer> counters = new HashMap<>();
+        ImmutableMap.Builder<BeanIdentifier, Integer> builder = ImmutableMap.builder();
+        for (Bean<?> bean : beans) {
+            if (bean instanceof RIBean<?> && INDEXED_SCOPES.contains(bean.getScope())) {
+                RIBean<?> riBean = (RIBean<?>) bean;
+                if (riBean.getBeanStoreSlot() != NO_SLOT) {
+                    // The same bean may be accessible from multiple bean managers
+                    continue;
+                }
+                Integer slot = counters.getOrDefault(bean.getScope(), 0);
+                counters.put(bean.getScope(), slot + 1);
+                riBean.setBeanStoreSlot(slot);
+                builder.put(riBean.getIdentifier(), slot);
+            }
+        }
+        this.slots = builder.build();
+        this.sizes = ImmutableMap.copyOf(counters);
+    }
+
+    /**
+     *
+     * @param scope
+     * @return the number of slots assigned to the beans with the given scope
+     */
+    public int getSize(Class<? extends Annotation> scope) {
+        Integer size = sizes.get(scope);
+        return size != null ? size : 0;
+    }
+
+    /**
+     *
+     * @param id
+     * @return the slot of the bean with the given identifier or {@value #NO_SLOT} if no slot is assigned
+     */
+    int getSlot(BeanIdentifier id) {
+        Integer slot = slots.get(id);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    /**
+     *
+     * @param contextual
+     * @return the slot of the given contextual or {@value #NO_SLOT} if no slot is assigned
+     */
+    public static int getSlot(Contextual<?> contextual) {
+        if (contextual instanceof WrappedContextual<?>) {
+            contextual = ((WrappedContextual<?>) contextual).delegate();
+        }
+        return contextual instanceof RIBean<?> ? ((RIBean<?>) contextual).getBeanStoreSlot() : NO_SLOT;
+    }
+
+    @Override
+    public void cleanup() {
+        slots = Collections.emptyMap();
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.beanstore;
+
+import static org.jboss.weld.util.reflection.Reflections.cast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jboss.weld.context.api.ContextualInstance;
+import org.jboss.weld.serialization.spi.BeanIdentifier;
+
+/**
+ * A bean store which holds the instances of the beans with a slot assigned in an array indexed by the slot. The instances of other beans are stored in a map.
+ * Like {@link HashMapBeanStore}, this store is not thread-safe.
+ *
+ * @see BeanStoreSlotIndex
+ */
+public class IndexedBeanStore implements BeanStore {
+
+    private final BeanStoreSlotIndex slotIndex;
+
+    private BeanIdentifier[] ids;
+
+    private ContextualInstance<?>[] instances;
+
+    // Lazily initialized, holds the instances of the beans without a slot
+    private HashMapBeanStore fallback;
+
+    /**
+     *
+     * @param slotIndex
+     * @param size The initial number of slots, see {@link BeanStoreSlotIndex#getSize(Class)}
+     */
+    public IndexedBeanStore(BeanStoreSlotIndex slotIndex, int size) {
+        this.slotIndex = slotIndex;
+        this.ids = new BeanIdentifier[size];
+        this.instances = new ContextualInstance<?>[size];
+    }
+
+    /**
+     *
+     * @param slot The slot of the contextual, see {@link BeanStoreSlotIndex#getSlot(javax.enterprise.context.spi.Contextual)}
+     * @param id The identifier of the contextual
+     * @return the instance or null if not found
+     */
+    public <T> ContextualInstance<T> get(int slot, BeanIdentifier id) {
+        if (slot < instances.length) {
+            ContextualInstance<?> instance = instances[slot];
+            if (instance != null) {
+                return cast(instance);
+            }
+        }
+        // The instance might have been stored before the slots were assigned
+        return fallback != null ? fallback.<T> get(id) : null;
+    }
+
+    /**
+     *
+     * @param slot The slot of the contextual, see {@link BeanStoreSlotIndex#getSlot(javax.enterprise.context.spi.Contextual)}
+     * @param id The identifier of the contextual
+     * @param contextualInstance
+     */
+    public <T> void put(int slot, BeanIdentifier id, ContextualInstance<T> contextualInstance) {
+        if (slot >= instances.length) {
+            int length = Math.max(slot + 1, instances.length * 2);
+            ids = Arrays.copyOf(ids, length);
+            instances = Arrays.copyOf(instances, length);
+        }
+        ids[slot] = id;
+        instances[slot] = contextualInstance;
+    }
+
+    @Override
+    public <T> ContextualInstance<T> get(BeanIdentifier id) {
+        int slot = slotIndex.getSlot(id);
+        if (slot != BeanStoreSlotIndex.NO_SLOT) {
+            return get(slot, id);
+        }
+        return fallback != null ? fallback.<T> get(id) : null;
+    }
+
+    @Override
+    public boolean contains(BeanIdentifier id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(ids, null);
+        Arrays.fill(instances, null);
+        if (fallback != null) {
+            fallback.clear();
+        }
+    }
+
+    @Override
+    public Iterator<BeanIdentifier> iterator() {
+        List<BeanIdentifier> result = new ArrayList<BeanIdentifier>();
+        for (BeanIdentifier id : ids) {
+            if (id != null) {
+                result.add(id);
+            }
+        }
+        if (fallback != null) {
+            for (BeanIdentifier id : fallback) {
+                result.add(id);
+            }
+        }
+        return result.iterator();
+    }
+
+    @Override
+    public <T> void put(BeanIdentifier id, ContextualInstance<T> contextualInstance) {
+        int slot = slotIndex.getSlot(id);
+        if (slot != BeanStoreSlotIndex.NO_SLOT) {
+            put(slot, id, contextualInstance);
+        } else {
+            if (fallback == null) {
+                fallback = new HashMapBeanStore();
+            }
+            fallback.put(id, contextualInstance);
+        }
+    }
+
+    @Override
+    public LockedBean lock(BeanIdentifier id) {
+        return null;
+    }
+
+    @Override
+    public <T> ContextualInstance<T> remove(BeanIdentifier id) {
+        int slot = slotIndex.getSlot(id);
+        if (slot != BeanStoreSlotIndex.NO_SLOT && slot < instances.length && instances[slot] != null) {
+            ContextualInstance<?> instance = instances[slot];
+            ids[slot] = null;
+            instances[slot] = null;
+            return cast(instance);
+        }
+        return fallback != null ? fallback.<T> remove(id) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "indexed bean store with " + instances.length + " slots";
+    }
+
+}
@@ -19,15 +19,17 @@ package org.jboss.weld.contexts.cache;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.jboss.weld.contexts.state.StateLocal;
+
 /**
  * Caches beans over the life of a request, to allow for efficient bean lookups from proxies.
- * Besides, can hold any ThreadLocals to be removed at the end of the request.
+ * Besides, can hold any ThreadLocals or StateLocals to be removed at the end of the request.
  *
  * @author Stuart Douglas
  */
 public class RequestScopedCache {
 
-    private static final ThreadLocal<List<RequestScopedItem>> CACHE = new ThreadLocal<List<RequestScopedItem>>();
+    private static final StateLocal<List<RequestScopedItem>> CACHE = new StateLocal<List<RequestScopedItem>>();
 
     private RequestScopedCache() {
     }
@@ -70,6 +72,19 @@ public class RequestScopedCache {
         return false;
     }
 
+    public static boolean addItemIfActive(final StateLocal<?> item) {
+        final List<RequestScopedItem> cache = CACHE.get();
+        if (cache != null) {
+            cache.add(new RequestScopedItem() {
+                public void invalidate() {
+                    item.remove();
+                }
+            });
+            return true;
+        }
+        return false;
+    }
+
     public static void beginRequest() {
         // if the previous request was not ended properly for some reason, make sure it is ended now
         endRequest();
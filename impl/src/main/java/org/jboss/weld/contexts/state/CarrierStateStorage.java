@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.state;
+
+/**
+ * Keeps the values of all the {@link StateLocal}s in a single {@link StateCarrier} associated with the current thread. Unless a carrier is explicitly bound
+ * via {@link StateCarrier#bind()}, an implicit carrier is created when the first value is set and discarded as soon as the last value is removed.
+ * <p>
+ * A thread therefore holds at most one thread-local value no matter how many locals are used, and the whole Weld state of a task can be handed over to
+ * another thread by binding the carrier there.
+ * </p>
+ * <p>
+ * The implicit carrier stays on the thread as long as any value is set, and some state is only cleared lazily, e.g. at the end of a request. Therefore, an
+ * integrator which runs tasks on pooled threads should bind an explicit carrier for each task, so that all the state of the task is discarded together with
+ * the carrier once the binding is closed. Otherwise, an idle pooled thread may keep the implicit carrier, and so the Weld classes, reachable.
+ * </p>
+ *
+ * @see StateCarrier
+ */
+public class CarrierStateStorage implements StateStorage {
+
+    static final ThreadLocal<StateCarrier> CURRENT = new ThreadLocal<StateCarrier>();
+
+    @Override
+    public <T> T get(StateLocal<T> local) {
+        StateCarrier carrier = CURRENT.get();
+        return carrier != null ? carrier.get(local) : null;
+    }
+
+    @Override
+    public <T> void set(StateLocal<T> local, T value) {
+        if (value == null) {
+            remove(local);
+            return;
+        }
+        StateCarrier carrier = CURRENT.get();
+        if (carrier == null) {
+            carrier = new StateCarrier(true);
+            CURRENT.set(carrier);
+        }
+        carrier.put(local, value);
+    }
+
+    @Override
+    public void remove(StateLocal<?> local) {
+        StateCarrier carrier = CURRENT.get();
+        if (carrier != null) {
+            carrier.remove(local);
+            if (carrier.isImplicit() && carrier.isEmpty()) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.state;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.weld.logging.ContextLogger;
+
+/**
+ * Holds all the Weld per-task state, i.e. the values of all {@link StateLocal}s, if {@link CarrierStateStorage} is used.
+ * <p>
+ * A carrier is typically created and bound once per task, e.g. a virtual thread:
+ * </p>
+ *
+ * <pre>
+ * StateCarrier carrier = new StateCarrier();
+ * try (StateCarrier.Binding binding = carrier.bind()) {
+ *     // Activate the request context, invoke beans, etc.
+ * }
+ * </pre>
+ * <p>
+ * The state may be propagated explicitly - the carrier obtained via {@link #current()} can be bound to a child task once the parent task no longer uses it.
+ * A carrier must not be used by multiple threads at the same time and so it can only be bound to one thread at a time. Nested bindings on the same thread
+ * are allowed.
+ * </p>
+ *
+ * @see CarrierStateStorage
+ */
+public final class StateCarrier {
+
+    private final Map<StateLocal<?>, Object> values;
+
+    private final boolean implicit;
+
+    private final AtomicReference<Thread> owner;
+
+    // Only accessed by the owner thread
+    private int bindings;
+
+    public StateCarrier() {
+        this(false);
+    }
+
+    StateCarrier(boolean implicit) {
+        this.values = new IdentityHashMap<StateLocal<?>, Object>();
+        this.implicit = implicit;
+        this.owner = new AtomicReference<Thread>();
+    }
+
+    /**
+     *
+     * @return the carrier associated with the current thread or <code>null</code> if there is no such carrier or {@link CarrierStateStorage} is not used
+     */
+    public static StateCarrier current() {
+        return isCarrierStorage() ? CarrierStateStorage.CURRENT.get() : null;
+    }
+
+    /**
+     * Binds this carrier to the current thread. The previous carrier is restored when the returned binding is closed.
+     *
+     * @return the binding
+     * @throws IllegalStateException if {@link CarrierStateStorage} is not used or the carrier is bound to another thread
+     */
+    public Binding bind() {
+        if (!isCarrierStorage()) {
+            throw ContextLogger.LOG.unableToBindStateCarrier(this, "the storage in use is " + StateLocal.getStorage());
+        }
+        Thread current = Thread.currentThread();
+        if (!owner.compareAndSet(null, current) && owner.get() != current) {
+            throw ContextLogger.LOG.unableToBindStateCarrier(this, "already bound to " + owner.get());
+        }
+        bindings++;
+        StateCarrier previous = CarrierStateStorage.CURRENT.get();
+        CarrierStateStorage.CURRENT.set(this);
+        return new Binding(this, previous);
+    }
+
+    /**
+     *
+     * @return <code>true</code> if no state is held, <code>false</code> otherwise
+     */
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(StateLocal<T> local) {
+        return (T) values.get(local);
+    }
+
+    <T> void put(StateLocal<T> local, T value) {
+        values.put(local, value);
+    }
+
+    void remove(StateLocal<?> local) {
+        values.remove(local);
+    }
+
+    boolean isImplicit() {
+        return implicit;
+    }
+
+    private void unbind(StateCarrier previous) {
+        if (--bindings == 0) {
+            owner.set(null);
+        }
+        if (previous == null) {
+            CarrierStateStorage.CURRENT.remove();
+        } else {
+            CarrierStateStorage.CURRENT.set(previous);
+        }
+    }
+
+    private static boolean isCarrierStorage() {
+        return StateLocal.getStorage() instanceof CarrierStateStorage;
+    }
+
+    @Override
+    public String toString() {
+        return "StateCarrier [values=" + values.size() + ", implicit=" + implicit + "]";
+    }
+
+    /**
+     * Represents a binding of a carrier to a thread.
+     *
+     * @see StateCarrier#bind()
+     */
+    public static final class Binding implements AutoCloseable {
+
+        private final StateCarrier carrier;
+
+        private final StateCarrier previous;
+
+        private boolean closed;
+
+        private Binding(StateCarrier carrier, StateCarrier previous) {
+            this.carrier = carrier;
+            this.previous = previous;
+        }
+
+        /**
+         * Unbinds the carrier and restores the previous carrier, if any. Must be called by the thread the carrier was bound to.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                carrier.unbind(previous);
+            }
+        }
+
+    }
+
+}
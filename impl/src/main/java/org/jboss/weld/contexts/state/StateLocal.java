@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.state;
+
+import java.lang.reflect.InvocationTargetException;
+import java.security.AccessController;
+
+import org.jboss.weld.logging.ContextLogger;
+import org.jboss.weld.security.GetSystemPropertyAction;
+
+/**
+ * A replacement of {@link ThreadLocal} for Weld per-thread state. The values are kept in the {@link StateStorage} selected by the
+ * {@value #STORAGE_PROPERTY} system property.
+ *
+ * @param <T>
+ * @see StateStorage
+ */
+public class StateLocal<T> {
+
+    /**
+     * The name of the system property used to select the {@link StateStorage}.
+     */
+    public static final String STORAGE_PROPERTY = "org.jboss.weld.contexts.stateStorage";
+
+    /**
+     * The value of {@link #STORAGE_PROPERTY} which selects {@link CarrierStateStorage}.
+     */
+    public static final String CARRIER_STORAGE = "carrier";
+
+    private static final StateStorage STORAGE = initStorage();
+
+    // Only used by ThreadLocalStateStorage, null for any other storage
+    final ThreadLocal<T> threadLocal;
+
+    public StateLocal() {
+        this.threadLocal = STORAGE instanceof ThreadLocalStateStorage ? new ThreadLocal<T>() : null;
+    }
+
+    /**
+     *
+     * @return the initial value if there is no current value, <code>null</code> by default
+     */
+    protected T initialValue() {
+        return null;
+    }
+
+    public T get() {
+        T value = STORAGE.get(this);
+        if (value == null) {
+            value = initialValue();
+            if (value != null) {
+                STORAGE.set(this, value);
+            }
+        }
+        return value;
+    }
+
+    public void set(T value) {
+        STORAGE.set(this, value);
+    }
+
+    public void remove() {
+        STORAGE.remove(this);
+    }
+
+    /**
+     *
+     * @return the storage used for all the state locals
+     */
+    public static StateStorage getStorage() {
+        return STORAGE;
+    }
+
+    private static StateStorage initStorage() {
+        return initStorage(AccessController.doPrivileged(new GetSystemPropertyAction(STORAGE_PROPERTY)));
+    }
+
+    /**
+     *
+     * @param storage the value of {@value #STORAGE_PROPERTY}, may be <code>null</code>
+     * @return the selected storage, {@link ThreadLocalStateStorage} if none is selected or the selected storage cannot be instantiated
+     */
+    static StateStorage initStorage(String storage) {
+        if (storage == null || storage.isEmpty()) {
+            return new ThreadLocalStateStorage();
+        }
+        if (CARRIER_STORAGE.equals(storage)) {
+            return new CarrierStateStorage();
+        }
+        try {
+            Class<? extends StateStorage> storageClass = Class.forName(storage, true, StateLocal.class.getClassLoader()).asSubclass(StateStorage.class);
+            return storageClass.getDeclaredConstructor().newInstance();
+        } catch (InvocationTargetException e) {
+            ContextLogger.LOG.unableToInitializeStateStorage(storage, e.getCause());
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+            ContextLogger.LOG.unableToInitializeStateStorage(storage, e);
+        }
+        return new ThreadLocalStateStorage();
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.state;
+
+/**
+ * Stores the values of {@link StateLocal}s, i.e. the per-thread or per-task state of Weld such as the active request bean store, the request scoped cache or the
+ * interception context.
+ * <p>
+ * The storage is selected once per JVM (or rather per Weld class loader) by the {@value StateLocal#STORAGE_PROPERTY} system property. The value is either the
+ * fully qualified name of an implementation with a public no-arg constructor or {@value StateLocal#CARRIER_STORAGE} for {@link CarrierStateStorage}. By
+ * default, {@link ThreadLocalStateStorage} is used.
+ * </p>
+ * <p>
+ * Implementations must be thread-safe. A value set by a thread must only be visible to the same thread, or to the thread the state was explicitly propagated
+ * to.
+ * </p>
+ *
+ * @see StateLocal
+ */
+public interface StateStorage {
+
+    /**
+     *
+     * @param local
+     * @return the current value of the given local or <code>null</code> if there is no such value
+     */
+    <T> T get(StateLocal<T> local);
+
+    /**
+     *
+     * @param local
+     * @param value
+     */
+    <T> void set(StateLocal<T> local, T value);
+
+    /**
+     * Removes the current value of the given local.
+     *
+     * @param local
+     */
+    void remove(StateLocal<?> local);
+
+}
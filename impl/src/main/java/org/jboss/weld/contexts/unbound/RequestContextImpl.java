@@ -2,7 +2,10 @@ package org.jboss.weld.contexts.unbound;
 
 import org.jboss.weld.contexts.AbstractUnboundContext;
 import org.jboss.weld.context.RequestContext;
+import org.jboss.weld.contexts.beanstore.BeanStore;
+import org.jboss.weld.contexts.beanstore.BeanStoreSlotIndex;
 import org.jboss.weld.contexts.beanstore.HashMapBeanStore;
+import org.jboss.weld.contexts.beanstore.IndexedBeanStore;
 
 import javax.enterprise.context.RequestScoped;
 
@@ -17,8 +20,11 @@ import org.jboss.weld.serialization.spi.BeanIdentifier;
 
 public class RequestContextImpl extends AbstractUnboundContext implements RequestContext {
 
+    private final BeanStoreSlotIndex slotIndex;
+
     public RequestContextImpl(String contextId) {
         super(contextId, false);
+        this.slotIndex = getServiceRegistry().get(BeanStoreSlotIndex.class);
     }
 
     public Class<? extends Annotation> getScope() {
@@ -27,10 +33,14 @@ public class RequestContextImpl extends AbstractUnboundContext implements Reques
 
     public void activate() {
         // Attach bean store (this context is unbound, so this can simply be thread-scoped
-        setBeanStore(new HashMapBeanStore());
+        setBeanStore(createBeanStore());
         super.activate();
     }
 
+    private BeanStore createBeanStore() {
+        return slotIndex != null ? new IndexedBeanStore(slotIndex, slotIndex.getSize(RequestScoped.class)) : new HashMapBeanStore();
+    }
+
     @Override
     public void deactivate() {
         super.deactivate();
@@ -47,6 +47,7 @@ import org.jboss.weld.Container;
 import org.jboss.weld.bootstrap.api.ServiceRegistry;
 import org.jboss.weld.context.RequestContext;
 import org.jboss.weld.context.unbound.UnboundLiteral;
+import org.jboss.weld.contexts.RequestContextPropagation;
 import org.jboss.weld.events.WeldNotificationOptions;
 import org.jboss.weld.events.WeldNotificationOptions.NotificationMode;
 import org.jboss.weld.injection.ThreadLocalStack.ThreadLocalStackReference;
@@ -91,6 +92,7 @@ public class ObserverNotifier {
     private final ScheduledExecutorService timerExecutor;
     private final SecurityServices securityServices;
     private final LazyValueHolder<RequestContext> requestContextHolder;
+    private final RequestContextPropagation requestContextPropagation;
 
     protected ObserverNotifier(String contextId, TypeSafeObserverResolver resolver, ServiceRegistry services, boolean strict) {
         this.resolver = resolver;
@@ -108,6 +110,8 @@ public class ObserverNotifier {
         // ScheduledExecutor might have null value
         this.timerExecutor = services.getOptional(ExecutorServices.class).map((e) -> e.getTimerExecutor()).orElse(null);
         this.securityServices = services.getRequired(SecurityServices.class);
+        RequestContextPropagation propagation = services.get(RequestContextPropagation.class);
+        this.requestContextPropagation = propagation != null && propagation.isEnabled() ? propagation : null;
         // LazyValueHolder is used because contexts are not ready yet at the point when ObserverNotifier is first initialized
         this.requestContextHolder = LazyValueHolder
                 .forSupplier(() -> Container.instance(contextId).deploymentManager().instance().select(RequestContext.class, UnboundLiteral.INSTANCE).get());
@@ -325,6 +329,10 @@ public class ObserverNotifier {
         if (executor == null) {
             executor = asyncEventExecutor;
         }
+        if (requestContextPropagation != null) {
+            // Observers and async continuations use the request context of the caller
+            executor = requestContextPropagation.propagating(executor);
+        }
         if (observers.isEmpty()) {
             return AsyncEventDeliveryStage.completed(event, executor);
         }
@@ -417,8 +425,8 @@ public class ObserverNotifier {
     }
 
     /**
-     * The supplier associates the security context with the current thread, activates the request context, runs the "notify" action and handles exceptions if
-     * required.
+     * The supplier associates the security context with the current thread, activates the request context (unless already activated by
+     * {@link RequestContextPropagation}), runs the "notify" action and handles exceptions if required.
      *
      * @param event
      * @param metadata
@@ -432,14 +440,20 @@ public class ObserverNotifier {
         return () -> {
             final ThreadLocalStackReference<EventMetadata> stack = currentEventMetadata.pushIfNotNull(metadata);
             final RequestContext requestContext = requestContextHolder.get();
+            // The request context may be already activated by RequestContextPropagation
+            final boolean activate = requestContextPropagation == null || !requestContext.isActive();
             securityContextActionConsumer.accept(() -> {
                 try {
-                    requestContext.activate();
+                    if (activate) {
+                        requestContext.activate();
+                    }
                     notifyAction.run();
                 } finally {
                     stack.pop();
-                    requestContext.invalidate();
-                    requestContext.deactivate();
+                    if (activate) {
+                        requestContext.invalidate();
+                        requestContext.deactivate();
+                    }
                 }
             });
             if (handleExceptions) {
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.executor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.weld.contexts.RequestContextPropagation;
+import org.jboss.weld.manager.api.ExecutorServices;
+import org.jboss.weld.util.ForwardingExecutorService;
+
+/**
+ * The task executor propagates the request context of the caller to the submitted tasks. The methods used during bootstrap, i.e.
+ * {@link #invokeAllAndCheckForExceptions(Collection)} and {@link #invokeAllAndCheckForExceptions(TaskFactory)}, are delegated as is.
+ *
+ * @see RequestContextPropagation
+ */
+public class RequestContextPropagatingExecutorServices implements ExecutorServices {
+
+    private final ExecutorServices delegate;
+
+    private final RequestContextPropagation propagation;
+
+    private final PropagatingExecutorService taskExecutor;
+
+    public RequestContextPropagatingExecutorServices(ExecutorServices delegate, RequestContextPropagation propagation) {
+        this.delegate = delegate;
+        this.propagation = propagation;
+        this.taskExecutor = new PropagatingExecutorService();
+    }
+
+    @Override
+    public ExecutorService getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    @Override
+    public ScheduledExecutorService getTimerExecutor() {
+        return delegate.getTimerExecutor();
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAllAndCheckForExceptions(Collection<? extends Callable<T>> tasks) {
+        return delegate.invokeAllAndCheckForExceptions(tasks);
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAllAndCheckForExceptions(TaskFactory<T> factory) {
+        return delegate.invokeAllAndCheckForExceptions(factory);
+    }
+
+    @Override
+    public void cleanup() {
+        delegate.cleanup();
+    }
+
+    public ExecutorServices getDelegate() {
+        return delegate;
+    }
+
+    private class PropagatingExecutorService extends ForwardingExecutorService {
+
+        @Override
+        protected ExecutorService delegate() {
+            return delegate.getTaskExecutor();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate().execute(propagation.wrap(command));
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate().submit(propagation.wrap(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return delegate().submit(propagation.wrap(task), result);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate().submit(propagation.wrap(task));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return delegate().invokeAll(propagation.wrap(tasks));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate().invokeAll(propagation.wrap(tasks), timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+            return delegate().invokeAny(propagation.wrap(tasks));
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+                TimeoutException {
+            return delegate().invokeAny(propagation.wrap(tasks), timeout, unit);
+        }
+
+    }
+
+}
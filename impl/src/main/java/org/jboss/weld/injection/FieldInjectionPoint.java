@@ -26,7 +26,6 @@ import java.security.AccessController;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.spi.AnnotatedField;
-import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.inject.spi.ProcessInjectionPoint;
 
@@ -41,7 +40,7 @@ import org.jboss.weld.util.reflection.Reflections;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
-@SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "The bean cache is loaded lazily.")
+@SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "The injection plan is built lazily.")
 public class FieldInjectionPoint<T, X> extends ForwardingInjectionPointAttributes<T, Field> implements WeldInjectionPointAttributes<T, Field>, Serializable {
 
     /**
@@ -54,7 +53,7 @@ public class FieldInjectionPoint<T, X> extends ForwardingInjectionPointAttribute
     private static final long serialVersionUID = 6645272914499045953L;
 
     private final boolean cacheable;
-    private transient Bean<?> cachedBean;
+    private transient volatile InjectionPlan plan;
     private final transient Field accessibleField;
 
     private final FieldInjectionPointAttributes<T, X> attributes;
@@ -86,10 +85,11 @@ public class FieldInjectionPoint<T, X> extends ForwardingInjectionPointAttribute
             if (!cacheable) {
                 objectToInject = manager.getInjectableReference(this, creationalContext);
             } else {
-                if (cachedBean == null) {
-                    cachedBean = manager.resolve(manager.getBeans(this));
+                InjectionPlan plan = this.plan;
+                if (plan == null) {
+                    this.plan = plan = InjectionPlan.of(this, manager, creationalContext);
                 }
-                objectToInject = manager.getInjectableReference(this, cachedBean, creationalContext);
+                objectToInject = plan.get(creationalContext);
             }
             accessibleField.set(instanceToInject, objectToInject);
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.injection;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.jboss.weld.contexts.CreationalContextImpl;
+import org.jboss.weld.injection.ThreadLocalStack.ThreadLocalStackReference;
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.jboss.weld.util.reflection.Reflections;
+
+/**
+ * Precomputed way of obtaining the injectable reference for an injection point. The plan is built upon the first injection, i.e. once the deployment is
+ * validated, and the bean is only resolved at that time. Each subsequent injection only performs the work required by the resolved bean:
+ *
+ * <ul>
+ * <li>the client proxy of a normal scoped bean is obtained once and reused,</li>
+ * <li>a new instance of a dependent bean is created by the dependent context directly, the injection point is registered and the instance is bound to the
+ * creational context of the declaring instance,</li>
+ * <li>otherwise {@link BeanManagerImpl#getInjectableReference(InjectionPoint, Bean, CreationalContext)} is called with the resolved bean.</li>
+ * </ul>
+ *
+ * @see BeanManagerImpl#isInjectableReferenceCacheable(InjectionPoint, Bean)
+ * @see BeanManagerImpl#isInjectableReferenceCreatable(InjectionPoint, Bean)
+ */
+abstract class InjectionPlan {
+
+    static InjectionPlan of(InjectionPoint injectionPoint, BeanManagerImpl manager, CreationalContext<?> creationalContext) {
+        Bean<?> bean = manager.resolve(manager.getBeans(injectionPoint));
+        if (manager.isInjectableReferenceCacheable(injectionPoint, bean)) {
+            return new ClientProxyPlan(manager.getInjectableReference(injectionPoint, bean, creationalContext));
+        }
+        if (manager.isInjectableReferenceCreatable(injectionPoint, bean)) {
+            return new DependentInstancePlan<>(injectionPoint, bean, manager);
+        }
+        return new ResolvedBeanPlan(injectionPoint, bean, manager);
+    }
+
+    private InjectionPlan() {
+    }
+
+    abstract Object get(CreationalContext<?> creationalContext);
+
+    private static class ClientProxyPlan extends InjectionPlan {
+
+        private final Object clientProxy;
+
+        private ClientProxyPlan(Object clientProxy) {
+            this.clientProxy = clientProxy;
+        }
+
+        @Override
+        Object get(CreationalContext<?> creationalContext) {
+            return clientProxy;
+        }
+
+    }
+
+    private static class DependentInstancePlan<T> extends InjectionPlan {
+
+        private final InjectionPoint injectionPoint;
+        private final Bean<T> bean;
+        private final Context dependentContext;
+        private final CurrentInjectionPoint currentInjectionPoint;
+
+        private DependentInstancePlan(InjectionPoint injectionPoint, Bean<T> bean, BeanManagerImpl manager) {
+            this.injectionPoint = injectionPoint;
+            this.bean = bean;
+            this.dependentContext = manager.getContext(Dependent.class);
+            this.currentInjectionPoint = manager.getServices().get(CurrentInjectionPoint.class);
+        }
+
+        @Override
+        Object get(CreationalContext<?> creationalContext) {
+            final ThreadLocalStackReference<InjectionPoint> stack = currentInjectionPoint.push(injectionPoint);
+            try {
+                CreationalContext<T> beanCreationalContext;
+                if (creationalContext instanceof CreationalContextImpl<?>) {
+                    // The dependent instance must be destroyed together with the declaring instance
+                    beanCreationalContext = ((CreationalContextImpl<?>) creationalContext).getCreationalContext(bean);
+                } else {
+                    beanCreationalContext = Reflections.cast(creationalContext);
+                }
+                return dependentContext.get(bean, beanCreationalContext);
+            } finally {
+                stack.pop();
+            }
+        }
+
+    }
+
+    private static class ResolvedBeanPlan extends InjectionPlan {
+
+        private final InjectionPoint injectionPoint;
+        private final Bean<?> bean;
+        private final BeanManagerImpl manager;
+
+        private ResolvedBeanPlan(InjectionPoint injectionPoint, Bean<?> bean, BeanManagerImpl manager) {
+            this.injectionPoint = injectionPoint;
+            this.bean = bean;
+            this.manager = manager;
+        }
+
+        @Override
+        Object get(CreationalContext<?> creationalContext) {
+            return manager.getInjectableReference(injectionPoint, bean, creationalContext);
+        }
+
+    }
+
+}
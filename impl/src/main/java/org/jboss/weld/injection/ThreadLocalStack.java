@@ -21,6 +21,7 @@ import java.util.Deque;
 
 import org.jboss.weld.contexts.cache.RequestScopedCache;
 import org.jboss.weld.contexts.cache.RequestScopedItem;
+import org.jboss.weld.contexts.state.StateLocal;
 
 /**
  * A stack that is kept in thread-local. Two operations were identified to be expensive in micro benchmarks:
@@ -37,17 +38,17 @@ import org.jboss.weld.contexts.cache.RequestScopedItem;
  *
  * Secondly, we reduce the number of ThreadLocal.get() accesses by returning a {@link ThreadLocalStackReference} which a client uses to pop a value.
  *
- * Lastly, the {@link ThreadLocal} instance is configured to set a new initial value by default. This is safe when {@link RequestScopedCache} is used
- * but may lead to {@link ThreadLocal} leak when it is not. Therefore, special care needs to be take to guarantee that each {@link ThreadLocal#get()}
+ * Lastly, the {@link StateLocal} instance is configured to set a new initial value by default. This is safe when {@link RequestScopedCache} is used
+ * but may lead to {@link StateLocal} leak when it is not. Therefore, special care needs to be take to guarantee that each {@link StateLocal#get()}
  * operation has a matching {@link Stack#removeIfEmpty()} call (see {@link ThreadLocalStack#peek()}) as an example.
  *
  */
 public class ThreadLocalStack<T> {
 
-    private final ThreadLocal<Stack<T>> threadLocalStack;
+    private final StateLocal<Stack<T>> threadLocalStack;
 
     public ThreadLocalStack() {
-        this.threadLocalStack = new ThreadLocal<Stack<T>>() {
+        this.threadLocalStack = new StateLocal<Stack<T>>() {
             @Override
             protected Stack<T> initialValue() {
                 return new Stack<T>(this);
@@ -65,11 +66,11 @@ public class ThreadLocalStack<T> {
 
     private static class Stack<T> implements RequestScopedItem, ThreadLocalStackReference<T> {
         private final Deque<T> elements;
-        private final ThreadLocal<Stack<T>> interceptionContexts;
+        private final StateLocal<Stack<T>> interceptionContexts;
         private boolean removeWhenEmpty;
         private boolean valid;
 
-        private Stack(ThreadLocal<Stack<T>> interceptionContexts) {
+        private Stack(StateLocal<Stack<T>> interceptionContexts) {
             this.interceptionContexts = interceptionContexts;
             this.elements = new ArrayDeque<T>();
             /*
@@ -25,6 +25,7 @@ import javax.enterprise.inject.spi.InjectionPoint;
 
 import org.jboss.weld.bean.proxy.CombinedInterceptorAndDecoratorStackMethodHandler;
 import org.jboss.weld.bean.proxy.DecorationHelper;
+import org.jboss.weld.bean.proxy.DecoratorChainProxyFactory;
 import org.jboss.weld.bean.proxy.ProxyFactory;
 import org.jboss.weld.bean.proxy.ProxyObject;
 import org.jboss.weld.bean.proxy.TargetBeanInstance;
@@ -33,6 +34,7 @@ import org.jboss.weld.injection.CurrentInjectionPoint;
 import org.jboss.weld.logging.BeanLogger;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.serialization.spi.ContextualStore;
+import org.jboss.weld.util.ValueHolder;
 
 /**
  * Common functionality for an instantiator capable of applying decorators to a given instance.
@@ -45,16 +47,43 @@ import org.jboss.weld.serialization.spi.ContextualStore;
 public abstract class AbstractDecoratorApplyingInstantiator<T> extends ForwardingInstantiator<T> {
 
     private final Bean<T> bean;
-    private final Class<T> proxyClass;
+    private final ValueHolder<Class<T>> proxyClass;
+    private final ValueHolder<List<Class<T>>> decoratorProxyClasses;
     private final List<Decorator<?>> decorators;
 
     public AbstractDecoratorApplyingInstantiator(String contextId, Instantiator<T> delegate, Bean<T> bean, List<Decorator<?>> decorators, Class<? extends T> implementationClass) {
+        this(contextId, delegate, bean, decorators, implementationClass, false);
+    }
+
+    /**
+     *
+     * @param contextId
+     * @param delegate
+     * @param bean
+     * @param decorators
+     * @param implementationClass
+     * @param lazy If set to <code>true</code> the proxy classes are generated when the first instance is created, e.g. for a bean which is rarely used. The
+     *        proxy factories are still created during bootstrap so that an invalid proxied type or class loader fails the deployment.
+     */
+    public AbstractDecoratorApplyingInstantiator(String contextId, Instantiator<T> delegate, Bean<T> bean, List<Decorator<?>> decorators,
+            Class<? extends T> implementationClass, boolean lazy) {
         super(delegate);
         this.bean = bean;
         this.decorators = decorators;
-        ProxyFactory<T> factory = new ProxyFactory<T>(contextId, implementationClass, bean.getTypes(), bean, true);
-        // eagerly generate the proxy class
-        this.proxyClass = factory.getProxyClass();
+        // The factories validate the proxied types and resolve the class loader and the proxy class names - only the bytecode generation is deferred
+        final ProxyFactory<T> proxyFactory = new ProxyFactory<T>(contextId, implementationClass, bean.getTypes(), bean, true);
+        final List<DecoratorChainProxyFactory<T>> decoratorProxyFactories = DecoratorChainProxyFactory.createProxyFactories(contextId, implementationClass, bean,
+                decorators);
+        if (lazy) {
+            this.proxyClass = new LazyGeneratedValueHolder<Class<T>>(proxyFactory::getProxyClass, bean);
+            this.decoratorProxyClasses = new LazyGeneratedValueHolder<List<Class<T>>>(
+                    () -> DecoratorChainProxyFactory.getProxyClasses(decoratorProxyFactories, proxyClass.get()), bean);
+        } else {
+            final Class<T> generatedProxyClass = proxyFactory.getProxyClass();
+            final List<Class<T>> generatedDecoratorProxyClasses = DecoratorChainProxyFactory.getProxyClasses(decoratorProxyFactories, generatedProxyClass);
+            this.proxyClass = () -> generatedProxyClass;
+            this.decoratorProxyClasses = () -> generatedDecoratorProxyClasses;
+        }
     }
 
     @Override
@@ -67,7 +96,7 @@ public abstract class AbstractDecoratorApplyingInstantiator<T> extends Forwardin
 
     protected T getOuterDelegate(T instance, CreationalContext<T> creationalContext, InjectionPoint originalInjectionPoint, BeanManagerImpl manager) {
         TargetBeanInstance beanInstance = new TargetBeanInstance(bean, instance);
-        DecorationHelper<T> decorationHelper = new DecorationHelper<T>(beanInstance, bean, proxyClass, manager, manager.getServices().get(ContextualStore.class), decorators);
+        DecorationHelper<T> decorationHelper = new DecorationHelper<T>(beanInstance, bean, decoratorProxyClasses.get(), manager, manager.getServices().get(ContextualStore.class), decorators);
         DecorationHelper.push(decorationHelper);
         try {
             final T outerDelegate = decorationHelper.getNextDelegate(originalInjectionPoint, creationalContext);
@@ -90,7 +119,7 @@ public abstract class AbstractDecoratorApplyingInstantiator<T> extends Forwardin
     }
 
     public Class<T> getProxyClass() {
-        return proxyClass;
+        return proxyClass.get();
     }
 
     public List<Decorator<?>> getDecorators() {
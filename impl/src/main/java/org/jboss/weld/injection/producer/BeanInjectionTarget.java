@@ -25,12 +25,18 @@ import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.Decorator;
 import javax.enterprise.inject.spi.Interceptor;
 
+import org.jboss.weld.annotated.enhanced.ConstructorSignature;
 import org.jboss.weld.annotated.enhanced.EnhancedAnnotatedConstructor;
 import org.jboss.weld.annotated.enhanced.EnhancedAnnotatedMethod;
 import org.jboss.weld.annotated.enhanced.EnhancedAnnotatedType;
+import org.jboss.weld.annotated.enhanced.jlr.EnhancedAnnotatedTypeImpl;
+import org.jboss.weld.annotated.slim.SlimAnnotatedType;
 import org.jboss.weld.bean.CustomDecoratorWrapper;
 import org.jboss.weld.bean.DecoratorImpl;
 import org.jboss.weld.bean.proxy.ProxyInstantiator;
+import org.jboss.weld.bootstrap.UsageProfile;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
 import org.jboss.weld.interceptor.spi.model.InterceptionModel;
 import org.jboss.weld.logging.BeanLogger;
 import org.jboss.weld.manager.BeanManagerImpl;
@@ -118,9 +124,14 @@ public class BeanInjectionTarget<T> extends BasicInjectionTarget<T> {
                 throw new java.lang.IllegalStateException("Unexpected instantiator " + getInstantiator());
             }
             DefaultInstantiator<T> delegate = (DefaultInstantiator<T>) getInstantiator();
-            setInstantiator(SubclassedComponentInstantiator.forInterceptedDecoratedBean(annotatedType, getBean(), delegate, beanManager));
+            boolean lazy = isSubclassGeneratedLazily();
+            setInstantiator(SubclassedComponentInstantiator.forInterceptedDecoratedBean(annotatedType, getBean(), delegate, beanManager, lazy));
+            if (lazy && interceptionModel != null) {
+                // The enhanced subclass factory has already read the method-bound interceptors
+                interceptionModel = deferInterceptionModel(interceptionModel, delegate.getConstructorInjectionPoint().getSignature());
+            }
             if (hasDecorators) {
-                setInstantiator(new SubclassDecoratorApplyingInstantiator<T>(getBeanManager().getContextId(), getInstantiator(), getBean(), decorators));
+                setInstantiator(new SubclassDecoratorApplyingInstantiator<T>(getBeanManager().getContextId(), getInstantiator(), getBean(), decorators, lazy));
             }
             if (hasNonConstructorInterceptors) {
                 setInstantiator(new InterceptorApplyingInstantiator<T>(getInstantiator(), interceptionModel, getType()));
@@ -132,6 +143,40 @@ public class BeanInjectionTarget<T> extends BasicInjectionTarget<T> {
         }
     }
 
+    /**
+     * Replaces the registered interception model with a {@link LazyInterceptionModel} so that the method-bound interceptors of a rarely used bean are not
+     * retained after bootstrap.
+     *
+     * @param interceptionModel The model built during bootstrap
+     * @param constructor The signature of the bean constructor
+     * @return the lazy interception model
+     */
+    private InterceptionModel deferInterceptionModel(InterceptionModel interceptionModel, ConstructorSignature constructor) {
+        final BeanManagerImpl manager = beanManager;
+        final SlimAnnotatedType<T> type = getType();
+        final Bean<T> bean = getBean();
+        InterceptionModel lazyModel = new LazyInterceptionModel(interceptionModel, () -> {
+            // The enhanced annotated types are not cached after bootstrap, the type is only needed to build the model
+            EnhancedAnnotatedType<T> enhancedType = EnhancedAnnotatedTypeImpl.of(type, manager.getServices().get(ClassTransformer.class));
+            return new InterceptionModelInitializer<T>(manager, enhancedType, enhancedType.getDeclaredEnhancedConstructor(constructor), bean).build();
+        }, bean);
+        manager.getInterceptorModelRegistry().put(type, lazyModel);
+        return lazyModel;
+    }
+
+    /**
+     * The enhanced subclass of a bean which was not used during the training run is always generated lazily.
+     *
+     * @return <code>true</code> if the enhanced subclass and the decorator chain should be generated when the first instance is created
+     */
+    protected boolean isSubclassGeneratedLazily() {
+        if (beanManager.getServices().get(WeldConfiguration.class).getBooleanProperty(ConfigurationKey.PROXY_LAZY_SUBCLASS_GENERATION)) {
+            return true;
+        }
+        UsageProfile usageProfile = UsageProfile.getLoaded(beanManager.getServices());
+        return usageProfile != null && usageProfile.isBeanUnused(getBean());
+    }
+
     protected void setupConstructorInterceptionInstantiator(InterceptionModel interceptionModel) {
         if (interceptionModel != null && interceptionModel.hasExternalConstructorInterceptors()) {
             setInstantiator(new ConstructorInterceptionInstantiator<T>(getInstantiator(), interceptionModel, getType()));
@@ -102,6 +102,18 @@ public class InterceptionModelInitializer<T> {
     }
 
     public void init() {
+        InterceptionModel interceptionModel = build();
+        if (interceptionModel != null) {
+            manager.getInterceptorModelRegistry().put(annotatedType.slim(), interceptionModel);
+        }
+    }
+
+    /**
+     * Builds and validates the interception model without registering it. An initializer may only be used once.
+     *
+     * @return the interception model or <code>null</code> if the component is not intercepted
+     */
+    public InterceptionModel build() {
         initTargetClassInterceptors();
         businessMethods = Beans.getInterceptableMethods(annotatedType);
 
@@ -116,8 +128,9 @@ public class InterceptionModelInitializer<T> {
             if (constructor != null && Reflections.isPrivate(constructor.getJavaMember())) {
                 throw new DeploymentException(ValidatorLogger.LOG.notProxyablePrivateConstructor(annotatedType.getJavaClass().getName(), constructor, annotatedType.getJavaClass()));
             }
-            manager.getInterceptorModelRegistry().put(annotatedType.slim(), interceptionModel);
+            return interceptionModel;
         }
+        return null;
     }
 
     private void initTargetClassInterceptors() {
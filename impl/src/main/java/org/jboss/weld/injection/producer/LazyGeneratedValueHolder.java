@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.injection.producer;
+
+import java.util.function.Supplier;
+
+import org.jboss.weld.exceptions.WeldException;
+import org.jboss.weld.logging.BeanLogger;
+import org.jboss.weld.util.ValueHolder;
+
+/**
+ * Holds a value which is generated when first needed, e.g. a proxy class of a bean which is rarely used. Unlike {@link org.jboss.weld.util.LazyValueHolder}
+ * the generation is attempted only once - if it fails, the failure is remembered and each subsequent call fails immediately with the same exception instead
+ * of generating the classes again. This class is thread-safe.
+ *
+ * @param <T> the type of the generated value
+ */
+final class LazyGeneratedValueHolder<T> implements ValueHolder<T> {
+
+    private final Supplier<T> supplier;
+
+    private final Object owner;
+
+    private volatile T value;
+
+    private volatile WeldException failure;
+
+    /**
+     *
+     * @param supplier
+     * @param owner The bean (or type) the value is generated for, used in the failure message
+     */
+    LazyGeneratedValueHolder(Supplier<T> supplier, Object owner) {
+        this.supplier = supplier;
+        this.owner = owner;
+    }
+
+    @Override
+    public T get() {
+        T valueCopy = value;
+        if (valueCopy != null) {
+            return valueCopy;
+        }
+        synchronized (this) {
+            if (value == null) {
+                if (failure != null) {
+                    throw failure;
+                }
+                try {
+                    value = supplier.get();
+                } catch (RuntimeException | LinkageError e) {
+                    failure = new WeldException(BeanLogger.LOG.lazyClassGenerationFailed(owner), e);
+                    throw failure;
+                }
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public T getIfPresent() {
+        return value;
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.injection.producer;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.jboss.weld.interceptor.reader.TargetClassInterceptorMetadata;
+import org.jboss.weld.interceptor.spi.metadata.InterceptorClassMetadata;
+import org.jboss.weld.interceptor.spi.model.InterceptionModel;
+import org.jboss.weld.interceptor.spi.model.InterceptionType;
+
+/**
+ * The interception model of a rarely used bean. The model built during bootstrap validates the interceptor bindings and only the parts read during bootstrap
+ * are copied from it - the interceptors, the lifecycle and constructor interceptors and the class-level bindings. The method-bound interceptors and the
+ * member bindings, i.e. the largest part of a model, are not retained and the model is built again when they are first needed, typically when the first
+ * business method is intercepted. This class is thread-safe.
+ *
+ * @see BeanInjectionTarget#isSubclassGeneratedLazily()
+ */
+final class LazyInterceptionModel implements InterceptionModel {
+
+    private final Set<InterceptorClassMetadata<?>> allInterceptors;
+
+    private final Map<InterceptionType, List<InterceptorClassMetadata<?>>> lifecycleInterceptors;
+
+    private final List<InterceptorClassMetadata<?>> constructorInvocationInterceptors;
+
+    private final boolean hasExternalNonConstructorInterceptors;
+
+    private final boolean hasTargetClassInterceptors;
+
+    private final TargetClassInterceptorMetadata targetClassInterceptorMetadata;
+
+    private final Set<Annotation> classInterceptorBindings;
+
+    private final LazyGeneratedValueHolder<InterceptionModel> model;
+
+    /**
+     *
+     * @param model The model built during bootstrap
+     * @param supplier Builds the model again
+     * @param owner The bean (or type) the model is built for, used in the failure message
+     */
+    LazyInterceptionModel(InterceptionModel model, Supplier<InterceptionModel> supplier, Object owner) {
+        this.allInterceptors = model.getAllInterceptors();
+        this.lifecycleInterceptors = new EnumMap<InterceptionType, List<InterceptorClassMetadata<?>>>(InterceptionType.class);
+        for (InterceptionType interceptionType : InterceptionType.values()) {
+            if (interceptionType.isLifecycleCallback() && !InterceptionType.AROUND_CONSTRUCT.equals(interceptionType)) {
+                lifecycleInterceptors.put(interceptionType, model.getInterceptors(interceptionType, null));
+            }
+        }
+        this.constructorInvocationInterceptors = model.getConstructorInvocationInterceptors();
+        this.hasExternalNonConstructorInterceptors = model.hasExternalNonConstructorInterceptors();
+        this.hasTargetClassInterceptors = model.hasTargetClassInterceptors();
+        this.targetClassInterceptorMetadata = model.getTargetClassInterceptorMetadata();
+        this.classInterceptorBindings = model.getClassInterceptorBindings();
+        this.model = new LazyGeneratedValueHolder<InterceptionModel>(supplier, owner);
+    }
+
+    @Override
+    public List<InterceptorClassMetadata<?>> getInterceptors(InterceptionType interceptionType, Method method) {
+        if (method == null && lifecycleInterceptors.containsKey(interceptionType)) {
+            return lifecycleInterceptors.get(interceptionType);
+        }
+        return model.get().getInterceptors(interceptionType, method);
+    }
+
+    @Override
+    public List<InterceptorClassMetadata<?>> getConstructorInvocationInterceptors() {
+        return constructorInvocationInterceptors;
+    }
+
+    @Override
+    public Set<InterceptorClassMetadata<?>> getAllInterceptors() {
+        return allInterceptors;
+    }
+
+    @Override
+    public boolean hasExternalConstructorInterceptors() {
+        return !constructorInvocationInterceptors.isEmpty();
+    }
+
+    @Override
+    public boolean hasExternalNonConstructorInterceptors() {
+        return hasExternalNonConstructorInterceptors;
+    }
+
+    @Override
+    public boolean hasTargetClassInterceptors() {
+        return hasTargetClassInterceptors;
+    }
+
+    @Override
+    public TargetClassInterceptorMetadata getTargetClassInterceptorMetadata() {
+        return targetClassInterceptorMetadata;
+    }
+
+    @Override
+    public Set<Annotation> getClassInterceptorBindings() {
+        return classInterceptorBindings;
+    }
+
+    @Override
+    public Set<Annotation> getMemberInterceptorBindings(Member member) {
+        return model.get().getMemberInterceptorBindings(member);
+    }
+
+    boolean isBuilt() {
+        return model.getIfPresent() != null;
+    }
+
+}
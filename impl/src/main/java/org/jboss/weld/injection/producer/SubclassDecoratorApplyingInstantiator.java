@@ -45,6 +45,10 @@ public class SubclassDecoratorApplyingInstantiator<T> extends AbstractDecoratorA
         super(contextId, delegate, bean, decorators, Reflections.<Class<T>>cast(bean.getBeanClass()));
     }
 
+    public SubclassDecoratorApplyingInstantiator(String contextId, Instantiator<T> delegate, Bean<T> bean, List<Decorator<?>> decorators, boolean lazy) {
+        super(contextId, delegate, bean, decorators, Reflections.<Class<T>>cast(bean.getBeanClass()), lazy);
+    }
+
     @Override
     protected T applyDecorators(T instance, CreationalContext<T> creationalContext, InjectionPoint originalInjectionPoint, BeanManagerImpl manager) {
         T outerDelegate = getOuterDelegate(instance, creationalContext, originalInjectionPoint, manager);
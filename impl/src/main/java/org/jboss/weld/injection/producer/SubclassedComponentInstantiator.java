@@ -41,10 +41,13 @@ import org.jboss.weld.interceptor.spi.model.InterceptionType;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.resources.ClassTransformer;
 import org.jboss.weld.util.Beans;
+import org.jboss.weld.util.ValueHolder;
 import org.jboss.weld.util.collections.WeldCollections;
 
 /**
- * Instantiates an enhanced subclass of a given component class. This class is thread-safe.
+ * Instantiates an enhanced subclass of a given component class. The enhanced subclass may be generated lazily, i.e. when the first instance is created. The
+ * inputs of the generation are still computed during bootstrap and a failed generation is not attempted again, see {@link LazyGeneratedValueHolder}. This
+ * class is thread-safe.
  *
  * @author Jozef Hartinger
  *
@@ -60,27 +63,70 @@ public class SubclassedComponentInstantiator<T> extends AbstractInstantiator<T>
     }
 
     public static <T> SubclassedComponentInstantiator<T> forInterceptedDecoratedBean(EnhancedAnnotatedType<T> type, Bean<T> bean, AbstractInstantiator<T> delegate, BeanManagerImpl manager) {
-        return new SubclassedComponentInstantiator<T>(type, bean, delegate.getConstructorInjectionPoint(), manager);
+        return forInterceptedDecoratedBean(type, bean, delegate, manager, false);
+    }
+
+    /**
+     *
+     * @param type
+     * @param bean
+     * @param delegate
+     * @param manager
+     * @param lazy If set to <code>true</code> the enhanced subclass is generated when the first instance is created, e.g. for a bean which is rarely used
+     * @return the instantiator
+     */
+    public static <T> SubclassedComponentInstantiator<T> forInterceptedDecoratedBean(EnhancedAnnotatedType<T> type, Bean<T> bean, AbstractInstantiator<T> delegate,
+            BeanManagerImpl manager, boolean lazy) {
+        return new SubclassedComponentInstantiator<T>(type, bean, delegate.getConstructorInjectionPoint(), manager, lazy);
     }
 
     private static <T> EnhancedAnnotatedConstructor<T> findMatchingConstructor(ConstructorSignature componentConstructor, EnhancedAnnotatedType<T> subclass) {
         return subclass.getDeclaredEnhancedConstructor(componentConstructor);
     }
 
-    private final ConstructorInjectionPoint<T> proxyClassConstructorInjectionPoint;
+    private final ValueHolder<ConstructorInjectionPoint<T>> proxyClassConstructorInjectionPoint;
     private final Constructor<T> componentClassConstructor;
 
     private SubclassedComponentInstantiator(ConstructorInjectionPoint<T> proxyClassConstructorInjectionPoint, Constructor<T> componentClassConstructor) {
+        this(() -> proxyClassConstructorInjectionPoint, componentClassConstructor);
+    }
+
+    private SubclassedComponentInstantiator(ValueHolder<ConstructorInjectionPoint<T>> proxyClassConstructorInjectionPoint, Constructor<T> componentClassConstructor) {
         this.proxyClassConstructorInjectionPoint = proxyClassConstructorInjectionPoint;
         this.componentClassConstructor = componentClassConstructor;
     }
 
     protected SubclassedComponentInstantiator(EnhancedAnnotatedType<T> type, Bean<T> bean, ConstructorInjectionPoint<T> originalConstructor, BeanManagerImpl manager) {
-        EnhancedAnnotatedConstructor<T> constructorForEnhancedSubclass = initEnhancedSubclass(manager, type, bean, originalConstructor);
-        this.proxyClassConstructorInjectionPoint = new ProxyClassConstructorInjectionPointWrapper<T>(bean, type.getJavaClass(), constructorForEnhancedSubclass, originalConstructor, manager);
+        this(type, bean, originalConstructor, manager, false);
+    }
+
+    private SubclassedComponentInstantiator(EnhancedAnnotatedType<T> type, Bean<T> bean, ConstructorInjectionPoint<T> originalConstructor, BeanManagerImpl manager,
+            boolean lazy) {
+        if (lazy) {
+            // The factory is created now so that the interceptable methods and the interception models are read (and any problem reported) during bootstrap,
+            // the store of slim types is also cleared after bootstrap - only the class generation and the enhanced annotated type of the subclass are deferred
+            final InterceptedSubclassFactory<T> factory = createEnhancedSubclassFactory(type, bean, manager);
+            final Class<T> componentClass = type.getJavaClass();
+            final String bdaId = type.slim().getIdentifier().getBdaId();
+            this.proxyClassConstructorInjectionPoint = new LazyGeneratedValueHolder<ConstructorInjectionPoint<T>>(() -> {
+                EnhancedAnnotatedType<T> enhancedSubclass = manager.getServices().get(ClassTransformer.class).getEnhancedAnnotatedType(factory.getProxyClass(),
+                        bdaId);
+                return new ProxyClassConstructorInjectionPointWrapper<T>(bean, componentClass,
+                        findMatchingConstructor(originalConstructor.getSignature(), enhancedSubclass), originalConstructor, manager);
+            }, bean != null ? bean : componentClass);
+        } else {
+            final ConstructorInjectionPoint<T> proxyClassConstructor = createProxyClassConstructorInjectionPoint(type, bean, originalConstructor, manager);
+            this.proxyClassConstructorInjectionPoint = () -> proxyClassConstructor;
+        }
         this.componentClassConstructor = originalConstructor.getAnnotated().getJavaMember();
     }
 
+    private ConstructorInjectionPoint<T> createProxyClassConstructorInjectionPoint(EnhancedAnnotatedType<T> type, Bean<T> bean,
+            ConstructorInjectionPoint<T> originalConstructor, BeanManagerImpl manager) {
+        EnhancedAnnotatedConstructor<T> constructorForEnhancedSubclass = initEnhancedSubclass(manager, type, bean, originalConstructor);
+        return new ProxyClassConstructorInjectionPointWrapper<T>(bean, type.getJavaClass(), constructorForEnhancedSubclass, originalConstructor, manager);
+    }
+
     protected EnhancedAnnotatedConstructor<T> initEnhancedSubclass(BeanManagerImpl manager, EnhancedAnnotatedType<T> type, Bean<?> bean, ConstructorInjectionPoint<T> originalConstructorInjectionPoint) {
         ClassTransformer transformer = manager.getServices().get(ClassTransformer.class);
         EnhancedAnnotatedType<T> enhancedSubclass = transformer.getEnhancedAnnotatedType(createEnhancedSubclass(type, bean, manager), type.slim().getIdentifier().getBdaId());
@@ -88,6 +134,10 @@ public class SubclassedComponentInstantiator<T> extends AbstractInstantiator<T>
     }
 
     protected Class<T> createEnhancedSubclass(EnhancedAnnotatedType<T> type, Bean<?> bean, BeanManagerImpl manager) {
+        return createEnhancedSubclassFactory(type, bean, manager).getProxyClass();
+    }
+
+    private InterceptedSubclassFactory<T> createEnhancedSubclassFactory(EnhancedAnnotatedType<T> type, Bean<?> bean, BeanManagerImpl manager) {
         Set<InterceptionModel> models = getInterceptionModelsForType(type, manager, bean);
         Set<MethodSignature> enhancedMethodSignatures = new HashSet<MethodSignature>();
         Set<MethodSignature> interceptedMethodSignatures = (models == null) ? enhancedMethodSignatures : new HashSet<MethodSignature>();
@@ -110,7 +160,7 @@ public class SubclassedComponentInstantiator<T> extends AbstractInstantiator<T>
         } else {
             types = bean.getTypes();
         }
-        return new InterceptedSubclassFactory<T>(manager.getContextId(), type.getJavaClass(), types, bean, enhancedMethodSignatures, interceptedMethodSignatures).getProxyClass();
+        return new InterceptedSubclassFactory<T>(manager.getContextId(), type.getJavaClass(), types, bean, enhancedMethodSignatures, interceptedMethodSignatures);
     }
 
     private Set<InterceptionModel> getInterceptionModelsForType(EnhancedAnnotatedType<T> type, BeanManagerImpl manager, Bean<?> bean) {
@@ -136,7 +186,7 @@ public class SubclassedComponentInstantiator<T> extends AbstractInstantiator<T>
 
     @Override
     public String toString() {
-        return "SubclassedComponentInstantiator for " + proxyClassConstructorInjectionPoint.getType();
+        return "SubclassedComponentInstantiator for " + componentClassConstructor.getDeclaringClass();
     }
 
     @Override
@@ -155,7 +205,7 @@ public class SubclassedComponentInstantiator<T> extends AbstractInstantiator<T>
      */
     @Override
     public ConstructorInjectionPoint<T> getConstructorInjectionPoint() {
-        return proxyClassConstructorInjectionPoint;
+        return proxyClassConstructorInjectionPoint.get();
     }
 
     @Override
@@ -542,4 +542,8 @@ public interface BeanLogger extends WeldLogger {
     @LogMessage(level = Level.DEBUG)
     @Message(id = 1576, value = "Using {1} to instantiate a shared proxy class {0}; the deployment implementation [{2}] does not match the instantiator the proxy was created with", format = Format.MESSAGE_FORMAT)
     void creatingProxyInstanceUsingDifferentInstantiator(Object proxyClass, Object newInstantiator, Object oldInstantiator);
+
+    @Message(id = 1577, value = "Unable to generate the classes of {0} when its first instance was created", format = Format.MESSAGE_FORMAT)
+    String lazyClassGenerationFailed(Object bean);
+
 }
@@ -338,4 +338,28 @@ public interface BootstrapLogger extends WeldLogger {
     @Message(id = 181, value = "org.jboss.weld.executor.threadPoolType=COMMON detected but ForkJoinPool.commonPool() does not work with SecurityManager enabled, switching to {0} thread pool", format = Format.MESSAGE_FORMAT)
     void commonThreadPoolWithSecurityManagerEnabled(Object threadPoolType);
 
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 182, value = "Bootstrap phase {0} finished in {1} ms, critical path ({2} ms): {3}", format = Format.MESSAGE_FORMAT)
+    void bootstrapPhaseCriticalPath(Object phase, Object elapsed, Object criticalPathDuration, Object criticalPath);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 183, value = "Client proxies of {0} normal scoped beans generated in {1} ms", format = Format.MESSAGE_FORMAT)
+    void clientProxiesGenerated(Object beans, Object elapsed);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 184, value = "{0} application scoped beans eagerly initialized in {1} ms", format = Format.MESSAGE_FORMAT)
+    void beansEagerlyInitialized(Object beans, Object elapsed);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 185, value = "Unable to read the usage profile {0}, the profile is ignored: {1}", format = Format.MESSAGE_FORMAT)
+    void usageProfileNotRead(Object path, Object reason);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 186, value = "Unable to write the usage profile {0}: {1}", format = Format.MESSAGE_FORMAT)
+    void usageProfileNotWritten(Object path, Object reason);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 187, value = "Unable to generate the client proxy of {0} eagerly, the proxy will be generated when first needed: {1}", format = Format.MESSAGE_FORMAT)
+    void clientProxyNotGenerated(Object bean, Object reason);
+
 }
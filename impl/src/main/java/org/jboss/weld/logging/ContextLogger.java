@@ -129,4 +129,11 @@ public interface ContextLogger extends WeldLogger {
     @Message(id = 229, value = "Contextual reference of {0} is not valid after container {1} shutdown", format = Format.MESSAGE_FORMAT)
     IllegalStateException contextualReferenceNotValidAfterShutdown(Object bean, Object contextId);
 
+    @LogMessage(level = Level.WARN)
+    @Message(id = 230, value = "Unable to initialize the context state storage {0}, falling back to thread-local storage: {1}", format = Format.MESSAGE_FORMAT)
+    void unableToInitializeStateStorage(Object storage, Object cause);
+
+    @Message(id = 231, value = "Unable to bind the state carrier {0}: {1}", format = Format.MESSAGE_FORMAT)
+    IllegalStateException unableToBindStateCarrier(Object carrier, Object reason);
+
 }
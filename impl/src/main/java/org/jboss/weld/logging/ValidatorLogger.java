@@ -286,4 +286,8 @@ public interface ValidatorLogger extends WeldLogger {
     @Message(id = 1485, value = "Method {0} defined on class {1} is not defined according to the specification. It is annotated with @{2} and it declares more than one parameter.\n\tat {3}\n  StackTrace", format = Format.MESSAGE_FORMAT)
     DefinitionException interceptorMethodDeclaresMultipleParameters(Object param1, Object param2, Object param3, Object stackElement);
 
+    @LogMessage(level = Level.DEBUG)
+    @Message(id = 1486, value = "Resolution of injection points validated for {0} distinct required types and qualifiers, {1} equivalent checks skipped", format = Format.MESSAGE_FORMAT)
+    void injectionPointResolutionsValidated(Object distinct, Object skipped);
+
 }
@@ -67,4 +67,12 @@ public interface XmlLogger extends WeldLogger {
     @Message(id = 1210, value = "Warning when validating {0}@{1} against xsd. {2}", format = Format.MESSAGE_FORMAT)
     void xsdValidationWarning(Object param1, Object param2, Object param3);
 
+    @LogMessage(level = Level.WARN)
+    @Message(id = 1211, value = "Unable to read the beans.xml cache file {0}, the file is ignored: {1}", format = Format.MESSAGE_FORMAT)
+    void cacheFileNotRead(Object path, Object reason);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 1212, value = "Unable to write the beans.xml cache file {0}: {1}", format = Format.MESSAGE_FORMAT)
+    void cacheFileNotWritten(Object path, Object reason);
+
 }
\ No newline at end of file
@@ -114,6 +114,7 @@ import org.jboss.weld.bootstrap.spi.CDI11Deployment;
 import org.jboss.weld.config.ConfigurationKey;
 import org.jboss.weld.config.ConfigurationKey.UnusedBeans;
 import org.jboss.weld.config.WeldConfiguration;
+import org.jboss.weld.contexts.ActiveContextRegistry;
 import org.jboss.weld.contexts.CreationalContextImpl;
 import org.jboss.weld.contexts.PassivatingContextWrapper;
 import org.jboss.weld.contexts.WeldCreationalContext;
@@ -215,6 +216,9 @@ public class BeanManagerImpl implements WeldManager, Serializable {
     // Contexts are shared across the application
     private final transient Map<Class<? extends Annotation>, List<Context>> contexts;
 
+    // May be null if the service is not available
+    private final transient ActiveContextRegistry activeContextRegistry;
+
     // Client proxies can be used application wide
     private final transient ClientProxyProvider clientProxyProvider;
 
@@ -344,6 +348,7 @@ public class BeanManagerImpl implements WeldManager, Serializable {
         this.enterpriseBeans = enterpriseBeans;
         this.clientProxyProvider = clientProxyProvider;
         this.contexts = contexts;
+        this.activeContextRegistry = serviceRegistry.get(ActiveContextRegistry.class);
         this.observers = observers;
         this.enabled = enabled;
         this.namespaces = namespaces;
@@ -605,6 +610,9 @@ public class BeanManagerImpl implements WeldManager, Serializable {
             contexts.put(scope, contextList);
         }
         contextList.add(context);
+        if (activeContextRegistry != null) {
+            activeContextRegistry.register(context);
+        }
     }
 
     /**
@@ -659,6 +667,12 @@ public class BeanManagerImpl implements WeldManager, Serializable {
     }
 
     private Context internalGetContext(Class<? extends Annotation> scopeType) {
+        if (activeContextRegistry != null) {
+            int slot = activeContextRegistry.getSlot(scopeType);
+            if (slot >= 0) {
+                return activeContextRegistry.getActiveContext(slot);
+            }
+        }
         Context activeContext = null;
         final List<Context> ctx = contexts.get(scopeType);
         if (ctx == null) {
@@ -734,6 +748,34 @@ public class BeanManagerImpl implements WeldManager, Serializable {
         return getInjectableReference(injectionPoint, resolvedBean, creationalContext);
     }
 
+    /**
+     * The injectable reference of a normal scoped bean is always the same client proxy, unless the injectable reference lookup optimization is enabled. Such
+     * reference may be cached by the injection point, i.e. there is no need to call {@link #getInjectableReference(InjectionPoint, Bean, CreationalContext)}
+     * again.
+     *
+     * @param injectionPoint
+     * @param resolvedBean
+     * @return <code>true</code> if the injectable reference for the given injection point and resolved bean may be cached, <code>false</code> otherwise
+     */
+    public boolean isInjectableReferenceCacheable(InjectionPoint injectionPoint, Bean<?> resolvedBean) {
+        return !clientProxyOptimization && !injectionPoint.isDelegate() && isProxyRequired(resolvedBean);
+    }
+
+    /**
+     * The injectable reference of a dependent bean is always a new instance created by the dependent context, unless the injectable reference lookup
+     * optimization is enabled. Such reference may be created by the injection point directly, i.e. there is no need to resolve the bean or call
+     * {@link #getInjectableReference(InjectionPoint, Bean, CreationalContext)} again.
+     *
+     * @param injectionPoint
+     * @param resolvedBean
+     * @return <code>true</code> if the injectable reference for the given injection point and resolved bean may be created directly, <code>false</code>
+     *         otherwise
+     */
+    public boolean isInjectableReferenceCreatable(InjectionPoint injectionPoint, Bean<?> resolvedBean) {
+        return !clientProxyOptimization && isRegisterableInjectionPoint(injectionPoint) && Dependent.class.equals(resolvedBean.getScope())
+                && !isProxyRequired(resolvedBean);
+    }
+
     /**
      * Get a reference, registering the injection point used.
      *
@@ -17,6 +17,8 @@
 package org.jboss.weld.metadata.cache;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 import java.util.function.Function;
@@ -27,6 +29,7 @@ import javax.inject.Named;
 import org.jboss.weld.bean.RIBean;
 import org.jboss.weld.bootstrap.api.Service;
 import org.jboss.weld.resolution.QualifierInstance;
+import org.jboss.weld.resolution.QualifierInstanceIndex;
 import org.jboss.weld.resources.ClassTransformer;
 import org.jboss.weld.resources.SharedObjectCache;
 import org.jboss.weld.util.cache.ComputingCache;
@@ -40,6 +43,8 @@ import org.jboss.weld.util.collections.ImmutableSet;
  */
 public class MetaAnnotationStore implements Service {
 
+    private static final int IDENTITY_CACHE_SIZE = 1024;
+
     private abstract static class AbstractMetaAnnotationFunction<M extends AnnotationModel<Annotation>> implements
             Function<Class<Annotation>, M> {
 
@@ -134,6 +139,12 @@ public class MetaAnnotationStore implements Service {
 
     private final ComputingCache<Annotation, QualifierInstance> qualifierInstanceCache;
 
+    // Direct-mapped cache of qualifier instances keyed by annotation identity, avoids the slow equals/hashCode of annotations for repeat lookups
+    // Both the annotations obtained via reflection and the annotation literals are cached, the keys are weak so that short-lived literals are never retained
+    private final IdentityEntry[] identityCache;
+
+    private final QualifierInstanceIndex qualifierInstanceIndex;
+
     private final SharedObjectCache sharedObjectCache;
 
     public MetaAnnotationStore(ClassTransformer classTransformer) {
@@ -143,6 +154,8 @@ public class MetaAnnotationStore implements Service {
         this.qualifiers = cacheBuilder.build(new QualifierFunction(classTransformer));
         this.interceptorBindings = cacheBuilder.build(new InterceptorBindingFunction(classTransformer));
         this.qualifierInstanceCache = cacheBuilder.build(new QualifierInstanceFunction(this));
+        this.identityCache = new IdentityEntry[IDENTITY_CACHE_SIZE];
+        this.qualifierInstanceIndex = new QualifierInstanceIndex();
         this.sharedObjectCache = classTransformer.getSharedObjectCache();
     }
 
@@ -155,6 +168,7 @@ public class MetaAnnotationStore implements Service {
         scopes.invalidate(annotationClass);
         qualifiers.invalidate(annotationClass);
         interceptorBindings.invalidate(annotationClass);
+        Arrays.fill(identityCache, null);
     }
 
     /**
@@ -211,7 +225,25 @@ public class MetaAnnotationStore implements Service {
      * @return the qualifier instance for the given annotation, uses cache if possible
      */
     public QualifierInstance getQualifierInstance(final Annotation annotation) {
-        return isCacheAllowed(annotation) ? qualifierInstanceCache.getValue(annotation) : QualifierInstance.of(annotation, this);
+        if (!isCacheAllowed(annotation)) {
+            return QualifierInstance.of(annotation, this);
+        }
+        int index = getIdentityCacheIndex(annotation);
+        IdentityEntry entry = identityCache[index];
+        if (entry != null && entry.get() == annotation) {
+            return entry.qualifierInstance;
+        }
+        QualifierInstance qualifierInstance = qualifierInstanceCache.getValue(annotation);
+        identityCache[index] = new IdentityEntry(annotation, qualifierInstance);
+        return qualifierInstance;
+    }
+
+    /**
+     *
+     * @return the index used to represent sets of qualifiers as bitsets
+     */
+    public QualifierInstanceIndex getQualifierInstanceIndex() {
+        return qualifierInstanceIndex;
     }
 
     /**
@@ -241,10 +273,8 @@ public class MetaAnnotationStore implements Service {
         boolean useSharedCache = true;
 
         for (Annotation annotation : annotations) {
-            if (isCacheAllowed(annotation)) {
-                builder.add(qualifierInstanceCache.getValue(annotation));
-            } else {
-                builder.add(QualifierInstance.of(annotation, this));
+            builder.add(getQualifierInstance(annotation));
+            if (!isCacheAllowed(annotation)) {
                 // Don't use shared object cache if there's some qualifier instance which should not be cached
                 useSharedCache = false;
             }
@@ -267,6 +297,7 @@ public class MetaAnnotationStore implements Service {
         buffer.append("Registered stereotype models: ").append(stereotypes.size()).append(newLine);
         buffer.append("Registered interceptor binding models: ").append(interceptorBindings.size()).append(newLine);
         buffer.append("Cached qualifier instances: ").append(qualifierInstanceCache.size()).append(newLine);
+        buffer.append("Indexed qualifier instances: ").append(qualifierInstanceIndex.size()).append(newLine);
         return buffer.toString();
     }
 
@@ -277,9 +308,20 @@ public class MetaAnnotationStore implements Service {
         this.stereotypes.clear();
         this.interceptorBindings.clear();
         this.qualifierInstanceCache.clear();
+        Arrays.fill(identityCache, null);
+        this.qualifierInstanceIndex.clear();
     }
 
 
+    boolean isCachedByIdentity(Annotation annotation) {
+        IdentityEntry entry = identityCache[getIdentityCacheIndex(annotation)];
+        return entry != null && entry.get() == annotation;
+    }
+
+    private static int getIdentityCacheIndex(Annotation annotation) {
+        return System.identityHashCode(annotation) & (IDENTITY_CACHE_SIZE - 1);
+    }
+
     private static boolean isCacheAllowed(Annotation annotation) {
         if (annotation.annotationType().equals(Named.class)) {
             // Don't cache @Named with non-default value.
@@ -289,4 +331,15 @@ public class MetaAnnotationStore implements Service {
         return true;
     }
 
+    private static final class IdentityEntry extends WeakReference<Annotation> {
+
+        private final QualifierInstance qualifierInstance;
+
+        private IdentityEntry(Annotation annotation, QualifierInstance qualifierInstance) {
+            super(annotation);
+            this.qualifierInstance = qualifierInstance;
+        }
+
+    }
+
 }
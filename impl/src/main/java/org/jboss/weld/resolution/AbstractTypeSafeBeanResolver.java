@@ -38,11 +38,13 @@ import javax.enterprise.inject.spi.InterceptionFactory;
 import javax.inject.Provider;
 
 import org.jboss.weld.bean.AbstractProducerBean;
+import org.jboss.weld.bean.RIBean;
 import org.jboss.weld.config.WeldConfiguration;
 import org.jboss.weld.events.WeldEvent;
 import org.jboss.weld.inject.WeldInstance;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.metadata.cache.MetaAnnotationStore;
+import org.jboss.weld.resolution.ResolvableBuilder.ResolvableImpl;
 import org.jboss.weld.util.Beans;
 import org.jboss.weld.util.LazyValueHolder;
 import org.jboss.weld.util.Primitives;
@@ -199,8 +201,18 @@ public abstract class AbstractTypeSafeBeanResolver<T extends Bean<?>, C extends
         } else {
             rules = BeanTypeAssignabilityRules.instance();
         }
-        return rules.matches(resolvable.getTypes(), bean.getTypes())
-                && Beans.containsAllQualifiers(resolvable.getQualifiers(), QualifierInstance.of(bean, store));
+        return rules.matches(resolvable.getTypes(), bean.getTypes()) && matchesQualifiers(resolvable, bean);
+    }
+
+    private boolean matchesQualifiers(Resolvable resolvable, T bean) {
+        if (resolvable instanceof ResolvableImpl && bean instanceof RIBean<?>) {
+            long[] required = ((ResolvableImpl) resolvable).getQualifierBits(store.getQualifierInstanceIndex());
+            long[] available = ((RIBean<?>) bean).getQualifierBits();
+            if (required != QualifierInstanceIndex.UNINDEXED && available != QualifierInstanceIndex.UNINDEXED) {
+                return QualifierInstanceIndex.containsAll(required, available);
+            }
+        }
+        return Beans.containsAllQualifiers(resolvable.getQualifiers(), QualifierInstance.of(bean, store));
     }
 
     @Override
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.resolution;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns a dense integer id to each distinct {@link QualifierInstance} so that a set of qualifiers can be represented as a bitset. Checking whether a bean
+ * has all the required qualifiers is then a bitset containment test instead of a set operation.
+ * <p>
+ * The number of ids is limited - qualifiers with member values computed at runtime could otherwise exhaust the memory. If a qualifier cannot be assigned an
+ * id, the set it belongs to is represented by {@link #UNINDEXED} and the set operations must be used instead.
+ * </p>
+ *
+ * @see org.jboss.weld.metadata.cache.MetaAnnotationStore#getQualifierInstanceIndex()
+ */
+public class QualifierInstanceIndex {
+
+    /**
+     * Represents a set of qualifiers which contains a qualifier without an id.
+     */
+    public static final long[] UNINDEXED = new long[0];
+
+    private static final long[] EMPTY = new long[0];
+
+    private static final int MAX_SIZE = 1 << 16;
+
+    private final ConcurrentMap<QualifierInstance, Integer> ids;
+
+    private final AtomicInteger nextId;
+
+    public QualifierInstanceIndex() {
+        this.ids = new ConcurrentHashMap<QualifierInstance, Integer>();
+        this.nextId = new AtomicInteger();
+    }
+
+    /**
+     *
+     * @param qualifier
+     * @return the id of the given qualifier or <code>-1</code> if no id can be assigned
+     */
+    public int getId(QualifierInstance qualifier) {
+        Integer id = ids.get(qualifier);
+        if (id == null) {
+            if (nextId.get() >= MAX_SIZE) {
+                return -1;
+            }
+            id = ids.computeIfAbsent(qualifier, (key) -> nextId.getAndIncrement());
+        }
+        return id;
+    }
+
+    /**
+     *
+     * @param qualifiers
+     * @return the bitset of the given qualifiers or {@link #UNINDEXED}
+     */
+    public long[] getBits(Set<QualifierInstance> qualifiers) {
+        long[] bits = EMPTY;
+        for (QualifierInstance qualifier : qualifiers) {
+            int id = getId(qualifier);
+            if (id < 0) {
+                return UNINDEXED;
+            }
+            int word = id >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            bits[word] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     *
+     * @param required
+     * @param available
+     * @return <code>true</code> if all the bits set in the required bitset are also set in the available bitset
+     */
+    public static boolean containsAll(long[] required, long[] available) {
+        for (int i = 0; i < required.length; i++) {
+            if ((required[i] & (i < available.length ? ~available[i] : -1L)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public void clear() {
+        ids.clear();
+        nextId.set(0);
+    }
+
+}
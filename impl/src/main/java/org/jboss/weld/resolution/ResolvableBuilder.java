@@ -150,7 +150,7 @@ public class ResolvableBuilder {
     }
 
     private ResolvableBuilder addQualifier(Annotation qualifier, InjectionPoint injectionPoint) {
-        QualifierInstance qualifierInstance = QualifierInstance.of(qualifier, store);
+        QualifierInstance qualifierInstance = store.getQualifierInstance(qualifier);
         final Class<? extends Annotation> annotationType = qualifierInstance.getAnnotationClass();
         // Handle the @New qualifier special case
         if (annotationType.equals(New.class)) {
@@ -236,6 +236,7 @@ public class ResolvableBuilder {
         private final Bean<?> declaringBean;
         private final boolean delegate;
         private final int hashCode;
+        private volatile long[] qualifierBits;
 
         protected ResolvableImpl(Class<?> rawType, Set<Type> typeClosure, Bean<?> declaringBean, final Set<QualifierInstance> qualifierInstances, boolean delegate) {
             this.typeClosure = typeClosure;
@@ -258,6 +259,18 @@ public class ResolvableBuilder {
             return qualifierInstances;
         }
 
+        /**
+         *
+         * @param index
+         * @return the bitset of required qualifiers
+         */
+        long[] getQualifierBits(QualifierInstanceIndex index) {
+            if (qualifierBits == null) {
+                qualifierBits = index.getBits(qualifierInstances);
+            }
+            return qualifierBits;
+        }
+
         @Override
         public Set<Type> getTypes() {
             return typeClosure;
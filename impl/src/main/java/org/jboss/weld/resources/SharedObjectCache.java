@@ -16,19 +16,28 @@
  */
 package org.jboss.weld.resources;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
-import org.jboss.weld.annotated.enhanced.TypeClosureLazyValueHolder;
 import org.jboss.weld.bootstrap.api.BootstrapService;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.util.LazyValueHolder;
+import org.jboss.weld.util.Types;
 import org.jboss.weld.util.cache.ComputingCache;
 import org.jboss.weld.util.cache.ComputingCacheBuilder;
 import org.jboss.weld.util.collections.ImmutableMap;
 import org.jboss.weld.util.collections.ImmutableSet;
+import org.jboss.weld.util.reflection.HierarchyDiscovery;
+import org.jboss.weld.util.reflection.Reflections;
+import org.jboss.weld.util.reflection.TypeResolver;
 
 /**
  * Allows classes to share Maps/Sets to conserve memory.
@@ -61,10 +70,15 @@ public class SharedObjectCache implements BootstrapService {
             new Function<Type, LazyValueHolder<Set<Type>>>() {
         @Override
                 public LazyValueHolder<Set<Type>> apply(Type input) {
-            return new TypeClosureLazyValueHolder(input);
+            return LazyValueHolder.forSupplier(() -> getSharedSet(ImmutableSet.copyOf(typeMaps.getValue(input).values())));
         }
     });
 
+    // The type maps are memoized per type so that the closure of a supertype shared by multiple types is only discovered once
+    private final ComputingCache<Type, Map<Class<?>, Type>> typeMaps = ComputingCacheBuilder.newBuilder().build((type) -> discoverTypes(type, false));
+
+    private final ComputingCache<Class<?>, Map<Class<?>, Type>> rawTypeMaps = ComputingCacheBuilder.newBuilder().build((type) -> discoverTypes(type, true));
+
     public <T> Set<T> getSharedSet(Set<T> set) {
         return sharedSets.getCastValue(set);
     }
@@ -82,6 +96,75 @@ public class SharedObjectCache implements BootstrapService {
         sharedSets.clear();
         sharedMaps.clear();
         typeClosureHolders.clear();
+        typeMaps.clear();
+        rawTypeMaps.clear();
+    }
+
+    /**
+     * Discovers the same type closure as {@link HierarchyDiscovery} but reuses the memoized type maps of direct supertypes. A type variable of a class can only
+     * be referenced by the direct supertypes of the class so each supertype may be resolved independently.
+     *
+     * @param type
+     * @param rawGeneric
+     * @return the map of raw types to types
+     */
+    private Map<Class<?>, Type> discoverTypes(Type type, boolean rawGeneric) {
+        Map<Class<?>, Type> types = new HashMap<Class<?>, Type>();
+        if (!rawGeneric) {
+            rawGeneric = Types.isRawGenericType(type);
+        }
+        if (type instanceof Class<?>) {
+            Class<?> clazz = (Class<?>) type;
+            types.put(clazz, clazz);
+            discoverFromClass(clazz, rawGeneric, Collections.<TypeVariable<?>, Type>emptyMap(), types);
+        } else if (rawGeneric) {
+            types.putAll(rawTypeMaps.getValue(Reflections.getRawType(type)));
+        } else if (type instanceof GenericArrayType) {
+            Class<?> rawComponentType = Reflections.getRawType(((GenericArrayType) type).getGenericComponentType());
+            if (rawComponentType != null) {
+                Class<?> arrayClass = Array.newInstance(rawComponentType, 0).getClass();
+                types.put(arrayClass, type);
+                discoverFromClass(arrayClass, false, Collections.<TypeVariable<?>, Type>emptyMap(), types);
+            }
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            if (parameterizedType.getRawType() instanceof Class<?>) {
+                Class<?> clazz = (Class<?>) parameterizedType.getRawType();
+                TypeVariable<?>[] variables = clazz.getTypeParameters();
+                Type[] values = parameterizedType.getActualTypeArguments();
+                Map<TypeVariable<?>, Type> resolvedTypeVariables = new HashMap<TypeVariable<?>, Type>();
+                for (int i = 0; i < variables.length; i++) {
+                    resolvedTypeVariables.put(variables[i], values[i]);
+                }
+                types.put(clazz, type);
+                discoverFromClass(clazz, false, resolvedTypeVariables, types);
+            }
+        }
+        return ImmutableMap.copyOf(types);
+    }
+
+    private void discoverFromClass(Class<?> clazz, boolean rawGeneric, Map<TypeVariable<?>, Type> resolvedTypeVariables, Map<Class<?>, Type> types) {
+        if (clazz.getSuperclass() != null) {
+            discoverSupertype(clazz.getGenericSuperclass(), clazz.getSuperclass(), rawGeneric, resolvedTypeVariables, types);
+        }
+        Type[] genericInterfaces = clazz.getGenericInterfaces();
+        Class<?>[] interfaces = clazz.getInterfaces();
+        if (genericInterfaces.length == interfaces.length) {
+            for (int i = 0; i < interfaces.length; i++) {
+                discoverSupertype(genericInterfaces[i], interfaces[i], rawGeneric, resolvedTypeVariables, types);
+            }
+        }
+    }
+
+    private void discoverSupertype(Type supertype, Class<?> rawSupertype, boolean rawGeneric, Map<TypeVariable<?>, Type> resolvedTypeVariables,
+            Map<Class<?>, Type> types) {
+        if (rawGeneric) {
+            types.putAll(rawTypeMaps.getValue(rawSupertype));
+        } else if (supertype instanceof ParameterizedType) {
+            types.putAll(typeMaps.getValue(new TypeResolver(resolvedTypeVariables).resolveType(supertype)));
+        } else {
+            types.putAll(typeMaps.getValue(supertype));
+        }
     }
 
     @Override
@@ -0,0 +1,338 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.xml;
+
+import static org.jboss.weld.bootstrap.spi.BeansXml.EMPTY_BEANS_XML;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.jboss.weld.bootstrap.spi.BeansXml;
+import org.jboss.weld.bootstrap.spi.Filter;
+import org.jboss.weld.bootstrap.spi.Metadata;
+import org.jboss.weld.bootstrap.spi.WeldFilter;
+import org.jboss.weld.config.SystemPropertiesConfiguration;
+import org.jboss.weld.logging.XmlLogger;
+import org.jboss.weld.metadata.BeansXmlImpl;
+import org.jboss.weld.metadata.FilterImpl;
+import org.jboss.weld.metadata.ScanningImpl;
+import org.jboss.weld.metadata.WeldFilterImpl;
+import org.jboss.weld.util.reflection.Formats;
+
+/**
+ * Caches the results of beans.xml parsing by the SHA-256 digest of the descriptor content. Library archives often contain descriptors with the same content
+ * - such a descriptor is only parsed and validated once per JVM, no matter how many archives and containers use it. A cached result is bound to the URL of
+ * the particular descriptor so that the location of the metadata remains correct.
+ * <p>
+ * Optionally, the digests of the validated descriptors are also stored in a file (see {@link org.jboss.weld.config.ConfigurationKey#XML_CACHE_FILE}) so that
+ * the validation is skipped on the next boot as well. The digest of a validated descriptor also covers the Weld version, i.e. a descriptor is validated again
+ * after an upgrade. Only the digests of descriptors validated without any warning or error are recorded, i.e. a problem is reported on every boot until the
+ * descriptor is fixed. The file holds at most {@value #MAX_SIZE} digests, the oldest ones are dropped first. New digests are only kept in memory until
+ * {@link #flush()} is called, e.g. at the end of the bootstrap, and the file is always replaced as a whole so that a concurrent reader never sees a partially
+ * written file.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @see BeansXmlStreamParser
+ * @see BeansXmlValidator
+ */
+public final class BeansXmlCache {
+
+    public static final BeansXmlCache INSTANCE = new BeansXmlCache(SystemPropertiesConfiguration.INSTANCE.getXmlCacheFile());
+
+    private static final String HEADER = "# Weld beans.xml cache 2";
+
+    // The cache of parsed descriptors is cleared and the oldest validated digests are dropped if the limit is reached, e.g. if an application with changing
+    // descriptors is redeployed many times
+    static final int MAX_SIZE = 1024;
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    // The length of a hex encoded SHA-256 digest
+    private static final int DIGEST_LENGTH = 64;
+
+    private final Map<String, BeansXml> parsed;
+
+    private final Set<String> validated;
+
+    // The validated digests in the order they were added, guarded by this
+    private final Deque<String> validatedOrder;
+
+    // Whether there are validated digests which were not written to the file yet, guarded by this
+    private boolean dirty;
+
+    private final Path file;
+
+    private final byte[] version;
+
+    BeansXmlCache(String file) {
+        this(file, Formats.version(null));
+    }
+
+    BeansXmlCache(String file, String version) {
+        this.parsed = new ConcurrentHashMap<>();
+        this.validated = ConcurrentHashMap.newKeySet();
+        this.validatedOrder = new ArrayDeque<>();
+        this.file = file.isEmpty() ? null : Paths.get(file);
+        this.version = version.getBytes(StandardCharsets.UTF_8);
+        if (this.file != null) {
+            read();
+        }
+    }
+
+    /**
+     * Parses the given descriptor unless a descriptor with the same content was already parsed. The descriptor is validated unless the validator is
+     * <code>null</code> or a descriptor with the same content was already validated.
+     *
+     * @param beansXml
+     * @param validator The validator, may be <code>null</code>
+     * @return the parsed descriptor
+     */
+    public BeansXml parse(URL beansXml, BeansXmlValidator validator) {
+        if (beansXml == null) {
+            throw XmlLogger.LOG.loadError("unknown", null);
+        }
+        byte[] content;
+        try (InputStream in = beansXml.openStream()) {
+            content = read(in);
+        } catch (IOException e) {
+            throw XmlLogger.LOG.loadError(beansXml, e);
+        }
+        if (content.length == 0) {
+            // The file is just acting as a marker file
+            return EMPTY_BEANS_XML;
+        }
+        if (validator != null) {
+            String validationDigest = digest(version, content);
+            if (!validated.contains(validationDigest) && validator.validate(beansXml, content, null)) {
+                validated(validationDigest);
+            }
+        }
+        String digest = digest(null, content);
+        BeansXml cached = parsed.get(digest);
+        if (cached != null) {
+            return bind(cached, beansXml);
+        }
+        BeansXml result;
+        try {
+            result = new BeansXmlStreamParser(beansXml).parse(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw XmlLogger.LOG.loadError(beansXml, e);
+        }
+        if (parsed.size() >= MAX_SIZE) {
+            parsed.clear();
+        }
+        // Do not hold the URL of the descriptor
+        parsed.put(digest, bind(result, null));
+        return result;
+    }
+
+    private synchronized void validated(String digest) {
+        if (!validated.add(digest)) {
+            return;
+        }
+        validatedOrder.addLast(digest);
+        while (validatedOrder.size() > MAX_SIZE) {
+            validated.remove(validatedOrder.removeFirst());
+        }
+        dirty = true;
+    }
+
+    /**
+     * Writes the validated digests to the cache file if there is any digest which was not written yet. This method should be called at the end of the
+     * bootstrap so that the file is not replaced for every single descriptor.
+     */
+    public synchronized void flush() {
+        if (file != null && dirty) {
+            write();
+            dirty = false;
+        }
+    }
+
+    /**
+     *
+     * @param content
+     * @return <code>true</code> if a descriptor with the given content was already validated by this version of Weld
+     */
+    boolean isValidated(byte[] content) {
+        return validated.contains(digest(version, content));
+    }
+
+    private void read() {
+        if (!Files.isReadable(file)) {
+            return;
+        }
+        List<String> digests = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                XmlLogger.LOG.cacheFileNotRead(file, "unsupported format");
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (isDigest(line)) {
+                    digests.add(line);
+                }
+            }
+        } catch (IOException e) {
+            XmlLogger.LOG.cacheFileNotRead(file, e);
+            return;
+        }
+        // The newest digests are at the end of the file
+        for (String digest : digests.subList(Math.max(0, digests.size() - MAX_SIZE), digests.size())) {
+            if (validated.add(digest)) {
+                validatedOrder.addLast(digest);
+            }
+        }
+    }
+
+    private void write() {
+        Path target = file.toAbsolutePath();
+        Path temp = null;
+        try {
+            Path parent = target.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Write a temporary file in the same directory and replace the cache file so that a reader never sees a partially written file
+            temp = Files.createTempFile(parent, target.getFileName().toString(), TEMP_FILE_SUFFIX);
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (String digest : validatedOrder) {
+                    writer.write(digest);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            XmlLogger.LOG.cacheFileNotWritten(file, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // No-op
+                }
+            }
+        }
+    }
+
+    private static BeansXml bind(BeansXml beansXml, URL url) {
+        return new BeansXmlImpl(bind(beansXml.getEnabledAlternativeClasses(), url, Function.identity()),
+                bind(beansXml.getEnabledAlternativeStereotypes(), url, Function.identity()), bind(beansXml.getEnabledDecorators(), url, Function.identity()),
+                bind(beansXml.getEnabledInterceptors(), url, Function.identity()),
+                new ScanningImpl(bind(beansXml.getScanning().getIncludes(), url, filter -> bind(filter, url)),
+                        bind(beansXml.getScanning().getExcludes(), url, filter -> bind(filter, url))),
+                url, beansXml.getBeanDiscoveryMode(), beansXml.getVersion(), beansXml.isTrimmed());
+    }
+
+    private static Filter bind(Filter filter, URL url) {
+        if (filter instanceof WeldFilter) {
+            return new WeldFilterImpl(filter.getName(), bind(filter.getSystemPropertyActivations(), url, Function.identity()),
+                    bind(filter.getClassAvailableActivations(), url, Function.identity()), ((WeldFilter) filter).getPattern());
+        }
+        return new FilterImpl(filter.getName(), bind(filter.getSystemPropertyActivations(), url, Function.identity()),
+                bind(filter.getClassAvailableActivations(), url, Function.identity()));
+    }
+
+    private static <T> List<Metadata<T>> bind(Collection<Metadata<T>> metadata, URL url, Function<T, T> valueFunction) {
+        if (metadata == null) {
+            return null;
+        }
+        List<Metadata<T>> result = new ArrayList<>(metadata.size());
+        for (Metadata<T> item : metadata) {
+            if (item instanceof XmlMetadata) {
+                XmlMetadata<T> xmlMetadata = (XmlMetadata<T>) item;
+                result.add(new XmlMetadata<T>(xmlMetadata.getQName(), valueFunction.apply(xmlMetadata.getValue()), url, xmlMetadata.getLineNumber()));
+            } else {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] prefix, byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+        if (prefix != null) {
+            digest.update(prefix);
+            // Separate the prefix from the content
+            digest.update((byte) 0);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest(content)) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static boolean isDigest(String line) {
+        if (line.length() != DIGEST_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.digit(line.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
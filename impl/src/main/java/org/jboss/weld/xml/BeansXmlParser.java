@@ -43,12 +43,19 @@ public class BeansXmlParser {
 
     private final BeansXmlValidator beansXmlValidator;
 
+    private final BeansXmlCache beansXmlCache;
+
     public BeansXmlParser() {
         beansXmlValidator = SystemPropertiesConfiguration.INSTANCE.isXmlValidationDisabled() ? null : new BeansXmlValidator();
+        beansXmlCache = SystemPropertiesConfiguration.INSTANCE.isXmlCacheDisabled() ? null : BeansXmlCache.INSTANCE;
     }
 
     public BeansXml parse(final URL beansXml) {
         BeansXmlHandler handler = getHandler(beansXml);
+        if (handler == null && beansXmlCache != null) {
+            // The result does not depend on a custom handler, e.g. no interpolation
+            return beansXmlCache.parse(beansXml, beansXmlValidator);
+        }
         if (beansXmlValidator != null) {
             beansXmlValidator.validate(beansXml, handler);
         }
@@ -129,10 +129,24 @@ public class BeansXmlStreamParser {
             throw XmlLogger.LOG.loadError("unknown", null);
         }
         try (InputStream in = beansXml.openStream()) {
-            if (in.available() == 0) {
-                // The file is just acting as a marker file
-                return EMPTY_BEANS_XML;
-            }
+            return parse(in);
+        } catch (IOException e) {
+            throw XmlLogger.LOG.loadError(beansXml, e);
+        }
+    }
+
+    /**
+     *
+     * @param in The content of the descriptor, the stream is not closed
+     * @return the parsed descriptor
+     * @throws IOException
+     */
+    BeansXml parse(InputStream in) throws IOException {
+        if (in.available() == 0) {
+            // The file is just acting as a marker file
+            return EMPTY_BEANS_XML;
+        }
+        try {
             XMLInputFactory factory = XMLInputFactory.newInstance();
             XMLEventReader reader = factory.createXMLEventReader(in);
 
@@ -158,8 +172,6 @@ public class BeansXmlStreamParser {
             }
             reader.close();
 
-        } catch (IOException e) {
-            throw XmlLogger.LOG.loadError(beansXml, e);
         } catch (XMLStreamException e) {
             throw XmlLogger.LOG.parsingError(beansXml, e);
         }
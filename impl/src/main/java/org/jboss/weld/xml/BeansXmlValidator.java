@@ -17,6 +17,7 @@
 package org.jboss.weld.xml;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -68,48 +69,83 @@ public class BeansXmlValidator implements ErrorHandler {
         if (beansXml == null) {
             throw XmlLogger.LOG.loadError("unknown", null);
         }
-        if (errorHandler == null) {
-            errorHandler = this;
-        }
-        Schema schema = cdi20Schema;
-
+        Schema schema;
         // First quick check of beans.xml to find out version
         try (InputStream in = beansXml.openStream()) {
             if (in.available() == 0) {
                 // The file is just acting as a marker file
                 return;
             }
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, Charset.forName(StandardCharsets.UTF_8.name())))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.contains(XmlSchema.CDI11.getFileName())) {
-                        schema = cdi11Schema;
-                        break;
-                    } else if (line.contains(XmlSchema.CDI20.getFileName())) {
-                        break;
-                    }
-                }
-            }
+            schema = getSchema(in);
         } catch (IOException e) {
             throw XmlLogger.LOG.loadError(beansXml, e);
         }
-
         if (schema == null) {
             return;
         }
-        Validator validator = schema.newValidator();
-        validator.setErrorHandler(errorHandler);
         try (InputStream in = beansXml.openStream()) {
-            validator.validate(new StreamSource(in));
-        } catch (SAXException | IOException e) {
+            validate(schema, in, errorHandler);
+        } catch (IOException e) {
             // No-op - validation is optional
         }
     }
 
+    /**
+     * Validates the content of a descriptor which was already read, e.g. by {@link BeansXmlCache}.
+     *
+     * @param beansXml
+     * @param content
+     * @param errorHandler
+     * @return <code>true</code> if the content was validated and no warning or error was reported, <code>false</code> otherwise
+     */
+    boolean validate(URL beansXml, byte[] content, ErrorHandler errorHandler) {
+        if (content.length == 0) {
+            // The file is just acting as a marker file
+            return true;
+        }
+        Schema schema;
+        try {
+            schema = getSchema(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw XmlLogger.LOG.loadError(beansXml, e);
+        }
+        if (schema == null) {
+            return false;
+        }
+        ProblemTracker tracker = new ProblemTracker(errorHandler != null ? errorHandler : this);
+        return validate(schema, new ByteArrayInputStream(content), tracker) && !tracker.problemReported;
+    }
+
     public void validate(URL beansXml) {
         validate(beansXml, this);
     }
 
+    private Schema getSchema(InputStream in) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, Charset.forName(StandardCharsets.UTF_8.name())))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(XmlSchema.CDI11.getFileName())) {
+                    return cdi11Schema;
+                } else if (line.contains(XmlSchema.CDI20.getFileName())) {
+                    break;
+                }
+            }
+        }
+        return cdi20Schema;
+    }
+
+    private boolean validate(Schema schema, InputStream in, ErrorHandler errorHandler) {
+        Validator validator = schema.newValidator();
+        validator.setErrorHandler(errorHandler != null ? errorHandler : this);
+        try {
+            validator.validate(new StreamSource(in));
+            return true;
+        } catch (SAXException | IOException e) {
+            // No-op - validation is optional
+            return false;
+        }
+    }
+
     @Override
     public void warning(SAXParseException e) throws SAXException {
         XmlLogger.LOG.xsdValidationWarning(e.getSystemId(), e.getLineNumber(), e.getMessage());
@@ -117,7 +153,7 @@ public class BeansXmlValidator implements ErrorHandler {
 
     @Override
     public void error(SAXParseException e) throws SAXException {
-        if (e.getMessage().startsWith(VALIDATION_ERROR_CODE_CVC_ELT_1) && e.getMessage().contains(ROOT_ELEMENT_NAME)) {
+        if (isMissingSchemaError(e)) {
             // Ignore the errors we get when there is no schema defined
             return;
         }
@@ -129,6 +165,10 @@ public class BeansXmlValidator implements ErrorHandler {
         throw e;
     }
 
+    private static boolean isMissingSchemaError(SAXParseException e) {
+        return e.getMessage().startsWith(VALIDATION_ERROR_CODE_CVC_ELT_1) && e.getMessage().contains(ROOT_ELEMENT_NAME);
+    }
+
     private static StreamSource[] loadXsds(XmlSchema[] schemas) {
         List<Source> xsds = new ArrayList<>();
         for (XmlSchema schema : schemas) {
@@ -170,4 +210,39 @@ public class BeansXmlValidator implements ErrorHandler {
         }
     }
 
+    /**
+     * Remembers whether a warning or an error was reported during validation, the problems are still reported to the delegate.
+     */
+    private static class ProblemTracker implements ErrorHandler {
+
+        private final ErrorHandler delegate;
+
+        private boolean problemReported;
+
+        private ProblemTracker(ErrorHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void warning(SAXParseException e) throws SAXException {
+            problemReported = true;
+            delegate.warning(e);
+        }
+
+        @Override
+        public void error(SAXParseException e) throws SAXException {
+            if (!isMissingSchemaError(e)) {
+                problemReported = true;
+            }
+            delegate.error(e);
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) throws SAXException {
+            problemReported = true;
+            delegate.fatalError(e);
+        }
+
+    }
+
 }
@@ -16,6 +16,10 @@ public class XmlMetadata<T> extends FileMetadata<T> {
         this.qName = qName;
     }
 
+    public String getQName() {
+        return qName;
+    }
+
     @Override
     public String getLocation() {
         if (getValue() != null) {
@@ -0,0 +1,36 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.bean.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class DecoratorChainProxyFactoryTest {
+
+    @Test
+    public void testSanitize() {
+        assertEquals("com_acme_FooDecorator", DecoratorChainProxyFactory.sanitize("com.acme.FooDecorator"));
+        assertEquals("com_acme_Foo$Decorator", DecoratorChainProxyFactory.sanitize("com.acme.Foo$Decorator"));
+        assertEquals("com_1acme_Foo_1Decorator", DecoratorChainProxyFactory.sanitize("com_acme.Foo_Decorator"));
+        assertNotEquals(DecoratorChainProxyFactory.sanitize("com.acme_.Decorator"), DecoratorChainProxyFactory.sanitize("com.acme._Decorator"));
+        assertNotEquals(DecoratorChainProxyFactory.sanitize("com.acme_foo.Decorator"), DecoratorChainProxyFactory.sanitize("com.acme.foo_Decorator"));
+        assertNotEquals(DecoratorChainProxyFactory.sanitize("com_acme.Decorator"), DecoratorChainProxyFactory.sanitize("com.acme.Decorator"));
+    }
+
+}
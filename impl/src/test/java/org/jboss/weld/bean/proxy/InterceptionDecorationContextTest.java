@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.bean.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.weld.bean.proxy.InterceptionDecorationContext.Stack;
+import org.jboss.weld.contexts.cache.RequestScopedCache;
+import org.junit.Test;
+
+public class InterceptionDecorationContextTest {
+
+    @Test
+    public void testSelfInvocationSuppressed() {
+        CombinedInterceptorAndDecoratorStackMethodHandler handler = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        assertTrue(InterceptionDecorationContext.empty());
+        Stack stack = InterceptionDecorationContext.startIfNotOnTop(handler);
+        try {
+            assertSame(handler, InterceptionDecorationContext.peek());
+            assertTrue(handler.isDisabledHandler());
+            // Self-invocation
+            assertNull(InterceptionDecorationContext.startIfNotOnTop(handler));
+            assertEquals(1, stack.size());
+        } finally {
+            stack.end();
+        }
+        assertTrue(InterceptionDecorationContext.empty());
+        assertFalse(handler.isDisabledHandler());
+    }
+
+    @Test
+    public void testNestedInterceptionContexts() {
+        CombinedInterceptorAndDecoratorStackMethodHandler first = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        CombinedInterceptorAndDecoratorStackMethodHandler second = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        Stack stack = InterceptionDecorationContext.startIfNotOnTop(first);
+        try {
+            assertSame(stack, InterceptionDecorationContext.startIfNotOnTop(second));
+            try {
+                assertSame(second, InterceptionDecorationContext.peek());
+                assertFalse(first.isDisabledHandler());
+            } finally {
+                stack.end();
+            }
+            assertSame(first, InterceptionDecorationContext.peek());
+        } finally {
+            stack.end();
+        }
+        assertTrue(InterceptionDecorationContext.empty());
+    }
+
+    @Test
+    public void testClientProxyStartsNewContext() {
+        // Client proxy called outside of an interception context
+        assertNull(InterceptionDecorationContext.startIfNotEmpty());
+        CombinedInterceptorAndDecoratorStackMethodHandler handler = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        Stack stack = InterceptionDecorationContext.startIfNotOnTop(handler);
+        try {
+            // A call back into the same instance through a client proxy is intercepted again
+            Stack proxyStack = InterceptionDecorationContext.startIfNotEmpty();
+            assertSame(stack, proxyStack);
+            try {
+                assertFalse(handler.isDisabledHandler());
+                assertSame(stack, InterceptionDecorationContext.startIfNotOnTop(handler));
+                stack.end();
+            } finally {
+                proxyStack.end();
+            }
+            assertTrue(handler.isDisabledHandler());
+        } finally {
+            stack.end();
+        }
+        assertTrue(InterceptionDecorationContext.empty());
+    }
+
+    @Test
+    public void testStackRemovedWhenEmpty() {
+        CombinedInterceptorAndDecoratorStackMethodHandler handler = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        Stack first = InterceptionDecorationContext.startIfNotOnTop(handler);
+        first.end();
+        // The request scoped cache is not active so the stack is removed once it becomes empty
+        Stack second = InterceptionDecorationContext.startIfNotOnTop(handler);
+        second.end();
+        assertNotSame(first, second);
+        assertTrue(InterceptionDecorationContext.empty());
+        try {
+            first.startIfNotOnTop(handler);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testStackReusedWithinRequest() {
+        CombinedInterceptorAndDecoratorStackMethodHandler handler = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        RequestScopedCache.beginRequest();
+        Stack stack;
+        try {
+            stack = InterceptionDecorationContext.startIfNotOnTop(handler);
+            stack.end();
+            // The stack is kept until the end of the request
+            Stack second = InterceptionDecorationContext.startIfNotOnTop(handler);
+            second.end();
+            assertSame(stack, second);
+            assertSame(stack, InterceptionDecorationContext.getStack());
+        } finally {
+            RequestScopedCache.endRequest();
+        }
+        // The stack was invalidated and removed at the end of the request
+        assertNotSame(stack, InterceptionDecorationContext.startIfNotOnTop(handler));
+        InterceptionDecorationContext.endInterceptorContext();
+        assertTrue(InterceptionDecorationContext.empty());
+    }
+
+    @Test
+    public void testStackRemovedAfterRequestWhenEmpty() {
+        CombinedInterceptorAndDecoratorStackMethodHandler handler = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        RequestScopedCache.beginRequest();
+        Stack stack = InterceptionDecorationContext.startIfNotOnTop(handler);
+        try {
+            // The cache is flushed while the interception context is in progress, e.g. AlterableContext.destroy()
+            RequestScopedCache.endRequest();
+            assertSame(handler, InterceptionDecorationContext.peek());
+        } finally {
+            stack.end();
+        }
+        assertTrue(InterceptionDecorationContext.empty());
+        assertNotSame(stack, InterceptionDecorationContext.startIfNotOnTop(handler));
+        InterceptionDecorationContext.endInterceptorContext();
+    }
+
+    @Test
+    public void testStackPerThread() throws InterruptedException {
+        final CombinedInterceptorAndDecoratorStackMethodHandler handler = new CombinedInterceptorAndDecoratorStackMethodHandler();
+        final AtomicBoolean intercepted = new AtomicBoolean();
+        Stack stack = InterceptionDecorationContext.startIfNotOnTop(handler);
+        try {
+            // The same handler invoked from another thread is not a self-invocation
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    assertNull(InterceptionDecorationContext.startIfNotEmpty());
+                    Stack otherStack = InterceptionDecorationContext.startIfNotOnTop(handler);
+                    if (otherStack != null) {
+                        intercepted.set(otherStack.size() == 1);
+                        otherStack.end();
+                    }
+                }
+            });
+            thread.start();
+            thread.join();
+            assertTrue(intercepted.get());
+            assertTrue(handler.isDisabledHandler());
+        } finally {
+            stack.end();
+        }
+    }
+
+}
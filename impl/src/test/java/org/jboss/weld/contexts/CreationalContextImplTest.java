@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.context.spi.CreationalContext;
+
+import org.jboss.weld.context.api.ContextualInstance;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CreationalContextImplTest {
+
+    private static final Map<Object, AtomicInteger> DESTROYED = new ConcurrentHashMap<>();
+
+    private static final TestBean BEAN = new TestBean();
+
+    @Before
+    public void reset() {
+        DESTROYED.clear();
+    }
+
+    @Test
+    public void testNoDependentInstances() throws Exception {
+        CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+        creationalContext.getCreationalContext(BEAN);
+        assertTrue(creationalContext.getDependentInstances().isEmpty());
+        CreationalContextImpl<?> deserialized = serializeAndDeserialize(creationalContext);
+        assertTrue(deserialized.getDependentInstances().isEmpty());
+        deserialized.release();
+        assertTrue(DESTROYED.isEmpty());
+    }
+
+    @Test
+    public void testDependentInstances() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+            addDependentInstance(creationalContext, "alpha");
+            addDependentInstance(creationalContext, "bravo");
+            // Registered by another thread
+            executor.submit(() -> addDependentInstance(creationalContext, "charlie")).get();
+            addDependentInstance(creationalContext, "delta");
+            assertEquals(Arrays.asList("alpha", "bravo", "delta", "charlie"), getInstances(creationalContext));
+            assertTrue(creationalContext.destroyDependentInstance("bravo"));
+            assertFalse(creationalContext.destroyDependentInstance("bravo"));
+            assertTrue(executor.submit(() -> creationalContext.destroyDependentInstance("delta")).get());
+            assertEquals(Arrays.asList("alpha", "charlie"), getInstances(creationalContext));
+            creationalContext.release();
+            assertDestroyedOnce("alpha", "bravo", "charlie", "delta");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+            addDependentInstance(creationalContext, "alpha");
+            addDependentInstance(creationalContext, "bravo");
+            executor.submit(() -> addDependentInstance(creationalContext, "charlie")).get();
+            creationalContext.destroyDependentInstance("alpha");
+            CreationalContextImpl<?> deserialized = serializeAndDeserialize(creationalContext);
+            assertEquals(Arrays.asList("bravo", "charlie"), getInstances(deserialized));
+            // The deserialized creational context has no owner thread
+            addDependentInstance(deserialized, "delta");
+            assertEquals(Arrays.asList("bravo", "charlie", "delta"), getInstances(deserialized));
+            deserialized.release();
+            assertDestroyedOnce("alpha", "bravo", "charlie", "delta");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNonSerializableDependentInstanceDestroyed() throws Exception {
+        CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+        addDependentInstance(creationalContext, "alpha");
+        NonSerializable bravo = new NonSerializable();
+        addDependentInstance(creationalContext, bravo);
+        CreationalContextImpl<?> deserialized = serializeAndDeserialize(creationalContext);
+        assertDestroyedOnce(bravo);
+        assertEquals(Collections.singletonList("alpha"), getInstances(deserialized));
+        assertEquals(Collections.singletonList("alpha"), getInstances(creationalContext));
+    }
+
+    @Test
+    public void testConcurrentRegistrationAndDestruction() throws Exception {
+        int threads = 4;
+        int instances = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CreationalContextImpl<Object> creationalContext = new CreationalContextImpl<Object>(BEAN);
+            List<Future<List<Object>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> registerAndDestroy(creationalContext, instances)));
+            }
+            List<Object> registered = registerAndDestroy(creationalContext, instances);
+            for (Future<List<Object>> future : futures) {
+                registered.addAll(future.get());
+            }
+            assertEquals((threads + 1) * instances / 2, creationalContext.getDependentInstances().size());
+            creationalContext.release();
+            assertDestroyedOnce(registered.toArray());
+            assertTrue(creationalContext.getDependentInstances().isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Object> registerAndDestroy(CreationalContextImpl<Object> creationalContext, int instances) {
+        List<Object> registered = new ArrayList<>();
+        for (int i = 0; i < instances; i++) {
+            Object instance = new Object();
+            addDependentInstance(creationalContext, instance);
+            registered.add(instance);
+            if (i % 2 == 0) {
+                assertTrue(creationalContext.destroyDependentInstance(instance));
+            }
+        }
+        return registered;
+    }
+
+    private static void assertDestroyedOnce(Object... instances) {
+        for (Object instance : instances) {
+            AtomicInteger count = DESTROYED.get(instance);
+            assertEquals("Destroyed: " + instance, 1, count != null ? count.get() : 0);
+        }
+    }
+
+    private static void addDependentInstance(CreationalContextImpl<?> creationalContext, Object instance) {
+        CreationalContextImpl<Object> child = creationalContext.getCreationalContext(BEAN);
+        child.addDependentInstance(new TestContextualInstance(instance, child));
+    }
+
+    private static List<Object> getInstances(CreationalContextImpl<?> creationalContext) {
+        List<Object> instances = new ArrayList<>();
+        for (ContextualInstance<?> contextualInstance : creationalContext.getDependentInstances()) {
+            instances.add(contextualInstance.getInstance());
+        }
+        return instances;
+    }
+
+    private static CreationalContextImpl<?> serializeAndDeserialize(CreationalContextImpl<?> creationalContext) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(creationalContext);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (CreationalContextImpl<?>) in.readObject();
+        }
+    }
+
+    private static class TestBean implements Contextual<Object>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object create(CreationalContext<Object> creationalContext) {
+            return new Object();
+        }
+
+        @Override
+        public void destroy(Object instance, CreationalContext<Object> creationalContext) {
+            DESTROYED.computeIfAbsent(instance, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+    }
+
+    private static class TestContextualInstance implements ContextualInstance<Object>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object instance;
+
+        private final CreationalContext<Object> creationalContext;
+
+        TestContextualInstance(Object instance, CreationalContext<Object> creationalContext) {
+            this.instance = instance;
+            this.creationalContext = creationalContext;
+        }
+
+        @Override
+        public Object getInstance() {
+            return instance;
+        }
+
+        @Override
+        public CreationalContext<Object> getCreationalContext() {
+            return creationalContext;
+        }
+
+        @Override
+        public Contextual<Object> getContextual() {
+            return BEAN;
+        }
+
+    }
+
+    private static class NonSerializable {
+
+    }
+
+}
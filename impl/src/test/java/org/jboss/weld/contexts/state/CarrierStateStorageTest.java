@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.weld.contexts.state.StateCarrier.Binding;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Requires {@value StateLocal#STORAGE_PROPERTY}={@value StateLocal#CARRIER_STORAGE}, see the carrier-state-storage execution of the surefire plugin.
+ */
+public class CarrierStateStorageTest {
+
+    private final StateLocal<String> local = new StateLocal<String>();
+
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        assumeTrue(StateLocal.getStorage() instanceof CarrierStateStorage);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void cleanup() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoThreadLocalPerLocal() {
+        assertNull(local.threadLocal);
+    }
+
+    @Test
+    public void testImplicitCarrier() {
+        assertNull(StateCarrier.current());
+        local.set("foo");
+        StateCarrier carrier = StateCarrier.current();
+        assertEquals("foo", local.get());
+        local.set("bar");
+        assertSame(carrier, StateCarrier.current());
+        assertEquals("bar", local.get());
+        local.remove();
+        // The implicit carrier is discarded once empty
+        assertNull(StateCarrier.current());
+        assertNull(local.get());
+    }
+
+    @Test
+    public void testPropagateAcrossTasks() throws Exception {
+        final StateCarrier carrier = new StateCarrier();
+        try (Binding binding = carrier.bind()) {
+            assertSame(carrier, StateCarrier.current());
+            local.set("parent");
+        }
+        assertNull(StateCarrier.current());
+        assertNull(local.get());
+
+        Future<String> child = executor.submit(() -> {
+            assertNull(local.get());
+            try (Binding binding = carrier.bind()) {
+                String value = local.get();
+                local.set("child");
+                return value;
+            } finally {
+                assertNull(StateCarrier.current());
+            }
+        });
+        assertEquals("parent", child.get());
+
+        try (Binding binding = carrier.bind()) {
+            assertEquals("child", local.get());
+            local.remove();
+        }
+        assertTrue(carrier.isEmpty());
+    }
+
+    @Test
+    public void testCarrierBoundToOneThread() throws Exception {
+        final StateCarrier carrier = new StateCarrier();
+        try (Binding binding = carrier.bind()) {
+            Future<Boolean> rejected = executor.submit(() -> {
+                try {
+                    carrier.bind();
+                    return false;
+                } catch (IllegalStateException expected) {
+                    return true;
+                }
+            });
+            assertTrue(rejected.get());
+        }
+        // Once unbound, the carrier may be bound to another thread
+        Future<Boolean> bound = executor.submit(() -> {
+            try (Binding binding = carrier.bind()) {
+                return StateCarrier.current() == carrier;
+            }
+        });
+        assertTrue(bound.get());
+    }
+
+    @Test
+    public void testNestedBindings() {
+        StateCarrier outer = new StateCarrier();
+        StateCarrier inner = new StateCarrier();
+        try (Binding outerBinding = outer.bind()) {
+            local.set("outer");
+            try (Binding innerBinding = inner.bind()) {
+                assertSame(inner, StateCarrier.current());
+                assertNull(local.get());
+                local.set("inner");
+                try (Binding again = outer.bind()) {
+                    assertEquals("outer", local.get());
+                }
+                assertEquals("inner", local.get());
+            }
+            assertSame(outer, StateCarrier.current());
+            assertEquals("outer", local.get());
+            local.remove();
+        }
+        assertNull(StateCarrier.current());
+    }
+
+    @Test
+    public void testCloseBindingTwice() {
+        StateCarrier carrier = new StateCarrier();
+        Binding binding = carrier.bind();
+        binding.close();
+        binding.close();
+        assertNull(StateCarrier.current());
+        try (Binding other = carrier.bind()) {
+            assertSame(carrier, StateCarrier.current());
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.contexts.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StateLocalTest {
+
+    @Test
+    public void testInitStorage() {
+        assertTrue(StateLocal.initStorage(null) instanceof ThreadLocalStateStorage);
+        assertTrue(StateLocal.initStorage("") instanceof ThreadLocalStateStorage);
+        assertTrue(StateLocal.initStorage(StateLocal.CARRIER_STORAGE) instanceof CarrierStateStorage);
+        assertTrue(StateLocal.initStorage(CustomStateStorage.class.getName()) instanceof CustomStateStorage);
+    }
+
+    @Test
+    public void testInitStorageFallback() {
+        // Not found
+        assertTrue(StateLocal.initStorage("org.jboss.weld.contexts.state.Missing") instanceof ThreadLocalStateStorage);
+        // Not a storage
+        assertTrue(StateLocal.initStorage(String.class.getName()) instanceof ThreadLocalStateStorage);
+        // No public no-arg constructor
+        assertTrue(StateLocal.initStorage(PrivateStateStorage.class.getName()) instanceof ThreadLocalStateStorage);
+        // Constructor throws an exception
+        assertTrue(StateLocal.initStorage(FailingStateStorage.class.getName()) instanceof ThreadLocalStateStorage);
+    }
+
+    @Test
+    public void testThreadLocalStorage() throws InterruptedException {
+        assertTrue(StateLocal.getStorage() instanceof ThreadLocalStateStorage);
+        final StateLocal<String> local = new StateLocal<String>();
+        assertNotNull(local.threadLocal);
+        assertNull(local.get());
+        local.set("foo");
+        assertEquals("foo", local.get());
+        final List<Object> values = new ArrayList<Object>();
+        Thread thread = new Thread(() -> {
+            values.add(local.get());
+            local.set("bar");
+            values.add(local.get());
+        });
+        thread.start();
+        thread.join();
+        assertEquals(2, values.size());
+        assertNull(values.get(0));
+        assertEquals("bar", values.get(1));
+        assertEquals("foo", local.get());
+        local.remove();
+        assertNull(local.get());
+    }
+
+    @Test
+    public void testInitialValue() {
+        StateLocal<String> local = new StateLocal<String>() {
+            @Override
+            protected String initialValue() {
+                return "initial";
+            }
+        };
+        assertEquals("initial", local.get());
+        local.set("foo");
+        assertEquals("foo", local.get());
+        local.remove();
+        assertEquals("initial", local.get());
+        local.remove();
+    }
+
+    @Test
+    public void testCarrierCannotBeBound() {
+        assertNull(StateCarrier.current());
+        try {
+            new StateCarrier().bind();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public static class CustomStateStorage extends ThreadLocalStateStorage {
+    }
+
+    public static class PrivateStateStorage extends ThreadLocalStateStorage {
+
+        private PrivateStateStorage() {
+        }
+
+    }
+
+    public static class FailingStateStorage extends ThreadLocalStateStorage {
+
+        public FailingStateStorage() {
+            throw new IllegalStateException();
+        }
+
+    }
+
+}
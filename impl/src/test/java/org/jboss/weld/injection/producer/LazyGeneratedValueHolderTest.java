@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.injection.producer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.weld.exceptions.WeldException;
+import org.junit.Test;
+
+public class LazyGeneratedValueHolderTest {
+
+    @Test
+    public void testValueGeneratedOnce() {
+        AtomicInteger generated = new AtomicInteger();
+        LazyGeneratedValueHolder<String> holder = new LazyGeneratedValueHolder<String>(() -> "value" + generated.incrementAndGet(), "foo");
+        assertNull(holder.getIfPresent());
+        assertEquals(0, generated.get());
+        assertEquals("value1", holder.get());
+        assertEquals("value1", holder.get());
+        assertEquals("value1", holder.getIfPresent());
+        assertEquals(1, generated.get());
+        assertFalse(holder.isFailed());
+    }
+
+    @Test
+    public void testFailureRemembered() {
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalStateException cause = new IllegalStateException("Cannot define class");
+        LazyGeneratedValueHolder<String> holder = new LazyGeneratedValueHolder<String>(() -> {
+            attempts.incrementAndGet();
+            throw cause;
+        }, "foo");
+        WeldException first = assertFails(holder);
+        assertSame(cause, first.getCause());
+        assertTrue(first.getMessage(), first.getMessage().contains("foo"));
+        assertTrue(holder.isFailed());
+        // The classes are not generated again
+        assertSame(first, assertFails(holder));
+        assertSame(first, assertFails(holder));
+        assertEquals(1, attempts.get());
+        assertNull(holder.getIfPresent());
+    }
+
+    @Test
+    public void testLinkageErrorRemembered() {
+        AtomicInteger attempts = new AtomicInteger();
+        LazyGeneratedValueHolder<String> holder = new LazyGeneratedValueHolder<String>(() -> {
+            attempts.incrementAndGet();
+            throw new VerifyError();
+        }, "foo");
+        assertTrue(assertFails(holder).getCause() instanceof VerifyError);
+        assertTrue(assertFails(holder).getCause() instanceof VerifyError);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testConcurrentGeneration() throws Exception {
+        int threads = 8;
+        AtomicInteger generated = new AtomicInteger();
+        LazyGeneratedValueHolder<Object> holder = new LazyGeneratedValueHolder<Object>(() -> {
+            generated.incrementAndGet();
+            return new Object();
+        }, "foo");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object>> results = new ArrayList<Future<Object>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        start.await();
+                        return holder.get();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Object> result : results) {
+                assertSame(holder.get(), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, generated.get());
+    }
+
+    private static WeldException assertFails(LazyGeneratedValueHolder<?> holder) {
+        try {
+            holder.get();
+            fail("Generation should fail");
+            return null;
+        } catch (WeldException expected) {
+            return expected;
+        }
+    }
+
+}
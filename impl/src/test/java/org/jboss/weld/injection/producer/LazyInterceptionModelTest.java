@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.injection.producer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.inject.spi.InterceptionType;
+
+import org.jboss.weld.interceptor.builder.InterceptionModelBuilder;
+import org.jboss.weld.interceptor.proxy.InterceptorInvocation;
+import org.jboss.weld.interceptor.reader.TargetClassInterceptorMetadata;
+import org.jboss.weld.interceptor.spi.metadata.InterceptorClassMetadata;
+import org.jboss.weld.interceptor.spi.metadata.InterceptorFactory;
+import org.jboss.weld.interceptor.spi.model.InterceptionModel;
+import org.junit.Test;
+
+public class LazyInterceptionModelTest {
+
+    private static final InterceptorClassMetadata<Object> INTERCEPTOR = new InterceptorClassMetadata<Object>() {
+
+        @Override
+        public boolean isEligible(org.jboss.weld.interceptor.spi.model.InterceptionType interceptionType) {
+            return true;
+        }
+
+        @Override
+        public InterceptorInvocation getInterceptorInvocation(Object interceptorInstance,
+                org.jboss.weld.interceptor.spi.model.InterceptionType interceptionType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InterceptorFactory<Object> getInterceptorFactory() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Class<Object> getJavaClass() {
+            return Object.class;
+        }
+    };
+
+    @Test
+    public void testBootstrapQueriesDoNotBuildModel() throws Exception {
+        Method method = Object.class.getMethod("toString");
+        AtomicInteger built = new AtomicInteger();
+        LazyInterceptionModel model = new LazyInterceptionModel(build(method), () -> {
+            built.incrementAndGet();
+            return build(method);
+        }, "foo");
+
+        assertEquals(Collections.singleton(INTERCEPTOR), model.getAllInterceptors());
+        assertEquals(Collections.singletonList(INTERCEPTOR), model.getInterceptors(org.jboss.weld.interceptor.spi.model.InterceptionType.POST_CONSTRUCT, null));
+        assertTrue(model.getInterceptors(org.jboss.weld.interceptor.spi.model.InterceptionType.PRE_DESTROY, null).isEmpty());
+        assertTrue(model.getConstructorInvocationInterceptors().isEmpty());
+        assertFalse(model.hasExternalConstructorInterceptors());
+        assertTrue(model.hasExternalNonConstructorInterceptors());
+        assertFalse(model.hasTargetClassInterceptors());
+        assertSame(TargetClassInterceptorMetadata.EMPTY_INSTANCE, model.getTargetClassInterceptorMetadata());
+        assertTrue(model.getClassInterceptorBindings().isEmpty());
+        assertFalse(model.isBuilt());
+        assertEquals(0, built.get());
+
+        // The method-bound interceptors are only available in the built model
+        assertEquals(Collections.singletonList(INTERCEPTOR), model.getInterceptors(org.jboss.weld.interceptor.spi.model.InterceptionType.AROUND_INVOKE, method));
+        assertTrue(model.isBuilt());
+        assertEquals(Collections.<Annotation> emptySet(), model.getMemberInterceptorBindings(method));
+        assertEquals(1, built.get());
+    }
+
+    private static InterceptionModel build(Method method) {
+        InterceptionModelBuilder builder = new InterceptionModelBuilder();
+        builder.setTargetClassInterceptorMetadata(TargetClassInterceptorMetadata.EMPTY_INSTANCE);
+        builder.setClassInterceptorBindings(Collections.<Annotation> emptySet());
+        builder.interceptGlobal(InterceptionType.POST_CONSTRUCT, null, Collections.<InterceptorClassMetadata<?>> singleton(INTERCEPTOR), null);
+        builder.interceptMethod(InterceptionType.AROUND_INVOKE, method, Collections.<InterceptorClassMetadata<?>> singleton(INTERCEPTOR),
+                Collections.<Annotation> emptySet());
+        return builder.build();
+    }
+
+}
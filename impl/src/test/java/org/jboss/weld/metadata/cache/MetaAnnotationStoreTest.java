@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.metadata.cache;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.util.AnnotationLiteral;
+import javax.inject.Named;
+import javax.inject.Qualifier;
+
+import org.jboss.weld.bootstrap.api.helpers.RegistrySingletonProvider;
+import org.jboss.weld.literal.NamedLiteral;
+import org.jboss.weld.metadata.TypeStore;
+import org.jboss.weld.resolution.QualifierInstance;
+import org.jboss.weld.resources.ClassTransformer;
+import org.jboss.weld.resources.ReflectionCacheFactory;
+import org.jboss.weld.resources.SharedObjectCache;
+import org.junit.Test;
+
+public class MetaAnnotationStoreTest {
+
+    private final TypeStore typeStore = new TypeStore();
+
+    private final MetaAnnotationStore store = new MetaAnnotationStore(
+            new ClassTransformer(typeStore, new SharedObjectCache(), ReflectionCacheFactory.newInstance(typeStore), RegistrySingletonProvider.STATIC_INSTANCE));
+
+    @Test
+    public void testReflectionAnnotationCachedByIdentity() throws NoSuchFieldException {
+        Annotation red = getAnnotation("red", Color.class);
+        QualifierInstance qualifierInstance = store.getQualifierInstance(red);
+        assertTrue(store.isCachedByIdentity(red));
+        assertSame(qualifierInstance, store.getQualifierInstance(red));
+        // The same result as without the cache
+        assertEquals(QualifierInstance.of(red, store), qualifierInstance);
+        assertNotEquals(qualifierInstance, store.getQualifierInstance(getAnnotation("blue", Color.class)));
+    }
+
+    @Test
+    public void testLiteralCachedByIdentity() throws NoSuchFieldException {
+        Annotation literal = new ColorLiteral("red");
+        QualifierInstance qualifierInstance = store.getQualifierInstance(literal);
+        assertTrue(store.isCachedByIdentity(literal));
+        assertSame(qualifierInstance, store.getQualifierInstance(literal));
+        assertEquals(QualifierInstance.of(literal, store), qualifierInstance);
+        assertEquals(store.getQualifierInstance(getAnnotation("red", Color.class)), qualifierInstance);
+        // An equal literal is resolved to the same qualifier instance
+        Annotation equalLiteral = new ColorLiteral("red");
+        assertSame(qualifierInstance, store.getQualifierInstance(equalLiteral));
+        assertTrue(store.isCachedByIdentity(equalLiteral));
+
+        Annotation named = new NamedLiteral("foo");
+        assertEquals(QualifierInstance.of(named, store), store.getQualifierInstance(named));
+        assertFalse(store.isCachedByIdentity(named));
+    }
+
+    @Test
+    public void testNamedNotCachedByIdentity() throws NoSuchFieldException {
+        Annotation named = getAnnotation("named", Named.class);
+        assertEquals(QualifierInstance.of(named, store), store.getQualifierInstance(named));
+        assertFalse(store.isCachedByIdentity(named));
+    }
+
+    @Test
+    public void testQualifierInstances() throws NoSuchFieldException {
+        Set<Annotation> annotations = new HashSet<>();
+        annotations.add(getAnnotation("red", Color.class));
+        annotations.add(getAnnotation("named", Named.class));
+        assertEquals(QualifierInstance.of(annotations, store), store.getQualifierInstances(annotations));
+    }
+
+    @Test
+    public void testCleanup() throws NoSuchFieldException {
+        Annotation red = getAnnotation("red", Color.class);
+        store.getQualifierInstance(red);
+        assertTrue(store.isCachedByIdentity(red));
+        store.cleanup();
+        assertFalse(store.isCachedByIdentity(red));
+    }
+
+    private static <A extends Annotation> A getAnnotation(String field, Class<A> annotationType) throws NoSuchFieldException {
+        return Qualified.class.getDeclaredField(field).getAnnotation(annotationType);
+    }
+
+    @Qualifier
+    @Retention(RUNTIME)
+    @interface Color {
+
+        String value();
+
+    }
+
+    static class ColorLiteral extends AnnotationLiteral<Color> implements Color {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String value;
+
+        ColorLiteral(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+
+    }
+
+    static class Qualified {
+
+        @Color("red")
+        Object red;
+
+        @Color("blue")
+        Object blue;
+
+        @Named("foo")
+        Object named;
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.resolution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javax.inject.Named;
+
+import org.junit.Test;
+
+public class QualifierInstanceIndexTest {
+
+    @Test
+    public void testContainsAllMatchesSetOperation() {
+        QualifierInstanceIndex index = new QualifierInstanceIndex();
+        List<QualifierInstance> qualifiers = new ArrayList<>();
+        qualifiers.add(QualifierInstance.ANY);
+        qualifiers.add(QualifierInstance.DEFAULT);
+        for (int i = 0; i < 150; i++) {
+            qualifiers.add(named("q" + i));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            Set<QualifierInstance> required = randomSubset(qualifiers, random);
+            Set<QualifierInstance> available = randomSubset(qualifiers, random);
+            if (random.nextBoolean()) {
+                available.addAll(required);
+            }
+            long[] requiredBits = index.getBits(required);
+            long[] availableBits = index.getBits(available);
+            assertNotSame(QualifierInstanceIndex.UNINDEXED, requiredBits);
+            assertNotSame(QualifierInstanceIndex.UNINDEXED, availableBits);
+            assertEquals(required + " in " + available, available.containsAll(required), QualifierInstanceIndex.containsAll(requiredBits, availableBits));
+        }
+        assertEquals(qualifiers.size(), index.size());
+    }
+
+    @Test
+    public void testEqualQualifiersShareId() {
+        QualifierInstanceIndex index = new QualifierInstanceIndex();
+        assertEquals(index.getId(named("foo")), index.getId(named("foo")));
+        assertEquals(1, index.size());
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(0, index.getId(named("bar")));
+    }
+
+    @Test
+    public void testUnindexed() {
+        QualifierInstanceIndex index = new QualifierInstanceIndex();
+        int id = 0;
+        while (index.getId(named("q" + id)) >= 0) {
+            id++;
+        }
+        assertEquals(index.size(), id);
+        assertEquals(-1, index.getId(named("overflow")));
+        // Qualifiers which already have an id are still indexed
+        assertEquals(0, index.getId(named("q0")));
+        assertSame(QualifierInstanceIndex.UNINDEXED, index.getBits(Collections.singleton(named("overflow"))));
+        assertNotSame(QualifierInstanceIndex.UNINDEXED, index.getBits(Collections.singleton(named("q0"))));
+    }
+
+    private static QualifierInstance named(String value) {
+        return new QualifierInstance(Named.class, Collections.<String, Object> singletonMap("value", value));
+    }
+
+    private static Set<QualifierInstance> randomSubset(List<QualifierInstance> qualifiers, Random random) {
+        Set<QualifierInstance> subset = new HashSet<>();
+        int size = random.nextInt(4);
+        for (int i = 0; i < size; i++) {
+            subset.add(qualifiers.get(random.nextInt(qualifiers.size())));
+        }
+        return subset;
+    }
+
+}
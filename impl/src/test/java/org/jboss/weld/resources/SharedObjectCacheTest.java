@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.weld.util.reflection.HierarchyDiscovery;
+import org.junit.Test;
+
+public class SharedObjectCacheTest {
+
+    private static final SharedObjectCache CACHE = new SharedObjectCache();
+
+    @Test
+    public void testGenericHierarchy() throws NoSuchFieldException {
+        assertClosure(StringDao.class);
+        assertClosure(LongDao.class);
+        assertClosure(StringDao.class.getGenericSuperclass());
+        assertClosure(getFieldType("dao"));
+        assertClosure(getFieldType("wildcardDao"));
+        assertClosure(getFieldType("array"));
+        assertClosure(getFieldType("nested"));
+        assertClosure(getFieldType("list"));
+    }
+
+    @Test
+    public void testRawHierarchy() {
+        assertClosure(AbstractDao.class);
+        assertClosure(RawDao.class);
+        assertClosure(Dao.class);
+        assertClosure(ArrayList.class);
+        assertClosure(Integer.class);
+        assertClosure(int.class);
+        assertClosure(Object.class);
+        assertClosure(String[].class);
+    }
+
+    @Test
+    public void testSharedSupertypes() {
+        SharedObjectCache cache = new SharedObjectCache();
+        // Both closures contain the same resolved supertypes
+        assertTrue(cache.getTypeClosureHolder(StringDao.class).get().contains(StringDao.class.getGenericSuperclass()));
+        assertEquals(new HierarchyDiscovery(StringDao.class).getTypeClosure(), cache.getTypeClosureHolder(StringDao.class).get());
+        assertEquals(new HierarchyDiscovery(OtherStringDao.class).getTypeClosure(), cache.getTypeClosureHolder(OtherStringDao.class).get());
+        assertSame(cache.getTypeClosureHolder(StringDao.class), cache.getTypeClosureHolder(StringDao.class));
+    }
+
+    private static void assertClosure(Type type) {
+        // Each type is checked with an empty cache and with a cache which already holds the types discovered in the other tests
+        assertEquals(type.toString(), new HierarchyDiscovery(type).getTypeClosure(), new SharedObjectCache().getTypeClosureHolder(type).get());
+        assertEquals(type.toString(), new HierarchyDiscovery(type).getTypeClosure(), CACHE.getTypeClosureHolder(type).get());
+    }
+
+    private static Type getFieldType(String name) throws NoSuchFieldException {
+        return Fields.class.getDeclaredField(name).getGenericType();
+    }
+
+    interface Dao<T, ID extends Serializable> {
+    }
+
+    interface Auditable<T> {
+    }
+
+    abstract static class AbstractDao<T, ID extends Serializable> implements Dao<T, ID>, Auditable<List<T>> {
+    }
+
+    static class StringDao extends AbstractDao<String, Integer> {
+    }
+
+    static class OtherStringDao extends AbstractDao<String, Integer> implements Comparable<OtherStringDao> {
+
+        @Override
+        public int compareTo(OtherStringDao o) {
+            return 0;
+        }
+
+    }
+
+    abstract static class LongDao<X> extends AbstractDao<Long, Long> implements Comparable<X> {
+    }
+
+    @SuppressWarnings("rawtypes")
+    static class RawDao extends AbstractDao implements Comparable {
+
+        @Override
+        public int compareTo(Object o) {
+            return 0;
+        }
+
+    }
+
+    static class Fields<T> {
+
+        Dao<String, Long> dao;
+
+        Dao<? extends Number, Long> wildcardDao;
+
+        List<String>[] array;
+
+        Map<String, List<T>> nested;
+
+        ArrayList<T> list;
+
+    }
+
+}
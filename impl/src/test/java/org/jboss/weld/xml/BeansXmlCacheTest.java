@@ -0,0 +1,263 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.weld.bootstrap.spi.BeansXml;
+import org.jboss.weld.bootstrap.spi.ClassAvailableActivation;
+import org.jboss.weld.bootstrap.spi.Filter;
+import org.jboss.weld.bootstrap.spi.Metadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.ErrorHandler;
+
+public class BeansXmlCacheTest {
+
+    private static final String BEANS_XML = "<beans xmlns=\"http://xmlns.jcp.org/xml/ns/javaee\" bean-discovery-mode=\"annotated\" version=\"2.0\">\n"
+            + "<alternatives><class>org.foo.Alpha</class><stereotype>org.foo.Mock</stereotype></alternatives>\n"
+            + "<decorators><class>org.foo.Bravo</class></decorators>\n"
+            + "<interceptors><class>org.foo.Charlie</class><class>org.foo.Delta</class></interceptors>\n"
+            + "<scan><exclude name=\"org.foo.excluded.*\"><if-class-available name=\"org.foo.Echo\"/></exclude></scan>\n"
+            + "</beans>";
+
+    private Path directory;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("weld-beans-xml-cache");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testSameResultAsParser() throws IOException {
+        URL first = write("first.xml", BEANS_XML);
+        URL second = write("second.xml", BEANS_XML);
+        BeansXmlCache cache = new BeansXmlCache("");
+        assertSameResult(new BeansXmlStreamParser(first).parse(), cache.parse(first, null));
+        // The second descriptor is not parsed but the cached result is bound to its URL
+        assertSameResult(new BeansXmlStreamParser(second).parse(), cache.parse(second, null));
+        assertSameResult(new BeansXmlStreamParser(first).parse(), cache.parse(first, null));
+    }
+
+    @Test
+    public void testValidatedOnce() throws IOException {
+        URL first = write("first.xml", BEANS_XML);
+        URL second = write("second.xml", BEANS_XML);
+        CountingValidator validator = new CountingValidator();
+        BeansXmlCache cache = new BeansXmlCache("");
+        cache.parse(first, validator);
+        cache.parse(second, validator);
+        assertEquals(1, validator.count);
+        cache.parse(write("third.xml", BEANS_XML.replace("Alpha", "Foxtrot")), validator);
+        assertEquals(2, validator.count);
+    }
+
+    @Test
+    public void testCacheFile() throws IOException {
+        Path file = directory.resolve("cache").resolve("beans-xml.cache");
+        URL beansXml = write("beans.xml", BEANS_XML);
+        byte[] content = BEANS_XML.getBytes(StandardCharsets.UTF_8);
+
+        BeansXmlCache first = new BeansXmlCache(file.toString(), "1.0");
+        first.parse(beansXml, new CountingValidator());
+        first.flush();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("#"));
+
+        // The validation is skipped on the next boot
+        CountingValidator validator = new CountingValidator();
+        BeansXmlCache cache = new BeansXmlCache(file.toString(), "1.0");
+        assertTrue(cache.isValidated(content));
+        cache.parse(beansXml, validator);
+        assertEquals(0, validator.count);
+
+        // But not after an upgrade
+        cache = new BeansXmlCache(file.toString(), "1.1");
+        assertFalse(cache.isValidated(content));
+        cache.parse(beansXml, validator);
+        assertEquals(1, validator.count);
+        cache.flush();
+        assertEquals(3, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+        // No temporary files are left
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testCacheFileBounded() throws IOException {
+        Path file = directory.resolve("beans-xml.cache");
+        CountingValidator validator = new CountingValidator();
+        BeansXmlCache cache = new BeansXmlCache(file.toString(), "1.0");
+        List<byte[]> contents = new ArrayList<>();
+        for (int i = 0; i < BeansXmlCache.MAX_SIZE + 10; i++) {
+            String content = BEANS_XML.replace("Alpha", "Alpha" + i);
+            contents.add(content.getBytes(StandardCharsets.UTF_8));
+            cache.parse(write("beans.xml", content), validator);
+        }
+        assertEquals(BeansXmlCache.MAX_SIZE + 10, validator.count);
+        cache.flush();
+        assertEquals(BeansXmlCache.MAX_SIZE + 1, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+
+        // The oldest digests are dropped
+        for (BeansXmlCache current : new BeansXmlCache[] { cache, new BeansXmlCache(file.toString(), "1.0") }) {
+            assertFalse(current.isValidated(contents.get(0)));
+            assertFalse(current.isValidated(contents.get(9)));
+            assertTrue(current.isValidated(contents.get(10)));
+            assertTrue(current.isValidated(contents.get(contents.size() - 1)));
+        }
+    }
+
+    @Test
+    public void testInvalidCacheFileIgnored() throws IOException {
+        Path file = directory.resolve("beans-xml.cache");
+        Files.write(file, "# Weld beans.xml cache 1\nfoo\n".getBytes(StandardCharsets.UTF_8));
+        CountingValidator validator = new CountingValidator();
+        BeansXmlCache cache = new BeansXmlCache(file.toString(), "1.0");
+        assertSameResult(new BeansXmlStreamParser(write("beans.xml", BEANS_XML)).parse(), cache.parse(write("beans.xml", BEANS_XML), validator));
+        assertEquals(1, validator.count);
+        cache.flush();
+        // The file is replaced
+        assertTrue(new BeansXmlCache(file.toString(), "1.0").isValidated(BEANS_XML.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testCacheFileWrittenOnFlush() throws IOException {
+        Path file = directory.resolve("beans-xml.cache");
+        BeansXmlCache cache = new BeansXmlCache(file.toString(), "1.0");
+        cache.parse(write("first.xml", BEANS_XML), new CountingValidator());
+        cache.parse(write("second.xml", BEANS_XML.replace("Alpha", "Foxtrot")), new CountingValidator());
+        assertFalse(Files.exists(file));
+        cache.flush();
+        assertEquals(3, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+        // Nothing new was validated - the file is not written again
+        Files.delete(file);
+        cache.flush();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testProblemsNotRecorded() throws IOException {
+        Path file = directory.resolve("beans-xml.cache");
+        URL beansXml = write("beans.xml", BEANS_XML);
+        CountingValidator validator = new CountingValidator(false);
+        BeansXmlCache cache = new BeansXmlCache(file.toString(), "1.0");
+        cache.parse(beansXml, validator);
+        cache.parse(beansXml, validator);
+        // The problems are reported every time
+        assertEquals(2, validator.count);
+        assertFalse(cache.isValidated(BEANS_XML.getBytes(StandardCharsets.UTF_8)));
+        cache.flush();
+        assertFalse(Files.exists(file));
+
+        // An unknown element is reported by the schema validation
+        String invalid = BEANS_XML.replace("<decorators>", "<foo/><decorators>");
+        cache.parse(write("invalid.xml", invalid), new BeansXmlValidator());
+        assertFalse(cache.isValidated(invalid.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private URL write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8)).toUri().toURL();
+    }
+
+    private static void assertSameResult(BeansXml expected, BeansXml actual) {
+        assertNotSame(expected, actual);
+        assertEquals(expected.getBeanDiscoveryMode(), actual.getBeanDiscoveryMode());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getUrl(), actual.getUrl());
+        assertSameMetadata(expected.getEnabledAlternativeClasses(), actual.getEnabledAlternativeClasses());
+        assertSameMetadata(expected.getEnabledAlternativeStereotypes(), actual.getEnabledAlternativeStereotypes());
+        assertSameMetadata(expected.getEnabledDecorators(), actual.getEnabledDecorators());
+        assertSameMetadata(expected.getEnabledInterceptors(), actual.getEnabledInterceptors());
+        assertSameFilters(expected.getScanning().getIncludes(), actual.getScanning().getIncludes());
+        assertSameFilters(expected.getScanning().getExcludes(), actual.getScanning().getExcludes());
+    }
+
+    private static void assertSameFilters(Collection<Metadata<Filter>> expected, Collection<Metadata<Filter>> actual) {
+        assertEquals(expected.size(), actual.size());
+        Iterator<Metadata<Filter>> actualIterator = actual.iterator();
+        for (Metadata<Filter> expectedFilter : expected) {
+            Metadata<Filter> actualFilter = actualIterator.next();
+            assertEquals(expectedFilter.getValue().getName(), actualFilter.getValue().getName());
+            Iterator<Metadata<ClassAvailableActivation>> actualActivations = actualFilter.getValue().getClassAvailableActivations().iterator();
+            for (Metadata<ClassAvailableActivation> expectedActivation : expectedFilter.getValue().getClassAvailableActivations()) {
+                assertEquals(expectedActivation.getValue().getClassName(), actualActivations.next().getValue().getClassName());
+            }
+            assertFalse(actualActivations.hasNext());
+        }
+    }
+
+    private static <T> void assertSameMetadata(Collection<Metadata<T>> expected, Collection<Metadata<T>> actual) {
+        assertEquals(expected.size(), actual.size());
+        Iterator<Metadata<T>> actualIterator = actual.iterator();
+        for (Metadata<T> expectedItem : expected) {
+            Metadata<T> actualItem = actualIterator.next();
+            // The location contains the value, the URL of the descriptor and the line number
+            assertEquals(expectedItem.getLocation(), actualItem.getLocation());
+        }
+    }
+
+    private static class CountingValidator extends BeansXmlValidator {
+
+        private final boolean valid;
+
+        private int count;
+
+        private CountingValidator() {
+            this(true);
+        }
+
+        private CountingValidator(boolean valid) {
+            this.valid = valid;
+        }
+
+        @Override
+        boolean validate(URL beansXml, byte[] content, ErrorHandler errorHandler) {
+            count++;
+            return valid;
+        }
+
+    }
+
+}
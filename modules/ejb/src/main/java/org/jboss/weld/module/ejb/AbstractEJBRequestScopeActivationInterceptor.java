@@ -22,6 +22,7 @@ import javax.enterprise.context.BeforeDestroyed;
 import javax.enterprise.context.Destroyed;
 import javax.enterprise.context.Initialized;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
 import javax.interceptor.InvocationContext;
 
 import org.jboss.weld.context.ejb.EjbRequestContext;
@@ -44,6 +45,12 @@ import org.jboss.weld.util.LazyValueHolder;
 public abstract class AbstractEJBRequestScopeActivationInterceptor implements Serializable {
     private static final long serialVersionUID = 7327757031821596782L;
 
+    /**
+     * The request context made active, or found active, by the outermost session bean invocation of a container in the current thread. The frame is owned
+     * by the invocation which created it and removed when that invocation ends, so that an idle thread does not reference any Weld class.
+     */
+    private static final ThreadLocal<RequestFrame> CURRENT_FRAME = new ThreadLocal<RequestFrame>();
+
     private final LazyValueHolder<FastEvent<Object>> requestInitializedEvent = new LazyValueHolder.Serializable<FastEvent<Object>>() {
         private static final long serialVersionUID = 1L;
         @Override
@@ -67,9 +74,24 @@ public abstract class AbstractEJBRequestScopeActivationInterceptor implements Se
     };
 
     public Object aroundInvoke(InvocationContext invocation) throws Exception {
+        final String contextId = getContextId();
+        final RequestFrame frame = CURRENT_FRAME.get();
+        if (frame != null && frame.contextId.equals(contextId) && frame.requestContext.isActive()) {
+            // Nested invocation on the same thread - the request context used by the outermost invocation is still active
+            frame.depth++;
+            try {
+                return invocation.proceed();
+            } finally {
+                frame.depth--;
+            }
+        }
+        // Outermost invocation of this container, or the request context was deactivated during the outer invocation
+        return activateAndProceed(invocation, contextId, frame);
+    }
 
+    private Object activateAndProceed(InvocationContext invocation, String contextId, RequestFrame outerFrame) throws Exception {
         if (isRequestContextActive()) {
-            return invocation.proceed();
+            return proceed(invocation, new RequestFrame(contextId, getActiveRequestContext()), outerFrame);
         } else {
             EjbRequestContext requestContext = getEjbRequestContext();
             try {
@@ -78,7 +100,7 @@ public abstract class AbstractEJBRequestScopeActivationInterceptor implements Se
                 try {
                     // An event with qualifier @Initialized(RequestScoped.class) is fired when the request context is initialized
                     requestInitializedEvent.get().fire(ContextEvent.REQUEST_INITIALIZED_EJB);
-                    return invocation.proceed();
+                    return proceed(invocation, new RequestFrame(contextId, requestContext), outerFrame);
                 } finally {
                     requestBeforeDestroyedEvent.get().fire(ContextEvent.REQUEST_BEFORE_DESTROYED_EJB);
                     requestContext.invalidate();
@@ -92,15 +114,57 @@ public abstract class AbstractEJBRequestScopeActivationInterceptor implements Se
         }
     }
 
+    private static Object proceed(InvocationContext invocation, RequestFrame frame, RequestFrame outerFrame) throws Exception {
+        CURRENT_FRAME.set(frame);
+        try {
+            return invocation.proceed();
+        } finally {
+            if (outerFrame != null) {
+                CURRENT_FRAME.set(outerFrame);
+            } else {
+                CURRENT_FRAME.remove();
+            }
+        }
+    }
+
+    protected String getContextId() {
+        return getBeanManager().getContextId();
+    }
+
     protected boolean isRequestContextActive() {
         return getBeanManager().isContextActive(RequestScoped.class);
     }
 
+    /**
+     *
+     * @return the active request context, only called if {@link #isRequestContextActive()} returns <code>true</code>
+     */
+    protected Context getActiveRequestContext() {
+        return getBeanManager().getContext(RequestScoped.class);
+    }
+
     protected EjbRequestContext getEjbRequestContext() {
         return getBeanManager().instance().select(EjbRequestContext.class).get();
     }
 
     protected abstract BeanManagerImpl getBeanManager();
+
+    private static final class RequestFrame {
+
+        private final String contextId;
+
+        private final Context requestContext;
+
+        // The number of nested invocations in progress
+        private int depth;
+
+        private RequestFrame(String contextId, Context requestContext) {
+            this.contextId = contextId;
+            this.requestContext = requestContext;
+        }
+
+    }
+
 }
 
 
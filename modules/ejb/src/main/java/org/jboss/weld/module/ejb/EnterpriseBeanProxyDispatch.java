@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc. and/or its affiliates, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.module.ejb;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.jboss.weld.bean.proxy.BeanInstance;
+import org.jboss.weld.bean.proxy.EnterpriseTargetBeanInstance;
+import org.jboss.weld.bean.proxy.MethodHandler;
+import org.jboss.weld.bean.proxy.ProxyMethodHandler;
+import org.jboss.weld.injection.ThreadLocalStack.ThreadLocalStackReference;
+import org.jboss.weld.logging.BeanLogger;
+
+/**
+ * Static entry points invoked by the bytecode of session bean client proxies generated in the direct dispatch mode. Instead of passing a
+ * {@link java.lang.reflect.Method} and boxed arguments through {@link EnterpriseBeanProxyMethodHandler}, the generated method obtains the business object
+ * for a pre-resolved business interface and invokes the business method on it directly.
+ * <p>
+ * This class is not intended to be used by application code.
+ *
+ * @see EnterpriseProxyFactory
+ */
+public final class EnterpriseBeanProxyDispatch {
+
+    private EnterpriseBeanProxyDispatch() {
+    }
+
+    /**
+     * Called before a business method is invoked.
+     *
+     * @param handler the method handler of the proxy
+     * @return a reference to pop once the invocation completes, or {@code null}
+     */
+    public static ThreadLocalStackReference<InjectionPoint> start(MethodHandler handler) {
+        EnterpriseTargetBeanInstance beanInstance = getBeanInstance(handler);
+        if (beanInstance instanceof InjectionPointPropagatingEnterpriseTargetBeanInstance) {
+            return ((InjectionPointPropagatingEnterpriseTargetBeanInstance) beanInstance).pushInjectionPoint();
+        }
+        return null;
+    }
+
+    /**
+     * Called after a business method invocation completes, regardless of whether it completed normally or not.
+     *
+     * @param reference the value returned from {@link #start(MethodHandler)}
+     */
+    public static void end(ThreadLocalStackReference<InjectionPoint> reference) {
+        if (reference != null) {
+            reference.pop();
+        }
+    }
+
+    /**
+     *
+     * @param handler the method handler of the proxy
+     * @param businessInterface the business interface view declaring the invoked method
+     * @return the business object the invocation should be dispatched to
+     */
+    public static Object getBusinessObject(MethodHandler handler, Class<?> businessInterface) {
+        MethodHandler enterpriseHandler = getBeanInstance(handler).getMethodHandler();
+        if (enterpriseHandler instanceof EnterpriseBeanProxyMethodHandler) {
+            return ((EnterpriseBeanProxyMethodHandler<?>) enterpriseHandler).getBusinessObject(businessInterface);
+        }
+        throw new IllegalStateException("Unsupported method handler for direct dispatch: " + enterpriseHandler);
+    }
+
+    /**
+     * If trace logging is enabled, the invocations are dispatched through {@link EnterpriseBeanProxyMethodHandler} which logs every invocation.
+     *
+     * @return <code>true</code> if trace logging is enabled, <code>false</code> otherwise
+     */
+    public static boolean isTraceEnabled() {
+        return BeanLogger.LOG.isTraceEnabled();
+    }
+
+    private static EnterpriseTargetBeanInstance getBeanInstance(MethodHandler handler) {
+        if (handler instanceof ProxyMethodHandler) {
+            BeanInstance beanInstance = ((ProxyMethodHandler) handler).getBeanInstance();
+            if (beanInstance instanceof EnterpriseTargetBeanInstance) {
+                return (EnterpriseTargetBeanInstance) beanInstance;
+            }
+        }
+        throw new IllegalStateException("Unsupported method handler for direct dispatch: " + handler);
+    }
+}
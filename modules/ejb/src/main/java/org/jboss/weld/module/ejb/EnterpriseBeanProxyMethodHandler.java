@@ -78,10 +78,7 @@ class EnterpriseBeanProxyMethodHandler<T> implements MethodHandler, Serializable
         this.manager = bean.getBeanManager();
         this.beanId = bean.getIdentifier();
 
-        Map<Class<?>, Class<?>> typeToBusinessInterfaceMap = new HashMap<Class<?>, Class<?>>();
-        discoverBusinessInterfaces(typeToBusinessInterfaceMap, bean.getEjbDescriptor().getRemoteBusinessInterfacesAsClasses());
-        discoverBusinessInterfaces(typeToBusinessInterfaceMap, bean.getEjbDescriptor().getLocalBusinessInterfacesAsClasses());
-        this.typeToBusinessInterfaceMap = ImmutableMap.copyOf(typeToBusinessInterfaceMap);
+        this.typeToBusinessInterfaceMap = discoverBusinessInterfaces(bean);
 
         if (reference == null) {
             this.reference = bean.createReference();
@@ -136,6 +133,17 @@ class EnterpriseBeanProxyMethodHandler<T> implements MethodHandler, Serializable
         return returnValue;
     }
 
+    /**
+     * Obtains the business object for the given business interface view. Used by proxies which dispatch business method invocations directly.
+     *
+     * @param businessInterface the business interface
+     * @return the business object
+     * @see EnterpriseBeanProxyDispatch
+     */
+    Object getBusinessObject(Class<?> businessInterface) {
+        return reference.getBusinessObject(businessInterface);
+    }
+
     private boolean isRemoveMethod(Method method) {
         MethodSignature methodSignature = new MethodSignatureImpl(method);
         return bean.getEjbDescriptor().getRemoveMethodSignatures().contains(methodSignature);
@@ -171,7 +179,19 @@ class EnterpriseBeanProxyMethodHandler<T> implements MethodHandler, Serializable
         }
     }
 
-    private void discoverBusinessInterfaces(Map<Class<?>, Class<?>> typeToBusinessInterfaceMap, Set<Class<?>> businessInterfaces) {
+    /**
+     *
+     * @param bean the session bean
+     * @return the immutable map of types to the business interface views declaring them
+     */
+    static Map<Class<?>, Class<?>> discoverBusinessInterfaces(SessionBeanImpl<?> bean) {
+        Map<Class<?>, Class<?>> typeToBusinessInterfaceMap = new HashMap<Class<?>, Class<?>>();
+        discoverBusinessInterfaces(typeToBusinessInterfaceMap, bean.getEjbDescriptor().getRemoteBusinessInterfacesAsClasses());
+        discoverBusinessInterfaces(typeToBusinessInterfaceMap, bean.getEjbDescriptor().getLocalBusinessInterfacesAsClasses());
+        return ImmutableMap.copyOf(typeToBusinessInterfaceMap);
+    }
+
+    private static void discoverBusinessInterfaces(Map<Class<?>, Class<?>> typeToBusinessInterfaceMap, Set<Class<?>> businessInterfaces) {
         for (Class<?> businessInterfaceClass : businessInterfaces) {
             for (Class<?> type : HierarchyDiscovery.forNormalizedType(businessInterfaceClass).getTypeMap().keySet()) {
                 typeToBusinessInterfaceMap.put(type, businessInterfaceClass);
@@ -17,15 +17,29 @@
 
 package org.jboss.weld.module.ejb;
 
+import static org.jboss.classfilewriter.util.DescriptorUtils.makeDescriptor;
+import static org.jboss.classfilewriter.util.DescriptorUtils.methodDescriptor;
+
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.Map;
 
 import org.jboss.classfilewriter.ClassFile;
 import org.jboss.classfilewriter.ClassMethod;
+import org.jboss.classfilewriter.code.BranchEnd;
+import org.jboss.classfilewriter.code.CodeAttribute;
+import org.jboss.classfilewriter.code.ExceptionHandler;
+import org.jboss.weld.annotated.enhanced.jlr.MethodSignatureImpl;
 import org.jboss.weld.bean.proxy.CommonProxiedMethodFilters;
+import org.jboss.weld.bean.proxy.MethodHandler;
 import org.jboss.weld.bean.proxy.ProxyFactory;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
 import org.jboss.weld.exceptions.WeldException;
+import org.jboss.weld.injection.ThreadLocalStack.ThreadLocalStackReference;
 import org.jboss.weld.logging.BeanLogger;
+import org.jboss.weld.util.bytecode.BytecodeUtils;
 import org.jboss.weld.util.bytecode.MethodInformation;
 import org.jboss.weld.util.bytecode.RuntimeMethodInformation;
 import org.jboss.weld.util.collections.ImmutableSet;
@@ -34,6 +48,10 @@ import org.jboss.weld.util.collections.ImmutableSet;
  * This factory produces client proxies specific for enterprise beans, in
  * particular session beans. It adds the interface
  * {@link EnterpriseBeanInstance} on the proxy.
+ * <p>
+ * If {@link ConfigurationKey#PROXY_EJB_DIRECT_DISPATCH} is enabled, public business methods declared by a business interface view are implemented by
+ * bytecode which obtains the business object for the pre-resolved business interface and invokes the method on it directly. All other methods, and all
+ * the methods if trace logging is enabled, are dispatched through {@link EnterpriseBeanProxyMethodHandler}.
  *
  * @author David Allen
  */
@@ -41,6 +59,23 @@ class EnterpriseProxyFactory<T> extends ProxyFactory<T> {
 
     private static final String SUFFIX = "$EnterpriseProxy$";
 
+    private static final String DISPATCH_CLASS_NAME = EnterpriseBeanProxyDispatch.class.getName();
+    private static final String START_METHOD_NAME = "start";
+    private static final String END_METHOD_NAME = "end";
+    private static final String GET_BUSINESS_OBJECT_METHOD_NAME = "getBusinessObject";
+    private static final String IS_TRACE_ENABLED_METHOD_NAME = "isTraceEnabled";
+    private static final String IS_TRACE_ENABLED_METHOD_DESCRIPTOR = methodDescriptor(new String[] {}, BytecodeUtils.BOOLEAN_CLASS_DESCRIPTOR);
+    private static final String REFERENCE_DESCRIPTOR = makeDescriptor(ThreadLocalStackReference.class);
+    private static final String START_METHOD_DESCRIPTOR = methodDescriptor(new String[] { makeDescriptor(MethodHandler.class) }, REFERENCE_DESCRIPTOR);
+    private static final String END_METHOD_DESCRIPTOR = methodDescriptor(new String[] { REFERENCE_DESCRIPTOR }, BytecodeUtils.VOID_CLASS_DESCRIPTOR);
+    private static final String GET_BUSINESS_OBJECT_METHOD_DESCRIPTOR = methodDescriptor(
+            new String[] { makeDescriptor(MethodHandler.class), LJAVA_LANG_CLASS }, LJAVA_LANG_OBJECT);
+
+    private final SessionBeanImpl<T> bean;
+
+    // null if direct dispatch is not enabled
+    private final Map<Class<?>, Class<?>> typeToBusinessInterfaceMap;
+
     /**
      * Produces a factory for a specific bean implementation.
      *
@@ -49,6 +84,149 @@ class EnterpriseProxyFactory<T> extends ProxyFactory<T> {
     EnterpriseProxyFactory(Class<T> proxiedBeanType, SessionBeanImpl<T> bean) {
         super(bean.getBeanManager().getContextId(), proxiedBeanType, ImmutableSet.<Type> builder().addAll(bean.getTypes())
                 .addAll(bean.getEjbDescriptor().getRemoteBusinessInterfacesAsClasses()).build(), bean);
+        this.bean = bean;
+        if (bean.getBeanManager().getServices().get(WeldConfiguration.class).getBooleanProperty(ConfigurationKey.PROXY_EJB_DIRECT_DISPATCH)) {
+            this.typeToBusinessInterfaceMap = EnterpriseBeanProxyMethodHandler.discoverBusinessInterfaces(bean);
+        } else {
+            this.typeToBusinessInterfaceMap = null;
+        }
+    }
+
+    @Override
+    protected void createForwardingMethodBody(ClassMethod classMethod, MethodInformation method, ClassMethod staticConstructor) {
+        Class<?> businessInterface = getDirectDispatchBusinessInterface(method.getMethod());
+        if (businessInterface != null) {
+            BranchEnd direct = addTraceGuard(classMethod);
+            super.createForwardingMethodBody(classMethod, method, staticConstructor);
+            classMethod.getCodeAttribute().branchEnd(direct);
+            createDirectDispatchBody(classMethod, method, businessInterface);
+        } else {
+            super.createForwardingMethodBody(classMethod, method, staticConstructor);
+        }
+    }
+
+    @Override
+    protected void createSpecialMethodBody(ClassMethod classMethod, MethodInformation method, ClassMethod staticConstructor) {
+        Class<?> businessInterface = getDirectDispatchBusinessInterface(method.getMethod());
+        if (businessInterface != null) {
+            BranchEnd direct = addTraceGuard(classMethod);
+            super.createSpecialMethodBody(classMethod, method, staticConstructor);
+            classMethod.getCodeAttribute().branchEnd(direct);
+            createDirectDispatchBody(classMethod, method, businessInterface);
+        } else {
+            super.createSpecialMethodBody(classMethod, method, staticConstructor);
+        }
+    }
+
+    /**
+     * If trace logging is enabled, the invocation is dispatched through {@link EnterpriseBeanProxyMethodHandler} so that it is logged. The generated bytecode
+     * is equivalent to:
+     *
+     * <pre>
+     * if (EnterpriseBeanProxyDispatch.isTraceEnabled()) {
+     *     // dispatch through the method handler
+     * }
+     * // direct dispatch
+     * </pre>
+     *
+     * @param classMethod
+     * @return the branch to the direct dispatch
+     */
+    private static BranchEnd addTraceGuard(ClassMethod classMethod) {
+        final CodeAttribute b = classMethod.getCodeAttribute();
+        b.invokestatic(DISPATCH_CLASS_NAME, IS_TRACE_ENABLED_METHOD_NAME, IS_TRACE_ENABLED_METHOD_DESCRIPTOR);
+        return b.ifeq();
+    }
+
+    /**
+     * Direct dispatch is only used for public business methods with public parameter and return types which are declared by a public business interface
+     * view. Remove methods and methods declared by {@link Object} need special handling and are always dispatched through the method handler.
+     *
+     * @param method
+     * @return the business interface the method should be dispatched to, or {@code null} if direct dispatch cannot be used
+     */
+    private Class<?> getDirectDispatchBusinessInterface(Method method) {
+        if (typeToBusinessInterfaceMap == null || method.getDeclaringClass().equals(Object.class)) {
+            return null;
+        }
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                || !Modifier.isPublic(method.getReturnType().getModifiers())) {
+            return null;
+        }
+        for (Class<?> paramType : method.getParameterTypes()) {
+            if (!Modifier.isPublic(paramType.getModifiers())) {
+                return null;
+            }
+        }
+        if (bean.getEjbDescriptor().getRemoveMethodSignatures().contains(new MethodSignatureImpl(method))) {
+            return null;
+        }
+        Class<?> businessInterface = typeToBusinessInterfaceMap.get(method.getDeclaringClass());
+        if (businessInterface == null || !Modifier.isPublic(businessInterface.getModifiers())) {
+            return null;
+        }
+        return businessInterface;
+    }
+
+    /**
+     * The generated bytecode is equivalent to:
+     *
+     * <pre>
+     * ThreadLocalStackReference reference = EnterpriseBeanProxyDispatch.start(methodHandler);
+     * try {
+     *     return ((DeclaringType) EnterpriseBeanProxyDispatch.getBusinessObject(methodHandler, BusinessInterface.class)).method(param1, param2);
+     * } finally {
+     *     EnterpriseBeanProxyDispatch.end(reference);
+     * }
+     * </pre>
+     */
+    private void createDirectDispatchBody(ClassMethod classMethod, MethodInformation methodInfo, Class<?> businessInterface) {
+        final CodeAttribute b = classMethod.getCodeAttribute();
+        final int referenceIndex = getFirstLocalVariableIndex(classMethod);
+
+        b.aload(0);
+        getMethodHandlerField(classMethod.getClassFile(), b);
+        b.invokestatic(DISPATCH_CLASS_NAME, START_METHOD_NAME, START_METHOD_DESCRIPTOR);
+        b.astore(referenceIndex);
+
+        final ExceptionHandler start = b.exceptionBlockStart(Throwable.class.getName());
+        b.aload(0);
+        getMethodHandlerField(classMethod.getClassFile(), b);
+        b.loadClass(businessInterface.getName());
+        b.invokestatic(DISPATCH_CLASS_NAME, GET_BUSINESS_OBJECT_METHOD_NAME, GET_BUSINESS_OBJECT_METHOD_DESCRIPTOR);
+        b.checkcast(methodInfo.getDeclaringClass());
+        b.loadMethodParameters();
+        if (methodInfo.getMethod().getDeclaringClass().isInterface()) {
+            b.invokeinterface(methodInfo.getDeclaringClass(), methodInfo.getName(), methodInfo.getDescriptor());
+        } else {
+            b.invokevirtual(methodInfo.getDeclaringClass(), methodInfo.getName(), methodInfo.getDescriptor());
+        }
+        b.exceptionBlockEnd(start);
+
+        // the invocation completed normally, the result (if any) is kept on top of the stack
+        b.aload(referenceIndex);
+        b.invokestatic(DISPATCH_CLASS_NAME, END_METHOD_NAME, END_METHOD_DESCRIPTOR);
+        final BranchEnd gotoReturn = b.gotoInstruction();
+
+        b.exceptionHandlerStart(start);
+        b.aload(referenceIndex);
+        b.invokestatic(DISPATCH_CLASS_NAME, END_METHOD_NAME, END_METHOD_DESCRIPTOR);
+        b.athrow();
+
+        b.branchEnd(gotoReturn);
+        b.returnInstruction();
+    }
+
+    private static int getFirstLocalVariableIndex(ClassMethod classMethod) {
+        int index = 1;
+        for (String type : classMethod.getParameters()) {
+            if (type.equals(BytecodeUtils.DOUBLE_CLASS_DESCRIPTOR) || type.equals(BytecodeUtils.LONG_CLASS_DESCRIPTOR)) {
+                index += 2;
+            } else {
+                index++;
+            }
+        }
+        return index;
     }
 
     @Override
@@ -57,13 +57,7 @@ class InjectionPointPropagatingEnterpriseTargetBeanInstance extends EnterpriseTa
 
     @Override
     public Object invoke(Object instance, Method method, Object... arguments) throws Throwable {
-        ThreadLocalStackReference<InjectionPoint> stack = null;
-        if (injectionPointHolder != null) {
-            stack = currentInvocationInjectionPoint.push(injectionPointHolder.get());
-        } else {
-            stack = currentInvocationInjectionPoint.push(EmptyInjectionPoint.INSTANCE);
-        }
-
+        ThreadLocalStackReference<InjectionPoint> stack = pushInjectionPoint();
         try {
             return super.invoke(instance, method, arguments);
         } finally {
@@ -71,6 +65,18 @@ class InjectionPointPropagatingEnterpriseTargetBeanInstance extends EnterpriseTa
         }
     }
 
+    /**
+     * Makes the injection point of this proxy available to the invoked session bean. The caller is required to pop the returned reference once the
+     * invocation completes.
+     */
+    ThreadLocalStackReference<InjectionPoint> pushInjectionPoint() {
+        if (injectionPointHolder != null) {
+            return currentInvocationInjectionPoint.push(injectionPointHolder.get());
+        } else {
+            return currentInvocationInjectionPoint.push(EmptyInjectionPoint.INSTANCE);
+        }
+    }
+
     private Object readResolve() throws ObjectStreamException {
         this.currentInvocationInjectionPoint = Container.instance(contextId).services().get(CurrentInvocationInjectionPoint.class);
         return this;
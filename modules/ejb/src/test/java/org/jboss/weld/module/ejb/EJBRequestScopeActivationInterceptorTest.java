@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.module.ejb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.interceptor.InvocationContext;
+
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.junit.Test;
+
+public class EJBRequestScopeActivationInterceptorTest {
+
+    @Test
+    public void testNestedInvocationSkipsActivation() throws Exception {
+        final TestInterceptor interceptor = new TestInterceptor("foo");
+        Object result = interceptor.aroundInvoke(new TestInvocationContext(() -> interceptor.aroundInvoke(new TestInvocationContext(
+                () -> interceptor.aroundInvoke(new TestInvocationContext(() -> "nested"))))));
+        assertEquals("nested", result);
+        assertEquals(1, interceptor.checks.size());
+    }
+
+    @Test
+    public void testReentrantInvocationOfAnotherContainer() throws Exception {
+        final TestInterceptor foo = new TestInterceptor("foo");
+        final TestInterceptor bar = new TestInterceptor("bar");
+        foo.aroundInvoke(new TestInvocationContext(() -> {
+            // Crossing into another container takes the full path
+            bar.aroundInvoke(new TestInvocationContext(() -> foo.aroundInvoke(new TestInvocationContext(() -> null))));
+            // The outer container is restored
+            return foo.aroundInvoke(new TestInvocationContext(() -> null));
+        }));
+        assertEquals(2, foo.checks.size());
+        assertEquals(1, bar.checks.size());
+    }
+
+    @Test
+    public void testOutermostInvocationAlwaysChecked() throws Exception {
+        TestInterceptor interceptor = new TestInterceptor("foo");
+        for (int i = 0; i < 3; i++) {
+            interceptor.aroundInvoke(new TestInvocationContext(() -> null));
+        }
+        try {
+            interceptor.aroundInvoke(new TestInvocationContext(() -> {
+                throw new IllegalStateException();
+            }));
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        interceptor.aroundInvoke(new TestInvocationContext(() -> null));
+        assertEquals(5, interceptor.checks.size());
+    }
+
+    @Test
+    public void testNestedInvocationAfterDeactivation() throws Exception {
+        final TestInterceptor interceptor = new TestInterceptor("foo");
+        interceptor.aroundInvoke(new TestInvocationContext(() -> {
+            interceptor.aroundInvoke(new TestInvocationContext(() -> null));
+            // The request context is deactivated during the outer invocation
+            interceptor.requestContext.active = false;
+            interceptor.aroundInvoke(new TestInvocationContext(() -> {
+                // Nested within the invocation which took the full path
+                interceptor.requestContext.active = true;
+                return interceptor.aroundInvoke(new TestInvocationContext(() -> null));
+            }));
+            // The context of the outermost invocation is active again
+            return interceptor.aroundInvoke(new TestInvocationContext(() -> null));
+        }));
+        assertEquals(2, interceptor.checks.size());
+    }
+
+    @Test
+    public void testInvocationsOnOtherThread() throws Exception {
+        final TestInterceptor interceptor = new TestInterceptor("foo");
+        interceptor.aroundInvoke(new TestInvocationContext(() -> {
+            Thread thread = new Thread(() -> {
+                try {
+                    interceptor.aroundInvoke(new TestInvocationContext(() -> null));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.start();
+            thread.join();
+            return null;
+        }));
+        assertEquals(2, interceptor.checks.size());
+    }
+
+    private static class TestInterceptor extends AbstractEJBRequestScopeActivationInterceptor {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String contextId;
+
+        private final List<Thread> checks;
+
+        private final TestContext requestContext;
+
+        TestInterceptor(String contextId) {
+            this.contextId = contextId;
+            this.checks = new ArrayList<Thread>();
+            this.requestContext = new TestContext();
+        }
+
+        @Override
+        protected String getContextId() {
+            return contextId;
+        }
+
+        @Override
+        protected boolean isRequestContextActive() {
+            synchronized (checks) {
+                checks.add(Thread.currentThread());
+            }
+            return true;
+        }
+
+        @Override
+        protected Context getActiveRequestContext() {
+            return requestContext;
+        }
+
+        @Override
+        protected BeanManagerImpl getBeanManager() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    private static class TestContext implements Context {
+
+        private volatile boolean active = true;
+
+        @Override
+        public Class<? extends Annotation> getScope() {
+            return RequestScoped.class;
+        }
+
+        @Override
+        public <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T get(Contextual<T> contextual) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+    }
+
+    private static class TestInvocationContext implements InvocationContext {
+
+        private final Callable<Object> proceed;
+
+        private final Map<String, Object> contextData;
+
+        TestInvocationContext(Callable<Object> proceed) {
+            this.proceed = proceed;
+            this.contextData = new HashMap<String, Object>();
+        }
+
+        @Override
+        public Object getTarget() {
+            return null;
+        }
+
+        @Override
+        public Object getTimer() {
+            return null;
+        }
+
+        @Override
+        public Method getMethod() {
+            return null;
+        }
+
+        @Override
+        public Constructor<?> getConstructor() {
+            return null;
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return new Object[0];
+        }
+
+        @Override
+        public void setParameters(Object[] params) {
+        }
+
+        @Override
+        public Map<String, Object> getContextData() {
+            return contextData;
+        }
+
+        @Override
+        public Object proceed() throws Exception {
+            return proceed.call();
+        }
+
+    }
+
+}
@@ -62,6 +62,7 @@ public class ConversationAwareViewHandler extends ViewHandlerWrapper {
 
     private final ViewHandler delegate;
     private volatile ConversationContext conversationContext;
+    private volatile ConversationIdUrlCache urlCache;
     private static final ThreadLocal<Source> source = new ThreadLocal<Source>();
     private String contextId;
 
@@ -112,20 +113,25 @@ public class ConversationAwareViewHandler extends ViewHandlerWrapper {
         String actionUrl = super.getActionURL(facesContext, viewId);
         final ConversationContext ctx = getConversationContext(contextId);
         if (ctx!= null && ctx.isActive() && !getSource().equals(Source.BOOKMARKABLE) && !ctx.getCurrentConversation().isTransient()) {
-            return new FacesUrlTransformer(actionUrl, facesContext)
-                .appendConversationIdIfNecessary(getConversationContext(contextId).getParameterName(), ctx.getCurrentConversation().getId())
-                .getUrl();
+            return getUrlCache(ctx.getParameterName()).appendConversationIdIfNecessary(actionUrl, ctx.getCurrentConversation().getId());
         } else {
             return actionUrl;
         }
     }
 
-    private Source getSource() {
-        if (source.get() == null) {
-            return Source.ACTION;
-        } else {
-            return source.get();
+    private ConversationIdUrlCache getUrlCache(String parameterName) {
+        ConversationIdUrlCache cache = urlCache;
+        if (cache == null || !cache.getParameterName().equals(parameterName)) {
+            // the parameter name may be changed at runtime
+            cache = new ConversationIdUrlCache(parameterName);
+            urlCache = cache;
         }
+        return cache;
+    }
+
+    private Source getSource() {
+        Source value = source.get();
+        return value != null ? value : Source.ACTION;
     }
 
     @Override
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.module.jsf;
+
+import org.jboss.weld.util.cache.ComputingCache;
+import org.jboss.weld.util.cache.ComputingCacheBuilder;
+
+/**
+ * Caches the result of parsing action URLs for the purpose of appending the conversation id parameter. A page usually renders a lot of links pointing to
+ * a small number of distinct action URLs, therefore the query string of each distinct URL is only inspected once and subsequent rendering only
+ * concatenates the cached prefix with the conversation id.
+ *
+ * @see FacesUrlTransformer
+ */
+public class ConversationIdUrlCache {
+
+    static final long DEFAULT_MAX_SIZE = 1024L;
+
+    private final String parameterName;
+
+    private final ComputingCache<String, String> prefixes;
+
+    public ConversationIdUrlCache(String parameterName) {
+        this(parameterName, DEFAULT_MAX_SIZE);
+    }
+
+    ConversationIdUrlCache(String parameterName, long maxSize) {
+        this.parameterName = parameterName;
+        this.prefixes = ComputingCacheBuilder.newBuilder().setMaxSize(maxSize).build(this::computePrefix);
+    }
+
+    /**
+     *
+     * @param url
+     * @param cid
+     * @return the URL with the conversation id parameter appended if necessary
+     */
+    public String appendConversationIdIfNecessary(String url, String cid) {
+        String prefix = prefixes.getValue(url);
+        if (prefix.isEmpty()) {
+            // the parameter is already present
+            return url;
+        }
+        return cid != null ? prefix.concat(cid) : prefix;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    private String computePrefix(String url) {
+        String prefix = FacesUrlTransformer.getParameterPrefix(url, parameterName);
+        // a valid prefix is never empty
+        return prefix != null ? prefix : "";
+    }
+
+}
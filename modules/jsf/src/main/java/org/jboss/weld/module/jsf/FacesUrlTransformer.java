@@ -48,23 +48,37 @@ public class FacesUrlTransformer {
     }
 
     private static String appendParameterIfNeeded(String url, String parameterName, String parameterValue) {
+        String prefix = getParameterPrefix(url, parameterName);
+        if (prefix == null) {
+            return url;
+        }
+        return parameterValue != null ? prefix.concat(parameterValue) : prefix;
+    }
+
+    /**
+     * If the given URL does not contain the parameter yet, returns the URL followed by the appropriate delimiter, the parameter name and the assignment
+     * operator, i.e. a string the parameter value can be simply appended to.
+     *
+     * @param url
+     * @param parameterName
+     * @return the prefix for the parameter value, or <code>null</code> if the parameter is already present
+     */
+    static String getParameterPrefix(String url, String parameterName) {
         int queryStringIndex = url.indexOf(QUERY_STRING_DELIMITER);
         // if there is no query string or there is a query string but the param is
         // absent, then append it
         if (queryStringIndex < 0 || isCidParamAbsent(url, parameterName, queryStringIndex)) {
-            StringBuilder builder = new StringBuilder(url);
+            StringBuilder builder = new StringBuilder(url.length() + parameterName.length() + 2);
+            builder.append(url);
             if (queryStringIndex < 0) {
                 builder.append(QUERY_STRING_DELIMITER);
             } else {
                 builder.append(PARAMETER_PAIR_DELIMITER);
             }
             builder.append(parameterName).append(PARAMETER_ASSIGNMENT_OPERATOR);
-            if (parameterValue != null) {
-                builder.append(parameterValue);
-            }
             return builder.toString();
         } else {
-            return url;
+            return null;
         }
     }
 
@@ -16,6 +16,7 @@
  */
 package org.jboss.weld.tests.unit.cid;
 
+import org.jboss.weld.module.jsf.ConversationIdUrlCache;
 import org.jboss.weld.module.jsf.FacesUrlTransformer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -50,6 +51,17 @@ public class CidParamMatchingTest {
             .appendConversationIdIfNecessary(cidParamName, cidValue).getUrl().contains(appendedString));
     }
 
+    @Test
+    public void testUrlCache() {
+        ConversationIdUrlCache cache = new ConversationIdUrlCache("cid");
+        Assert.assertEquals(cache.appendConversationIdIfNecessary("/app/foo.jsf", "1"), "/app/foo.jsf?cid=1");
+        Assert.assertEquals(cache.appendConversationIdIfNecessary("/app/foo.jsf", "2"), "/app/foo.jsf?cid=2");
+        Assert.assertEquals(cache.appendConversationIdIfNecessary("/app/foo.jsf?bar=true", "1"), "/app/foo.jsf?bar=true&cid=1");
+        Assert.assertEquals(cache.appendConversationIdIfNecessary("/app/foo.jsf?bar=true&cid=5", "1"), "/app/foo.jsf?bar=true&cid=5");
+        Assert.assertEquals(cache.appendConversationIdIfNecessary("/app/foo.jsf?bar=true&cid=5", "2"), "/app/foo.jsf?bar=true&cid=5");
+        Assert.assertEquals(cache.appendConversationIdIfNecessary("/app/foo.jsf?mycid=5", null), "/app/foo.jsf?mycid=5&cid=");
+    }
+
     private FacesUrlTransformer createTransformer(String url) {
         return new FacesUrlTransformer(url, null);
     }
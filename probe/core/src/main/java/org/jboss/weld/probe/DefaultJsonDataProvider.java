@@ -21,6 +21,7 @@ import static org.jboss.weld.probe.Strings.ERROR;
 import static org.jboss.weld.probe.Strings.QUALIFIERS;
 import static org.jboss.weld.probe.Strings.REMOVED_EVENTS;
 import static org.jboss.weld.probe.Strings.REMOVED_INVOCATIONS;
+import static org.jboss.weld.probe.Strings.REMOVED_INVOCATION_STATS;
 import static org.jboss.weld.probe.Strings.REQUIRED_TYPE;
 import static org.jboss.weld.probe.Strings.RESOLVE;
 
@@ -133,6 +134,18 @@ public class DefaultJsonDataProvider implements JsonDataProvider {
         return Json.objectBuilder().add(REMOVED_INVOCATIONS, probe.clearInvocations()).build();
     }
 
+    @Override
+    public String receiveInvocationStats() {
+        InvocationStats stats = probe.getInvocationStats();
+        return stats != null ? JsonObjects.createInvocationStatsJson(stats, probe).build() : null;
+    }
+
+    @Override
+    public String clearInvocationStats() {
+        InvocationStats stats = probe.getInvocationStats();
+        return stats != null ? Json.objectBuilder().add(REMOVED_INVOCATION_STATS, stats.clear()).build() : null;
+    }
+
     @Override
     public String receiveInvocation(String id) {
         Invocation entryPoint = probe.getInvocation(id);
@@ -21,6 +21,7 @@ import static org.jboss.weld.probe.Strings.IS_PREFIX;
 import static org.jboss.weld.probe.Strings.SET_PREFIX;
 
 import java.io.Serializable;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -39,6 +40,7 @@ import org.jboss.weld.config.ConfigurationKey;
 import org.jboss.weld.config.WeldConfiguration;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.probe.Invocation.Type;
+import org.jboss.weld.probe.InvocationStats.MethodStats;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -62,23 +64,40 @@ public class InvocationMonitor implements Serializable {
 
     private static final InterceptorAction INTERCEPTOR_ACTION = new InterceptorAction();
 
+    /**
+     * Represents an entry point which was not sampled. No invocation tree is built for the whole call stack.
+     */
+    private static final Invocation.Builder NOT_SAMPLED_ENTRY_POINT = Invocation.Builder.newBuilder(null);
+
+    /**
+     * Represents a nested invocation within an entry point which was not sampled.
+     */
+    private static final Invocation.Builder NOT_SAMPLED = Invocation.Builder.newBuilder(null);
+
     /**
      *
      * @return a new entry point or a child
      */
-    static Invocation.Builder initBuilder() {
-        return initBuilder(true);
+    static Invocation.Builder initBuilder(Probe probe) {
+        return initBuilder(probe, true);
     }
 
     /**
+     * Note that the returned builder must not be modified if {@link #isSampled(Invocation.Builder)} returns <code>false</code>.
      *
      * @return a new entry point or a child or <code>null</code>
      */
-    static Invocation.Builder initBuilder(boolean initChild) {
+    static Invocation.Builder initBuilder(Probe probe, boolean initChild) {
         Invocation.Builder builder = INVOCATIONS.get();
         if (builder == null) {
+            if (probe != null && !probe.isInvocationSampled()) {
+                INVOCATIONS.set(NOT_SAMPLED_ENTRY_POINT);
+                return NOT_SAMPLED_ENTRY_POINT;
+            }
             builder = Invocation.Builder.newBuilder(INVOCATION_ID_GENERATOR.incrementAndGet());
             INVOCATIONS.set(builder);
+        } else if (builder == NOT_SAMPLED_ENTRY_POINT) {
+            return NOT_SAMPLED;
         } else if (initChild) {
             builder = builder.newChild();
             INVOCATIONS.set(builder);
@@ -86,6 +105,15 @@ public class InvocationMonitor implements Serializable {
         return builder;
     }
 
+    /**
+     *
+     * @param builder
+     * @return <code>true</code> if the invocation tree the builder belongs to is captured
+     */
+    static boolean isSampled(Invocation.Builder builder) {
+        return builder != NOT_SAMPLED_ENTRY_POINT && builder != NOT_SAMPLED;
+    }
+
     @Intercepted
     @Inject
     @SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "According to specification, injected bean has to be serializable.")
@@ -101,18 +129,20 @@ public class InvocationMonitor implements Serializable {
     @AroundConstruct
     public void monitorCreation(InvocationContext ctx) {
         init();
-        final Invocation.Builder builder = initBuilder();
+        final Invocation.Builder builder = initBuilder(probe);
 
-        if (interceptedBean != null) {
-            builder.setInterceptedBean(interceptedBean);
-        } else {
-            builder.setDeclaringClassName(ctx.getConstructor().getDeclaringClass().getName());
+        if (isSampled(builder)) {
+            if (interceptedBean != null) {
+                builder.setInterceptedBean(interceptedBean);
+            } else {
+                builder.setDeclaringClassName(ctx.getConstructor().getDeclaringClass().getName());
+            }
+            builder.setType(Type.CONSTRUCTOR);
+            builder.setStart(System.currentTimeMillis());
+            builder.setMethodName(ctx.getConstructor().toString());
         }
-        builder.setType(Type.CONSTRUCTOR);
-        builder.setStart(System.currentTimeMillis());
-        builder.setMethodName(ctx.getConstructor().toString());
         try {
-            INTERCEPTOR_ACTION.perform(builder, probe, ctx);
+            INTERCEPTOR_ACTION.perform(builder, getMethodStats(ctx.getConstructor()), probe, ctx);
         } catch (Exception e) {
             ProbeLogger.LOG.aroundConstructMonitoringProblem(interceptedBean, e);
         }
@@ -125,18 +155,25 @@ public class InvocationMonitor implements Serializable {
             return ctx.proceed();
         }
         init();
-        final Invocation.Builder builder = initBuilder();
+        final Invocation.Builder builder = initBuilder(probe);
 
-        if (interceptedBean != null) {
-            builder.setInterceptedBean(interceptedBean);
-        } else {
-            builder.setDeclaringClassName(ctx.getMethod().getDeclaringClass().getName());
+        if (isSampled(builder)) {
+            if (interceptedBean != null) {
+                builder.setInterceptedBean(interceptedBean);
+            } else {
+                builder.setDeclaringClassName(ctx.getMethod().getDeclaringClass().getName());
+            }
+            builder.guessType(ctx);
+            builder.setStart(System.currentTimeMillis());
+            builder.setMethodName(ctx.getMethod().getName());
         }
-        builder.guessType(ctx);
-        builder.setStart(System.currentTimeMillis());
-        builder.setMethodName(ctx.getMethod().getName());
 
-        return INTERCEPTOR_ACTION.perform(builder, probe, ctx);
+        return INTERCEPTOR_ACTION.perform(builder, getMethodStats(ctx.getMethod()), probe, ctx);
+    }
+
+    private MethodStats getMethodStats(Member member) {
+        InvocationStats stats = probe.getInvocationStats();
+        return stats != null ? stats.get(interceptedBean, member) : null;
     }
 
     private void init() {
@@ -169,10 +206,42 @@ public class InvocationMonitor implements Serializable {
     abstract static class Action<T> {
 
         Object perform(Invocation.Builder builder, Probe probe, T context) throws Exception {
+            return perform(builder, null, probe, context);
+        }
+
+        /**
+         *
+         * @param builder
+         * @param stats The aggregated stats to record the duration to, may be <code>null</code>
+         * @param probe
+         * @param context
+         * @return the result of the invocation
+         * @throws Exception
+         */
+        Object perform(Invocation.Builder builder, MethodStats stats, Probe probe, T context) throws Exception {
+            if (!isSampled(builder)) {
+                try {
+                    if (stats == null) {
+                        return proceed(context);
+                    }
+                    long start = System.nanoTime();
+                    Object result = proceed(context);
+                    stats.record(System.nanoTime() - start);
+                    return result;
+                } finally {
+                    if (builder == NOT_SAMPLED_ENTRY_POINT) {
+                        INVOCATIONS.remove();
+                    }
+                }
+            }
             try {
                 long start = System.nanoTime();
                 Object result = proceed(context);
-                builder.setDuration(System.nanoTime() - start);
+                long duration = System.nanoTime() - start;
+                builder.setDuration(duration);
+                if (stats != null) {
+                    stats.record(duration);
+                }
                 if (builder.isEntryPoint()) {
                     if (!builder.isIgnored()) {
                         probe.addInvocation(builder.build());
@@ -0,0 +1,296 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.probe;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.inject.Vetoed;
+import javax.enterprise.inject.spi.Bean;
+
+/**
+ * Aggregated invocation statistics. Unlike the invocation trees, the statistics are kept per bean method and the memory footprint does not depend on the
+ * number of monitored invocations.
+ *
+ * <p>
+ * The durations are recorded in a histogram with logarithmic buckets - each power of two is split into 2<sup>precision</sup> linear sub-buckets, where the
+ * precision is the number of significant bits kept for each duration. Therefore, the relative error of a percentile value never exceeds
+ * 2<sup>-precision</sup>, e.g. 3.125% for the default precision of {@value #DEFAULT_PRECISION} bits.
+ * </p>
+ */
+@Vetoed
+final class InvocationStats {
+
+    static final int DEFAULT_PRECISION = 5;
+
+    static final int MIN_PRECISION = 3;
+
+    static final int MAX_PRECISION = 10;
+
+    static final Comparator<MethodStats> TOTAL_TIME_COMPARATOR = (o1, o2) -> Long.compare(o2.getTotalTime(), o1.getTotalTime());
+
+    private final ConcurrentMap<Object, ConcurrentMap<Member, MethodStats>> stats;
+
+    private final int precision;
+
+    InvocationStats() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     *
+     * @param precision The number of significant bits kept for each duration, the value is adjusted to fit between {@value #MIN_PRECISION} and
+     *        {@value #MAX_PRECISION}
+     */
+    InvocationStats(int precision) {
+        this.stats = new ConcurrentHashMap<>();
+        this.precision = Math.min(MAX_PRECISION, Math.max(MIN_PRECISION, precision));
+    }
+
+    int getPrecision() {
+        return precision;
+    }
+
+    /**
+     *
+     * @param bean The intercepted bean, may be <code>null</code>
+     * @param member The intercepted method or constructor
+     * @return the stats for the given bean method
+     */
+    MethodStats get(Bean<?> bean, Member member) {
+        Object key = bean != null ? bean : member.getDeclaringClass();
+        ConcurrentMap<Member, MethodStats> members = stats.get(key);
+        if (members == null) {
+            members = new ConcurrentHashMap<>();
+            ConcurrentMap<Member, MethodStats> previous = stats.putIfAbsent(key, members);
+            if (previous != null) {
+                members = previous;
+            }
+        }
+        MethodStats methodStats = members.get(member);
+        if (methodStats == null) {
+            methodStats = new MethodStats(bean, member, precision);
+            MethodStats previous = members.putIfAbsent(member, methodStats);
+            if (previous != null) {
+                methodStats = previous;
+            }
+        }
+        return methodStats;
+    }
+
+    /**
+     *
+     * @return the stats sorted by the total time
+     */
+    List<MethodStats> getAll() {
+        List<MethodStats> all = new ArrayList<>();
+        for (ConcurrentMap<Member, MethodStats> members : stats.values()) {
+            all.addAll(members.values());
+        }
+        all.sort(TOTAL_TIME_COMPARATOR);
+        return all;
+    }
+
+    /**
+     *
+     * @return the number of removed method stats
+     */
+    int clear() {
+        int count = 0;
+        for (ConcurrentMap<Member, MethodStats> members : stats.values()) {
+            count += members.size();
+        }
+        stats.clear();
+        return count;
+    }
+
+    /**
+     *
+     * @param precision
+     * @return the number of histogram buckets for the given precision
+     */
+    static int getBuckets(int precision) {
+        return (Long.SIZE - precision) << precision;
+    }
+
+    /**
+     *
+     * @param value
+     * @param precision
+     * @return the index of the bucket the given non-negative value belongs to
+     */
+    static int getBucketIndex(long value, int precision) {
+        final int subBuckets = 1 << precision;
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - precision)) & (subBuckets - 1));
+        return ((exponent - precision + 1) << precision) + subBucket;
+    }
+
+    /**
+     *
+     * @param index
+     * @param precision
+     * @return the highest value which belongs to the bucket with the given index
+     */
+    static long getBucketUpperBound(int index, int precision) {
+        final int subBuckets = 1 << precision;
+        if (index < subBuckets) {
+            return index;
+        }
+        int exponent = (index >>> precision) + precision - 1;
+        long lowerBound = (1L << exponent) | ((long) (index & (subBuckets - 1)) << (exponent - precision));
+        return lowerBound + (1L << (exponent - precision)) - 1;
+    }
+
+    /**
+     * Statistics of a single bean method. Counters, including the histogram buckets, are striped so that concurrent invocations of the same method do not
+     * contend. A bucket counter is only created once a duration falls into the bucket.
+     */
+    static final class MethodStats {
+
+        private final Bean<?> bean;
+
+        private final String declaringClassName;
+
+        private final String methodName;
+
+        private final boolean constructor;
+
+        private final LongAdder count;
+
+        private final LongAdder totalTime;
+
+        private final AtomicLong maxTime;
+
+        private final int precision;
+
+        private final AtomicReferenceArray<LongAdder> histogram;
+
+        MethodStats(Bean<?> bean, Member member, int precision) {
+            this.bean = bean;
+            this.declaringClassName = member.getDeclaringClass().getName();
+            this.constructor = member instanceof Constructor;
+            this.methodName = constructor ? member.toString() : member.getName();
+            this.count = new LongAdder();
+            this.totalTime = new LongAdder();
+            this.maxTime = new AtomicLong();
+            this.precision = precision;
+            this.histogram = new AtomicReferenceArray<>(getBuckets(precision));
+        }
+
+        /**
+         *
+         * @param duration The duration in nanoseconds
+         */
+        void record(long duration) {
+            long value = Math.max(0, duration);
+            count.increment();
+            totalTime.add(value);
+            getBucket(getBucketIndex(value, precision)).increment();
+            long max = maxTime.get();
+            while (value > max && !maxTime.compareAndSet(max, value)) {
+                max = maxTime.get();
+            }
+        }
+
+        private LongAdder getBucket(int index) {
+            LongAdder bucket = histogram.get(index);
+            if (bucket == null) {
+                bucket = new LongAdder();
+                if (!histogram.compareAndSet(index, null, bucket)) {
+                    bucket = histogram.get(index);
+                }
+            }
+            return bucket;
+        }
+
+        Bean<?> getBean() {
+            return bean;
+        }
+
+        String getDeclaringClassName() {
+            return declaringClassName;
+        }
+
+        String getMethodName() {
+            return methodName;
+        }
+
+        boolean isConstructor() {
+            return constructor;
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getTotalTime() {
+            return totalTime.sum();
+        }
+
+        long getMaxTime() {
+            return maxTime.get();
+        }
+
+        long getMeanTime() {
+            long invocations = getCount();
+            return invocations > 0 ? getTotalTime() / invocations : 0;
+        }
+
+        /**
+         * The returned value is the upper bound of the histogram bucket which contains the percentile, but never exceeds the max time.
+         *
+         * @param percentile The percentile between 0 and 100
+         * @return the approximate value at the given percentile
+         */
+        long getPercentile(double percentile) {
+            final int buckets = histogram.length();
+            long[] snapshot = new long[buckets];
+            long total = 0;
+            for (int i = 0; i < buckets; i++) {
+                LongAdder bucket = histogram.get(i);
+                snapshot[i] = bucket != null ? bucket.sum() : 0;
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long cumulative = 0;
+            for (int i = 0; i < buckets; i++) {
+                cumulative += snapshot[i];
+                if (cumulative >= rank) {
+                    return Math.min(getBucketUpperBound(i, precision), getMaxTime());
+                }
+            }
+            return getMaxTime();
+        }
+
+    }
+
+}
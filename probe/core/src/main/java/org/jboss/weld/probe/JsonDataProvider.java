@@ -134,6 +134,22 @@ public interface JsonDataProvider {
     @Description("Removes all monitoring data - invocation trees.")
     String clearInvocations();
 
+    /**
+     *
+     * @return the JSON data or <code>null</code> if aggregated invocation statistics are not enabled
+     * @see Resource#INVOCATION_STATS
+     */
+    @Description("Receives aggregated invocation statistics per bean method. Only available if aggregated statistics are enabled.")
+    String receiveInvocationStats();
+
+    /**
+     *
+     * @return the JSON result or <code>null</code> if aggregated invocation statistics are not enabled
+     * @see Resource#INVOCATION_STATS
+     */
+    @Description("Removes all aggregated invocation statistics.")
+    String clearInvocationStats();
+
     /**
      *
      * @param id
@@ -41,6 +41,7 @@ import static org.jboss.weld.probe.Strings.CONFLICTS;
 import static org.jboss.weld.probe.Strings.CONTAINER;
 import static org.jboss.weld.probe.Strings.CONTEXTS;
 import static org.jboss.weld.probe.Strings.CONTEXT_ID;
+import static org.jboss.weld.probe.Strings.COUNT;
 import static org.jboss.weld.probe.Strings.DASHBOARD;
 import static org.jboss.weld.probe.Strings.DATA;
 import static org.jboss.weld.probe.Strings.DECLARED_OBSERVERS;
@@ -80,6 +81,8 @@ import static org.jboss.weld.probe.Strings.IS_UNSATISFIED;
 import static org.jboss.weld.probe.Strings.KIND;
 import static org.jboss.weld.probe.Strings.LAST_PAGE;
 import static org.jboss.weld.probe.Strings.MARKER;
+import static org.jboss.weld.probe.Strings.MAX_TIME;
+import static org.jboss.weld.probe.Strings.MEAN_TIME;
 import static org.jboss.weld.probe.Strings.METHOD;
 import static org.jboss.weld.probe.Strings.METHOD_NAME;
 import static org.jboss.weld.probe.Strings.NAME;
@@ -87,6 +90,9 @@ import static org.jboss.weld.probe.Strings.OBJECT_TO_STRING;
 import static org.jboss.weld.probe.Strings.OBSERVED_TYPE;
 import static org.jboss.weld.probe.Strings.OBSERVERS;
 import static org.jboss.weld.probe.Strings.PAGE;
+import static org.jboss.weld.probe.Strings.PERCENTILE_50;
+import static org.jboss.weld.probe.Strings.PERCENTILE_90;
+import static org.jboss.weld.probe.Strings.PERCENTILE_99;
 import static org.jboss.weld.probe.Strings.PRIORITY;
 import static org.jboss.weld.probe.Strings.PRIORITY_RANGE;
 import static org.jboss.weld.probe.Strings.PROBE_COMPONENT;
@@ -106,6 +112,7 @@ import static org.jboss.weld.probe.Strings.SYS_PROPERTY;
 import static org.jboss.weld.probe.Strings.TIME;
 import static org.jboss.weld.probe.Strings.TIMESTAMP;
 import static org.jboss.weld.probe.Strings.TOTAL;
+import static org.jboss.weld.probe.Strings.TOTAL_TIME;
 import static org.jboss.weld.probe.Strings.TRIMMED;
 import static org.jboss.weld.probe.Strings.TX_PHASE;
 import static org.jboss.weld.probe.Strings.TYPE;
@@ -185,6 +192,7 @@ import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.probe.BootstrapStats.EventType;
 import org.jboss.weld.probe.Components.BeanKind;
 import org.jboss.weld.probe.Components.Dependency;
+import org.jboss.weld.probe.InvocationStats.MethodStats;
 import org.jboss.weld.probe.Json.JsonArrayBuilder;
 import org.jboss.weld.probe.Json.JsonObjectBuilder;
 import org.jboss.weld.probe.Queries.ObserverFilters;
@@ -1342,6 +1350,34 @@ final class JsonObjects {
         return builder;
     }
 
+    /**
+     *
+     * @param stats
+     * @param probe
+     * @return the aggregated invocation stats, sorted by the total time
+     */
+    static JsonArrayBuilder createInvocationStatsJson(InvocationStats stats, Probe probe) {
+        JsonArrayBuilder statsBuilder = Json.arrayBuilder();
+        for (MethodStats methodStats : stats.getAll()) {
+            JsonObjectBuilder methodBuilder = Json.objectBuilder();
+            if (methodStats.getBean() != null) {
+                methodBuilder.add(INTERCEPTED_BEAN, createSimpleBeanJson(methodStats.getBean(), probe));
+            } else {
+                methodBuilder.add(DECLARING_CLASS, methodStats.getDeclaringClassName());
+            }
+            methodBuilder.add(METHOD_NAME, methodStats.getMethodName());
+            methodBuilder.add(COUNT, methodStats.getCount());
+            methodBuilder.add(TOTAL_TIME, methodStats.getTotalTime());
+            methodBuilder.add(MEAN_TIME, methodStats.getMeanTime());
+            methodBuilder.add(MAX_TIME, methodStats.getMaxTime());
+            methodBuilder.add(PERCENTILE_50, methodStats.getPercentile(50));
+            methodBuilder.add(PERCENTILE_90, methodStats.getPercentile(90));
+            methodBuilder.add(PERCENTILE_99, methodStats.getPercentile(99));
+            statsBuilder.add(methodBuilder);
+        }
+        return statsBuilder;
+    }
+
     static String simplifiedScope(Class<? extends Annotation> scope) {
         return "@" + (Components.isBuiltinScope(scope) ? scope.getSimpleName() : scope.getName());
     }
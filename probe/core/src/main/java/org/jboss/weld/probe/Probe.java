@@ -35,6 +35,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.enterprise.inject.Vetoed;
@@ -52,6 +53,8 @@ import org.jboss.weld.bean.builtin.ExtensionBean;
 import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
 import org.jboss.weld.bootstrap.spi.BeansXml;
 import org.jboss.weld.bootstrap.spi.Metadata;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
 import org.jboss.weld.event.ObserverMethodImpl;
 import org.jboss.weld.exceptions.IllegalStateException;
 import org.jboss.weld.injection.attributes.WeldInjectionPointAttributes;
@@ -103,6 +106,22 @@ class Probe {
 
     private final List<EventInfo> events;
 
+    // Only used if lock-free storage is enabled
+
+    private volatile RingBuffer<Invocation> invocationsBuffer;
+
+    private volatile RingBuffer<EventInfo> eventsBuffer;
+
+    // Sampling
+
+    private volatile int invocationSamplingRate;
+
+    private volatile int eventSamplingRate;
+
+    // Only used if aggregated statistics are enabled
+
+    private volatile InvocationStats invocationStats;
+
     // Comparators
 
     private final Comparator<Bean<?>> beanComparator;
@@ -168,6 +187,53 @@ class Probe {
             }
         };
         this.bootstrapStats = new BootstrapStats();
+        this.invocationSamplingRate = 1;
+        this.eventSamplingRate = 1;
+    }
+
+    /**
+     * Configures the storage of monitoring data. Should be called before any data is captured.
+     *
+     * @param configuration
+     */
+    void initStorage(WeldConfiguration configuration) {
+        if (configuration.getBooleanProperty(ConfigurationKey.PROBE_LOCK_FREE_STORAGE)) {
+            this.invocationsBuffer = new RingBuffer<>(DEFAULT_INVOCATIONS_LIMIT);
+            this.eventsBuffer = new RingBuffer<>(DEFAULT_EVENTS_LIMIT);
+        }
+        if (configuration.getBooleanProperty(ConfigurationKey.PROBE_INVOCATION_MONITOR_AGGREGATED_STATISTICS)) {
+            this.invocationStats = new InvocationStats(configuration.getIntegerProperty(ConfigurationKey.PROBE_INVOCATION_MONITOR_HISTOGRAM_PRECISION));
+        }
+        this.invocationSamplingRate = Math.max(0, configuration.getIntegerProperty(ConfigurationKey.PROBE_INVOCATION_MONITOR_SAMPLING_RATE));
+        this.eventSamplingRate = Math.max(1, configuration.getIntegerProperty(ConfigurationKey.PROBE_EVENT_MONITOR_SAMPLING_RATE));
+    }
+
+    /**
+     *
+     * @return <code>true</code> if a new invocation tree should be captured, <code>false</code> otherwise
+     */
+    boolean isInvocationSampled() {
+        return isSampled(invocationSamplingRate);
+    }
+
+    /**
+     *
+     * @return <code>true</code> if a fired event should be captured, <code>false</code> otherwise
+     */
+    boolean isEventSampled() {
+        return isSampled(eventSamplingRate);
+    }
+
+    private static boolean isSampled(int rate) {
+        return rate == 1 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+
+    /**
+     *
+     * @return the aggregated invocation statistics or <code>null</code> if not enabled
+     */
+    InvocationStats getInvocationStats() {
+        return invocationStats;
     }
 
     /**
@@ -336,6 +402,11 @@ class Probe {
         if (!invocation.isEntryPoint()) {
             throw new IllegalStateException("Invocation is not an entry point!");
         }
+        RingBuffer<Invocation> buffer = invocationsBuffer;
+        if (buffer != null) {
+            buffer.add(invocation);
+            return;
+        }
         // Remove some old data if the limit is exceeded
         if (invocations.size() > DEFAULT_INVOCATIONS_LIMIT) {
             synchronized (this) {
@@ -357,7 +428,8 @@ class Probe {
      * @return the sorted entry points (invocation trees)
      */
     List<Invocation> getInvocations() {
-        List<Invocation> sorted = new ArrayList<Invocation>(invocations.values());
+        RingBuffer<Invocation> buffer = invocationsBuffer;
+        List<Invocation> sorted = buffer != null ? buffer.getElements() : new ArrayList<Invocation>(invocations.values());
         Collections.sort(sorted, Invocation.Comparators.ENTRY_POINT_IDX);
         return sorted;
     }
@@ -369,7 +441,12 @@ class Probe {
      */
     Invocation getInvocation(String id) {
         try {
-            return invocations.get(Integer.valueOf(id));
+            Integer idx = Integer.valueOf(id);
+            RingBuffer<Invocation> buffer = invocationsBuffer;
+            if (buffer != null) {
+                return buffer.find((invocation) -> idx.equals(invocation.getEntryPointIdx()));
+            }
+            return invocations.get(idx);
         } catch (NumberFormatException e) {
             return null;
         }
@@ -379,12 +456,21 @@ class Probe {
    *
    */
     int clearInvocations() {
+        RingBuffer<Invocation> buffer = invocationsBuffer;
+        if (buffer != null) {
+            return buffer.clear();
+        }
         int size = invocations.size();
         invocations.clear();
         return size;
     }
 
     void addEvent(EventInfo event) {
+        RingBuffer<EventInfo> buffer = eventsBuffer;
+        if (buffer != null) {
+            buffer.add(event);
+            return;
+        }
         // Remove some old data if the limit is exceeded
         if (events.size() > DEFAULT_EVENTS_LIMIT) {
             synchronized (this) {
@@ -403,6 +489,10 @@ class Probe {
      * @return mutable copy of the captured event information
      */
     List<EventInfo> getEvents() {
+        RingBuffer<EventInfo> buffer = eventsBuffer;
+        if (buffer != null) {
+            return buffer.getElements();
+        }
         synchronized (events) {
             List<EventInfo> result = new ArrayList<>(events.size());
             for (ListIterator<EventInfo> iterator = events.listIterator(events.size()); iterator.hasPrevious();) {
@@ -417,6 +507,10 @@ class Probe {
      * @return the number of captured events before the state is cleared.
      */
     int clearEvents() {
+        RingBuffer<EventInfo> buffer = eventsBuffer;
+        if (buffer != null) {
+            return buffer.clear();
+        }
         synchronized (events) {
             int count = events.size();
             events.clear();
@@ -483,10 +577,15 @@ class Probe {
     }
 
     int getInvocationsCount() {
-        return invocations.size();
+        RingBuffer<Invocation> buffer = invocationsBuffer;
+        return buffer != null ? buffer.size() : invocations.size();
     }
 
     int getFiredEventsCount() {
+        RingBuffer<EventInfo> buffer = eventsBuffer;
+        if (buffer != null) {
+            return buffer.size();
+        }
         synchronized (events) {
             return events.size();
         }
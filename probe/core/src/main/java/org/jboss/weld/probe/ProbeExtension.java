@@ -117,6 +117,7 @@ public class ProbeExtension implements Extension {
         event.addAnnotatedType(VetoedSuppressedAnnotatedType.from(MonitoredComponent.class, beanManager), MonitoredComponent.class.getName());
         event.addAnnotatedType(VetoedSuppressedAnnotatedType.from(InvocationMonitor.class, beanManager), InvocationMonitor.class.getName());
         WeldConfiguration configuration = manager.getServices().get(WeldConfiguration.class);
+        probe.initStorage(configuration);
         String exclude = configuration.getStringProperty(ConfigurationKey.PROBE_INVOCATION_MONITOR_EXCLUDE_TYPE);
         this.invocationMonitorExcludePattern = exclude.isEmpty() ? null : Pattern.compile(exclude);
         this.jsonDataProvider = new DefaultJsonDataProvider(probe, manager);
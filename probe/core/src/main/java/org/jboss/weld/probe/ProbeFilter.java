@@ -158,8 +158,8 @@ public class ProbeFilter implements Filter {
             final Invocation.Builder builder;
             if (!skipMonitoring) {
                 // Don't initialize a new builder if an entry point already exists
-                builder = InvocationMonitor.initBuilder(false);
-                if (builder != null) {
+                builder = InvocationMonitor.initBuilder(probe, false);
+                if (builder != null && InvocationMonitor.isSampled(builder)) {
                     builder.setDeclaringClassName(ProbeFilter.class.getName());
                     builder.setStart(System.currentTimeMillis());
                     builder.setMethodName("doFilter");
@@ -191,32 +191,43 @@ public class ProbeFilter implements Filter {
             // Writer was used
             PrintWriter out = resp.getWriter();
             if (resp.getContentType() != null && resp.getContentType().startsWith(TEXT_HTML)) {
-                int idx = captured.indexOf("</body>");
-                if (idx == -1) {
-                    // </body> not found
-                    out.write(captured);
-                } else {
-                    CharArrayWriter writer = new CharArrayWriter();
-                    writer.write(captured.substring(0, idx));
-                    writer.write(snippetBase);
-                    if (builder != null && !builder.isIgnored()) {
-                        writer.write("See <a style=\"color:#337ab7;text-decoration:underline;\" href=\"");
-                        writer.write(req.getServletContext().getContextPath());
-                        // This path must be hardcoded unless we find an easy way to reference the client-specific configuration
-                        writer.write(REST_URL_PATTERN_BASE + "/#/invocation/");
-                        writer.write("" + builder.getEntryPointIdx());
-                        writer.write("\" target=\"_blank\">all bean invocations</a> within the HTTP request which rendered this page.");
-                    }
-                    writer.write("</div>");
-                    writer.write(captured.substring(idx, captured.length()));
-                    out.write(writer.toString());
-                }
+                out.write(embedInfoSnippet(captured, snippetBase, req.getServletContext().getContextPath(), builder));
             } else {
                 out.write(captured);
             }
         }
     }
 
+    /**
+     *
+     * @param captured
+     * @param snippetBase
+     * @param contextPath
+     * @param builder
+     * @return the page with the info snippet embedded, the invocation tree is only linked if captured
+     */
+    static String embedInfoSnippet(String captured, String snippetBase, String contextPath, Invocation.Builder builder) {
+        int idx = captured.indexOf("</body>");
+        if (idx == -1) {
+            // </body> not found
+            return captured;
+        }
+        CharArrayWriter writer = new CharArrayWriter();
+        writer.write(captured.substring(0, idx));
+        writer.write(snippetBase);
+        if (builder != null && InvocationMonitor.isSampled(builder) && !builder.isIgnored()) {
+            writer.write("See <a style=\"color:#337ab7;text-decoration:underline;\" href=\"");
+            writer.write(contextPath);
+            // This path must be hardcoded unless we find an easy way to reference the client-specific configuration
+            writer.write(REST_URL_PATTERN_BASE + "/#/invocation/");
+            writer.write("" + builder.getEntryPointIdx());
+            writer.write("\" target=\"_blank\">all bean invocations</a> within the HTTP request which rendered this page.");
+        }
+        writer.write("</div>");
+        writer.write(captured.substring(idx, captured.length()));
+        return writer.toString();
+    }
+
     private String getDescription(HttpServletRequest req) {
         StringBuilder builder = new StringBuilder();
         builder.append(req.getMethod());
@@ -101,6 +101,9 @@ class ProbeObserver implements ObserverMethod<Object>, Prioritized {
 
     @Override
     public void notify(Object event) {
+        if (!probe.isEventSampled()) {
+            return;
+        }
         EventMetadata metadata = currentEventMetadata.peek();
         if (excludePattern != null && excludePattern.matcher(Formats.formatType(metadata.getType(), false)).matches()) {
             ProbeLogger.LOG.eventExcluded(metadata.getType());
@@ -158,6 +158,21 @@ enum Resource {
             append(resp, jsonDataProvider.clearInvocations());
         }
     }),
+    /**
+     * Aggregated invocation statistics.
+     */
+    INVOCATION_STATS("/invocations/stats", new Handler() {
+        @Override
+        protected void get(JsonDataProvider jsonDataProvider, String[] resourcePathParts, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            appendFound(resp, jsonDataProvider.receiveInvocationStats());
+        }
+
+        @Override
+        protected void delete(JsonDataProvider jsonDataProvider, String[] resourcePathParts, HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            appendFound(resp, jsonDataProvider.clearInvocationStats());
+        }
+    }),
     /**
      * A single invocation tree.
      */
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.probe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import javax.enterprise.inject.Vetoed;
+
+/**
+ * A bounded lock-free ring buffer. Once the capacity is reached, a newly added element overwrites the oldest one.
+ * <p>
+ * Adding an element never blocks and does not allocate. The methods reading the contents of the buffer are weakly consistent, i.e. they may or may not
+ * reflect the modifications made concurrently.
+ * </p>
+ *
+ * @param <T> the element type
+ */
+@Vetoed
+final class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> elements;
+
+    private final AtomicLong sequence;
+
+    RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+        }
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequence = new AtomicLong();
+    }
+
+    /**
+     *
+     * @param element
+     */
+    void add(T element) {
+        long next = sequence.getAndIncrement();
+        elements.lazySet((int) (next % elements.length()), element);
+    }
+
+    /**
+     *
+     * @return a mutable list of elements, last added elements go first
+     */
+    List<T> getElements() {
+        int capacity = elements.length();
+        long end = sequence.get();
+        List<T> result = new ArrayList<>((int) Math.min(end, capacity));
+        for (long i = end - 1; i >= 0 && i >= end - capacity; i--) {
+            T element = elements.get((int) (i % capacity));
+            if (element != null) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @param predicate
+     * @return the last added element matching the given predicate or <code>null</code>
+     */
+    T find(Predicate<T> predicate) {
+        for (T element : getElements()) {
+            if (predicate.test(element)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     *
+     * @return the number of elements
+     */
+    int size() {
+        int size = 0;
+        for (int i = 0; i < elements.length(); i++) {
+            if (elements.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     *
+     * @return the number of elements removed
+     */
+    int clear() {
+        int removed = 0;
+        for (int i = 0; i < elements.length(); i++) {
+            if (elements.getAndSet(i, null) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+}
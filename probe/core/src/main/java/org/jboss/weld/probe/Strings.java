@@ -132,6 +132,14 @@ public final class Strings {
     public static final String INVERTED = "inverted";
     public static final String CLASS_AVAILABILITY = "classAvailability";
     public static final String SYS_PROPERTY = "sysProperty";
+    public static final String COUNT = "count";
+    public static final String TOTAL_TIME = "totalTime";
+    public static final String MEAN_TIME = "meanTime";
+    public static final String MAX_TIME = "maxTime";
+    public static final String PERCENTILE_50 = "p50";
+    public static final String PERCENTILE_90 = "p90";
+    public static final String PERCENTILE_99 = "p99";
+    public static final String REMOVED_INVOCATION_STATS = "removedInvocationStats";
 
     public static final String PAGE = "page";
     public static final String PAGE_SIZE = "pageSize";
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.probe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.jboss.weld.probe.InvocationStats.MethodStats;
+import org.junit.Test;
+
+public class InvocationStatsTest {
+
+    @Test
+    public void testBuckets() {
+        for (int precision = InvocationStats.MIN_PRECISION; precision <= InvocationStats.MAX_PRECISION; precision++) {
+            long previousUpperBound = -1;
+            for (int i = 0; i < InvocationStats.getBuckets(precision); i++) {
+                long upperBound = InvocationStats.getBucketUpperBound(i, precision);
+                assertTrue(upperBound > previousUpperBound);
+                // the lowest and the highest value of a bucket map to the same index
+                assertEquals(i, InvocationStats.getBucketIndex(previousUpperBound + 1, precision));
+                assertEquals(i, InvocationStats.getBucketIndex(upperBound, precision));
+                // the relative error does not exceed 2^-precision
+                long lowerBound = previousUpperBound + 1;
+                assertTrue(upperBound - lowerBound <= lowerBound >>> precision);
+                previousUpperBound = upperBound;
+            }
+            assertEquals(Long.MAX_VALUE, previousUpperBound);
+        }
+    }
+
+    @Test
+    public void testPrecision() throws NoSuchMethodException {
+        assertEquals(InvocationStats.DEFAULT_PRECISION, new InvocationStats().getPrecision());
+        assertEquals(InvocationStats.MIN_PRECISION, new InvocationStats(0).getPrecision());
+        assertEquals(InvocationStats.MAX_PRECISION, new InvocationStats(64).getPrecision());
+        Method method = String.class.getMethod("length");
+        for (int precision = InvocationStats.MIN_PRECISION; precision <= InvocationStats.MAX_PRECISION; precision++) {
+            MethodStats methodStats = new InvocationStats(precision).get(null, method);
+            // a single value between two powers of two
+            methodStats.record(1_500_000L);
+            methodStats.record(3_000_000L);
+            long median = methodStats.getPercentile(50);
+            assertTrue("Unexpected percentile value: " + median, median >= 1_500_000L && median - 1_500_000L <= 1_500_000L >>> precision);
+        }
+    }
+
+    @Test
+    public void testMethodStats() throws NoSuchMethodException {
+        Method method = String.class.getMethod("length");
+        InvocationStats stats = new InvocationStats();
+        MethodStats methodStats = stats.get(null, method);
+        assertSame(methodStats, stats.get(null, method));
+        assertEquals(String.class.getName(), methodStats.getDeclaringClassName());
+        assertEquals("length", methodStats.getMethodName());
+        assertFalse(methodStats.isConstructor());
+        assertEquals(0, methodStats.getPercentile(50));
+        for (int i = 1; i <= 100; i++) {
+            methodStats.record(i * 1000);
+        }
+        assertEquals(100, methodStats.getCount());
+        assertEquals(5050000, methodStats.getTotalTime());
+        assertEquals(50500, methodStats.getMeanTime());
+        assertEquals(100000, methodStats.getMaxTime());
+        assertPercentile(50000, methodStats.getPercentile(50));
+        assertPercentile(90000, methodStats.getPercentile(90));
+        assertPercentile(99000, methodStats.getPercentile(99));
+        assertEquals(100000, methodStats.getPercentile(100));
+        assertEquals(1, stats.getAll().size());
+        assertEquals(1, stats.clear());
+        assertTrue(stats.getAll().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final MethodStats methodStats = new InvocationStats().get(null, String.class.getMethod("length"));
+        final int threads = 4;
+        final int invocations = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> recorders = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread recorder = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 1; j <= invocations; j++) {
+                    methodStats.record(j);
+                }
+            });
+            recorder.start();
+            recorders.add(recorder);
+        }
+        start.countDown();
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        assertEquals(threads * invocations, methodStats.getCount());
+        assertEquals(threads * (long) invocations * (invocations + 1) / 2, methodStats.getTotalTime());
+        assertEquals(invocations, methodStats.getMaxTime());
+        assertPercentile(invocations / 2, methodStats.getPercentile(50));
+        assertEquals(invocations, methodStats.getPercentile(100));
+    }
+
+    private void assertPercentile(long expected, long actual) {
+        // the relative error must not exceed 2^-precision
+        assertTrue("Unexpected percentile value: " + actual, actual >= expected && actual - expected <= expected >>> InvocationStats.DEFAULT_PRECISION);
+    }
+
+}
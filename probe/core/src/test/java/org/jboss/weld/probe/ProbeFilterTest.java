@@ -17,8 +17,25 @@
 package org.jboss.weld.probe;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Collection;
+import java.util.Collections;
+
+import javax.enterprise.inject.spi.Extension;
+
+import org.jboss.weld.bootstrap.api.ServiceRegistry;
+import org.jboss.weld.bootstrap.api.helpers.SimpleServiceRegistry;
+import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
+import org.jboss.weld.bootstrap.spi.Deployment;
+import org.jboss.weld.bootstrap.spi.Metadata;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.config.WeldConfiguration;
+import org.jboss.weld.configuration.spi.ExternalConfiguration;
+import org.jboss.weld.configuration.spi.helpers.ExternalConfigurationBuilder;
 import org.junit.Test;
 
 /**
@@ -36,4 +53,71 @@ public class ProbeFilterTest {
         assertArrayEquals(new String[] {}, ProbeFilter.getResourcePathParts("/foo/weld-probe", "/foo"));
     }
 
+    @Test
+    public void testEmbedInfoSnippet() throws Exception {
+        String page = "<html><body>Hello</body></html>";
+        assertEquals("Hello", ProbeFilter.embedInfoSnippet("Hello", "<div>", "/foo", null));
+        assertEquals("<html><body>Hello<div></div></body></html>", ProbeFilter.embedInfoSnippet(page, "<div>", "/foo", null));
+        // Sampled request
+        Probe probe = new Probe();
+        Invocation.Builder builder = InvocationMonitor.initBuilder(probe, false);
+        assertTrue(InvocationMonitor.isSampled(builder));
+        new TestAction().perform(builder, probe, () -> {
+            String result = ProbeFilter.embedInfoSnippet(page, "<div>", "/foo", builder);
+            assertTrue(result, result.contains("/foo/weld-probe/#/invocation/" + builder.getEntryPointIdx()));
+        });
+        assertEquals(1, probe.getInvocations().size());
+    }
+
+    @Test
+    public void testEmbedInfoSnippetNotSampled() throws Exception {
+        String page = "<html><body>Hello</body></html>";
+        Probe probe = new Probe();
+        probe.initStorage(createConfiguration(ConfigurationKey.PROBE_INVOCATION_MONITOR_SAMPLING_RATE, 0));
+        Invocation.Builder builder = InvocationMonitor.initBuilder(probe, false);
+        assertFalse(InvocationMonitor.isSampled(builder));
+        new TestAction().perform(builder, probe, () -> {
+            // There is no invocation tree to link
+            assertEquals("<html><body>Hello<div></div></body></html>", ProbeFilter.embedInfoSnippet(page, "<div>", "/foo", builder));
+        });
+        assertTrue(probe.getInvocations().isEmpty());
+    }
+
+    private static WeldConfiguration createConfiguration(ConfigurationKey key, Object value) {
+        ServiceRegistry services = new SimpleServiceRegistry();
+        services.add(ExternalConfiguration.class, new ExternalConfigurationBuilder().add(key.get(), value).build());
+        return new WeldConfiguration(services, new Deployment() {
+
+            @Override
+            public Collection<BeanDeploymentArchive> getBeanDeploymentArchives() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public BeanDeploymentArchive loadBeanDeploymentArchive(Class<?> beanClass) {
+                return null;
+            }
+
+            @Override
+            public ServiceRegistry getServices() {
+                return services;
+            }
+
+            @Override
+            public Iterable<Metadata<Extension>> getExtensions() {
+                return Collections.emptySet();
+            }
+        });
+    }
+
+    private static class TestAction extends InvocationMonitor.Action<Runnable> {
+
+        @Override
+        protected Object proceed(Runnable context) throws Exception {
+            context.run();
+            return null;
+        }
+
+    }
+
 }
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.probe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void testAddAndGetElements() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertTrue(buffer.getElements().isEmpty());
+        buffer.add(1);
+        buffer.add(2);
+        assertEquals(Arrays.asList(2, 1), buffer.getElements());
+        assertEquals(2, buffer.size());
+        buffer.add(3);
+        buffer.add(4);
+        buffer.add(5);
+        // the oldest elements are overwritten
+        assertEquals(Arrays.asList(5, 4, 3), buffer.getElements());
+        assertEquals(3, buffer.size());
+        assertEquals(Integer.valueOf(4), buffer.find((i) -> i % 2 == 0));
+        assertNull(buffer.find((i) -> i > 10));
+    }
+
+    @Test
+    public void testClear() {
+        RingBuffer<String> buffer = new RingBuffer<>(10);
+        buffer.add("foo");
+        buffer.add("bar");
+        assertEquals(2, buffer.clear());
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.getElements().isEmpty());
+        buffer.add("baz");
+        assertEquals(Arrays.asList("baz"), buffer.getElements());
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.decorators.chain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.bean.proxy.DecoratorChainProxyFactory;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.test.util.Utils;
+import org.jboss.weld.tests.util.PropertiesBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * If {@link ConfigurationKey#PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH} is enabled, each decorator of a bean has its own chain proxy class.
+ * {@link FirstDecorator} is the second decorator of {@link English} and the first decorator of {@link German}.
+ */
+@RunWith(Arquillian.class)
+public class DecoratorChainTest {
+
+    @Deployment
+    public static Archive<?> deploy() {
+        return ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(DecoratorChainTest.class))
+                .decorate(ZerothDecorator.class, FirstDecorator.class, SecondDecorator.class).addPackage(DecoratorChainTest.class.getPackage())
+                .addAsResource(PropertiesBuilder.newBuilder().set(ConfigurationKey.PROXY_DECORATOR_CHAIN_DIRECT_DISPATCH.get(), "true").build(),
+                        "weld.properties");
+    }
+
+    @Inject
+    English english;
+
+    @Inject
+    German german;
+
+    @Test
+    public void testMultipleDecorators() {
+        // ZerothDecorator does not decorate greet(), SecondDecorator does not decorate farewell()
+        assertEquals("first second Hello Martin", english.greet("Martin"));
+        assertEquals("zeroth Bye Martin", english.farewell("Martin"));
+        assertEquals("first second Hello Martin", english.self().greet("Martin"));
+    }
+
+    @Test
+    public void testDecoratorAtDifferentPosition() {
+        assertEquals("first Hallo Martin", german.greet("Martin"));
+        assertEquals("first Hallo Martin", german.self().greet("Martin"));
+        // The proxy classes are not shared
+        assertEquals("first second Hello Martin", english.greet("Martin"));
+    }
+
+    @Test
+    public void testChainProxyClasses() {
+        english.greet("Martin");
+        Class<?> englishDelegateClass = FirstDecorator.lastDelegateClass;
+        german.greet("Martin");
+        Class<?> germanDelegateClass = FirstDecorator.lastDelegateClass;
+        assertTrue(englishDelegateClass.getName(), englishDelegateClass.getName().contains(DecoratorChainProxyFactory.PROXY_SUFFIX));
+        assertTrue(germanDelegateClass.getName(), germanDelegateClass.getName().contains(DecoratorChainProxyFactory.PROXY_SUFFIX));
+        assertNotEquals(englishDelegateClass, germanDelegateClass);
+    }
+
+}
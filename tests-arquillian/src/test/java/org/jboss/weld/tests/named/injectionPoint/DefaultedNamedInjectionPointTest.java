@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.named.injectionPoint;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.BeanArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.weld.test.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Injection points with an {@link javax.inject.Named} qualifier with no value are not equivalent even if the required type is the same (WELD-1739).
+ */
+@RunWith(Arquillian.class)
+public class DefaultedNamedInjectionPointTest {
+
+    @Deployment
+    public static Archive<?> createTestArchive() {
+        return ShrinkWrap.create(BeanArchive.class, Utils.getDeploymentNameAsHash(DefaultedNamedInjectionPointTest.class))
+                .addClasses(Producers.class, AlphaConsumer.class, BravoConsumer.class);
+    }
+
+    @Inject
+    AlphaConsumer alphaConsumer;
+
+    @Inject
+    BravoConsumer bravoConsumer;
+
+    @Test
+    public void testInjection() {
+        assertEquals("alpha", alphaConsumer.get());
+        assertEquals("bravo", bravoConsumer.get());
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.unit.ejb.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartBean implements Cart {
+
+    private final List<String> items = new ArrayList<String>();
+
+    private boolean checkedOutThroughMethodHandler;
+
+    @Override
+    public int add(String item) {
+        items.add(item);
+        return items.size();
+    }
+
+    @Override
+    public List<String> getItems() {
+        return new ArrayList<String>(items);
+    }
+
+    @Override
+    public void checkout() {
+        checkedOutThroughMethodHandler = Dispatch.isThroughMethodHandler();
+    }
+
+    @Override
+    public boolean isCheckedOutThroughMethodHandler() {
+        return checkedOutThroughMethodHandler;
+    }
+
+    @Override
+    public boolean isDispatchedThroughMethodHandler() {
+        return Dispatch.isThroughMethodHandler();
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.unit.ejb.dispatch;
+
+final class Dispatch {
+
+    private static final String METHOD_HANDLER_CLASS_NAME = "org.jboss.weld.module.ejb.EnterpriseBeanProxyMethodHandler";
+
+    private Dispatch() {
+    }
+
+    /**
+     *
+     * @return <code>true</code> if the current business method invocation was dispatched through the method handler of the proxy
+     */
+    static boolean isThroughMethodHandler() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (METHOD_HANDLER_CLASS_NAME.equals(element.getClassName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,339 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.unit.ejb.dispatch;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionTarget;
+import javax.enterprise.inject.spi.SessionBeanType;
+
+import org.jboss.arquillian.container.weld.embedded.mock.BeanDeploymentArchiveImpl;
+import org.jboss.arquillian.container.weld.embedded.mock.FlatDeployment;
+import org.jboss.arquillian.container.weld.embedded.mock.TestContainer;
+import org.jboss.weld.bootstrap.api.Environment;
+import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
+import org.jboss.weld.bootstrap.spi.Deployment;
+import org.jboss.weld.config.ConfigurationKey;
+import org.jboss.weld.ejb.api.SessionObjectReference;
+import org.jboss.weld.ejb.spi.BusinessInterfaceDescriptor;
+import org.jboss.weld.ejb.spi.EjbDescriptor;
+import org.jboss.weld.ejb.spi.EjbServices;
+import org.jboss.weld.ejb.spi.InterceptorBindings;
+import org.jboss.weld.logging.BeanLogger;
+import org.jboss.weld.manager.BeanManagerImpl;
+import org.jboss.weld.util.collections.ImmutableSet;
+import org.jboss.weld.util.reflection.Reflections;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies the session bean client proxy methods generated if {@link ConfigurationKey#PROXY_EJB_DIRECT_DISPATCH} is enabled. If trace logging is enabled,
+ * the invocations are dispatched through the method handler so that they are logged.
+ */
+public class EnterpriseDirectDispatchTest {
+
+    private TestContainer container;
+
+    private BeanManagerImpl manager;
+
+    private TestEjbServices ejbServices;
+
+    @BeforeClass
+    public void prepareContainer() throws NoSuchMethodException {
+        final EjbDescriptor<OperationsBean> operationsDescriptor = new EjbDescriptorImpl<OperationsBean>(OperationsBean.class, Operations.class,
+                SessionBeanType.STATELESS, Collections.<Method> emptyList());
+        final EjbDescriptor<CartBean> cartDescriptor = new EjbDescriptorImpl<CartBean>(CartBean.class, Cart.class, SessionBeanType.STATEFUL,
+                Collections.singletonList(CartBean.class.getMethod("checkout")));
+        final BeanDeploymentArchive bda = new BeanDeploymentArchiveImpl("1", Operations.class, OperationsBean.class, Cart.class, CartBean.class,
+                Client.class) {
+            @Override
+            public Collection<EjbDescriptor<?>> getEjbs() {
+                return ImmutableSet.<EjbDescriptor<?>> of(operationsDescriptor, cartDescriptor);
+            }
+        };
+        ejbServices = new TestEjbServices();
+        final Deployment deployment = new FlatDeployment(bda) {
+            @Override
+            public BeanDeploymentArchive loadBeanDeploymentArchive(Class<?> beanClass) {
+                return bda;
+            }
+
+            @Override
+            protected void configureServices(Environment environment) {
+                super.configureServices(environment);
+                getServices().add(EjbServices.class, ejbServices);
+            }
+        };
+        System.setProperty(ConfigurationKey.PROXY_EJB_DIRECT_DISPATCH.get(), "true");
+        try {
+            container = new TestContainer(deployment).startContainer();
+        } finally {
+            System.clearProperty(ConfigurationKey.PROXY_EJB_DIRECT_DISPATCH.get());
+        }
+        manager = (BeanManagerImpl) container.getBeanManager(bda);
+        ejbServices.manager = manager;
+    }
+
+    @AfterClass
+    public void cleanup() {
+        container.stopContainer();
+    }
+
+    @Test
+    public void testDirectDispatch() {
+        Operations operations = getReference(Operations.class);
+        assertEquals(operations.isDispatchedThroughMethodHandler(), BeanLogger.LOG.isTraceEnabled());
+        // Object methods are always dispatched through the method handler
+        assertTrue(operations.toString() != null);
+    }
+
+    @Test
+    public void testVoidAndPrimitiveParameters() {
+        Operations operations = getReference(Operations.class);
+        operations.reset();
+        assertEquals(operations.getCalls(), 0);
+        assertEquals(operations.add(2, 3), 5);
+        assertEquals(operations.multiply(Long.MAX_VALUE / 2, 2L), Long.MAX_VALUE - 1);
+        assertEquals(operations.scale(1.5d, 4L, 1), 7.0d, 0.0d);
+        assertEquals(operations.concat("a", 1L, 0.5d, "b"), "a1:0.5b");
+        assertEquals(operations.convert((byte) 1, (short) 2, 'c', 0.5f, true), "1,2,c,0.5,true");
+        assertTrue(Arrays.equals(operations.reverse(new int[] { 1, 2, 3 }), new int[] { 3, 2, 1 }));
+        assertEquals(operations.getCalls(), 6);
+        operations.reset();
+        assertEquals(operations.getCalls(), 0);
+    }
+
+    @Test
+    public void testExceptions() {
+        Operations operations = getReference(Operations.class);
+        try {
+            operations.fail("checked");
+            fail();
+        } catch (BusinessException expected) {
+            assertEquals(expected.getMessage(), "checked");
+        }
+        try {
+            operations.failUnchecked("unchecked");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(expected.getMessage(), "unchecked");
+        }
+        // The proxy still works after an exception
+        assertEquals(operations.add(1, 1), 2);
+    }
+
+    @Test
+    public void testInjectionPointPropagation() {
+        Operations injected = getReference(Client.class).getOperations();
+        assertEquals(injected.getInjectionPointMember(), "operations");
+        // The injection point is removed when the invocation completes, even if it completes abruptly
+        try {
+            injected.fail("checked");
+            fail();
+        } catch (BusinessException expected) {
+        }
+        try {
+            injected.failUnchecked("unchecked");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertNull(getReference(Operations.class).getInjectionPointMember());
+        assertEquals(injected.getInjectionPointMember(), "operations");
+    }
+
+    @Test
+    public void testStatefulRemoval() {
+        Bean<Cart> bean = Reflections.cast(manager.resolve(manager.getBeans(Cart.class)));
+        CreationalContext<Cart> ctx = manager.createCreationalContext(bean);
+        Cart cart = Reflections.cast(manager.getReference(bean, Cart.class, ctx));
+        assertEquals(cart.isDispatchedThroughMethodHandler(), BeanLogger.LOG.isTraceEnabled());
+        assertEquals(cart.add("apple"), 1);
+        assertEquals(cart.add("pear"), 2);
+        assertEquals(cart.getItems(), Arrays.asList("apple", "pear"));
+        // Remove methods are always dispatched through the method handler
+        cart.checkout();
+        assertTrue(cart.isCheckedOutThroughMethodHandler());
+
+        TestSessionObjectReference reference = ejbServices.getReference(CartBean.class);
+        assertFalse(reference.isRemoved());
+        bean.destroy(cart, ctx);
+        assertTrue(reference.isRemoved());
+        assertTrue(cart.toString().endsWith("[REMOVED]"), cart.toString());
+    }
+
+    private <T> T getReference(Class<T> type) {
+        Bean<?> bean = manager.resolve(manager.getBeans(type));
+        return type.cast(manager.getReference(bean, type, manager.createCreationalContext(bean)));
+    }
+
+    private static class TestEjbServices implements EjbServices {
+
+        private final List<TestSessionObjectReference> references = Collections.synchronizedList(new ArrayList<TestSessionObjectReference>());
+
+        private volatile BeanManagerImpl manager;
+
+        @Override
+        public SessionObjectReference resolveEjb(EjbDescriptor<?> ejbDescriptor) {
+            // The business object is created by Weld so that the injection point metadata is injected
+            InjectionTarget<?> injectionTarget = manager.createInjectionTarget(ejbDescriptor);
+            CreationalContext<Object> ctx = manager.createCreationalContext(null);
+            Object businessObject = injectionTarget.produce(Reflections.cast(ctx));
+            Reflections.<InjectionTarget<Object>> cast(injectionTarget).inject(businessObject, ctx);
+            TestSessionObjectReference reference = new TestSessionObjectReference(businessObject);
+            references.add(reference);
+            return reference;
+        }
+
+        TestSessionObjectReference getReference(Class<?> beanClass) {
+            synchronized (references) {
+                for (TestSessionObjectReference reference : references) {
+                    if (reference.businessObject.getClass().equals(beanClass)) {
+                        return reference;
+                    }
+                }
+            }
+            throw new IllegalStateException("No reference for " + beanClass);
+        }
+
+        @Override
+        public void registerInterceptors(EjbDescriptor<?> ejbDescriptor, InterceptorBindings interceptorBindings) {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+
+    }
+
+    private static class TestSessionObjectReference implements SessionObjectReference {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Object businessObject;
+
+        private volatile boolean removed;
+
+        TestSessionObjectReference(Object businessObject) {
+            this.businessObject = businessObject;
+        }
+
+        @Override
+        public <S> S getBusinessObject(Class<S> businessInterfaceType) {
+            if (removed) {
+                throw new IllegalStateException("Removed");
+            }
+            return businessInterfaceType.cast(businessObject);
+        }
+
+        @Override
+        public void remove() {
+            removed = true;
+        }
+
+        @Override
+        public boolean isRemoved() {
+            return removed;
+        }
+
+    }
+
+    private static class EjbDescriptorImpl<T> implements EjbDescriptor<T> {
+
+        private final Class<T> beanClass;
+        private final Class<?> localInterface;
+        private final SessionBeanType type;
+        private final Collection<Method> removeMethods;
+
+        EjbDescriptorImpl(Class<T> beanClass, Class<?> localInterface, SessionBeanType type, Collection<Method> removeMethods) {
+            this.beanClass = beanClass;
+            this.localInterface = localInterface;
+            this.type = type;
+            this.removeMethods = removeMethods;
+        }
+
+        @Override
+        public Class<T> getBeanClass() {
+            return beanClass;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Collection<BusinessInterfaceDescriptor<?>> getLocalBusinessInterfaces() {
+            return Collections.<BusinessInterfaceDescriptor<?>> singleton(new BusinessInterfaceDescriptor() {
+                @Override
+                public Class getInterface() {
+                    return localInterface;
+                }
+            });
+        }
+
+        @Override
+        public Collection<BusinessInterfaceDescriptor<?>> getRemoteBusinessInterfaces() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getEjbName() {
+            return beanClass.getSimpleName();
+        }
+
+        @Override
+        public Collection<Method> getRemoveMethods() {
+            return removeMethods;
+        }
+
+        @Override
+        public boolean isStateless() {
+            return SessionBeanType.STATELESS.equals(type);
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return SessionBeanType.SINGLETON.equals(type);
+        }
+
+        @Override
+        public boolean isStateful() {
+            return SessionBeanType.STATEFUL.equals(type);
+        }
+
+        @Override
+        public boolean isMessageDriven() {
+            return false;
+        }
+
+        @Override
+        public boolean isPassivationCapable() {
+            return SessionBeanType.STATEFUL.equals(type);
+        }
+    }
+
+}
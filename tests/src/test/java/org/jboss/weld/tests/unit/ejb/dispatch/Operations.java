@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.unit.ejb.dispatch;
+
+public interface Operations {
+
+    void reset();
+
+    int getCalls();
+
+    int add(int a, int b);
+
+    long multiply(long a, long b);
+
+    double scale(double value, long factor, int offset);
+
+    String concat(String prefix, long number, double decimal, String suffix);
+
+    String convert(byte b, short s, char c, float f, boolean flag);
+
+    int[] reverse(int[] values);
+
+    void fail(String message) throws BusinessException;
+
+    void failUnchecked(String message);
+
+    String getInjectionPointMember();
+
+    boolean isDispatchedThroughMethodHandler();
+
+}
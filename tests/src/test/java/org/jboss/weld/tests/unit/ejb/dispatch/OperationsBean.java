@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.weld.tests.unit.ejb.dispatch;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.inject.Inject;
+
+public class OperationsBean implements Operations {
+
+    @Inject
+    InjectionPoint injectionPoint;
+
+    private int calls;
+
+    @Override
+    public void reset() {
+        calls = 0;
+    }
+
+    @Override
+    public int getCalls() {
+        return calls;
+    }
+
+    @Override
+    public int add(int a, int b) {
+        calls++;
+        return a + b;
+    }
+
+    @Override
+    public long multiply(long a, long b) {
+        calls++;
+        return a * b;
+    }
+
+    @Override
+    public double scale(double value, long factor, int offset) {
+        calls++;
+        return value * factor + offset;
+    }
+
+    @Override
+    public String concat(String prefix, long number, double decimal, String suffix) {
+        calls++;
+        return prefix + number + ":" + decimal + suffix;
+    }
+
+    @Override
+    public String convert(byte b, short s, char c, float f, boolean flag) {
+        calls++;
+        return b + "," + s + "," + c + "," + f + "," + flag;
+    }
+
+    @Override
+    public int[] reverse(int[] values) {
+        calls++;
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[values.length - 1 - i];
+        }
+        return result;
+    }
+
+    @Override
+    public void fail(String message) throws BusinessException {
+        calls++;
+        throw new BusinessException(message);
+    }
+
+    @Override
+    public void failUnchecked(String message) {
+        calls++;
+        throw new IllegalArgumentException(message);
+    }
+
+    @Override
+    public String getInjectionPointMember() {
+        return injectionPoint.getMember() != null ? injectionPoint.getMember().getName() : null;
+    }
+
+    @Override
+    public boolean isDispatchedThroughMethodHandler() {
+        return Dispatch.isThroughMethodHandler();
+    }
+
+}